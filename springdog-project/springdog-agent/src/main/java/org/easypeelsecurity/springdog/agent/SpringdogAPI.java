@@ -18,15 +18,37 @@ package org.easypeelsecurity.springdog.agent;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import org.easypeelsecurity.springdog.agent.export.ExportColumn;
+import org.easypeelsecurity.springdog.agent.export.ExportColumns;
+import org.easypeelsecurity.springdog.agent.export.ExportFormat;
+import org.easypeelsecurity.springdog.agent.export.ExportWriter;
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
 import org.easypeelsecurity.springdog.domain.statistics.StatisticsService;
 import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
+import org.easypeelsecurity.springdog.shared.util.Assert;
 
 /**
  * RestController for springdog.
@@ -38,10 +60,13 @@ public class SpringdogAPI extends SpringdogAPIExceptionHandler {
 
   private final ExceptionListingService exceptionListingService;
   private final StatisticsService statisticsService;
+  private final SpringdogWriteQueue writeQueue;
 
-  public SpringdogAPI(ExceptionListingService exceptionListingService, StatisticsService statisticsService) {
+  public SpringdogAPI(ExceptionListingService exceptionListingService, StatisticsService statisticsService,
+      SpringdogWriteQueue writeQueue) {
     this.exceptionListingService = exceptionListingService;
     this.statisticsService = statisticsService;
+    this.writeQueue = writeQueue;
   }
 
   @org.springframework.web.bind.annotation.ResponseStatus(NO_CONTENT)
@@ -62,6 +87,66 @@ public class SpringdogAPI extends SpringdogAPIExceptionHandler {
   @PostMapping("/system-watch/{metricId}/memo")
   public void addMemo(@PathVariable("metricId") Long metricId,
       @RequestParam("description") String description) {
-    statisticsService.changeMemo(metricId, description);
+    Assert.isTrue(statisticsService.existsSystemMetric(metricId), "System metric not found");
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC_MEMO, () -> statisticsService.changeMemo(metricId, description));
+  }
+
+  @GetMapping("/system-watch/metrics")
+  public CommonResponse<List<SystemMetricDto>> getSystemMetrics(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(name = "bucketSeconds", defaultValue = "60") long bucketSeconds) {
+    Duration bucket = Duration.ofSeconds(bucketSeconds);
+    return new CommonResponse<>(statisticsService.getSystemMetrics(from, to, bucket));
+  }
+
+  @GetMapping("/export/system-metrics")
+  public void exportSystemMetrics(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(name = "format", defaultValue = "ndjson") String format,
+      HttpServletResponse response) throws IOException {
+    Assert.isTrue(from.isBefore(to), "from must be before to");
+    export(response, format, "system-metrics", ExportColumns.SYSTEM_METRIC,
+        writer -> statisticsService.exportSystemMetrics(from, to, writer));
+  }
+
+  @GetMapping("/export/endpoint-metrics")
+  public void exportEndpointMetrics(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(name = "format", defaultValue = "ndjson") String format,
+      HttpServletResponse response) throws IOException {
+    Assert.isTrue(from.isBefore(to), "from must be before to");
+    export(response, format, "endpoint-metrics", ExportColumns.ENDPOINT_METRIC,
+        writer -> statisticsService.exportEndpointMetrics(from, to, writer));
+  }
+
+  @GetMapping("/export/error-traces")
+  public void exportErrorTraces(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(name = "format", defaultValue = "ndjson") String format,
+      HttpServletResponse response) throws IOException {
+    Assert.isTrue(from.isBefore(to), "from must be before to");
+    export(response, format, "error-traces", ExportColumns.ERROR_TRACE,
+        writer -> exceptionListingService.exportErrorTraces(from, to, writer));
+  }
+
+  /**
+   * Streams rows straight to the response body, so an export never holds more than one page in memory.
+   */
+  private <T> void export(HttpServletResponse response, String format, String name,
+      List<ExportColumn<T>> columns, Consumer<Consumer<T>> source) throws IOException {
+    ExportFormat exportFormat = ExportFormat.resolve(format);
+    response.setContentType(exportFormat.getContentType());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"springdog-" + name + "." + exportFormat.getExtension() + "\"");
+    try (ExportWriter<T> writer = exportFormat.open(
+        new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)),
+        columns)) {
+      source.accept(writer::write);
+    }
   }
 }
@@ -26,8 +26,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 /**
  * Springdog API Exception Handler.
+ * The Springdog API controllers extend it, so an invalid input returns 400 instead of 500.
  */
-abstract class SpringdogAPIExceptionHandler {
+public abstract class SpringdogAPIExceptionHandler {
   /**
    * If an Exception related invalid input is thrown, return an error message conforming to the Response
    * specification.
@@ -18,7 +18,9 @@ package org.easypeelsecurity.springdog.agent;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -32,14 +34,20 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
 import org.easypeelsecurity.springdog.domain.ratelimit.EndpointService;
 import org.easypeelsecurity.springdog.domain.statistics.StatisticsService;
 import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
-import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingPageDto;
+import org.easypeelsecurity.springdog.shared.enums.SamplingMode;
+import org.easypeelsecurity.springdog.shared.settings.ExceptionSpikeSetting;
 import org.easypeelsecurity.springdog.shared.settings.NotificationGlobalSetting;
+import org.easypeelsecurity.springdog.shared.settings.RequestSamplingSetting;
+import org.easypeelsecurity.springdog.shared.settings.RetentionSetting;
+import org.easypeelsecurity.springdog.shared.settings.SamplingRule;
 import org.easypeelsecurity.springdog.shared.settings.SlowResponseSetting;
 import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManagerImpl;
 import org.easypeelsecurity.springdog.shared.settings.SystemWatchSetting;
@@ -52,6 +60,7 @@ import org.easypeelsecurity.springdog.shared.util.Assert;
 @SpringdogAgentController
 @SuppressWarnings("checkstyle:MissingJavadocMethod")
 public class SpringdogAgentView {
+  private static final int ERROR_TRACE_PAGE_SIZE = 20;
 
   SecurityContextLogoutHandler logoutHandler = new SecurityContextLogoutHandler();
   @Autowired
@@ -92,6 +101,7 @@ public class SpringdogAgentView {
     model.addAttribute("recentEndpointMetrics", dashboard.dailyEndpointMetrics());
     model.addAttribute("dailyTopTraffic", dashboard.dailyTopTrafficEndpoints());
     model.addAttribute("dailyTopFailure", dashboard.dailyTopFailEndpoints());
+    model.addAttribute("dailyTopErrorRate", dashboard.dailyTopErrorRateEndpoints());
     model.addAttribute("dailySlowestEndpoints", dashboard.dailySlowestEndpoints());
     return "/templates/content/main.html";
   }
@@ -120,6 +130,7 @@ public class SpringdogAgentView {
     EndpointDto endpointDto = endpointService.findEndpoint(endpointId);
     model.addAttribute("endpoint", endpointDto);
     model.addAttribute("statics", statisticsService.getRecentEndpointMetric(endpointId, 10));
+    model.addAttribute("statusCodes", statisticsService.getTopStatusCodes(endpointId, 10, 5));
 
     return "/templates/content/rate-limit/actions/analytics.html";
   }
@@ -207,10 +218,38 @@ public class SpringdogAgentView {
     return notificationSlowResponseView(model);
   }
 
+  @GetMapping("/notification/exception-spike")
+  public String notificationExceptionSpikeView(Model model) {
+    model.addAttribute("exceptionSpikeConfiguration", settingManager.getSettings().getExceptionSpikeSetting());
+    return "/templates/content/notification/exception-spike.html";
+  }
+
+  @PostMapping("/notification/exception-spike")
+  public String notificationExceptionSpikeSettingUpdate(Model model,
+      @ModelAttribute("exceptionSpikeConfiguration") ExceptionSpikeSetting newSetting) {
+    try {
+      settingManager.updateExceptionSpikeSetting(newSetting);
+    } catch (Exception e) {
+      model.addAttribute("result", false);
+      model.addAttribute("message", e.getMessage());
+      return notificationExceptionSpikeView(model);
+    }
+
+    model.addAttribute("result", true);
+    model.addAttribute("message", "Successfully updated");
+    return notificationExceptionSpikeView(model);
+  }
+
   @GetMapping("/error-tracing")
-  public String errorTracingHome(Model model) {
-    List<ErrorTracingDto> causes = exceptionListingService.getAllParentCauses();
-    model.addAttribute("causes", causes);
+  public String errorTracingHome(Model model, @RequestParam(value = "before", required = false) Long beforeId) {
+    ErrorTracingPageDto page = exceptionListingService.getParentCauses(beforeId, ERROR_TRACE_PAGE_SIZE);
+    model.addAttribute("causes", page.causes());
+    model.addAttribute("nextBeforeId", page.nextBeforeId());
+    model.addAttribute("firstPage", beforeId == null);
+    model.addAttribute("exceptionGroups", exceptionListingService.getRecentExceptionGroups(100));
+    model.addAttribute("throttledOccurrenceCount", exceptionListingService.getThrottledOccurrenceCount());
+    model.addAttribute("capturesPerWindow", properties.getErrorTracingCapturesPerWindow());
+    model.addAttribute("captureWindowSeconds", properties.getErrorTracingCaptureWindowSeconds());
     return "/templates/content/error-tracing/list.html";
   }
 
@@ -226,6 +265,75 @@ public class SpringdogAgentView {
     return "/templates/content/system-watch/metrics.html";
   }
 
+  @GetMapping("/service/request-sampling")
+  public String requestSamplingView(Model model) {
+    RequestSamplingSetting setting = settingManager.getSettings().getRequestSamplingSetting();
+    model.addAttribute("samplingConfiguration", setting.getGlobalRule());
+    model.addAttribute("endpointRules", setting.getEndpointRules());
+    model.addAttribute("endpoints", endpointService.findAllEndpoints());
+    model.addAttribute("samplingModes", SamplingMode.values());
+    return "/templates/content/service/request-sampling.html";
+  }
+
+  @PostMapping("/service/request-sampling")
+  public String requestSamplingUpdate(Model model,
+      @ModelAttribute("samplingConfiguration") SamplingRule newRule) {
+    return updateRequestSampling(model, setting -> setting.setGlobalRule(newRule));
+  }
+
+  @PostMapping("/service/request-sampling/endpoint")
+  public String requestSamplingEndpointUpdate(Model model,
+      @RequestParam("methodSignature") String methodSignature, @ModelAttribute SamplingRule newRule) {
+    return updateRequestSampling(model, setting -> setting.getEndpointRules().put(methodSignature, newRule));
+  }
+
+  @PostMapping("/service/request-sampling/endpoint/delete")
+  public String requestSamplingEndpointDelete(Model model,
+      @RequestParam("methodSignature") String methodSignature) {
+    return updateRequestSampling(model, setting -> setting.getEndpointRules().remove(methodSignature));
+  }
+
+  private String updateRequestSampling(Model model, Consumer<RequestSamplingSetting> change) {
+    RequestSamplingSetting existSetting = settingManager.getSettings().getRequestSamplingSetting();
+    RequestSamplingSetting newSetting = new RequestSamplingSetting();
+    newSetting.setGlobalRule(existSetting.getGlobalRule());
+    newSetting.setEndpointRules(new HashMap<>(existSetting.getEndpointRules()));
+    change.accept(newSetting);
+    try {
+      settingManager.updateRequestSamplingSetting(newSetting);
+    } catch (Exception e) {
+      model.addAttribute("result", false);
+      model.addAttribute("message", e.getMessage());
+      return requestSamplingView(model);
+    }
+
+    model.addAttribute("result", true);
+    model.addAttribute("message", "Successfully updated");
+    return requestSamplingView(model);
+  }
+
+  @GetMapping("/service/retention")
+  public String retentionView(Model model) {
+    model.addAttribute("retentionConfiguration", settingManager.getSettings().getRetentionSetting());
+    return "/templates/content/service/retention.html";
+  }
+
+  @PostMapping("/service/retention")
+  public String retentionSettingUpdate(Model model,
+      @ModelAttribute("retentionConfiguration") RetentionSetting newSetting) {
+    try {
+      settingManager.updateRetentionSetting(newSetting);
+    } catch (Exception e) {
+      model.addAttribute("result", false);
+      model.addAttribute("message", e.getMessage());
+      return retentionView(model);
+    }
+
+    model.addAttribute("result", true);
+    model.addAttribute("message", "Successfully updated");
+    return retentionView(model);
+  }
+
   @GetMapping("/service/change-pw")
   public String changePW() {
     return "/templates/content/service/change-pw.html";
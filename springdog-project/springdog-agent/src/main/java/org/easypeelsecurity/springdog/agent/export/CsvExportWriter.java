@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.agent.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes comma-separated values as specified by <a href="https://datatracker.ietf.org/doc/html/rfc4180">RFC 4180</a>,
+ * with a header line holding the column names.
+ *
+ * @author PENEKhun
+ * @param <T> the type of the rows
+ */
+class CsvExportWriter<T> extends ExportWriter<T> {
+  private static final String LINE_SEPARATOR = "\r\n";
+
+  CsvExportWriter(Writer writer, List<ExportColumn<T>> columns) throws IOException {
+    super(writer, columns);
+    for (int i = 0; i < columns().size(); i++) {
+      writeField(i, columns().get(i).name());
+    }
+    writer().write(LINE_SEPARATOR);
+  }
+
+  @Override
+  void writeRow(T row) throws IOException {
+    for (int i = 0; i < columns().size(); i++) {
+      Object value = columns().get(i).read(row);
+      writeField(i, value == null ? "" : value.toString());
+    }
+    writer().write(LINE_SEPARATOR);
+  }
+
+  private void writeField(int index, String value) throws IOException {
+    if (index > 0) {
+      writer().write(',');
+    }
+    if (!needsQuotes(value)) {
+      writer().write(value);
+      return;
+    }
+    writer().write('"');
+    writer().write(value.replace("\"", "\"\""));
+    writer().write('"');
+  }
+
+  private static boolean needsQuotes(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.agent.export;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.function.Function;
+
+/**
+ * A column of an export: its name and how to read its value from a row.
+ *
+ * @author PENEKhun
+ * @param name  the name of the column, used as CSV header and JSON field name
+ * @param value reads the value of the column from a row, {@code null} for none
+ * @param <T>   the type of the rows
+ */
+public record ExportColumn<T>(String name, Function<T, Object> value) {
+
+  /**
+   * Reads the value of this column from a row. Dates and times are returned in their ISO-8601 form.
+   *
+   * @param row the row
+   * @return the value, a {@link String}, a {@link Number}, a {@link Boolean} or {@code null}
+   */
+  public Object read(T row) {
+    Object result = value.apply(row);
+    if (result instanceof TemporalAccessor) {
+      return result.toString();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.agent.export;
+
+import java.util.List;
+
+import org.easypeelsecurity.springdog.shared.dto.EndpointMetricDto;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
+
+/**
+ * The columns of every kind of export, shared by all formats.
+ *
+ * @author PENEKhun
+ */
+public final class ExportColumns {
+
+  /**
+   * Columns of the endpoint metrics export.
+   */
+  public static final List<ExportColumn<EndpointMetricDto>> ENDPOINT_METRIC = List.of(
+      new ExportColumn<>("date", EndpointMetricDto::baseDate),
+      new ExportColumn<>("method", EndpointMetricDto::method),
+      new ExportColumn<>("path", EndpointMetricDto::path),
+      new ExportColumn<>("pageView", EndpointMetricDto::visitCount),
+      new ExportColumn<>("averageResponseMs", EndpointMetricDto::averageResponseMilliseconds),
+      new ExportColumn<>("ratelimitFailureCount", EndpointMetricDto::ratelimitFailureCount),
+      new ExportColumn<>("status2xxCount", EndpointMetricDto::status2xxCount),
+      new ExportColumn<>("status3xxCount", EndpointMetricDto::status3xxCount),
+      new ExportColumn<>("status4xxCount", EndpointMetricDto::status4xxCount),
+      new ExportColumn<>("status5xxCount", EndpointMetricDto::status5xxCount),
+      new ExportColumn<>("exceptionCount", EndpointMetricDto::exceptionCount));
+
+  /**
+   * Columns of the system metrics export.
+   */
+  public static final List<ExportColumn<SystemMetricDto>> SYSTEM_METRIC = List.of(
+      new ExportColumn<>("id", SystemMetricDto::getId),
+      new ExportColumn<>("timestamp", SystemMetricDto::getTimestamp),
+      new ExportColumn<>("cpuUsagePercent", SystemMetricDto::getCpuUsagePercent),
+      new ExportColumn<>("memoryUsagePercent", SystemMetricDto::getMemoryUsagePercent),
+      new ExportColumn<>("diskUsagePercent", SystemMetricDto::getDiskUsagePercent),
+      new ExportColumn<>("jvmHeapUsagePercent", SystemMetricDto::getJvmHeapUsagePercent),
+      new ExportColumn<>("jvmNonHeapUsagePercent", SystemMetricDto::getJvmNonHeapUsagePercent),
+      new ExportColumn<>("jvmTotalMemoryUsed", SystemMetricDto::getJvmTotalMemoryUsed),
+      new ExportColumn<>("networkInBytes", SystemMetricDto::getNetworkInBytes),
+      new ExportColumn<>("networkOutBytes", SystemMetricDto::getNetworkOutBytes),
+      new ExportColumn<>("memo", SystemMetricDto::getMemo));
+
+  /**
+   * Columns of the error traces export.
+   */
+  public static final List<ExportColumn<ErrorTracingDto>> ERROR_TRACE = List.of(
+      new ExportColumn<>("id", ErrorTracingDto::getId),
+      new ExportColumn<>("parentTraceId", ErrorTracingDto::getParentTraceId),
+      new ExportColumn<>("timestamp", ErrorTracingDto::getTimestamp),
+      new ExportColumn<>("className", ErrorTracingDto::getClassName),
+      new ExportColumn<>("message", ErrorTracingDto::getMessage),
+      new ExportColumn<>("fileName", ErrorTracingDto::getFileName),
+      new ExportColumn<>("methodName", ErrorTracingDto::getMethodName),
+      new ExportColumn<>("lineNumber", ErrorTracingDto::getLineNumber));
+
+  private ExportColumns() {
+  }
+}
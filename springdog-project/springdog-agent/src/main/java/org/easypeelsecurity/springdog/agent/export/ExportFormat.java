@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.agent.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The formats an export can be written in.
+ *
+ * @author PENEKhun
+ */
+public enum ExportFormat {
+  NDJSON("application/x-ndjson", "ndjson") {
+    @Override
+    public <T> ExportWriter<T> open(Writer writer, List<ExportColumn<T>> columns) throws IOException {
+      return new NdjsonExportWriter<>(writer, columns);
+    }
+  },
+  CSV("text/csv", "csv") {
+    @Override
+    public <T> ExportWriter<T> open(Writer writer, List<ExportColumn<T>> columns) throws IOException {
+      return new CsvExportWriter<>(writer, columns);
+    }
+  };
+
+  private final String contentType;
+  private final String extension;
+
+  ExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  /**
+   * Resolve a format from its name, ignoring case.
+   *
+   * @param name the name of the format, such as {@code ndjson} or {@code csv}
+   * @return the format
+   * @throws IllegalArgumentException if there is no format with this name
+   */
+  public static ExportFormat resolve(String name) {
+    for (ExportFormat format : values()) {
+      if (format.name().equals(name.toUpperCase(Locale.ROOT))) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported export format: " + name);
+  }
+
+  /**
+   * Opens a writer of this format. The CSV header is written at once.
+   *
+   * @param writer  the writer to write the rows to
+   * @param columns the columns of a row
+   * @param <T>     the type of the rows
+   * @return the export writer
+   * @throws IOException if the writer fails
+   */
+  public abstract <T> ExportWriter<T> open(Writer writer, List<ExportColumn<T>> columns) throws IOException;
+
+  /**
+   * The media type of this format, used as the content type of the response.
+   *
+   * @return the media type
+   */
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * The file extension of this format, without the dot.
+   *
+   * @return the file extension
+   */
+  public String getExtension() {
+    return extension;
+  }
+}
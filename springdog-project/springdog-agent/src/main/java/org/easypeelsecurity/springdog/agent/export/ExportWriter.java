@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.agent.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+/**
+ * Writes the rows of an export one after the other, straight to the underlying writer.
+ * Nothing is kept once a row is written, so the memory used does not depend on the number of rows.
+ *
+ * @author PENEKhun
+ * @param <T> the type of the rows
+ */
+public abstract class ExportWriter<T> implements Closeable {
+
+  private final Writer writer;
+  private final List<ExportColumn<T>> columns;
+
+  ExportWriter(Writer writer, List<ExportColumn<T>> columns) {
+    Assert.notEmpty(columns, "An export needs at least one column");
+    this.writer = writer;
+    this.columns = columns;
+  }
+
+  /**
+   * Writes a row.
+   *
+   * @param row the row
+   * @throws UncheckedIOException if the row cannot be written, for example because the client went away
+   */
+  public void write(T row) {
+    try {
+      writeRow(row);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write an exported row", e);
+    }
+  }
+
+  abstract void writeRow(T row) throws IOException;
+
+  Writer writer() {
+    return writer;
+  }
+
+  List<ExportColumn<T>> columns() {
+    return columns;
+  }
+
+  /**
+   * Flushes the rows written so far and closes the underlying writer.
+   */
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
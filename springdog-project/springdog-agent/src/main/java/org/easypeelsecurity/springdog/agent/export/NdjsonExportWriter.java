@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.agent.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes one JSON object per line (<a href="https://github.com/ndjson/ndjson-spec">NDJSON</a>).
+ *
+ * @author PENEKhun
+ * @param <T> the type of the rows
+ */
+class NdjsonExportWriter<T> extends ExportWriter<T> {
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final JsonGenerator generator;
+
+  NdjsonExportWriter(Writer writer, List<ExportColumn<T>> columns) throws IOException {
+    super(writer, columns);
+    this.generator = JSON_FACTORY.createGenerator(writer);
+    generator.setRootValueSeparator(null);
+  }
+
+  @Override
+  void writeRow(T row) throws IOException {
+    generator.writeStartObject();
+    for (ExportColumn<T> column : columns()) {
+      generator.writeFieldName(column.name());
+      generator.writeObject(column.read(row));
+    }
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+    super.close();
+  }
+}
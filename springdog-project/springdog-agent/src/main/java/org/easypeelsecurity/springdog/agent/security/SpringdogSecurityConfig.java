@@ -16,6 +16,8 @@
 
 package org.easypeelsecurity.springdog.agent.security;
 
+import static org.springframework.security.config.Customizer.withDefaults;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -24,6 +26,7 @@ import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -49,10 +52,27 @@ public class SpringdogSecurityConfig {
   }
 
   /**
-   * Security filter chain for springdog agent.
+   * Security filter chain for the metrics endpoints of springdog agent.
+   * Metric scrapers cannot go through the login form, so they authenticate with HTTP basic authentication.
    */
   @Bean
   @Order(Integer.MIN_VALUE)
+  public SecurityFilterChain springdogMetricsSecurityFilterChain(HttpSecurity http) throws Exception {
+    http
+        .securityMatcher(springdogProperties.computeAbsolutePath("/metrics/**"))
+        .authorizeHttpRequests(auth -> auth.anyRequest().hasRole(SPRINGDOG_AGENT_ADMIN_ROLE))
+        .httpBasic(withDefaults())
+        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .csrf(AbstractHttpConfigurer::disable);
+
+    return http.build();
+  }
+
+  /**
+   * Security filter chain for springdog agent.
+   */
+  @Bean
+  @Order(Integer.MIN_VALUE + 1)
   public SecurityFilterChain springdogSecurityFilterChain(HttpSecurity http) throws Exception {
     String baseAbsolutePath = springdogProperties.computeAbsolutePath("");
     http
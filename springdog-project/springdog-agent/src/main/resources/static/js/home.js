@@ -239,6 +239,108 @@ function createEndpointMetricsChart() {
   new Chart(ctx, config);
 }
 
+// Springdog overhead
+const formatNanos = (nanos) => `${(nanos / 1000).toFixed(1)} µs`;
+
+function loadOverhead() {
+  springdogFetch('/overhead', {method: 'GET'})
+  .then(overhead => renderOverhead(overhead))
+  .catch(() => {
+    document.getElementById('overhead-empty').textContent = 'Failed to load overhead';
+  });
+}
+
+function renderOverhead(overhead) {
+  const toggle = document.getElementById('overhead-enabled');
+  const tbody = document.getElementById('overhead-body');
+  const empty = document.getElementById('overhead-empty');
+  toggle.checked = overhead.enabled;
+  tbody.innerHTML = '';
+
+  overhead.endpoints.forEach(endpoint => {
+    const row = tbody.insertRow();
+    row.insertCell().textContent = endpoint.methodSignature;
+    row.insertCell().textContent = endpoint.requestCount;
+    row.insertCell().textContent = formatNanos(endpoint.p50Nanos);
+    row.insertCell().textContent = formatNanos(endpoint.p99Nanos);
+    row.insertCell().textContent = Object.entries(endpoint.stageP99Nanos)
+    .map(([stage, nanos]) => `${stage}: ${formatNanos(nanos)}`)
+    .join(', ');
+  });
+
+  empty.textContent = overhead.enabled ? 'No data available' : 'Overhead measurement is disabled';
+  empty.hidden = overhead.endpoints.length > 0;
+}
+
+function changeOverheadMonitoring(enabled) {
+  springdogFetch(`/overhead/configuration?enabled=${enabled}`, {method: 'POST'})
+  .then(() => loadOverhead())
+  .catch(error => alert(error.message));
+}
+
+// Live throughput, read from memory and refreshed every few seconds
+const LIVE_METRIC_SECONDS = 120;
+const LIVE_METRIC_REFRESH_MILLIS = 2000;
+const LIVE_METRIC_MAX_ENDPOINTS = 5;
+const LIVE_METRIC_COLORS = ['#4e79a7', '#f28e2b', '#e15759', '#76b7b2', '#59a14f'];
+let liveThroughputChart = null;
+
+function startLiveMetrics() {
+  const ctx = document.getElementById('chart-live-throughput').getContext('2d');
+  const labels = Array.from({length: LIVE_METRIC_SECONDS},
+      (_, i) => `-${LIVE_METRIC_SECONDS - i}s`);
+  liveThroughputChart = new Chart(ctx, createChartConfig('line', labels, [], {
+    animation: false,
+    scales: {
+      x: {title: {display: true, text: 'Time'}, ticks: {maxTicksLimit: 12}},
+      y: {beginAtZero: true, title: {display: true, text: 'req/s'}}
+    },
+    elements: {point: {radius: 0}}
+  }));
+  loadLiveMetrics();
+  setInterval(loadLiveMetrics, LIVE_METRIC_REFRESH_MILLIS);
+}
+
+function loadLiveMetrics() {
+  springdogFetch(`/live-metrics?seconds=${LIVE_METRIC_SECONDS}`, {method: 'GET'})
+  .then(liveMetrics => renderLiveMetrics(liveMetrics))
+  .catch(() => {
+    document.getElementById('in-flight-empty').textContent = 'Failed to load live metrics';
+  });
+}
+
+function renderLiveMetrics(liveMetrics) {
+  const total = (endpoint) => endpoint.requestsPerSecond.reduce((sum, count) => sum + count, 0);
+  const busiest = liveMetrics
+  .filter(endpoint => total(endpoint) > 0)
+  .sort((a, b) => total(b) - total(a))
+  .slice(0, LIVE_METRIC_MAX_ENDPOINTS);
+
+  liveThroughputChart.data.datasets = busiest.map((endpoint, i) => ({
+    label: endpoint.methodSignature,
+    data: endpoint.requestsPerSecond,
+    borderColor: LIVE_METRIC_COLORS[i],
+    backgroundColor: LIVE_METRIC_COLORS[i],
+    borderWidth: 1,
+    fill: false
+  }));
+  liveThroughputChart.update();
+
+  const tbody = document.getElementById('in-flight-body');
+  const empty = document.getElementById('in-flight-empty');
+  tbody.innerHTML = '';
+  liveMetrics
+  .filter(endpoint => endpoint.inFlight > 0)
+  .sort((a, b) => b.inFlight - a.inFlight)
+  .forEach(endpoint => {
+    const row = tbody.insertRow();
+    row.insertCell().textContent = endpoint.methodSignature;
+    row.insertCell().textContent = endpoint.inFlight;
+  });
+  empty.textContent = 'No requests in flight';
+  empty.hidden = tbody.rows.length > 0;
+}
+
 const noDataMessagePlugin = {
   id: 'noDataMessage',
   afterDraw: (chart, args, options) => {
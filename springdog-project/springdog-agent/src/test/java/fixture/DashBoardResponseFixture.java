@@ -24,6 +24,7 @@ import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyEndpointMetric;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailySlowestEndpoint;
+import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopErrorRateEndpoint;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopFailWithRatelimitEndpoint;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopTrafficEndpoint;
 
@@ -45,11 +46,13 @@ public class DashBoardResponseFixture {
     var dailyTopTrafficEndpoint = new DailyTopTrafficEndpoint("/test", "GET", 1);
     var dailySlowestEndpoint = new DailySlowestEndpoint("/test", "GET", 1);
     var dailyTopFailWithRatelimitEndpoint = new DailyTopFailWithRatelimitEndpoint("/test", "GET", 1);
+    var dailyTopErrorRateEndpoint = new DailyTopErrorRateEndpoint("/test", "GET", 1, 4, 25.0);
 
     return new DashboardResponse(1, 2, 3,
         List.of(systemMetric),
         List.of(dailyEndpointMetric),
         List.of(dailyTopTrafficEndpoint), List.of(dailySlowestEndpoint),
-        List.of(dailyTopFailWithRatelimitEndpoint));
+        List.of(dailyTopFailWithRatelimitEndpoint),
+        List.of(dailyTopErrorRateEndpoint));
   }
 }
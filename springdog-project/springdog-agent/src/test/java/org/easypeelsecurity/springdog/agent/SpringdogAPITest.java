@@ -17,21 +17,35 @@
 package org.easypeelsecurity.springdog.agent;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import org.easypeelsecurity.springdog.agent.security.SpringdogSecurityConfig;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
 import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
 
 import org.junit.jupiter.api.Test;
 
@@ -78,9 +92,104 @@ class SpringdogAPITest extends AgentTestSupport {
   @Test
   @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
   void systemWatchMemo() throws Exception {
+    when(statisticsService.existsSystemMetric(1L)).thenReturn(true);
     doNothing().when(statisticsService).changeMemo(1L, "test");
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(1).run();
+      return null;
+    }).when(writeQueue).enqueue(eq(WriteType.SYSTEM_METRIC_MEMO), any());
+
     mockMvc.perform(post("/springdog/system-watch/1/memo?description=test"))
         .andExpect(status().isNoContent());
+    verify(statisticsService).changeMemo(1L, "test");
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void systemWatchMemoOfUnknownMetric() throws Exception {
+    when(statisticsService.existsSystemMetric(1L)).thenReturn(false);
+
+    mockMvc.perform(post("/springdog/system-watch/1/memo?description=test"))
+        .andExpect(status().isBadRequest());
+    verify(writeQueue, never()).enqueue(eq(WriteType.SYSTEM_METRIC_MEMO), any());
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void systemWatchMetrics() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2024, 10, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 10, 2, 0, 0);
+    when(statisticsService.getSystemMetrics(from, to, Duration.ofMinutes(5)))
+        .thenReturn(List.of(SystemMetricDto.builder().cpuUsagePercent(42.5).timestamp(from).build()));
+
+    mockMvc.perform(get("/springdog/system-watch/metrics")
+            .param("from", "2024-10-01T00:00:00")
+            .param("to", "2024-10-02T00:00:00")
+            .param("bucketSeconds", "300"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.detail[0].cpuUsagePercent").value(42.5));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void exportSystemMetrics() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2024, 10, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 10, 2, 0, 0);
+    doAnswer(invocation -> {
+      Consumer<SystemMetricDto> action = invocation.getArgument(2);
+      action.accept(SystemMetricDto.builder().id(1L).cpuUsagePercent(42.5).timestamp(from).build());
+      action.accept(SystemMetricDto.builder().id(2L).cpuUsagePercent(12.5).timestamp(from.plusMinutes(1)).build());
+      return 2L;
+    }).when(statisticsService).exportSystemMetrics(eq(from), eq(to), any());
+
+    mockMvc.perform(get("/springdog/export/system-metrics")
+            .param("from", "2024-10-01T00:00:00")
+            .param("to", "2024-10-02T00:00:00")
+            .param("format", "csv"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Disposition", "attachment; filename=\"springdog-system-metrics.csv\""))
+        .andExpect(mvcResult -> {
+          String[] lines = mvcResult.getResponse().getContentAsString().split("\r\n");
+          assertThat(lines).hasSize(3);
+          assertThat(lines[0]).startsWith("id,timestamp,cpuUsagePercent,");
+          assertThat(lines[1]).startsWith("1,2024-10-01T00:00,42.5,");
+          assertThat(lines[2]).startsWith("2,2024-10-01T00:01,12.5,");
+        });
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void exportErrorTraces() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2024, 10, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 10, 2, 0, 0);
+    doAnswer(invocation -> {
+      Consumer<ErrorTracingDto> action = invocation.getArgument(2);
+      action.accept(ErrorTracingDto.builder()
+          .id(1L)
+          .className("java.lang.IllegalArgumentException")
+          .message("bad input")
+          .timestamp(from)
+          .build());
+      return 1L;
+    }).when(exceptionListingService).exportErrorTraces(eq(from), eq(to), any());
+
+    mockMvc.perform(get("/springdog/export/error-traces")
+            .param("from", "2024-10-01T00:00:00")
+            .param("to", "2024-10-02T00:00:00"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+        .andExpect(content().string(containsString(
+            "\"className\":\"java.lang.IllegalArgumentException\",\"message\":\"bad input\"")));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void exportRejectsUnknownFormat() throws Exception {
+    mockMvc.perform(get("/springdog/export/endpoint-metrics")
+            .param("from", "2024-10-01")
+            .param("to", "2024-10-02")
+            .param("format", "xml"))
+        .andExpect(status().isBadRequest());
   }
 
   @Test
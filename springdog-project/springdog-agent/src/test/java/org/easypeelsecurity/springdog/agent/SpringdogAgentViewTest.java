@@ -16,10 +16,14 @@
 
 package org.easypeelsecurity.springdog.agent;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -33,7 +37,10 @@ import org.springframework.security.test.context.support.WithMockUser;
 
 import org.easypeelsecurity.springdog.agent.security.SpringdogSecurityConfig;
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingPageDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto;
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
 import org.easypeelsecurity.springdog.shared.enums.HttpMethod;
 
 import org.junit.jupiter.api.DisplayName;
@@ -65,6 +72,14 @@ class SpringdogAgentViewTest extends AgentTestSupport {
         .andExpect(redirectedUrl("http://localhost/springdog/login"));
   }
 
+  @Test
+  @DisplayName("Metrics endpoints ask for HTTP basic authentication")
+  void metricsWithoutAuthentication() throws Exception {
+    mockMvc.perform(get("/springdog/metrics/prometheus"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(header().string("WWW-Authenticate", startsWith("Basic")));
+  }
+
   @Test
   @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
   void testHomePage() throws Exception {
@@ -123,7 +138,7 @@ class SpringdogAgentViewTest extends AgentTestSupport {
     mockMvc.perform(get("/springdog/rate-limit/{endpointId}/analytics", endpointId))
         .andExpect(status().isOk())
         .andExpect(view().name("/templates/content/rate-limit/actions/analytics.html"))
-        .andExpect(model().attributeExists("endpoint"));
+        .andExpect(model().attributeExists("endpoint", "statics", "statusCodes"));
   }
 
   @Test
@@ -149,6 +164,28 @@ class SpringdogAgentViewTest extends AgentTestSupport {
         .andExpect(status().isOk());
   }
 
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void errorTracePage() throws Exception {
+    ErrorTracingDto errorTrace = ErrorTracingDto.builder()
+        .id(41L)
+        .className("com.example.Service")
+        .methodName("run")
+        .stackFrames(List.of(new StackFrameDto("com.example.Service", "run", "Service.java", 10)))
+        .build();
+    when(exceptionListingService.getParentCauses(50L, 20))
+        .thenReturn(new ErrorTracingPageDto(List.of(errorTrace), 41L));
+    when(exceptionListingService.getRecentExceptionGroups(anyInt())).thenReturn(List.of());
+    when(exceptionListingService.getThrottledOccurrenceCount()).thenReturn(7L);
+
+    mockMvc.perform(get("/springdog/error-tracing?before=50"))
+        .andExpect(status().isOk())
+        .andExpect(model().attribute("nextBeforeId", 41L))
+        .andExpect(model().attribute("firstPage", false))
+        .andExpect(model().attribute("throttledOccurrenceCount", 7L))
+        .andExpect(content().string(containsString("occurrences were only counted so far")));
+  }
+
   @Test
   @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
   void systemWatchView() throws Exception {
@@ -156,4 +193,24 @@ class SpringdogAgentViewTest extends AgentTestSupport {
     mockMvc.perform(get("/springdog/system-watch"))
         .andExpect(status().isOk());
   }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void requestSamplingView() throws Exception {
+    when(endpointService.findAllEndpoints()).thenReturn(List.of());
+
+    mockMvc.perform(get("/springdog/service/request-sampling"))
+        .andExpect(status().isOk())
+        .andExpect(view().name("/templates/content/service/request-sampling.html"))
+        .andExpect(model().attributeExists("samplingConfiguration", "endpointRules", "endpoints"));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {SpringdogSecurityConfig.SPRINGDOG_AGENT_ADMIN_ROLE})
+  void retentionView() throws Exception {
+    mockMvc.perform(get("/springdog/service/retention"))
+        .andExpect(status().isOk())
+        .andExpect(view().name("/templates/content/service/retention.html"))
+        .andExpect(model().attributeExists("retentionConfiguration"));
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.agent.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExportFormatTest {
+
+  private static final List<ExportColumn<Row>> COLUMNS = List.of(
+      new ExportColumn<>("name", Row::name),
+      new ExportColumn<>("date", Row::date),
+      new ExportColumn<>("count", Row::count));
+
+  @Test
+  @DisplayName("Writes one JSON object per line")
+  void ndjson() throws Exception {
+    StringWriter out = new StringWriter();
+    try (ExportWriter<Row> writer = ExportFormat.resolve("ndjson").open(out, COLUMNS)) {
+      writer.write(new Row("a", LocalDate.of(2024, 10, 1), 1));
+      writer.write(new Row(null, LocalDate.of(2024, 10, 2), 2));
+    }
+
+    assertThat(out.toString()).isEqualTo(
+        "{\"name\":\"a\",\"date\":\"2024-10-01\",\"count\":1}\n" +
+        "{\"name\":null,\"date\":\"2024-10-02\",\"count\":2}\n");
+  }
+
+  @Test
+  @DisplayName("Writes a header line and quotes the values that need it")
+  void csv() throws Exception {
+    StringWriter out = new StringWriter();
+    try (ExportWriter<Row> writer = ExportFormat.resolve("CSV").open(out, COLUMNS)) {
+      writer.write(new Row("a,\"b\"", LocalDate.of(2024, 10, 1), 1));
+      writer.write(new Row(null, LocalDate.of(2024, 10, 2), 2));
+    }
+
+    assertThat(out.toString()).isEqualTo(
+        "name,date,count\r\n" +
+        "\"a,\"\"b\"\"\",2024-10-01,1\r\n" +
+        ",2024-10-02,2\r\n");
+  }
+
+  @Test
+  @DisplayName("Rejects an unknown format")
+  void unknownFormat() {
+    assertThatThrownBy(() -> ExportFormat.resolve("xml"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private record Row(String name, LocalDate date, long count) {
+  }
+}
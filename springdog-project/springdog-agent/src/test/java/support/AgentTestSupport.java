@@ -29,6 +29,7 @@ import org.springframework.web.context.WebApplicationContext;
 import org.easypeelsecurity.springdog.agent.TestConfig;
 import org.easypeelsecurity.springdog.agent.security.SpringdogSecurityConfig;
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
 import org.easypeelsecurity.springdog.domain.ratelimit.EndpointService;
 import org.easypeelsecurity.springdog.domain.statistics.StatisticsService;
 
@@ -53,6 +54,9 @@ public class AgentTestSupport {
   @MockBean
   public ExceptionListingService exceptionListingService;
 
+  @MockBean
+  public SpringdogWriteQueue writeQueue;
+
   @BeforeEach
   void setUp() {
     this.mockMvc = MockMvcBuilders
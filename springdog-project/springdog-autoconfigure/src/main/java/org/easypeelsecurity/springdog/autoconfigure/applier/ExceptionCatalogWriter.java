@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.autoconfigure.applier;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the exception classes compiled with the application to {@value #CATALOG_RESOURCE}, so they are listed
+ * at startup without scanning the classpath.
+ * Only the exception classes in the packages of the classes annotated with {@link SpringDogEnable} are written,
+ * one binary class name per line.
+ */
+final class ExceptionCatalogWriter {
+  /**
+   * The catalog resource, read by the manager's {@code ExceptionCatalog}.
+   */
+  static final String CATALOG_RESOURCE = "META-INF/springdog/exception-catalog.txt";
+
+  private final ProcessingEnvironment processingEnv;
+  private final Set<String> exceptionClassNames = new TreeSet<>();
+  private final Set<String> basePackages = new LinkedHashSet<>();
+
+  ExceptionCatalogWriter(ProcessingEnvironment processingEnv) {
+    this.processingEnv = processingEnv;
+  }
+
+  /**
+   * Collects the exception classes among the types compiled in a round, including nested types.
+   */
+  void collect(RoundEnvironment roundEnv) {
+    TypeMirror exceptionType =
+        processingEnv.getElementUtils().getTypeElement(Exception.class.getName()).asType();
+    for (Element element : roundEnv.getRootElements()) {
+      collect(element, exceptionType);
+    }
+  }
+
+  private void collect(Element element, TypeMirror exceptionType) {
+    if (!(element instanceof TypeElement type)) {
+      return;
+    }
+    Types types = processingEnv.getTypeUtils();
+    if (types.isSubtype(types.erasure(type.asType()), exceptionType)) {
+      exceptionClassNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+    }
+    for (Element enclosed : type.getEnclosedElements()) {
+      collect(enclosed, exceptionType);
+    }
+  }
+
+  void addBasePackage(String basePackage) {
+    basePackages.add(basePackage);
+  }
+
+  /**
+   * Writes the catalog, once the last round is over.
+   * Nothing is written without a {@link SpringDogEnable} class.
+   */
+  void write() {
+    if (basePackages.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject resource = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", CATALOG_RESOURCE);
+      try (Writer writer = resource.openWriter()) {
+        for (String className : exceptionClassNames) {
+          if (isInBasePackage(className)) {
+            writer.write(className);
+            writer.write('\n');
+          }
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+          "Unable to write " + CATALOG_RESOURCE + ", the exception classes will be scanned at runtime: " +
+              e.getMessage());
+    }
+  }
+
+  private boolean isInBasePackage(String className) {
+    return basePackages.stream()
+        .anyMatch(basePackage -> basePackage.isEmpty() || className.startsWith(basePackage + "."));
+  }
+}
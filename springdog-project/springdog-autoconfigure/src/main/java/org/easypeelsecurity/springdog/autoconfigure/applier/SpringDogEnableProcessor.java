@@ -21,14 +21,23 @@ import java.util.List;
 import java.util.Set;
 
 import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
 
 /**
  * Processes the SpringDogEnable annotation to enable configurations necessary for SpringDog functionalities.
+ * It also writes the catalog of the application's exception classes, see {@link ExceptionCatalogWriter}.
  */
 public class SpringDogEnableProcessor extends AbstractProcessor {
+  private ExceptionCatalogWriter exceptionCatalog;
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    this.exceptionCatalog = new ExceptionCatalogWriter(processingEnv);
+  }
 
   /**
    * Registers support for the SpringDogEnable annotation.
@@ -45,7 +54,12 @@ public class SpringDogEnableProcessor extends AbstractProcessor {
 
   @Override
   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-    if (!roundEnv.processingOver() && !annotations.isEmpty()) {
+    if (roundEnv.processingOver()) {
+      exceptionCatalog.write();
+      return false;
+    }
+    exceptionCatalog.collect(roundEnv);
+    if (!annotations.isEmpty()) {
       generateConfigurations(roundEnv);
       return true;
     }
@@ -55,6 +69,7 @@ public class SpringDogEnableProcessor extends AbstractProcessor {
   private void generateConfigurations(RoundEnvironment roundEnv) {
     roundEnv.getElementsAnnotatedWith(SpringDogEnable.class).forEach(element -> {
       String fullPackageName = element.getEnclosingElement().toString();
+      exceptionCatalog.addBasePackage(fullPackageName);
 
       List<CodeGenerator> generatedCodes = Arrays.asList(
           new SpringdogStorageApplier(),
@@ -35,6 +35,7 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
 import org.easypeelsecurity.springdog.domain.ratelimit.VersionControlService;
 import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
@@ -60,16 +61,19 @@ public class ControllerParser {
   private final RequestMappingHandlerMapping handlerMapping;
   private final VersionControlService versionControlService;
   private final SpringdogProperties properties;
+  private final SpringdogStoreReadiness storeReadiness;
 
   /**
    * Constructor.
    */
   public ControllerParser(
       @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
-      VersionControlService versionControlService, SpringdogProperties properties) {
+      VersionControlService versionControlService, SpringdogProperties properties,
+      SpringdogStoreReadiness storeReadiness) {
     this.handlerMapping = handlerMapping;
     this.versionControlService = versionControlService;
     this.properties = properties;
+    this.storeReadiness = storeReadiness;
   }
 
   private EndpointDto getEndpointDto(HandlerMethod method, String endPoint, HttpMethod httpMethod,
@@ -130,6 +134,7 @@ public class ControllerParser {
 
   /**
    * List all endpoints and parameters.
+   * The endpoints are parsed at once, their version is stored once the Springdog database is ready.
    */
   @PostConstruct
   public void listEndpointsAndParameters() {
@@ -138,7 +143,8 @@ public class ControllerParser {
 
     List<EndpointDto> parsedEndpointFromController =
         parseController(handlerMapping.getHandlerMethods(), properties.computeAbsolutePath("/"));
-    versionControlService.updateVersion(parsedEndpointFromController);
+    storeReadiness.whenReady("update the endpoint version",
+        () -> versionControlService.updateVersion(parsedEndpointFromController));
   }
 
   List<EndpointDto> parseController(Map<RequestMappingInfo, HandlerMethod> handlerMethods,
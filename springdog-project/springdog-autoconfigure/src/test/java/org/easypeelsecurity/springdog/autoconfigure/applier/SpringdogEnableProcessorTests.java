@@ -19,8 +19,10 @@ package org.easypeelsecurity.springdog.autoconfigure.applier;
 import static com.google.testing.compile.Compiler.javac;
 
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -53,4 +55,47 @@ class SpringdogEnableProcessorTests {
     CompilationSubject.assertThat(compilation)
         .generatedSourceFile(qualifiedName);
   }
+
+  @Test
+  @DisplayName("Should list the exception classes of the application package in the exception catalog.")
+  void shouldWriteExceptionCatalog() {
+    // given
+    JavaFileObject src = JavaFileObjects.forResource("WithSpringdogEnableAnnotation.java");
+    JavaFileObject exception = JavaFileObjects.forSourceString("test.annotation.springdog.error.OrderException",
+        """
+            package test.annotation.springdog.error;
+
+            public class OrderException extends RuntimeException {
+              public static class NotFound extends OrderException {
+              }
+            }
+            """);
+    JavaFileObject outsideException = JavaFileObjects.forSourceString("other.OutsideException",
+        """
+            package other;
+
+            public class OutsideException extends Exception {
+            }
+            """);
+    JavaFileObject notException = JavaFileObjects.forSourceString("test.annotation.springdog.Order",
+        """
+            package test.annotation.springdog;
+
+            public class Order {
+            }
+            """);
+
+    // when
+    Compilation compilation = javac()
+        .withProcessors(new SpringDogEnableProcessor())
+        .compile(src, exception, outsideException, notException);
+
+    // then
+    CompilationSubject.assertThat(compilation).succeeded();
+    CompilationSubject.assertThat(compilation)
+        .generatedFile(StandardLocation.CLASS_OUTPUT, ExceptionCatalogWriter.CATALOG_RESOURCE)
+        .contentsAsUtf8String()
+        .isEqualTo("test.annotation.springdog.error.OrderException\n" +
+            "test.annotation.springdog.error.OrderException$NotFound\n");
+  }
 }
@@ -18,6 +18,9 @@ package org.easypeelsecurity.springdog.autoconfigure.controller.parser;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
@@ -34,6 +37,7 @@ import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondit
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
 import org.easypeelsecurity.springdog.domain.ratelimit.VersionControlService;
 import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
@@ -57,13 +61,15 @@ class ControllerParserTest {
   @Mock
   SpringdogProperties properties;
 
+  SpringdogStoreReadiness storeReadiness = new SpringdogStoreReadiness();
+
   private ControllerParser controllerParser;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
     controllerParser =
-        new ControllerParser(handlerMapping, versionControlService, properties);
+        new ControllerParser(handlerMapping, versionControlService, properties, storeReadiness);
   }
 
   @Test
@@ -108,6 +114,22 @@ class ControllerParserTest {
     assertThat(result.size()).isZero();
   }
 
+  @Test
+  @DisplayName("The endpoint version is stored only once the Springdog database is ready")
+  void updateVersionOnceStoreReady() {
+    // given
+    when(handlerMapping.getHandlerMethods()).thenReturn(Collections.emptyMap());
+    when(properties.computeAbsolutePath("/")).thenReturn("/springdog/");
+
+    // when
+    controllerParser.listEndpointsAndParameters();
+
+    // then
+    verify(versionControlService, never()).updateVersion(anyList());
+    storeReadiness.markReady();
+    verify(versionControlService).updateVersion(Collections.emptyList());
+  }
+
   @Test
   @DisplayName("Should have PostConstruct annotation at listEndpointsAndParameters()")
   void postConstructTest() throws NoSuchMethodException {
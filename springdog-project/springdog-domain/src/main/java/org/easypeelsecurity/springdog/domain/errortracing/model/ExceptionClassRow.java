@@ -0,0 +1,27 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+/**
+ * An exception class, read as plain columns without loading the {@link ExceptionClass} entity.
+ *
+ * @param id                 The exception class id
+ * @param exceptionClassName The exception class name
+ * @param exceptionTypeId    The id of its exception type
+ */
+public record ExceptionClassRow(long id, String exceptionClassName, Long exceptionTypeId) {
+}
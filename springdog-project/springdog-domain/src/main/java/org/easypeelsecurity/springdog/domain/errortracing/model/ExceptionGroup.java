@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import java.time.LocalDateTime;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.auto._ExceptionGroup;
+
+/**
+ * Model class for the occurrences of one exception fingerprint, aggregated into a single row.
+ */
+@SuppressWarnings("all")
+public class ExceptionGroup extends _ExceptionGroup {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Adds occurrences seen between the given times.
+   *
+   * @param count         the number of occurrences
+   * @param firstSeen     the time of the first occurrence
+   * @param lastSeen      the time of the last occurrence
+   * @param sampleMessage the message of one of the occurrences
+   * @param methodSignature the endpoint that threw the last occurrence, or {@code null} if unknown
+   */
+  public void addOccurrences(long count, LocalDateTime firstSeen, LocalDateTime lastSeen, String sampleMessage,
+      String methodSignature) {
+    if (count < 0) {
+      throw new IllegalArgumentException("occurrence count must be a positive number");
+    }
+    setOccurrenceCount(getOccurrenceCount() + count);
+    if (getFirstSeen() == null || firstSeen.isBefore(getFirstSeen())) {
+      setFirstSeen(firstSeen);
+    }
+    if (getLastSeen() == null || lastSeen.isAfter(getLastSeen())) {
+      setLastSeen(lastSeen);
+      setSampleMessage(sampleMessage);
+      if (methodSignature != null) {
+        setMethodSignature(methodSignature);
+      }
+    }
+  }
+
+  /**
+   * Adds occurrences that were only counted, as the capture of their fingerprint was throttled.
+   *
+   * @param count the number of throttled occurrences, also included in the occurrence count
+   */
+  public void addThrottledOccurrences(long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("throttled count must be a positive number");
+    }
+    setThrottledCount(getThrottledCount() + count);
+  }
+
+  /**
+   * Whether another full chain may be stored for this fingerprint.
+   *
+   * @param limit the maximum number of chains stored per fingerprint
+   * @return true if fewer chains than the limit were stored
+   */
+  public boolean canStoreTrace(int limit) {
+    return getStoredTraceCount() < limit;
+  }
+
+  /**
+   * Counts a stored chain.
+   */
+  public void incrementStoredTraceCount() {
+    setStoredTraceCount(getStoredTraceCount() + 1);
+  }
+}
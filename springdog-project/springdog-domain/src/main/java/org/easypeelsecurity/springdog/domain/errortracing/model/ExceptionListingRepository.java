@@ -16,12 +16,17 @@
 
 package org.easypeelsecurity.springdog.domain.errortracing.model;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.cayenne.ObjectContext;
 
 /**
- * Repository for {@link ExceptionType}, {@link ExceptionClass} entities.
+ * Repository for {@link ExceptionType}, {@link ExceptionClass}, {@link ExceptionCatalogState},
+ * {@link ExceptionCause}, {@link ExceptionGroup} and {@link StackFrame} entities.
  */
 public interface ExceptionListingRepository {
   /**
@@ -31,6 +36,55 @@ public interface ExceptionListingRepository {
    */
   List<ExceptionType> findAllExceptions(ObjectContext context);
 
+  /**
+   * Find all {@link ExceptionType} entities, without their exception classes.
+   *
+   * @param context The context
+   * @return The list of {@link ExceptionType} entities
+   */
+  List<ExceptionType> findAllExceptionTypes(ObjectContext context);
+
+  /**
+   * Find the id and the exception type id of every exception class, without loading the entities.
+   *
+   * @param context The context
+   * @return The exception classes
+   */
+  List<ExceptionClassRow> findAllExceptionClassRows(ObjectContext context);
+
+  /**
+   * Find Exception classes by ids.
+   *
+   * @param context          The context
+   * @param exceptionClassIds The exception class ids
+   * @return The exception classes found, in no particular order
+   */
+  List<ExceptionClass> findExceptionClassesByIds(ObjectContext context, Collection<Long> exceptionClassIds);
+
+  /**
+   * Delete exception classes in bulk, without loading them.
+   *
+   * @param context           The context
+   * @param exceptionClassIds The exception class ids
+   */
+  void deleteExceptionClasses(ObjectContext context, Collection<Long> exceptionClassIds);
+
+  /**
+   * Delete exception types in bulk, without loading them. Their exception classes must be deleted first.
+   *
+   * @param context          The context
+   * @param exceptionTypeIds The exception type ids
+   */
+  void deleteExceptionTypes(ObjectContext context, Collection<Long> exceptionTypeIds);
+
+  /**
+   * Find the hash of the exception classes last saved.
+   *
+   * @param context The context
+   * @return The catalog state, or {@code null} if the exception classes were never saved with a hash
+   */
+  ExceptionCatalogState findExceptionCatalogStateOrNull(ObjectContext context);
+
   /**
    * Select Exception class by id.
    *
@@ -39,21 +93,32 @@ public interface ExceptionListingRepository {
   ExceptionClass findExceptionClassByIdOrNull(ObjectContext context, long exceptionClassId);
 
   /**
-   * Select Exception class by exception class name.
+   * Find one keyset page of the ids of the root exception causes, the newest first.
    *
-   * @param context       The context
-   * @param exceptionFQCM The exception class name
-   * @return Exception class
+   * @param context  The context
+   * @param beforeId Only the roots with a smaller id are found
+   * @param limit    The maximum number of ids
+   * @return The ids of the root exception causes, in descending order
    */
-  ExceptionClass findByExceptionClassByFQCM(ObjectContext context, String exceptionFQCM);
+  List<Long> findParentExceptionCauseIds(ObjectContext context, long beforeId, int limit);
 
   /**
-   * Get All Exception causes.
+   * Find the whole chains of root exception causes in a single query.
    *
    * @param context The context
-   * @return Exception class
+   * @param rootIds The ids of the root exception causes
+   * @return The causes of each chain by the id of its root, ordered from the root to the deepest cause
+   */
+  Map<Long, List<ExceptionCause>> findExceptionChains(ObjectContext context, Collection<Long> rootIds);
+
+  /**
+   * Find an exception cause and the causes nested in it.
+   *
+   * @param context          The context
+   * @param exceptionCauseId The exception cause id
+   * @return The cause first, then its nested causes, or an empty list if the cause does not exist
    */
-  List<ExceptionCause> findAllParentExceptionCauses(ObjectContext context);
+  List<ExceptionCause> findExceptionChainFrom(ObjectContext context, long exceptionCauseId);
 
   /**
    * Find Exception cause by id.
@@ -63,4 +128,104 @@ public interface ExceptionListingRepository {
    * @return Exception cause
    */
   ExceptionCause findExceptionCauseByIdOrNull(ObjectContext context, long exceptionCauseId);
+
+  /**
+   * Read one keyset page of the {@link ExceptionCause} entities recorded in the given range through a JDBC
+   * cursor. The rows are handed to the action as they are read, so the page is never held in memory as a whole.
+   *
+   * @param context The context
+   * @param from    Inclusive start of the range
+   * @param to      Exclusive end of the range
+   * @param afterId Only the entities with a greater id are read
+   * @param limit   The maximum number of entities to read
+   * @param action  Receives the entities in ascending id order
+   */
+  void forEachExceptionCause(ObjectContext context, LocalDateTime from, LocalDateTime to, long afterId,
+      int limit, Consumer<ExceptionCause> action);
+
+  /**
+   * Find the exception group of a fingerprint.
+   *
+   * @param context     The context
+   * @param fingerprint The fingerprint
+   * @return The exception group, or {@code null} if the fingerprint was never seen
+   */
+  ExceptionGroup findExceptionGroupByFingerprintOrNull(ObjectContext context, String fingerprint);
+
+  /**
+   * Find the most recently seen exception groups.
+   *
+   * @param context The context
+   * @param limit   The maximum number of groups
+   * @return The exception groups, the most recently seen first
+   */
+  List<ExceptionGroup> findRecentExceptionGroups(ObjectContext context, int limit);
+
+  /**
+   * Sum the occurrences of every exception group that were only counted because their capture was throttled.
+   *
+   * @param context The context
+   * @return The number of throttled occurrences
+   */
+  long sumThrottledOccurrences(ObjectContext context);
+
+  /**
+   * Find the ids of the root causes of the chains stored for a fingerprint.
+   *
+   * @param context     The context
+   * @param fingerprint The fingerprint
+   * @return The root cause ids, in no particular order
+   */
+  List<Long> findStoredChainRootIds(ObjectContext context, String fingerprint);
+
+  /**
+   * Delete stored chains, every cause of each chain included, without loading them.
+   *
+   * @param context The context
+   * @param rootIds The ids of the root causes of the chains
+   */
+  void deleteExceptionChains(ObjectContext context, Collection<Long> rootIds);
+
+  /**
+   * Find the stack frames of hashes.
+   *
+   * @param context     The context
+   * @param frameHashes The frame hashes
+   * @return The stack frames found, in no particular order
+   */
+  List<StackFrame> findStackFramesByHashes(ObjectContext context, Collection<String> frameHashes);
+
+  /**
+   * Find the stack frames of ids.
+   *
+   * @param context  The context
+   * @param frameIds The frame ids
+   * @return The stack frames found, in no particular order
+   */
+  List<StackFrame> findStackFramesByIds(ObjectContext context, Collection<Long> frameIds);
+
+  /**
+   * Read the encoded frame ids of every stored exception cause through a JDBC cursor, without loading the
+   * causes.
+   *
+   * @param context The context
+   * @param action  Receives the encoded frame ids of each cause, {@code null} for a cause without frames
+   */
+  void forEachEncodedStackFrames(ObjectContext context, Consumer<byte[]> action);
+
+  /**
+   * Find the ids of every stack frame.
+   *
+   * @param context The context
+   * @return The stack frame ids, in no particular order
+   */
+  List<Long> findAllStackFrameIds(ObjectContext context);
+
+  /**
+   * Delete stack frames in bulk, without loading them.
+   *
+   * @param context  The context
+   * @param frameIds The stack frame ids
+   */
+  void deleteStackFrames(ObjectContext context, Collection<Long> frameIds);
 }
@@ -16,70 +16,188 @@
 
 package org.easypeelsecurity.springdog.domain.errortracing.model;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import org.easypeelsecurity.springdog.domain.errortracing.model.converter.ExceptionConverter;
+import org.easypeelsecurity.springdog.domain.export.KeysetExport;
 import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingPageDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto.ExceptionItemDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionGroupDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionOccurrencesDto;
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
+import org.easypeelsecurity.springdog.shared.util.Assert;
 
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
 
 /**
  * Service class.
+ * <p>
+ * Every operation works on its own short-lived {@link ObjectContext}.
+ * </p>
+ * <p>
+ * The monitoring status of the exception classes is kept in memory by an {@link ExceptionMonitoringTable},
+ * loaded on the first lookup and reloaded whenever the exception classes change, so checking whether an
+ * exception is monitored never queries the database.
+ * </p>
+ * <p>
+ * Occurrences of the same exception are aggregated by fingerprint into one {@link ExceptionGroup} row, and the
+ * full chain is only stored for a bounded reservoir of sampled occurrences of each fingerprint. Once the
+ * reservoir is full, a new sampled chain replaces a random stored one. The stack frames of a stored chain
+ * are interned by a {@link StackFrameDictionary}, and each cause only keeps the varint-encoded ids of its
+ * frames.
+ * </p>
  */
 @Service
 public class ExceptionListingService {
-  private final ObjectContext context;
+  private static final int MAX_MESSAGE_LENGTH = 3000;
+
+  private final ServerRuntime runtime;
   private final ExceptionListingRepository exceptionRepository;
+  private final ExceptionMonitoringTable monitoringTable = new ExceptionMonitoringTable();
+  private final StackFrameDictionary stackFrameDictionary;
 
   /**
    * Constructor.
    */
   public ExceptionListingService(
-      @Qualifier("springdogContext") ObjectContext context, ExceptionListingRepository exceptionRepository) {
-    this.context = context;
+      @Qualifier("springdogRepository") ServerRuntime runtime, ExceptionListingRepository exceptionRepository) {
+    this.runtime = runtime;
     this.exceptionRepository = exceptionRepository;
+    this.stackFrameDictionary = new StackFrameDictionary(exceptionRepository);
   }
 
   /**
    * Save exceptions without duplicate.
+   * The saved exception classes are diffed against the parsed ones by class name, and only the difference is
+   * written: the new classes in a single batch and the removed ones with bulk deletes, in one transaction.
+   * Nothing is read or written beyond the catalog hash when the parsed list is the same as last time.
    *
    * @param parsedList The parsed Exception classes
    */
   public void saveExceptionsWithoutDuplicate(ExceptionClassesDto parsedList) {
-    List<ExceptionType> existingTypes = new ArrayList<>(exceptionRepository.findAllExceptions(context));
-
-    for (ExceptionListDto newListDto : parsedList.exceptionList()) {
-      ExceptionType existingType = findExistingType(existingTypes, newListDto.packageType());
-
-      if (existingType == null) {
-        // Add new ExceptionType
-        ExceptionType newType = context.newObject(ExceptionType.class);
-        newType.setPackageType(newListDto.packageType());
-        newType.setDescription(newListDto.description());
-        updateExceptionClasses(newType, newListDto.subExceptions());
-      } else {
-        // Update existing ExceptionType
-        existingType.setDescription(newListDto.description());
-        updateExceptionClasses(existingType, newListDto.subExceptions());
-        existingTypes.remove(existingType);
+    saveExceptions(parsedList, true);
+  }
+
+  /**
+   * Add exceptions without duplicate.
+   * Works like {@link #saveExceptionsWithoutDuplicate(ExceptionClassesDto)} but never deletes a saved exception
+   * class or package missing from the parsed list, for a list that may not hold every exception class, like a
+   * catalog written at compile time.
+   *
+   * @param parsedList The parsed Exception classes
+   */
+  public void addExceptionsWithoutDuplicate(ExceptionClassesDto parsedList) {
+    saveExceptions(parsedList, false);
+  }
+
+  private void saveExceptions(ExceptionClassesDto parsedList, boolean deleteMissing) {
+    String catalogHash = catalogHash(parsedList);
+    boolean changed = runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      ExceptionCatalogState catalogState = exceptionRepository.findExceptionCatalogStateOrNull(context);
+      if (catalogState != null && catalogHash.equals(catalogState.getCatalogHash())) {
+        return false;
       }
-    }
 
-    for (ExceptionType typeToDelete : existingTypes) {
-      for (ExceptionClass classToDelete : typeToDelete.getExceptionClasses()) {
-        context.deleteObject(classToDelete);
+      Map<String, ExceptionType> typesToDelete = new HashMap<>();
+      for (ExceptionType existingType : exceptionRepository.findAllExceptionTypes(context)) {
+        typesToDelete.put(existingType.getPackageType(), existingType);
+      }
+      Map<String, ExceptionClassRow> classesToDelete = new HashMap<>();
+      for (ExceptionClassRow existingClass : exceptionRepository.findAllExceptionClassRows(context)) {
+        classesToDelete.put(existingClass.exceptionClassName(), existingClass);
       }
-      context.deleteObject(typeToDelete);
+
+      Map<Long, ExceptionType> movedClasses = new HashMap<>();
+      for (ExceptionListDto newListDto : parsedList.exceptionList()) {
+        ExceptionType type = typesToDelete.remove(newListDto.packageType());
+        if (type == null) {
+          type = context.newObject(ExceptionType.class);
+          type.setPackageType(newListDto.packageType());
+        }
+        type.setDescription(newListDto.description());
+
+        for (ExceptionItemDto newException : newListDto.subExceptions()) {
+          ExceptionClassRow existingClass = classesToDelete.remove(newException.exceptionName());
+          if (existingClass == null) {
+            ExceptionConverter.convertDtoToEntity(context, type, newException);
+          } else if (!Objects.equals(existingClass.exceptionTypeId(), type.getId())) {
+            // A new type has no id yet, so it never matches
+            movedClasses.put(existingClass.id(), type);
+          }
+        }
+      }
+      for (ExceptionClass movedClass : exceptionRepository.findExceptionClassesByIds(context,
+          movedClasses.keySet())) {
+        movedClass.setRootExceptionPackageType(movedClasses.get(movedClass.getId()));
+      }
+
+      if (catalogState == null) {
+        catalogState = context.newObject(ExceptionCatalogState.class);
+      }
+      catalogState.setCatalogHash(catalogHash);
+      catalogState.setSyncedAt(LocalDateTime.now());
+      context.commitChanges();
+
+      if (deleteMissing) {
+        exceptionRepository.deleteExceptionClasses(context,
+            classesToDelete.values().stream().map(ExceptionClassRow::id).toList());
+        exceptionRepository.deleteExceptionTypes(context,
+            typesToDelete.values().stream().map(ExceptionType::getId).toList());
+      }
+      return true;
+    });
+    if (changed) {
+      reloadMonitoringTable();
     }
+  }
 
-    context.commitChanges();
+  /**
+   * Hashes the exception classes independently of their order.
+   */
+  static String catalogHash(ExceptionClassesDto exceptionClasses) {
+    List<String> lines = new ArrayList<>();
+    for (ExceptionListDto listDto : exceptionClasses.exceptionList()) {
+      lines.add(listDto.packageType() + '\t' + listDto.description());
+      for (ExceptionItemDto item : listDto.subExceptions()) {
+        lines.add(listDto.packageType() + '\t' + item.exceptionName() + '\t' + item.isEnableToMonitor());
+      }
+    }
+    Collections.sort(lines);
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String line : lines) {
+        digest.update(line.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
   }
 
   /**
@@ -89,81 +207,236 @@ public class ExceptionListingService {
    * @param isEnableToMonitor The monitoring status to set
    */
   public void changeMonitoringStatus(long exceptionClassId, boolean isEnableToMonitor) {
-    ExceptionClass exceptionClass = exceptionRepository.findExceptionClassByIdOrNull(context, exceptionClassId);
-    if (exceptionClass == null) {
-      throw new IllegalArgumentException("Exception class not found.");
+    runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      ExceptionClass exceptionClass =
+          exceptionRepository.findExceptionClassByIdOrNull(context, exceptionClassId);
+      if (exceptionClass == null) {
+        throw new IllegalArgumentException("Exception class not found.");
+      }
+
+      exceptionClass.setMonitoringEnabled(isEnableToMonitor);
+      context.commitChanges();
+      return null;
+    });
+    reloadMonitoringTable();
+  }
+
+  private synchronized void reloadMonitoringTable() {
+    Map<String, Boolean> enabledByClassName = new HashMap<>();
+    for (ExceptionType exceptionType : exceptionRepository.findAllExceptions(runtime.newContext())) {
+      for (ExceptionClass exceptionClass : exceptionType.getExceptionClasses()) {
+        enabledByClassName.put(exceptionClass.getExceptionClassName(), exceptionClass.isMonitoringEnabled());
+      }
     }
+    monitoringTable.replace(enabledByClassName);
+  }
 
-    exceptionClass.setMonitoringEnabled(isEnableToMonitor);
-    context.commitChanges();
+  /**
+   * Get the exception listing.
+   */
+  public ExceptionClassesDto getExceptionListing() {
+    return ExceptionConverter.convertEntitiesToDto(exceptionRepository.findAllExceptions(runtime.newContext()));
   }
 
-  private ExceptionType findExistingType(List<ExceptionType> existingTypes, String packageType) {
-    return existingTypes.stream()
-        .filter(type -> type.getPackageType().equals(packageType))
-        .findFirst()
-        .orElse(null);
+  /**
+   * Check if the exception is enabled. A class that is not listed follows its nearest listed superclass.
+   *
+   * @param exceptionClass The exception class
+   * @return True if the exception is enabled
+   */
+  public boolean isExceptionEnabled(Class<?> exceptionClass) {
+    if (!monitoringTable.isLoaded()) {
+      reloadMonitoringTable();
+    }
+    return monitoringTable.isEnabled(exceptionClass);
   }
 
-  private void updateExceptionClasses(ExceptionType exceptionType, List<ExceptionItemDto> newExceptions) {
-    List<ExceptionClass> existingClasses = new ArrayList<>(exceptionType.getExceptionClasses());
+  /**
+   * Save exception.
+   *
+   * @param errorChain The error chain
+   */
+  public void saveException(ErrorTracingDto errorChain) {
+    runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      var frameEncoder = internStackFrames(context, List.of(errorChain));
+      ExceptionConverter.convertDtoToEntity(context, errorChain, frameEncoder);
+      context.commitChanges();
+      return null;
+    });
+  }
 
-    for (ExceptionItemDto newException : newExceptions) {
-      ExceptionClass existingClass = findExistingClass(existingClasses, newException.exceptionName());
+  /**
+   * Save the occurrences of a fingerprint collected since the last flush.
+   * <p>
+   * The occurrences are added to the {@link ExceptionGroup} of the fingerprint, which is created on the first
+   * flush of a new fingerprint. The sampled chains are stored while the fingerprint has fewer stored chains
+   * than the limit. Beyond it, each sampled chain replaces a stored chain picked at random, so the stored
+   * chains stay a uniform sample of the occurrences as long as the chains are sampled by reservoir sampling.
+   * </p>
+   *
+   * @param occurrences                The occurrences of one fingerprint
+   * @param storedTracesPerFingerprint The maximum number of full chains stored per fingerprint
+   * @throws IllegalArgumentException if the occurrences are invalid
+   */
+  public void saveOccurrences(ExceptionOccurrencesDto occurrences, int storedTracesPerFingerprint) {
+    Assert.hasText(occurrences.fingerprint(), "Fingerprint must not be empty");
+    Assert.isTrue(occurrences.occurrenceCount() > 0, "Occurrence count must be greater than 0");
+    Assert.isTrue(storedTracesPerFingerprint >= 0, "Stored traces per fingerprint must not be negative");
 
-      if (existingClass == null) {
-        ExceptionConverter.convertDtoToEntity(context, exceptionType, newException);
-      } else {
-        existingClasses.remove(existingClass);
+    runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      ExceptionGroup group =
+          exceptionRepository.findExceptionGroupByFingerprintOrNull(context, occurrences.fingerprint());
+      if (group == null) {
+        group = context.newObject(ExceptionGroup.class);
+        group.setFingerprint(occurrences.fingerprint());
+        group.setExceptionClassName(occurrences.exceptionClassName());
       }
-    }
+      group.addOccurrences(occurrences.occurrenceCount(), occurrences.firstSeen(), occurrences.lastSeen(),
+          truncateMessage(occurrences.sampleMessage()), occurrences.methodSignature());
+      group.addThrottledOccurrences(occurrences.throttledCount());
 
-    for (ExceptionClass classToDelete : existingClasses) {
-      context.deleteObject(classToDelete);
-    }
+      List<ErrorTracingDto> storedChains = occurrences.sampledChains().stream()
+          .limit(storedTracesPerFingerprint)
+          .toList();
+      if (storedChains.size() > storedTracesPerFingerprint - group.getStoredTraceCount()) {
+        evictStoredChains(context, group, storedChains.size(), storedTracesPerFingerprint);
+      }
+      Function<List<StackFrameDto>, byte[]> frameEncoder = internStackFrames(context, storedChains);
+      for (ErrorTracingDto chain : storedChains) {
+        ExceptionCause cause = ExceptionConverter.convertDtoToEntity(context, chain, frameEncoder);
+        while (cause != null) {
+          cause.setFingerprint(occurrences.fingerprint());
+          cause = cause.getNextException();
+        }
+        group.incrementStoredTraceCount();
+      }
+      context.commitChanges();
+      return null;
+    });
   }
 
-  private ExceptionClass findExistingClass(List<ExceptionClass> existingClasses, String exceptionName) {
-    return existingClasses.stream()
-        .filter(clazz -> clazz.getExceptionClassName().equals(exceptionName))
-        .findFirst()
-        .orElse(null);
+  /**
+   * Delete the interned stack frames that no stored chain refers to any more, such as the frames of the chains
+   * deleted by the retention. The frame ids of the stored causes are read through a JDBC cursor, so only the
+   * ids are held in memory.
+   * <p>
+   * It must run on the writer thread of the {@code SpringdogWriteQueue}, which stores every chain: a chain
+   * stored meanwhile could otherwise refer to a frame that is about to be deleted.
+   * </p>
+   *
+   * @return The number of deleted stack frames
+   */
+  public int deleteUnusedStackFrames() {
+    Set<Long> unusedFrameIds = runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      Set<Long> frameIds = new HashSet<>(exceptionRepository.findAllStackFrameIds(context));
+      exceptionRepository.forEachEncodedStackFrames(context, encoded -> {
+        for (long frameId : FrameIdCodec.decode(encoded)) {
+          frameIds.remove(frameId);
+        }
+      });
+      if (!frameIds.isEmpty()) {
+        exceptionRepository.deleteStackFrames(context, frameIds);
+      }
+      return frameIds;
+    });
+    stackFrameDictionary.forget(unusedFrameIds);
+    return unusedFrameIds.size();
   }
 
   /**
-   * Get the exception listing.
+   * Deletes random stored chains of a group so that the new chains fit. The stored chains are counted again, as
+   * the retention deletes old chains without updating their group.
    */
-  public ExceptionClassesDto getExceptionListing() {
-    return ExceptionConverter.convertEntitiesToDto(exceptionRepository.findAllExceptions(context));
+  private void evictStoredChains(ObjectContext context, ExceptionGroup group, int newChainCount,
+      int storedTracesPerFingerprint) {
+    List<Long> rootIds = new ArrayList<>(exceptionRepository.findStoredChainRootIds(context,
+        group.getFingerprint()));
+    int evictedCount = Math.min(rootIds.size(), newChainCount - (storedTracesPerFingerprint - rootIds.size()));
+    if (evictedCount > 0) {
+      Collections.shuffle(rootIds, ThreadLocalRandom.current());
+      exceptionRepository.deleteExceptionChains(context, rootIds.subList(0, evictedCount));
+    }
+    group.setStoredTraceCount(rootIds.size() - Math.max(0, evictedCount));
+  }
+
+  private Function<List<StackFrameDto>, byte[]> internStackFrames(ObjectContext context,
+      List<ErrorTracingDto> chains) {
+    Set<StackFrameDto> frames = new HashSet<>();
+    for (ErrorTracingDto chain : chains) {
+      for (ErrorTracingDto cause = chain; cause != null; cause = cause.getNext()) {
+        frames.addAll(cause.getStackFrames());
+      }
+    }
+    Map<StackFrameDto, Long> frameIds = stackFrameDictionary.intern(context, frames);
+    return causeFrames -> FrameIdCodec.encode(causeFrames.stream().mapToLong(frameIds::get).toArray());
+  }
+
+  private static String truncateMessage(String message) {
+    if (message == null) {
+      return "";
+    }
+    return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
   }
 
   /**
-   * Check if the exception is enabled.
+   * Get the most recently seen exception groups.
    *
-   * @param exceptionFQCM The exception class name
-   * @return True if the exception is enabled
+   * @param limit The maximum number of groups
+   * @return The exception groups, the most recently seen first
    */
-  public boolean isExceptionEnabled(String exceptionFQCM) {
-    ExceptionClass exceptionClass = exceptionRepository.findByExceptionClassByFQCM(context, exceptionFQCM);
-    return exceptionClass != null && exceptionClass.isMonitoringEnabled();
+  public List<ExceptionGroupDto> getRecentExceptionGroups(int limit) {
+    return exceptionRepository.findRecentExceptionGroups(runtime.newContext(), limit).stream()
+        .map(group -> new ExceptionGroupDto(
+            group.getFingerprint(),
+            group.getExceptionClassName(),
+            group.getSampleMessage(),
+            group.getMethodSignature(),
+            group.getOccurrenceCount(),
+            group.getStoredTraceCount(),
+            group.getThrottledCount(),
+            group.getFirstSeen(),
+            group.getLastSeen()))
+        .toList();
   }
 
   /**
-   * Save exception.
+   * Get the number of occurrences that were only counted because the capture of their fingerprint was
+   * throttled, over every exception group.
    *
-   * @param errorChain The error chain
+   * @return The number of throttled occurrences
    */
-  public void saveException(ErrorTracingDto errorChain) {
-    var exceptionCause = ExceptionConverter.convertDtoToEntity(context, errorChain);
-    context.commitChanges();
+  public long getThrottledOccurrenceCount() {
+    return exceptionRepository.sumThrottledOccurrences(runtime.newContext());
   }
 
   /**
-   * Get all causes.
+   * Get one page of the root causes with their whole chains, the newest first. The page costs one query for the
+   * root ids and one for their chains, whatever the number of causes.
+   *
+   * @param beforeId Only the roots with a smaller id are returned, {@code null} for the first page
+   * @param pageSize The maximum number of roots
+   * @return The page of root causes
    */
-  public List<ErrorTracingDto> getAllParentCauses() {
-    return ExceptionConverter.entityToErrorTracingDto(
-        exceptionRepository.findAllParentExceptionCauses(context));
+  public ErrorTracingPageDto getParentCauses(Long beforeId, int pageSize) {
+    Assert.isTrue(pageSize > 0, "Page size must be greater than 0");
+    ObjectContext context = runtime.newContext();
+    List<Long> rootIds = exceptionRepository.findParentExceptionCauseIds(context,
+        beforeId == null ? Long.MAX_VALUE : beforeId, pageSize + 1);
+    boolean hasNextPage = rootIds.size() > pageSize;
+    List<Long> pageRootIds = hasNextPage ? rootIds.subList(0, pageSize) : rootIds;
+
+    Map<Long, List<ExceptionCause>> chains = exceptionRepository.findExceptionChains(context, pageRootIds);
+    preloadStackFrames(context, chains.values());
+    List<ErrorTracingDto> causes = pageRootIds.stream()
+        .map(chains::get)
+        .filter(Objects::nonNull)
+        .map(chain -> ExceptionConverter.chainToErrorTracingDto(chain, stackFrameDecoder(context)))
+        .toList();
+    return new ErrorTracingPageDto(causes, hasNextPage ? pageRootIds.get(pageSize - 1) : null);
   }
 
   /**
@@ -173,10 +446,55 @@ public class ExceptionListingService {
    * @return The next error trace
    */
   public ErrorTracingDto getErrorTrace(long errorTraceId) {
-    var result = exceptionRepository.findExceptionCauseByIdOrNull(context, errorTraceId);
-    if (result == null) {
+    ObjectContext context = runtime.newContext();
+    List<ExceptionCause> chain = exceptionRepository.findExceptionChainFrom(context, errorTraceId);
+    if (chain.isEmpty()) {
       throw new IllegalArgumentException("Error trace not found.");
     }
-    return ExceptionConverter.entityToErrorTracingDto(result);
+    preloadStackFrames(context, List.of(chain));
+    return ExceptionConverter.chainToErrorTracingDto(chain, stackFrameDecoder(context));
+  }
+
+  private void preloadStackFrames(ObjectContext context, Collection<List<ExceptionCause>> chains) {
+    long[] frameIds = chains.stream()
+        .flatMap(List::stream)
+        .map(ExceptionCause::getStackFrames)
+        .filter(Objects::nonNull)
+        .flatMapToLong(encoded -> Arrays.stream(FrameIdCodec.decode(encoded)))
+        .distinct()
+        .toArray();
+    stackFrameDictionary.resolve(context, frameIds);
+  }
+
+  private Function<byte[], List<StackFrameDto>> stackFrameDecoder(ObjectContext context) {
+    return encoded -> stackFrameDictionary.resolve(context, FrameIdCodec.decode(encoded));
+  }
+
+  /**
+   * Export the error traces recorded in a range, page by page.
+   * Every cause of a chain is exported as its own trace, linked to the previous cause by its parent trace id.
+   *
+   * @param from   Inclusive start of the range
+   * @param to     Exclusive end of the range
+   * @param action Receives the traces in the order they were recorded
+   * @return The number of exported traces
+   * @throws IllegalArgumentException if the range is empty
+   */
+  public long exportErrorTraces(LocalDateTime from, LocalDateTime to, Consumer<ErrorTracingDto> action) {
+    Assert.isTrue(from.isBefore(to), "The start of the range must be before its end");
+    return KeysetExport.<ExceptionCause>export(0, KeysetExport.PAGE_SIZE,
+        (afterId, limit, sink) -> exceptionRepository.forEachExceptionCause(runtime.newContext(), from, to,
+            afterId, limit, sink),
+        ExceptionCause::getId,
+        cause -> action.accept(ErrorTracingDto.builder()
+            .id(cause.getId())
+            .message(cause.getMessage())
+            .fileName(cause.getFileName())
+            .className(cause.getClassName())
+            .methodName(cause.getMethodName())
+            .lineNumber(cause.getLine())
+            .parentTraceId(cause.getParentExceptionId())
+            .timestamp(cause.getTimestamp())
+            .build()));
   }
 }
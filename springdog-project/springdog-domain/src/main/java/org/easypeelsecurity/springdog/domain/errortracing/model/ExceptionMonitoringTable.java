@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import java.util.Map;
+
+/**
+ * In-memory copy of the monitoring status of the exception classes.
+ * <p>
+ * The status of an exception class is the status of the nearest class of its superclass chain that is listed,
+ * so a subclass follows the type it extends unless it is listed itself. Classes without any listed superclass
+ * are not monitored. The result is resolved once per {@link Class} and kept by a {@link ClassValue}, which is
+ * replaced as a whole whenever the statuses change.
+ * </p>
+ */
+final class ExceptionMonitoringTable {
+  private volatile MonitoringStatus status;
+
+  /**
+   * Whether the statuses were loaded at least once.
+   */
+  boolean isLoaded() {
+    return status != null;
+  }
+
+  /**
+   * Whether exceptions of the given class are monitored.
+   *
+   * @param exceptionClass the exception class
+   * @return true if the class or its nearest listed superclass is enabled
+   */
+  boolean isEnabled(Class<?> exceptionClass) {
+    MonitoringStatus current = status;
+    return current != null && current.get(exceptionClass);
+  }
+
+  /**
+   * Replaces every status at once.
+   *
+   * @param enabledByClassName the monitoring status by fully qualified class name
+   */
+  void replace(Map<String, Boolean> enabledByClassName) {
+    status = new MonitoringStatus(Map.copyOf(enabledByClassName));
+  }
+
+  private static final class MonitoringStatus extends ClassValue<Boolean> {
+    private final Map<String, Boolean> enabledByClassName;
+
+    private MonitoringStatus(Map<String, Boolean> enabledByClassName) {
+      this.enabledByClassName = enabledByClassName;
+    }
+
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+        Boolean enabled = enabledByClassName.get(current.getName());
+        if (enabled != null) {
+          return enabled;
+        }
+      }
+      return Boolean.FALSE;
+    }
+  }
+}
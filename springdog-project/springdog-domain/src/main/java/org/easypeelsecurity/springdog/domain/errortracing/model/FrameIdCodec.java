@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import java.util.Arrays;
+
+/**
+ * Encodes the frame ids of a stack trace as unsigned LEB128 varints, so that the ids of a dictionary of up to
+ * 16,384 frames take at most two bytes each.
+ */
+public final class FrameIdCodec {
+  private static final int MAX_VARINT_BYTES = 10;
+  private static final int PAYLOAD_BITS = 7;
+  private static final int PAYLOAD_MASK = 0x7F;
+  private static final int CONTINUATION_BIT = 0x80;
+
+  private FrameIdCodec() {
+  }
+
+  /**
+   * Encodes frame ids.
+   *
+   * @param frameIds the frame ids, none of them negative
+   * @return the encoded ids, or null if there is none
+   * @throws IllegalArgumentException if an id is negative
+   */
+  public static byte[] encode(long[] frameIds) {
+    if (frameIds.length == 0) {
+      return null;
+    }
+    byte[] buffer = new byte[frameIds.length * MAX_VARINT_BYTES];
+    int length = 0;
+    for (long frameId : frameIds) {
+      if (frameId < 0) {
+        throw new IllegalArgumentException("Frame id must not be negative");
+      }
+      long remaining = frameId;
+      while ((remaining & ~PAYLOAD_MASK) != 0) {
+        buffer[length++] = (byte) ((remaining & PAYLOAD_MASK) | CONTINUATION_BIT);
+        remaining >>>= PAYLOAD_BITS;
+      }
+      buffer[length++] = (byte) remaining;
+    }
+    return Arrays.copyOf(buffer, length);
+  }
+
+  /**
+   * Decodes frame ids.
+   *
+   * @param encoded the encoded ids, may be null
+   * @return the frame ids, empty if there is none
+   * @throws IllegalArgumentException if the last id is incomplete
+   */
+  public static long[] decode(byte[] encoded) {
+    if (encoded == null) {
+      return new long[0];
+    }
+    long[] frameIds = new long[encoded.length];
+    int count = 0;
+    long value = 0;
+    int shift = 0;
+    for (byte current : encoded) {
+      value |= (long) (current & PAYLOAD_MASK) << shift;
+      if ((current & CONTINUATION_BIT) == 0) {
+        frameIds[count++] = value;
+        value = 0;
+        shift = 0;
+      } else {
+        shift += PAYLOAD_BITS;
+      }
+    }
+    if (shift != 0) {
+      throw new IllegalArgumentException("Encoded frame ids end in the middle of an id");
+    }
+    return Arrays.copyOf(frameIds, count);
+  }
+}
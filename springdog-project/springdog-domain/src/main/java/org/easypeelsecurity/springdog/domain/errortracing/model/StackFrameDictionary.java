@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
+
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.tx.BaseTransaction;
+import org.apache.cayenne.tx.Transaction;
+import org.apache.cayenne.tx.TransactionListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Interns the distinct stack frames into the {@link StackFrame} table, so stored stack traces only keep the ids
+ * of their frames.
+ * <p>
+ * A frame is found by the SHA-256 hash of its class, method, file and line. The most used frames are cached in
+ * both directions. Frames inserted by a transaction that is rolled back are removed from the cache, as their
+ * ids were never committed.
+ * </p>
+ */
+final class StackFrameDictionary {
+  private static final int MAX_CACHED_FRAMES = 100_000;
+  private static final int MAX_IN_LIST_SIZE = 500;
+  private static final int MAX_CLASS_NAME_LENGTH = 500;
+  private static final int MAX_METHOD_NAME_LENGTH = 300;
+  private static final int MAX_FILE_NAME_LENGTH = 500;
+  private static final StackFrameDto UNKNOWN_FRAME = new StackFrameDto("<unknown>", "<unknown>", null, -1);
+
+  private final ExceptionListingRepository repository;
+  private final Cache<StackFrameDto, Long> idByFrame =
+      Caffeine.newBuilder().maximumSize(MAX_CACHED_FRAMES).build();
+  private final Cache<Long, StackFrameDto> frameById =
+      Caffeine.newBuilder().maximumSize(MAX_CACHED_FRAMES).build();
+
+  StackFrameDictionary(ExceptionListingRepository repository) {
+    this.repository = repository;
+  }
+
+  /**
+   * Returns the ids of frames, inserting the frames seen for the first time.
+   * New frames are committed in the given context, within its current transaction.
+   *
+   * @param context the context
+   * @param frames  the frames
+   * @return the id of every frame
+   */
+  Map<StackFrameDto, Long> intern(ObjectContext context, Collection<StackFrameDto> frames) {
+    Map<StackFrameDto, Long> result = new HashMap<>();
+    Map<String, StackFrameDto> missingByHash = new HashMap<>();
+    for (StackFrameDto frame : frames) {
+      Long frameId = idByFrame.getIfPresent(frame);
+      if (frameId == null) {
+        missingByHash.put(hash(frame), frame);
+      } else {
+        result.put(frame, frameId);
+      }
+    }
+    if (missingByHash.isEmpty()) {
+      return result;
+    }
+
+    for (List<String> hashes : partition(missingByHash.keySet())) {
+      for (StackFrame stored : repository.findStackFramesByHashes(context, hashes)) {
+        StackFrameDto frame = missingByHash.remove(stored.getFrameHash());
+        if (frame != null) {
+          long frameId = Cayenne.longPKForObject(stored);
+          cache(frame, frameId);
+          result.put(frame, frameId);
+        }
+      }
+    }
+    if (missingByHash.isEmpty()) {
+      return result;
+    }
+
+    Map<StackFrameDto, StackFrame> created = new HashMap<>();
+    missingByHash.forEach((frameHash, frame) -> created.put(frame, newStackFrame(context, frameHash, frame)));
+    context.commitChanges();
+    List<Long> createdIds = new ArrayList<>(created.size());
+    created.forEach((frame, stored) -> {
+      long frameId = Cayenne.longPKForObject(stored);
+      cache(frame, frameId);
+      result.put(frame, frameId);
+      createdIds.add(frameId);
+    });
+    forgetOnRollback(created.keySet(), createdIds);
+    return result;
+  }
+
+  /**
+   * Returns the frames of ids. An id that is not found resolves to an unknown frame.
+   *
+   * @param context  the context
+   * @param frameIds the frame ids
+   * @return the frames, in the order of the ids
+   */
+  List<StackFrameDto> resolve(ObjectContext context, long[] frameIds) {
+    Map<Long, StackFrameDto> found = new HashMap<>();
+    Set<Long> missing = new HashSet<>();
+    for (long frameId : frameIds) {
+      StackFrameDto frame = frameById.getIfPresent(frameId);
+      if (frame == null) {
+        missing.add(frameId);
+      } else {
+        found.put(frameId, frame);
+      }
+    }
+    for (List<Long> ids : partition(missing)) {
+      for (StackFrame stored : repository.findStackFramesByIds(context, ids)) {
+        StackFrameDto frame = new StackFrameDto(stored.getClassName(), stored.getMethodName(),
+            stored.getFileName(), stored.getLineNumber());
+        long frameId = Cayenne.longPKForObject(stored);
+        cache(frame, frameId);
+        found.put(frameId, frame);
+      }
+    }
+
+    List<StackFrameDto> result = new ArrayList<>(frameIds.length);
+    for (long frameId : frameIds) {
+      result.add(found.getOrDefault(frameId, UNKNOWN_FRAME));
+    }
+    return result;
+  }
+
+  /**
+   * Forgets deleted frames, so that their ids are never handed out again.
+   *
+   * @param frameIds the ids of the deleted frames
+   */
+  void forget(Set<Long> frameIds) {
+    frameById.invalidateAll(frameIds);
+    idByFrame.asMap().values().removeIf(frameIds::contains);
+  }
+
+  private void cache(StackFrameDto frame, long frameId) {
+    idByFrame.put(frame, frameId);
+    frameById.put(frameId, frame);
+  }
+
+  private void forgetOnRollback(Collection<StackFrameDto> frames, Collection<Long> frameIds) {
+    Transaction transaction = BaseTransaction.getThreadTransaction();
+    if (transaction == null) {
+      return;
+    }
+    List<StackFrameDto> createdFrames = List.copyOf(frames);
+    transaction.addListener(new TransactionListener() {
+      @Override
+      public void willCommit(Transaction tx) {
+        // the cached ids become valid
+      }
+
+      @Override
+      public void willRollback(Transaction tx) {
+        idByFrame.invalidateAll(createdFrames);
+        frameById.invalidateAll(frameIds);
+      }
+
+      @Override
+      public void willAddConnection(Transaction tx, String connectionName, Connection connection) {
+        // nothing to do
+      }
+    });
+  }
+
+  private static StackFrame newStackFrame(ObjectContext context, String frameHash, StackFrameDto frame) {
+    StackFrame stackFrame = context.newObject(StackFrame.class);
+    stackFrame.setFrameHash(frameHash);
+    stackFrame.setClassName(truncate(frame.className(), MAX_CLASS_NAME_LENGTH));
+    stackFrame.setMethodName(truncate(frame.methodName(), MAX_METHOD_NAME_LENGTH));
+    stackFrame.setFileName(truncate(frame.fileName(), MAX_FILE_NAME_LENGTH));
+    stackFrame.setLineNumber(frame.lineNumber());
+    return stackFrame;
+  }
+
+  private static String truncate(String value, int maxLength) {
+    if (value == null || value.length() <= maxLength) {
+      return value;
+    }
+    return value.substring(0, maxLength);
+  }
+
+  static String hash(StackFrameDto frame) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      String key = frame.className() + '\n' + frame.methodName() + '\n' + frame.fileName() + '\n' +
+          frame.lineNumber();
+      return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static <T> List<List<T>> partition(Collection<T> values) {
+    List<List<T>> partitions = new ArrayList<>();
+    List<T> current = new ArrayList<>(Math.min(values.size(), MAX_IN_LIST_SIZE));
+    for (T value : values) {
+      if (current.size() == MAX_IN_LIST_SIZE) {
+        partitions.add(current);
+        current = new ArrayList<>(MAX_IN_LIST_SIZE);
+      }
+      current.add(value);
+    }
+    if (!current.isEmpty()) {
+      partitions.add(current);
+    }
+    return partitions;
+  }
+}
@@ -0,0 +1,108 @@
+package org.easypeelsecurity.springdog.domain.errortracing.model.auto;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+
+import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.exp.property.DateProperty;
+import org.apache.cayenne.exp.property.PropertyFactory;
+import org.apache.cayenne.exp.property.StringProperty;
+
+/**
+ * Class _ExceptionCatalogState was generated by Cayenne.
+ * It is probably a good idea to avoid changing this class manually,
+ * since it may be overwritten next time code is regenerated.
+ * If you need to make any customizations, please use subclass.
+ */
+public abstract class _ExceptionCatalogState extends BaseDataObject {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String ID_PK_COLUMN = "ID";
+
+    public static final StringProperty<String> CATALOG_HASH = PropertyFactory.createString("catalogHash", String.class);
+    public static final DateProperty<LocalDateTime> SYNCED_AT = PropertyFactory.createDate("syncedAt", LocalDateTime.class);
+
+    protected String catalogHash;
+    protected LocalDateTime syncedAt;
+
+
+    public void setCatalogHash(String catalogHash) {
+        beforePropertyWrite("catalogHash", this.catalogHash, catalogHash);
+        this.catalogHash = catalogHash;
+    }
+
+    public String getCatalogHash() {
+        beforePropertyRead("catalogHash");
+        return this.catalogHash;
+    }
+
+    public void setSyncedAt(LocalDateTime syncedAt) {
+        beforePropertyWrite("syncedAt", this.syncedAt, syncedAt);
+        this.syncedAt = syncedAt;
+    }
+
+    public LocalDateTime getSyncedAt() {
+        beforePropertyRead("syncedAt");
+        return this.syncedAt;
+    }
+
+    @Override
+    public Object readPropertyDirectly(String propName) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch(propName) {
+            case "catalogHash":
+                return this.catalogHash;
+            case "syncedAt":
+                return this.syncedAt;
+            default:
+                return super.readPropertyDirectly(propName);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(String propName, Object val) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch (propName) {
+            case "catalogHash":
+                this.catalogHash = (String)val;
+                break;
+            case "syncedAt":
+                this.syncedAt = (LocalDateTime)val;
+                break;
+            default:
+                super.writePropertyDirectly(propName, val);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        writeSerialized(out);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        readSerialized(in);
+    }
+
+    @Override
+    protected void writeState(ObjectOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeObject(this.catalogHash);
+        out.writeObject(this.syncedAt);
+    }
+
+    @Override
+    protected void readState(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        this.catalogHash = (String)in.readObject();
+        this.syncedAt = (LocalDateTime)in.readObject();
+    }
+
+}
@@ -6,6 +6,7 @@ import java.io.ObjectOutputStream;
 import java.time.LocalDateTime;
 
 import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.exp.property.BaseProperty;
 import org.apache.cayenne.exp.property.DateProperty;
 import org.apache.cayenne.exp.property.EntityProperty;
 import org.apache.cayenne.exp.property.NumericProperty;
@@ -27,24 +28,36 @@ public abstract class _ExceptionCause extends BaseDataObject {
 
     public static final StringProperty<String> CLASS_NAME = PropertyFactory.createString("className", String.class);
     public static final StringProperty<String> FILE_NAME = PropertyFactory.createString("fileName", String.class);
+    public static final StringProperty<String> FINGERPRINT = PropertyFactory.createString("fingerprint", String.class);
     public static final NumericProperty<Long> ID = PropertyFactory.createNumeric("id", Long.class);
     public static final NumericProperty<Integer> LINE = PropertyFactory.createNumeric("line", Integer.class);
     public static final StringProperty<String> MESSAGE = PropertyFactory.createString("message", String.class);
     public static final StringProperty<String> METHOD_NAME = PropertyFactory.createString("methodName", String.class);
+    public static final NumericProperty<Integer> OMITTED_FRAME_COUNT = PropertyFactory.createNumeric("omittedFrameCount", Integer.class);
     public static final NumericProperty<Long> PARENT_EXCEPTION_ID = PropertyFactory.createNumeric("parentExceptionId", Long.class);
+    public static final BaseProperty<Boolean> ROOT = PropertyFactory.createBase("root", Boolean.class);
+    public static final BaseProperty<byte[]> STACK_FRAMES = PropertyFactory.createBase("stackFrames", byte[].class);
     public static final DateProperty<LocalDateTime> TIMESTAMP = PropertyFactory.createDate("timestamp", LocalDateTime.class);
+    public static final NumericProperty<Integer> TRUNCATED_FRAME_COUNT = PropertyFactory.createNumeric("truncatedFrameCount", Integer.class);
     public static final EntityProperty<ExceptionCause> NEXT_EXCEPTION = PropertyFactory.createEntity("nextException", ExceptionCause.class);
+    public static final EntityProperty<ExceptionCause> ROOT_EXCEPTION = PropertyFactory.createEntity("rootException", ExceptionCause.class);
 
     protected String className;
     protected String fileName;
+    protected String fingerprint;
     protected long id;
     protected int line;
     protected String message;
     protected String methodName;
+    protected int omittedFrameCount;
     protected Long parentExceptionId;
+    protected boolean root;
+    protected byte[] stackFrames;
     protected LocalDateTime timestamp;
+    protected int truncatedFrameCount;
 
     protected Object nextException;
+    protected Object rootException;
 
     public void setClassName(String className) {
         beforePropertyWrite("className", this.className, className);
@@ -66,6 +79,16 @@ public abstract class _ExceptionCause extends BaseDataObject {
         return this.fileName;
     }
 
+    public void setFingerprint(String fingerprint) {
+        beforePropertyWrite("fingerprint", this.fingerprint, fingerprint);
+        this.fingerprint = fingerprint;
+    }
+
+    public String getFingerprint() {
+        beforePropertyRead("fingerprint");
+        return this.fingerprint;
+    }
+
     public void setId(long id) {
         beforePropertyWrite("id", this.id, id);
         this.id = id;
@@ -106,6 +129,16 @@ public abstract class _ExceptionCause extends BaseDataObject {
         return this.methodName;
     }
 
+    public void setOmittedFrameCount(int omittedFrameCount) {
+        beforePropertyWrite("omittedFrameCount", this.omittedFrameCount, omittedFrameCount);
+        this.omittedFrameCount = omittedFrameCount;
+    }
+
+    public int getOmittedFrameCount() {
+        beforePropertyRead("omittedFrameCount");
+        return this.omittedFrameCount;
+    }
+
     public void setParentExceptionId(Long parentExceptionId) {
         beforePropertyWrite("parentExceptionId", this.parentExceptionId, parentExceptionId);
         this.parentExceptionId = parentExceptionId;
@@ -116,6 +149,26 @@ public abstract class _ExceptionCause extends BaseDataObject {
         return this.parentExceptionId;
     }
 
+    public void setRoot(boolean root) {
+        beforePropertyWrite("root", this.root, root);
+        this.root = root;
+    }
+
+    public boolean isRoot() {
+        beforePropertyRead("root");
+        return this.root;
+    }
+
+    public void setStackFrames(byte[] stackFrames) {
+        beforePropertyWrite("stackFrames", this.stackFrames, stackFrames);
+        this.stackFrames = stackFrames;
+    }
+
+    public byte[] getStackFrames() {
+        beforePropertyRead("stackFrames");
+        return this.stackFrames;
+    }
+
     public void setTimestamp(LocalDateTime timestamp) {
         beforePropertyWrite("timestamp", this.timestamp, timestamp);
         this.timestamp = timestamp;
@@ -126,6 +179,16 @@ public abstract class _ExceptionCause extends BaseDataObject {
         return this.timestamp;
     }
 
+    public void setTruncatedFrameCount(int truncatedFrameCount) {
+        beforePropertyWrite("truncatedFrameCount", this.truncatedFrameCount, truncatedFrameCount);
+        this.truncatedFrameCount = truncatedFrameCount;
+    }
+
+    public int getTruncatedFrameCount() {
+        beforePropertyRead("truncatedFrameCount");
+        return this.truncatedFrameCount;
+    }
+
     public void setNextException(ExceptionCause nextException) {
         setToOneTarget("nextException", nextException, true);
     }
@@ -134,6 +197,14 @@ public abstract class _ExceptionCause extends BaseDataObject {
         return (ExceptionCause)readProperty("nextException");
     }
 
+    public void setRootException(ExceptionCause rootException) {
+        setToOneTarget("rootException", rootException, true);
+    }
+
+    public ExceptionCause getRootException() {
+        return (ExceptionCause)readProperty("rootException");
+    }
+
     protected abstract void onPrePersist();
 
     @Override
@@ -147,6 +218,8 @@ public abstract class _ExceptionCause extends BaseDataObject {
                 return this.className;
             case "fileName":
                 return this.fileName;
+            case "fingerprint":
+                return this.fingerprint;
             case "id":
                 return this.id;
             case "line":
@@ -155,12 +228,22 @@ public abstract class _ExceptionCause extends BaseDataObject {
                 return this.message;
             case "methodName":
                 return this.methodName;
+            case "omittedFrameCount":
+                return this.omittedFrameCount;
             case "parentExceptionId":
                 return this.parentExceptionId;
+            case "root":
+                return this.root;
+            case "stackFrames":
+                return this.stackFrames;
             case "timestamp":
                 return this.timestamp;
+            case "truncatedFrameCount":
+                return this.truncatedFrameCount;
             case "nextException":
                 return this.nextException;
+            case "rootException":
+                return this.rootException;
             default:
                 return super.readPropertyDirectly(propName);
         }
@@ -179,6 +262,9 @@ public abstract class _ExceptionCause extends BaseDataObject {
             case "fileName":
                 this.fileName = (String)val;
                 break;
+            case "fingerprint":
+                this.fingerprint = (String)val;
+                break;
             case "id":
                 this.id = val == null ? 0 : (long)val;
                 break;
@@ -191,15 +277,30 @@ public abstract class _ExceptionCause extends BaseDataObject {
             case "methodName":
                 this.methodName = (String)val;
                 break;
+            case "omittedFrameCount":
+                this.omittedFrameCount = val == null ? 0 : (int)val;
+                break;
             case "parentExceptionId":
                 this.parentExceptionId = (Long)val;
                 break;
+            case "root":
+                this.root = val == null ? false : (boolean)val;
+                break;
+            case "stackFrames":
+                this.stackFrames = (byte[])val;
+                break;
             case "timestamp":
                 this.timestamp = (LocalDateTime)val;
                 break;
+            case "truncatedFrameCount":
+                this.truncatedFrameCount = val == null ? 0 : (int)val;
+                break;
             case "nextException":
                 this.nextException = val;
                 break;
+            case "rootException":
+                this.rootException = val;
+                break;
             default:
                 super.writePropertyDirectly(propName, val);
         }
@@ -218,13 +319,19 @@ public abstract class _ExceptionCause extends BaseDataObject {
         super.writeState(out);
         out.writeObject(this.className);
         out.writeObject(this.fileName);
+        out.writeObject(this.fingerprint);
         out.writeLong(this.id);
         out.writeInt(this.line);
         out.writeObject(this.message);
         out.writeObject(this.methodName);
+        out.writeInt(this.omittedFrameCount);
         out.writeObject(this.parentExceptionId);
+        out.writeBoolean(this.root);
+        out.writeObject(this.stackFrames);
         out.writeObject(this.timestamp);
+        out.writeInt(this.truncatedFrameCount);
         out.writeObject(this.nextException);
+        out.writeObject(this.rootException);
     }
 
     @Override
@@ -232,13 +339,19 @@ public abstract class _ExceptionCause extends BaseDataObject {
         super.readState(in);
         this.className = (String)in.readObject();
         this.fileName = (String)in.readObject();
+        this.fingerprint = (String)in.readObject();
         this.id = in.readLong();
         this.line = in.readInt();
         this.message = (String)in.readObject();
         this.methodName = (String)in.readObject();
+        this.omittedFrameCount = in.readInt();
         this.parentExceptionId = (Long)in.readObject();
+        this.root = in.readBoolean();
+        this.stackFrames = (byte[])in.readObject();
         this.timestamp = (LocalDateTime)in.readObject();
+        this.truncatedFrameCount = in.readInt();
         this.nextException = in.readObject();
+        this.rootException = in.readObject();
     }
 
 }
@@ -0,0 +1,242 @@
+package org.easypeelsecurity.springdog.domain.errortracing.model.auto;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+
+import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.exp.property.DateProperty;
+import org.apache.cayenne.exp.property.NumericProperty;
+import org.apache.cayenne.exp.property.PropertyFactory;
+import org.apache.cayenne.exp.property.StringProperty;
+
+/**
+ * Class _ExceptionGroup was generated by Cayenne.
+ * It is probably a good idea to avoid changing this class manually,
+ * since it may be overwritten next time code is regenerated.
+ * If you need to make any customizations, please use subclass.
+ */
+public abstract class _ExceptionGroup extends BaseDataObject {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String ID_PK_COLUMN = "ID";
+
+    public static final StringProperty<String> EXCEPTION_CLASS_NAME = PropertyFactory.createString("exceptionClassName", String.class);
+    public static final StringProperty<String> FINGERPRINT = PropertyFactory.createString("fingerprint", String.class);
+    public static final DateProperty<LocalDateTime> FIRST_SEEN = PropertyFactory.createDate("firstSeen", LocalDateTime.class);
+    public static final DateProperty<LocalDateTime> LAST_SEEN = PropertyFactory.createDate("lastSeen", LocalDateTime.class);
+    public static final StringProperty<String> METHOD_SIGNATURE = PropertyFactory.createString("methodSignature", String.class);
+    public static final NumericProperty<Long> OCCURRENCE_COUNT = PropertyFactory.createNumeric("occurrenceCount", Long.class);
+    public static final StringProperty<String> SAMPLE_MESSAGE = PropertyFactory.createString("sampleMessage", String.class);
+    public static final NumericProperty<Long> STORED_TRACE_COUNT = PropertyFactory.createNumeric("storedTraceCount", Long.class);
+    public static final NumericProperty<Long> THROTTLED_COUNT = PropertyFactory.createNumeric("throttledCount", Long.class);
+
+    protected String exceptionClassName;
+    protected String fingerprint;
+    protected LocalDateTime firstSeen;
+    protected LocalDateTime lastSeen;
+    protected String methodSignature;
+    protected long occurrenceCount;
+    protected String sampleMessage;
+    protected long storedTraceCount;
+    protected long throttledCount;
+
+
+    public void setExceptionClassName(String exceptionClassName) {
+        beforePropertyWrite("exceptionClassName", this.exceptionClassName, exceptionClassName);
+        this.exceptionClassName = exceptionClassName;
+    }
+
+    public String getExceptionClassName() {
+        beforePropertyRead("exceptionClassName");
+        return this.exceptionClassName;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        beforePropertyWrite("fingerprint", this.fingerprint, fingerprint);
+        this.fingerprint = fingerprint;
+    }
+
+    public String getFingerprint() {
+        beforePropertyRead("fingerprint");
+        return this.fingerprint;
+    }
+
+    public void setFirstSeen(LocalDateTime firstSeen) {
+        beforePropertyWrite("firstSeen", this.firstSeen, firstSeen);
+        this.firstSeen = firstSeen;
+    }
+
+    public LocalDateTime getFirstSeen() {
+        beforePropertyRead("firstSeen");
+        return this.firstSeen;
+    }
+
+    public void setLastSeen(LocalDateTime lastSeen) {
+        beforePropertyWrite("lastSeen", this.lastSeen, lastSeen);
+        this.lastSeen = lastSeen;
+    }
+
+    public LocalDateTime getLastSeen() {
+        beforePropertyRead("lastSeen");
+        return this.lastSeen;
+    }
+
+    public void setMethodSignature(String methodSignature) {
+        beforePropertyWrite("methodSignature", this.methodSignature, methodSignature);
+        this.methodSignature = methodSignature;
+    }
+
+    public String getMethodSignature() {
+        beforePropertyRead("methodSignature");
+        return this.methodSignature;
+    }
+
+    public void setOccurrenceCount(long occurrenceCount) {
+        beforePropertyWrite("occurrenceCount", this.occurrenceCount, occurrenceCount);
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public long getOccurrenceCount() {
+        beforePropertyRead("occurrenceCount");
+        return this.occurrenceCount;
+    }
+
+    public void setSampleMessage(String sampleMessage) {
+        beforePropertyWrite("sampleMessage", this.sampleMessage, sampleMessage);
+        this.sampleMessage = sampleMessage;
+    }
+
+    public String getSampleMessage() {
+        beforePropertyRead("sampleMessage");
+        return this.sampleMessage;
+    }
+
+    public void setStoredTraceCount(long storedTraceCount) {
+        beforePropertyWrite("storedTraceCount", this.storedTraceCount, storedTraceCount);
+        this.storedTraceCount = storedTraceCount;
+    }
+
+    public long getStoredTraceCount() {
+        beforePropertyRead("storedTraceCount");
+        return this.storedTraceCount;
+    }
+
+    public void setThrottledCount(long throttledCount) {
+        beforePropertyWrite("throttledCount", this.throttledCount, throttledCount);
+        this.throttledCount = throttledCount;
+    }
+
+    public long getThrottledCount() {
+        beforePropertyRead("throttledCount");
+        return this.throttledCount;
+    }
+
+    @Override
+    public Object readPropertyDirectly(String propName) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch(propName) {
+            case "exceptionClassName":
+                return this.exceptionClassName;
+            case "fingerprint":
+                return this.fingerprint;
+            case "firstSeen":
+                return this.firstSeen;
+            case "lastSeen":
+                return this.lastSeen;
+            case "methodSignature":
+                return this.methodSignature;
+            case "occurrenceCount":
+                return this.occurrenceCount;
+            case "sampleMessage":
+                return this.sampleMessage;
+            case "storedTraceCount":
+                return this.storedTraceCount;
+            case "throttledCount":
+                return this.throttledCount;
+            default:
+                return super.readPropertyDirectly(propName);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(String propName, Object val) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch (propName) {
+            case "exceptionClassName":
+                this.exceptionClassName = (String)val;
+                break;
+            case "fingerprint":
+                this.fingerprint = (String)val;
+                break;
+            case "firstSeen":
+                this.firstSeen = (LocalDateTime)val;
+                break;
+            case "lastSeen":
+                this.lastSeen = (LocalDateTime)val;
+                break;
+            case "methodSignature":
+                this.methodSignature = (String)val;
+                break;
+            case "occurrenceCount":
+                this.occurrenceCount = val == null ? 0 : (long)val;
+                break;
+            case "sampleMessage":
+                this.sampleMessage = (String)val;
+                break;
+            case "storedTraceCount":
+                this.storedTraceCount = val == null ? 0 : (long)val;
+                break;
+            case "throttledCount":
+                this.throttledCount = val == null ? 0 : (long)val;
+                break;
+            default:
+                super.writePropertyDirectly(propName, val);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        writeSerialized(out);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        readSerialized(in);
+    }
+
+    @Override
+    protected void writeState(ObjectOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeObject(this.exceptionClassName);
+        out.writeObject(this.fingerprint);
+        out.writeObject(this.firstSeen);
+        out.writeObject(this.lastSeen);
+        out.writeObject(this.methodSignature);
+        out.writeLong(this.occurrenceCount);
+        out.writeObject(this.sampleMessage);
+        out.writeLong(this.storedTraceCount);
+        out.writeLong(this.throttledCount);
+    }
+
+    @Override
+    protected void readState(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        this.exceptionClassName = (String)in.readObject();
+        this.fingerprint = (String)in.readObject();
+        this.firstSeen = (LocalDateTime)in.readObject();
+        this.lastSeen = (LocalDateTime)in.readObject();
+        this.methodSignature = (String)in.readObject();
+        this.occurrenceCount = in.readLong();
+        this.sampleMessage = (String)in.readObject();
+        this.storedTraceCount = in.readLong();
+        this.throttledCount = in.readLong();
+    }
+
+}
@@ -0,0 +1,164 @@
+package org.easypeelsecurity.springdog.domain.errortracing.model.auto;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.exp.property.NumericProperty;
+import org.apache.cayenne.exp.property.PropertyFactory;
+import org.apache.cayenne.exp.property.StringProperty;
+
+/**
+ * Class _StackFrame was generated by Cayenne.
+ * It is probably a good idea to avoid changing this class manually,
+ * since it may be overwritten next time code is regenerated.
+ * If you need to make any customizations, please use subclass.
+ */
+public abstract class _StackFrame extends BaseDataObject {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String ID_PK_COLUMN = "ID";
+
+    public static final StringProperty<String> CLASS_NAME = PropertyFactory.createString("className", String.class);
+    public static final StringProperty<String> FILE_NAME = PropertyFactory.createString("fileName", String.class);
+    public static final StringProperty<String> FRAME_HASH = PropertyFactory.createString("frameHash", String.class);
+    public static final NumericProperty<Integer> LINE_NUMBER = PropertyFactory.createNumeric("lineNumber", Integer.class);
+    public static final StringProperty<String> METHOD_NAME = PropertyFactory.createString("methodName", String.class);
+
+    protected String className;
+    protected String fileName;
+    protected String frameHash;
+    protected int lineNumber;
+    protected String methodName;
+
+
+    public void setClassName(String className) {
+        beforePropertyWrite("className", this.className, className);
+        this.className = className;
+    }
+
+    public String getClassName() {
+        beforePropertyRead("className");
+        return this.className;
+    }
+
+    public void setFileName(String fileName) {
+        beforePropertyWrite("fileName", this.fileName, fileName);
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        beforePropertyRead("fileName");
+        return this.fileName;
+    }
+
+    public void setFrameHash(String frameHash) {
+        beforePropertyWrite("frameHash", this.frameHash, frameHash);
+        this.frameHash = frameHash;
+    }
+
+    public String getFrameHash() {
+        beforePropertyRead("frameHash");
+        return this.frameHash;
+    }
+
+    public void setLineNumber(int lineNumber) {
+        beforePropertyWrite("lineNumber", this.lineNumber, lineNumber);
+        this.lineNumber = lineNumber;
+    }
+
+    public int getLineNumber() {
+        beforePropertyRead("lineNumber");
+        return this.lineNumber;
+    }
+
+    public void setMethodName(String methodName) {
+        beforePropertyWrite("methodName", this.methodName, methodName);
+        this.methodName = methodName;
+    }
+
+    public String getMethodName() {
+        beforePropertyRead("methodName");
+        return this.methodName;
+    }
+
+    @Override
+    public Object readPropertyDirectly(String propName) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch(propName) {
+            case "className":
+                return this.className;
+            case "fileName":
+                return this.fileName;
+            case "frameHash":
+                return this.frameHash;
+            case "lineNumber":
+                return this.lineNumber;
+            case "methodName":
+                return this.methodName;
+            default:
+                return super.readPropertyDirectly(propName);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(String propName, Object val) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch (propName) {
+            case "className":
+                this.className = (String)val;
+                break;
+            case "fileName":
+                this.fileName = (String)val;
+                break;
+            case "frameHash":
+                this.frameHash = (String)val;
+                break;
+            case "lineNumber":
+                this.lineNumber = val == null ? 0 : (int)val;
+                break;
+            case "methodName":
+                this.methodName = (String)val;
+                break;
+            default:
+                super.writePropertyDirectly(propName, val);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        writeSerialized(out);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        readSerialized(in);
+    }
+
+    @Override
+    protected void writeState(ObjectOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeObject(this.className);
+        out.writeObject(this.fileName);
+        out.writeObject(this.frameHash);
+        out.writeInt(this.lineNumber);
+        out.writeObject(this.methodName);
+    }
+
+    @Override
+    protected void readState(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        this.className = (String)in.readObject();
+        this.fileName = (String)in.readObject();
+        this.frameHash = (String)in.readObject();
+        this.lineNumber = in.readInt();
+        this.methodName = (String)in.readObject();
+    }
+
+}
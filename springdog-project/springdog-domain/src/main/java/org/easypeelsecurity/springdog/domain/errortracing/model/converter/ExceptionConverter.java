@@ -19,6 +19,7 @@ package org.easypeelsecurity.springdog.domain.errortracing.model.converter;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionCause;
@@ -28,6 +29,7 @@ import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto.ExceptionItemDto;
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
 
 import org.apache.cayenne.ObjectContext;
 
@@ -71,22 +73,26 @@ public abstract class ExceptionConverter {
    * @return The converted ErrorTracingDto
    */
   public static ErrorTracingDto entityToErrorTracingDto(ExceptionCause exceptionCause) {
+    return entityToErrorTracingDto(exceptionCause, stackFrames -> List.of());
+  }
+
+  /**
+   * Converts an ExceptionCause entity to an ErrorTracingDto, with its stack frames.
+   *
+   * @param exceptionCause The ExceptionCause entity to convert
+   * @param frameDecoder   Resolves the encoded frame ids of a cause into its frames
+   * @return The converted ErrorTracingDto
+   */
+  public static ErrorTracingDto entityToErrorTracingDto(ExceptionCause exceptionCause,
+      Function<byte[], List<StackFrameDto>> frameDecoder) {
     if (exceptionCause == null) {
       return null;
     }
 
-    ErrorTracingDto result = ErrorTracingDto.builder()
-        .id(exceptionCause.getId())
-        .message(exceptionCause.getMessage())
-        .fileName(exceptionCause.getFileName())
-        .className(exceptionCause.getClassName())
-        .methodName(exceptionCause.getMethodName())
-        .lineNumber(exceptionCause.getLine())
-        .timestamp(exceptionCause.getTimestamp())
-        .build();
+    ErrorTracingDto result = toErrorTracingDto(exceptionCause, frameDecoder);
 
     if (exceptionCause.getNextException() != null) {
-      var next = entityToErrorTracingDto(exceptionCause.getNextException());
+      var next = entityToErrorTracingDto(exceptionCause.getNextException(), frameDecoder);
       next.setParentTraceId(result.getId());
       result.setNext(next);
     }
@@ -112,6 +118,46 @@ public abstract class ExceptionConverter {
     return result;
   }
 
+  private static ErrorTracingDto toErrorTracingDto(ExceptionCause exceptionCause,
+      Function<byte[], List<StackFrameDto>> frameDecoder) {
+    return ErrorTracingDto.builder()
+        .id(exceptionCause.getId())
+        .message(exceptionCause.getMessage())
+        .fileName(exceptionCause.getFileName())
+        .className(exceptionCause.getClassName())
+        .methodName(exceptionCause.getMethodName())
+        .lineNumber(exceptionCause.getLine())
+        .timestamp(exceptionCause.getTimestamp())
+        .stackFrames(exceptionCause.getStackFrames() == null ?
+            List.of() : frameDecoder.apply(exceptionCause.getStackFrames()))
+        .omittedFrameCount(exceptionCause.getOmittedFrameCount())
+        .truncatedFrameCount(exceptionCause.getTruncatedFrameCount())
+        .build();
+  }
+
+  /**
+   * Converts the causes of one chain, ordered from the root to the deepest cause, to a linked ErrorTracingDto.
+   * Unlike {@link #entityToErrorTracingDto(ExceptionCause, Function)}, the next causes are never fetched.
+   *
+   * @param chain        The causes of the chain, the root first
+   * @param frameDecoder Resolves the encoded frame ids of a cause into its frames
+   * @return The converted ErrorTracingDto of the first cause, or null if the chain is empty
+   */
+  public static ErrorTracingDto chainToErrorTracingDto(List<ExceptionCause> chain,
+      Function<byte[], List<StackFrameDto>> frameDecoder) {
+    ErrorTracingDto next = null;
+    for (int i = chain.size() - 1; i >= 0; i--) {
+      ExceptionCause exceptionCause = chain.get(i);
+      ErrorTracingDto current = toErrorTracingDto(exceptionCause, frameDecoder);
+      if (next != null) {
+        next.setParentTraceId(current.getId());
+        current.setNext(next);
+      }
+      next = current;
+    }
+    return next;
+  }
+
   /**
    * Converts a list of ExceptionType and ExceptionClass entities to ExceptionClassesDto.
    *
@@ -159,22 +205,27 @@ public abstract class ExceptionConverter {
   }
 
   /**
-   * Converts an ErrorTracingDto to an ExceptionCause entity.
+   * Converts an ErrorTracingDto to an ExceptionCause entity. The first cause is flagged as the root of the
+   * chain, and every other cause refers to it.
    *
-   * @param context    The ObjectContext to create the entity in
-   * @param errorChain The ErrorTracingDto to convert
+   * @param context      The ObjectContext to create the entity in
+   * @param errorChain   The ErrorTracingDto to convert
+   * @param frameEncoder Encodes the stack frames of a cause into frame ids
    * @return The converted ExceptionCause entity
    */
-  public static ExceptionCause convertDtoToEntity(ObjectContext context, ErrorTracingDto errorChain) {
+  public static ExceptionCause convertDtoToEntity(ObjectContext context, ErrorTracingDto errorChain,
+      Function<List<StackFrameDto>, byte[]> frameEncoder) {
     if (errorChain == null) {
       return null;
     }
     ExceptionCause rootCause = context.newObject(ExceptionCause.class);
-    return convertRecursive(context, errorChain, rootCause);
+    rootCause.setRoot(true);
+    return convertRecursive(context, errorChain, rootCause, rootCause, frameEncoder);
   }
 
   private static ExceptionCause convertRecursive(ObjectContext context, ErrorTracingDto errorChain,
-      ExceptionCause currentCause) {
+      ExceptionCause currentCause, ExceptionCause rootCause,
+      Function<List<StackFrameDto>, byte[]> frameEncoder) {
     if (errorChain == null) {
       return null;
     }
@@ -185,12 +236,16 @@ public abstract class ExceptionConverter {
     currentCause.setMethodName(errorChain.getMethodName());
     currentCause.setLine(errorChain.getLineNumber());
     currentCause.setTimestamp(LocalDateTime.now());
+    currentCause.setStackFrames(frameEncoder.apply(errorChain.getStackFrames()));
+    currentCause.setOmittedFrameCount(errorChain.getOmittedFrameCount());
+    currentCause.setTruncatedFrameCount(errorChain.getTruncatedFrameCount());
 
     if (errorChain.getNext() != null) {
       ExceptionCause nextCause = context.newObject(ExceptionCause.class);
       nextCause.setParentExceptionId(currentCause.getId());
+      nextCause.setRootException(rootCause);
       currentCause.setNextException(nextCause);
-      convertRecursive(context, errorChain.getNext(), nextCause);
+      convertRecursive(context, errorChain.getNext(), nextCause, rootCause, frameEncoder);
     }
 
     return currentCause;
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.export;
+
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+/**
+ * Reads a table page by page with keyset pagination.
+ * <p>
+ * Each page is selected with {@code id > lastId ORDER BY id LIMIT n} instead of an offset, so every page
+ * costs the same however deep into the table it is, and rows inserted while exporting never shift the pages.
+ * A page is read through its own short-lived context, so an export holds at most one page in memory.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+public final class KeysetExport {
+
+  /**
+   * The number of rows read per page.
+   */
+  public static final int PAGE_SIZE = 1000;
+
+  private KeysetExport() {
+  }
+
+  /**
+   * Reads every page and hands each row to the action in ascending id order.
+   *
+   * @param afterId    only the rows with a greater id are read
+   * @param pageSize   the maximum number of rows per page
+   * @param pageReader reads one page
+   * @param idOf       the id of a row
+   * @param action     receives the rows
+   * @param <T>        the type of the rows
+   * @return the number of rows read
+   */
+  public static <T> long export(long afterId, int pageSize, PageReader<T> pageReader, ToLongFunction<T> idOf,
+      Consumer<T> action) {
+    Assert.isTrue(pageSize > 0, "Page size must be greater than 0");
+    long total = 0;
+    long lastId = afterId;
+    while (true) {
+      PageSink<T> sink = new PageSink<>(lastId, idOf, action);
+      pageReader.read(lastId, pageSize, sink);
+      total += sink.count;
+      if (sink.count < pageSize) {
+        return total;
+      }
+      Assert.isTrue(sink.lastId > lastId, "Keyset pages must be read in ascending id order");
+      lastId = sink.lastId;
+    }
+  }
+
+  /**
+   * Reads one page of rows.
+   *
+   * @param <T> the type of the rows
+   */
+  @FunctionalInterface
+  public interface PageReader<T> {
+
+    /**
+     * Reads at most {@code limit} rows with an id greater than {@code afterId}, in ascending id order.
+     *
+     * @param afterId only the rows with a greater id are read
+     * @param limit   the maximum number of rows
+     * @param sink    receives the rows
+     */
+    void read(long afterId, int limit, Consumer<T> sink);
+  }
+
+  private static final class PageSink<T> implements Consumer<T> {
+    private final ToLongFunction<T> idOf;
+    private final Consumer<T> action;
+    private long lastId;
+    private int count;
+
+    private PageSink(long lastId, ToLongFunction<T> idOf, Consumer<T> action) {
+      this.lastId = lastId;
+      this.idOf = idOf;
+      this.action = action;
+    }
+
+    @Override
+    public void accept(T row) {
+      lastId = idOf.applyAsLong(row);
+      count++;
+      action.accept(row);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.persistence;
+
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+/**
+ * A write waiting in {@link SpringdogWriteQueue}.
+ *
+ * @author PENEKhun
+ * @param type  the kind of the write
+ * @param write the write itself, committed together with the other writes of its batch
+ */
+record PendingWrite(WriteType type, Runnable write) {
+
+  PendingWrite {
+    Assert.notNull(type, "Write type must not be null");
+    Assert.notNull(write, "Write must not be null");
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.persistence;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tells whether the Springdog database has been created and migrated.
+ * <p>
+ * The database is initialized off the application startup path. Until it is ready, the request-path components
+ * work from their in-memory state, writes wait in {@link SpringdogWriteQueue} and the work that needs the
+ * database is registered with {@link #whenReady(String, Runnable)} to run once it is.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+public class SpringdogStoreReadiness {
+  private static final Logger logger = LoggerFactory.getLogger(SpringdogStoreReadiness.class);
+
+  private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+  /**
+   * Marks the database as ready and runs the work waiting for it on the calling thread.
+   */
+  public void markReady() {
+    ready.complete(null);
+  }
+
+  /**
+   * Marks the database as failed to initialize. The work waiting for it is never run.
+   *
+   * @param cause the failure of the initialization
+   */
+  public void markFailed(Throwable cause) {
+    ready.completeExceptionally(cause);
+  }
+
+  /**
+   * Returns whether the database is ready.
+   */
+  public boolean isReady() {
+    return ready.isDone() && !ready.isCompletedExceptionally();
+  }
+
+  /**
+   * Returns whether the database failed to initialize.
+   */
+  public boolean isFailed() {
+    return ready.isCompletedExceptionally();
+  }
+
+  /**
+   * Runs the work once the database is ready. The work runs at once on the calling thread when the database is
+   * already ready, otherwise on the thread that initialized it. An exception thrown by the work is logged.
+   *
+   * @param description what the work does, for the log
+   * @param work        the work that needs the database
+   */
+  public void whenReady(String description, Runnable work) {
+    ready.thenRun(() -> {
+      try {
+        work.run();
+      } catch (RuntimeException e) {
+        logger.error("Failed to {} once the Springdog database was ready", description, e);
+      }
+    });
+  }
+
+  /**
+   * Waits at most the given time until the database is ready.
+   *
+   * @param timeoutMillis the maximum time to wait in milliseconds
+   * @return true if the database is ready, false if the time elapsed before
+   * @throws InterruptedException  if the current thread was interrupted while waiting
+   * @throws IllegalStateException if the database failed to initialize
+   */
+  public boolean await(long timeoutMillis) throws InterruptedException {
+    try {
+      ready.get(timeoutMillis, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Springdog database failed to initialize", e.getCause());
+    }
+  }
+}
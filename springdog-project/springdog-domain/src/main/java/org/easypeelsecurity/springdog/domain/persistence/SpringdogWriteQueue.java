@@ -0,0 +1,327 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.persistence;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.enums.WriteOverflowPolicy;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+import org.apache.cayenne.access.DataRowStore;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind queue for the Springdog database.
+ * <p>
+ * Producers such as the exception collector and the schedulers enqueue their writes and return at once.
+ * A single writer thread takes the queued writes in batches and runs each batch in one transaction, so
+ * the commits of a batch join a single JDBC transaction and a slow disk never stalls a request thread.
+ * Because only the writer thread modifies the database, the writes are applied in the order they were
+ * enqueued.
+ * </p>
+ * <p>
+ * A write that fails aborts the transaction of its batch, as some databases refuse any further statement in a
+ * transaction once one of them failed. The whole batch is then rolled back and its writes are retried one
+ * transaction each, so only the failing write is lost. The Cayenne shared caches are cleared after a rollback,
+ * as they may hold rows that were never committed.
+ * </p>
+ * <p>
+ * The queue is bounded. When it is full, {@link WriteOverflowPolicy#DROP_OLDEST} discards the oldest write
+ * while {@link WriteOverflowPolicy#BLOCK} waits for a bounded time and then discards the new write. The
+ * writes left in the queue are committed when the application shuts down.
+ * </p>
+ * <p>
+ * The writer thread starts draining the queue once {@link SpringdogStoreReadiness} reports the database ready,
+ * so the writes enqueued while the database is still being initialized are replayed at that point. Writes are
+ * discarded when the database failed to initialize.
+ * </p>
+ * <p>
+ * Commit listeners are told which kinds of writes each committed batch held, so the caches built from the
+ * database can be invalidated once the new rows are visible.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Service
+public class SpringdogWriteQueue {
+  private static final Logger logger = LoggerFactory.getLogger(SpringdogWriteQueue.class);
+  private static final long POLL_TIMEOUT_MILLIS = 200;
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+  private final BlockingQueue<PendingWrite> queue;
+  private final WriteOverflowPolicy overflowPolicy;
+  private final long blockTimeoutMillis;
+  private final int maxBatchSize;
+  private final Consumer<Runnable> transactionRunner;
+  private final WriteQueueStatistics statistics;
+  private final SpringdogStoreReadiness storeReadiness;
+  private final List<Consumer<Set<WriteType>>> commitListeners = new CopyOnWriteArrayList<>();
+  private volatile boolean running;
+  private Thread writer;
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public SpringdogWriteQueue(@Qualifier("springdogRepository") ServerRuntime springdogRepository,
+      SpringdogProperties properties, SpringdogStoreReadiness storeReadiness) {
+    this(properties.getWriteQueueCapacity(), properties.getWriteQueueOverflowPolicy(),
+        properties.getWriteQueueBlockTimeoutMillis(), properties.getWriteBatchSize(),
+        batch -> runInTransaction(springdogRepository, batch), storeReadiness);
+  }
+
+  @SuppressWarnings("deprecation")
+  private static void runInTransaction(ServerRuntime runtime, Runnable writes) {
+    try {
+      runtime.performInTransaction(() -> {
+        writes.run();
+        return null;
+      });
+    } catch (RuntimeException e) {
+      DataRowStore snapshotCache = runtime.getDataDomain().getSharedSnapshotCache();
+      if (snapshotCache != null) {
+        snapshotCache.clear();
+      }
+      runtime.getDataDomain().getQueryCache().clear();
+      throw e;
+    }
+  }
+
+  SpringdogWriteQueue(int capacity, WriteOverflowPolicy overflowPolicy, long blockTimeoutMillis,
+      int maxBatchSize, Consumer<Runnable> transactionRunner, SpringdogStoreReadiness storeReadiness) {
+    Assert.isTrue(capacity > 0, "Queue capacity must be greater than 0");
+    Assert.notNull(overflowPolicy, "Overflow policy must not be null");
+    Assert.isTrue(blockTimeoutMillis >= 0, "Block timeout must be non-negative");
+    Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+    Assert.notNull(storeReadiness, "Store readiness must not be null");
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.overflowPolicy = overflowPolicy;
+    this.blockTimeoutMillis = blockTimeoutMillis;
+    this.maxBatchSize = maxBatchSize;
+    this.transactionRunner = transactionRunner;
+    this.statistics = new WriteQueueStatistics(queue::size);
+    this.storeReadiness = storeReadiness;
+  }
+
+  /**
+   * Starts the writer thread.
+   */
+  @PostConstruct
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    writer = new Thread(this::runWriter, "springdog-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Stops the writer thread once every queued write is committed.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    try {
+      writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!queue.isEmpty()) {
+      logger.warn("Springdog writer stopped with {} writes left uncommitted", queue.size());
+    }
+  }
+
+  /**
+   * Queues a write to be committed by the writer thread.
+   * <p>
+   * The write runs on the writer thread, so it must not rely on the state of the calling thread. It may run
+   * more than once: when another write of its batch fails, the batch is rolled back and every write is run
+   * again in a transaction of its own. An exception thrown by the write is logged and does not affect the
+   * other writes of its batch.
+   * </p>
+   *
+   * @param type  the kind of the write
+   * @param write the write to run
+   */
+  public void enqueue(WriteType type, Runnable write) {
+    if (storeReadiness.isFailed()) {
+      statistics.recordDrop();
+      return;
+    }
+    PendingWrite pendingWrite = new PendingWrite(type, write);
+    if (queue.offer(pendingWrite)) {
+      statistics.recordEnqueue();
+      return;
+    }
+
+    if (overflowPolicy == WriteOverflowPolicy.BLOCK) {
+      offerWithTimeout(pendingWrite);
+      return;
+    }
+    while (!queue.offer(pendingWrite)) {
+      PendingWrite dropped = queue.poll();
+      if (dropped != null) {
+        statistics.recordDrop();
+        logger.debug("Springdog write queue is full, dropped the oldest {} write", dropped.type());
+      }
+    }
+    statistics.recordEnqueue();
+  }
+
+  private void offerWithTimeout(PendingWrite pendingWrite) {
+    try {
+      if (queue.offer(pendingWrite, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        statistics.recordEnqueue();
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    statistics.recordDrop();
+    logger.debug("Springdog write queue is full, dropped a {} write", pendingWrite.type());
+  }
+
+  /**
+   * Registers a listener called on the writer thread after every committed batch, with the kinds of the writes
+   * of that batch.
+   *
+   * @param listener the listener
+   */
+  public void addCommitListener(Consumer<Set<WriteType>> listener) {
+    Assert.notNull(listener, "Commit listener must not be null");
+    commitListeners.add(listener);
+  }
+
+  /**
+   * Returns the statistics of this queue.
+   */
+  public WriteQueueStatistics getStatistics() {
+    return statistics;
+  }
+
+  private void runWriter() {
+    if (!awaitStore()) {
+      return;
+    }
+    List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingWrite first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        flush(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private boolean awaitStore() {
+    try {
+      while (!storeReadiness.await(POLL_TIMEOUT_MILLIS)) {
+        if (!running) {
+          return false;
+        }
+      }
+      if (!queue.isEmpty()) {
+        logger.info("Replaying {} Springdog writes queued while the database was initializing",
+            queue.size());
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (IllegalStateException e) {
+      logger.error("Springdog writer stopped, {} queued writes are discarded", queue.size(), e);
+      while (queue.poll() != null) {
+        statistics.recordDrop();
+      }
+      return false;
+    }
+  }
+
+  void flush(List<PendingWrite> batch) {
+    long startTime = System.nanoTime();
+    List<PendingWrite> committed = batch;
+    try {
+      transactionRunner.accept(() -> batch.forEach(pendingWrite -> pendingWrite.write().run()));
+    } catch (RuntimeException e) {
+      logger.debug("Rolled back a batch of {} Springdog writes, retrying them one by one", batch.size(), e);
+      committed = writeOneByOne(batch);
+    }
+    statistics.recordFlush(batch.size(), System.nanoTime() - startTime);
+    notifyCommitted(committed);
+  }
+
+  private List<PendingWrite> writeOneByOne(List<PendingWrite> batch) {
+    List<PendingWrite> committed = new ArrayList<>(batch.size());
+    for (PendingWrite pendingWrite : batch) {
+      try {
+        transactionRunner.accept(pendingWrite.write());
+        committed.add(pendingWrite);
+      } catch (RuntimeException e) {
+        statistics.recordFailure(1);
+        logger.warn("Failed to write {} into the Springdog database", pendingWrite.type(), e);
+      }
+    }
+    return committed;
+  }
+
+  private void notifyCommitted(List<PendingWrite> batch) {
+    if (commitListeners.isEmpty() || batch.isEmpty()) {
+      return;
+    }
+    Set<WriteType> committedTypes = EnumSet.noneOf(WriteType.class);
+    batch.forEach(pendingWrite -> committedTypes.add(pendingWrite.type()));
+    for (Consumer<Set<WriteType>> listener : commitListeners) {
+      try {
+        listener.accept(committedTypes);
+      } catch (RuntimeException e) {
+        logger.warn("A Springdog commit listener failed", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Records the depth of {@link SpringdogWriteQueue} and how long its batches take to commit.
+ *
+ * @author PENEKhun
+ */
+public final class WriteQueueStatistics {
+
+  private final IntSupplier depth;
+  private final LongAdder enqueuedCount = new LongAdder();
+  private final LongAdder droppedCount = new LongAdder();
+  private final LongAdder failedCount = new LongAdder();
+  private final LongAdder flushCount = new LongAdder();
+  private final LongAdder flushedWriteCount = new LongAdder();
+  private final LongAdder totalFlushNanos = new LongAdder();
+  private final AtomicLong lastFlushNanos = new AtomicLong();
+
+  /**
+   * Constructor.
+   *
+   * @param depth supplies the number of writes waiting in the queue
+   */
+  public WriteQueueStatistics(IntSupplier depth) {
+    this.depth = depth;
+  }
+
+  void recordEnqueue() {
+    enqueuedCount.increment();
+  }
+
+  void recordDrop() {
+    droppedCount.increment();
+  }
+
+  void recordFailure(int writeCount) {
+    failedCount.add(writeCount);
+  }
+
+  void recordFlush(int writeCount, long elapsedNanos) {
+    flushCount.increment();
+    flushedWriteCount.add(writeCount);
+    totalFlushNanos.add(elapsedNanos);
+    lastFlushNanos.set(elapsedNanos);
+  }
+
+  /**
+   * Returns the number of writes waiting in the queue.
+   */
+  public int getDepth() {
+    return depth.getAsInt();
+  }
+
+  /**
+   * Returns the number of writes accepted by the queue.
+   */
+  public long getEnqueuedCount() {
+    return enqueuedCount.sum();
+  }
+
+  /**
+   * Returns the number of writes discarded because the queue was full.
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * Returns the number of writes that could not be committed.
+   */
+  public long getFailedCount() {
+    return failedCount.sum();
+  }
+
+  /**
+   * Returns the number of committed batches.
+   */
+  public long getFlushCount() {
+    return flushCount.sum();
+  }
+
+  /**
+   * Returns the number of writes handed to the database, including the failed ones.
+   */
+  public long getFlushedWriteCount() {
+    return flushedWriteCount.sum();
+  }
+
+  /**
+   * Returns the total time spent committing batches in nanoseconds.
+   */
+  public long getTotalFlushNanos() {
+    return totalFlushNanos.sum();
+  }
+
+  /**
+   * Returns the duration of the most recent batch in nanoseconds.
+   */
+  public long getLastFlushNanos() {
+    return lastFlushNanos.get();
+  }
+}
@@ -28,8 +28,14 @@ import org.apache.cayenne.ObjectContext;
  * @author PENEKhun
  */
 public interface EndpointRepository {
+  /**
+   * The shared cache group of the endpoint lookups, to be invalidated whenever an endpoint changes.
+   */
+  String CACHE_GROUP = "springdog-endpoint";
+
   /**
    * Find an {@link Endpoint} by its method signature.
+   * The result is served from the shared {@link #CACHE_GROUP} cache.
    *
    * @param context         The Cayenne ObjectContext
    * @param methodSignature The method signature
@@ -24,31 +24,40 @@ import org.springframework.stereotype.Service;
 import org.easypeelsecurity.springdog.domain.ratelimit.converter.EndpointConverter;
 import org.easypeelsecurity.springdog.domain.ratelimit.converter.VersionControlConverter;
 import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
+import org.easypeelsecurity.springdog.domain.statistics.DashboardCache;
 import org.easypeelsecurity.springdog.shared.dto.EndpointChangelogDto;
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
 
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.RefreshQuery;
 
 /**
  * The Use-Case service for endpoint.
+ * <p>
+ * Every operation works on its own short-lived {@link ObjectContext}, so the service can be used from several
+ * threads at once and no object graph outlives the operation.
+ * </p>
  *
  * @author PENEKhun
  */
 @Service
 public class EndpointService {
-  private final ObjectContext context;
+  private final ServerRuntime runtime;
   private final EndpointRepository endpointRepository;
   private final VersionControlRepository versionControlRepository;
+  private final DashboardCache dashboardCache;
 
   /**
    * Constructor.
    */
   public EndpointService(
-      @Qualifier("springdogContext") ObjectContext context, EndpointRepository endpointRepository,
-      VersionControlRepository versionControlRepository) {
-    this.context = context;
+      @Qualifier("springdogRepository") ServerRuntime runtime, EndpointRepository endpointRepository,
+      VersionControlRepository versionControlRepository, DashboardCache dashboardCache) {
+    this.runtime = runtime;
     this.endpointRepository = endpointRepository;
     this.versionControlRepository = versionControlRepository;
+    this.dashboardCache = dashboardCache;
   }
 
   /**
@@ -58,7 +67,7 @@ public class EndpointService {
    * @return The {@link EndpointDto}
    */
   public EndpointDto findEndpoint(long endpointId) {
-    var endpoint = endpointRepository.findByIdOrNull(context, endpointId);
+    var endpoint = endpointRepository.findByIdOrNull(runtime.newContext(), endpointId);
     if (endpoint == null) {
       throw new IllegalArgumentException("Endpoint not found");
     }
@@ -71,19 +80,25 @@ public class EndpointService {
    * @param endpointDto The endpoint DTO
    */
   public void updateRule(EndpointDto endpointDto) {
-    Endpoint endpoint = endpointRepository.findByIdOrNull(context, endpointDto.getId());
-    if (endpoint == null) {
-      throw new IllegalArgumentException("Endpoint not found");
-    }
+    runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      Endpoint endpoint = endpointRepository.findByIdOrNull(context, endpointDto.getId());
+      if (endpoint == null) {
+        throw new IllegalArgumentException("Endpoint not found");
+      }
 
-    // TODO: change method sig (too many... args)
-    endpoint.updateRule(endpointDto.getRuleStatus(), endpointDto.isRuleIpBased(),
-        endpointDto.isRulePermanentBan(), endpointDto.getRuleRequestLimitCount(),
-        endpointDto.getRuleTimeLimitInSeconds(), endpointDto.getRuleBanTimeInSeconds(),
-        endpointDto.getParameterNamesToEnable(), endpointDto.getHeaderNamesToEnable());
+      // TODO: change method sig (too many... args)
+      endpoint.updateRule(endpointDto.getRuleStatus(), endpointDto.isRuleIpBased(),
+          endpointDto.isRulePermanentBan(), endpointDto.getRuleRequestLimitCount(),
+          endpointDto.getRuleTimeLimitInSeconds(), endpointDto.getRuleBanTimeInSeconds(),
+          endpointDto.getParameterNamesToEnable(), endpointDto.getHeaderNamesToEnable());
 
-    RuleCache.changeRuleCached(endpoint.getMethodSignature(), EndpointConverter.toDto(endpoint));
-    context.commitChanges();
+      RuleCache.changeRuleCached(endpoint.getMethodSignature(), EndpointConverter.toDto(endpoint));
+      context.commitChanges();
+      return null;
+    });
+    runtime.newContext().performGenericQuery(new RefreshQuery(EndpointRepository.CACHE_GROUP));
+    dashboardCache.invalidate();
   }
 
   /**
@@ -92,7 +107,7 @@ public class EndpointService {
    * @return The list of {@link EndpointDto} entities
    */
   public List<EndpointDto> findAllEndpoints() {
-    return endpointRepository.findAll(context)
+    return endpointRepository.findAll(runtime.newContext())
         .stream()
         .map(EndpointConverter::toDto)
         .toList();
@@ -105,7 +120,7 @@ public class EndpointService {
    * @return True if the endpoint exists
    */
   public boolean isEndpointExist(String methodSignature) {
-    return endpointRepository.findByMethodSignatureOrNull(context, methodSignature) != null;
+    return endpointRepository.findByMethodSignatureOrNull(runtime.newContext(), methodSignature) != null;
   }
 
   /**
@@ -115,14 +130,15 @@ public class EndpointService {
    * @return The {@link EndpointDto}
    */
   public EndpointDto getEndpointByMethodSignature(String methodSignature) {
-    return EndpointConverter.toDto(endpointRepository.findByMethodSignatureOrNull(context, methodSignature));
+    return EndpointConverter.toDto(
+        endpointRepository.findByMethodSignatureOrNull(runtime.newContext(), methodSignature));
   }
 
   /**
    * Get all change logs that are not resolved.
    */
   public List<EndpointChangelogDto> getAllChangeLogsNotResolved() {
-    var a = versionControlRepository.findAllChangeLogsByResolved(context, false);
+    var a = versionControlRepository.findAllChangeLogsByResolved(runtime.newContext(), false);
     return VersionControlConverter.toChangelogDto(a);
   }
 }
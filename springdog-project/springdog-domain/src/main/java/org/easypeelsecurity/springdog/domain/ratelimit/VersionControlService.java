@@ -28,10 +28,13 @@ import org.easypeelsecurity.springdog.domain.ratelimit.converter.EndpointConvert
 import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
 import org.easypeelsecurity.springdog.domain.ratelimit.model.EndpointChangelog;
 import org.easypeelsecurity.springdog.domain.ratelimit.model.EndpointVersionControl;
+import org.easypeelsecurity.springdog.domain.statistics.DashboardCache;
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
 import org.easypeelsecurity.springdog.shared.enums.EndpointChangeType;
 
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.RefreshQuery;
 
 /**
  * Service class for version control of endpoints.
@@ -40,16 +43,19 @@ import org.apache.cayenne.ObjectContext;
  */
 @Service
 public class VersionControlService {
-  private final ObjectContext context;
+  private final ServerRuntime runtime;
   private final EndpointRepository endpointRepository;
+  private final DashboardCache dashboardCache;
 
   /**
    * Constructor.
    */
   public VersionControlService(
-      @Qualifier("springdogContext") ObjectContext context, EndpointRepository endpointRepository) {
-    this.context = context;
+      @Qualifier("springdogRepository") ServerRuntime runtime, EndpointRepository endpointRepository,
+      DashboardCache dashboardCache) {
+    this.runtime = runtime;
     this.endpointRepository = endpointRepository;
+    this.dashboardCache = dashboardCache;
   }
 
   /**
@@ -71,10 +77,20 @@ public class VersionControlService {
    *     </ul>
    *   </li>
    * </ul>
+   * <p>The comparison and every change are made in one transaction.</p>
    *
    * @param parsedEndpointFromController A list of <code>EndpointDto</code> objects parsed from the controller
    */
   public void updateVersion(List<EndpointDto> parsedEndpointFromController) {
+    runtime.performInTransaction(() -> {
+      updateVersion(runtime.newContext(), parsedEndpointFromController);
+      return null;
+    });
+    runtime.newContext().performGenericQuery(new RefreshQuery(EndpointRepository.CACHE_GROUP));
+    dashboardCache.invalidate();
+  }
+
+  private void updateVersion(ObjectContext context, List<EndpointDto> parsedEndpointFromController) {
     var endpointsOnDatabase = endpointRepository.findAll(context);
     EndpointVersionCompare versionCompare =
         new EndpointVersionCompare(parsedEndpointFromController, endpointsOnDatabase);
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.retention;
+
+import java.time.LocalDateTime;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionGroup;
+
+import org.apache.cayenne.ObjectContext;
+
+/**
+ * Repository that removes expired rows and gives their space back to the database.
+ *
+ * @author PENEKhun
+ */
+public interface RetentionRepository {
+
+  /**
+   * Delete at most {@code limit} rows of the target that are older than the cutoff, oldest first.
+   * Each call is meant to run in a short transaction of its own, so the deleted rows are only locked for one
+   * chunk.
+   * <p>
+   * Error traces are deleted by whole chains: the limit and the result count the root causes, and the stored
+   * trace count of their {@link ExceptionGroup} is lowered accordingly.
+   * </p>
+   *
+   * @param context The Cayenne ObjectContext
+   * @param target  The data to prune
+   * @param cutoff  Rows strictly older than this are deleted
+   * @param limit   The maximum number of rows to delete
+   * @return The number of deleted rows
+   */
+  int deleteExpired(ObjectContext context, RetentionTarget target, LocalDateTime cutoff, int limit);
+
+  /**
+   * Count the rows of the target, error traces being counted by whole chains like in
+   * {@link #deleteExpired(ObjectContext, RetentionTarget, LocalDateTime, int)}.
+   *
+   * @param context The Cayenne ObjectContext
+   * @param target  The data to count
+   * @return The number of rows
+   */
+  long countRows(ObjectContext context, RetentionTarget target);
+
+  /**
+   * Delete at most {@code limit} of the oldest rows of the target, whatever their age, the same way as
+   * {@link #deleteExpired(ObjectContext, RetentionTarget, LocalDateTime, int)}.
+   *
+   * @param context The Cayenne ObjectContext
+   * @param target  The data to trim
+   * @param limit   The maximum number of rows to delete
+   * @return The number of deleted rows
+   */
+  int deleteOldest(ObjectContext context, RetentionTarget target, int limit);
+
+  /**
+   * Give the space freed by deleted rows back to the file system, when the database does not do it by itself.
+   *
+   * @param context The Cayenne ObjectContext
+   * @param target  The pruned data
+   */
+  void reclaimSpace(ObjectContext context, RetentionTarget target);
+}
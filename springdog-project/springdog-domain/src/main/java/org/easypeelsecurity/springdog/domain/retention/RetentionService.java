@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.retention;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
+import org.easypeelsecurity.springdog.domain.statistics.SystemMetricTimeSeries;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+import org.apache.cayenne.configuration.server.ServerRuntime;
+
+/**
+ * Service class for retention.
+ *
+ * @author PENEKhun
+ */
+@Service
+public class RetentionService {
+  private final ServerRuntime runtime;
+  private final RetentionRepository retentionRepository;
+  private final SystemMetricTimeSeries systemMetricTimeSeries;
+  private final ExceptionListingService exceptionListingService;
+  private final SpringdogWriteQueue writeQueue;
+
+  /**
+   * Constructor.
+   */
+  public RetentionService(
+      @Qualifier("springdogRepository") ServerRuntime runtime, RetentionRepository retentionRepository,
+      ObjectProvider<SystemMetricTimeSeries> systemMetricTimeSeries,
+      ExceptionListingService exceptionListingService, SpringdogWriteQueue writeQueue) {
+    this.runtime = runtime;
+    this.retentionRepository = retentionRepository;
+    this.systemMetricTimeSeries = systemMetricTimeSeries.getIfAvailable();
+    this.exceptionListingService = exceptionListingService;
+    this.writeQueue = writeQueue;
+  }
+
+  /**
+   * Delete the rows of the target that are older than the retention, one chunk at a time, each chunk in its own
+   * transaction. A retention of {@code 0} days keeps the rows forever. Expired system metrics are also deleted
+   * from the {@link SystemMetricTimeSeries} when it is configured. Once error traces were deleted, the stack
+   * frames they left unused are deleted by the writer thread of the {@link SpringdogWriteQueue}.
+   *
+   * @param target        The data to prune
+   * @param retentionDays The number of days to keep
+   * @param chunkSize     The maximum number of rows deleted by one statement
+   * @param now           The current time
+   * @return The number of deleted rows
+   */
+  public long prune(RetentionTarget target, int retentionDays, int chunkSize, LocalDateTime now) {
+    Assert.isTrue(retentionDays >= 0, "Retention days must be greater than or equal to 0");
+    Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+    if (retentionDays == 0) {
+      return 0;
+    }
+
+    LocalDateTime cutoff = now.minusDays(retentionDays);
+    long totalDeleted = 0;
+    int deleted;
+    do {
+      deleted = runtime.performInTransaction(
+          () -> retentionRepository.deleteExpired(runtime.newContext(), target, cutoff, chunkSize));
+      totalDeleted += deleted;
+    } while (deleted == chunkSize);
+    if (target == RetentionTarget.SYSTEM_METRIC && systemMetricTimeSeries != null) {
+      totalDeleted += systemMetricTimeSeries.deleteBefore(cutoff);
+    }
+    if (target == RetentionTarget.ERROR_TRACE && totalDeleted > 0) {
+      writeQueue.enqueue(WriteType.ERROR_TRACE, exceptionListingService::deleteUnusedStackFrames);
+    }
+    return totalDeleted;
+  }
+
+  /**
+   * Delete the oldest rows of the target until at most {@code maxRows} are left, one chunk at a time, each
+   * chunk in its own transaction. Error traces are counted and deleted by whole chains, and the stack frames
+   * they left unused are deleted like in {@link #prune(RetentionTarget, int, int, LocalDateTime)}.
+   *
+   * @param target    The data to trim
+   * @param maxRows   The maximum number of rows to keep
+   * @param chunkSize The maximum number of rows deleted by one statement
+   * @return The number of deleted rows
+   */
+  public long cap(RetentionTarget target, int maxRows, int chunkSize) {
+    Assert.isTrue(maxRows >= 0, "Max rows must be greater than or equal to 0");
+    Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+
+    long excess = retentionRepository.countRows(runtime.newContext(), target) - maxRows;
+    long totalDeleted = 0;
+    while (totalDeleted < excess) {
+      int limit = (int) Math.min(chunkSize, excess - totalDeleted);
+      int deleted = runtime.performInTransaction(
+          () -> retentionRepository.deleteOldest(runtime.newContext(), target, limit));
+      if (deleted == 0) {
+        break;
+      }
+      totalDeleted += deleted;
+    }
+    if (target == RetentionTarget.ERROR_TRACE && totalDeleted > 0) {
+      writeQueue.enqueue(WriteType.ERROR_TRACE, exceptionListingService::deleteUnusedStackFrames);
+    }
+    return totalDeleted;
+  }
+
+  /**
+   * Give the space freed by pruning back to the file system.
+   *
+   * @param target The pruned data
+   */
+  public void reclaimSpace(RetentionTarget target) {
+    retentionRepository.reclaimSpace(runtime.newContext(), target);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.statistics;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
+import org.easypeelsecurity.springdog.shared.vo.DashboardResponse;
+
+/**
+ * In-memory cache of the dashboard aggregates.
+ * <p>
+ * The aggregates only change when the schedulers flush new metrics, so the dashboard is computed once and then
+ * served from memory until the {@link SpringdogWriteQueue} commits a batch holding endpoint or system metrics,
+ * or until the endpoints themselves change. Page loads in between cost no database reads.
+ * </p>
+ * <p>
+ * Every invalidation bumps a generation, and a cached dashboard is only served while its generation is the
+ * current one. A dashboard computed while metrics were being committed is therefore never served afterwards.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+public class DashboardCache {
+  private static final Set<WriteType> DASHBOARD_WRITES =
+      EnumSet.of(WriteType.ENDPOINT_METRIC, WriteType.SYSTEM_METRIC, WriteType.SYSTEM_METRIC_MEMO);
+
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<CachedDashboard> cached = new AtomicReference<>();
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public DashboardCache(SpringdogWriteQueue writeQueue) {
+    writeQueue.addCommitListener(this::onCommit);
+  }
+
+  DashboardCache() {
+  }
+
+  /**
+   * Returns the cached dashboard of a date, computing it when there is none or when it is outdated.
+   *
+   * @param date   the date of the dashboard
+   * @param loader computes the dashboard from the database
+   * @return the dashboard
+   */
+  public DashboardResponse get(LocalDate date, Function<LocalDate, DashboardResponse> loader) {
+    long currentGeneration = generation.get();
+    CachedDashboard dashboard = cached.get();
+    if (dashboard != null && dashboard.generation() == currentGeneration && dashboard.date().equals(date)) {
+      return dashboard.response();
+    }
+
+    DashboardResponse response = loader.apply(date);
+    cached.set(new CachedDashboard(date, currentGeneration, response));
+    return response;
+  }
+
+  /**
+   * Discards the cached dashboard, so the next page load computes it again.
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+  }
+
+  void onCommit(Set<WriteType> committedTypes) {
+    if (!Collections.disjoint(committedTypes, DASHBOARD_WRITES)) {
+      invalidate();
+    }
+  }
+
+  private record CachedDashboard(LocalDate date, long generation, DashboardResponse response) {
+  }
+}
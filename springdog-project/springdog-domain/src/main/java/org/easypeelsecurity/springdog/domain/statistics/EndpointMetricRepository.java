@@ -18,11 +18,13 @@ package org.easypeelsecurity.springdog.domain.statistics;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
 import org.easypeelsecurity.springdog.domain.statistics.model.EndpointMetric;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyEndpointMetric;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailySlowestEndpoint;
+import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopErrorRateEndpoint;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopFailWithRatelimitEndpoint;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopTrafficEndpoint;
 
@@ -95,4 +97,32 @@ public interface EndpointMetricRepository {
    */
   List<DailyTopFailWithRatelimitEndpoint> getDailyTopFailWithRatelimitEndpoints(ObjectContext context,
       int limitDays, LocalDate specificDate);
+
+  /**
+   * Find the endpoints of a specific date with the highest share of requests that threw an exception. The
+   * exception count is kept next to the page view in each {@link EndpointMetric}, so no join with the error
+   * traces is needed.
+   *
+   * @param context      The Cayenne ObjectContext
+   * @param limit        The maximum number of endpoints
+   * @param specificDate The specific date
+   * @return Daily endpoints with an exception, the highest error rate first
+   */
+  List<DailyTopErrorRateEndpoint> getDailyTopErrorRateEndpoints(ObjectContext context, int limit,
+      LocalDate specificDate);
+
+  /**
+   * Read one keyset page of the {@link EndpointMetric} entities of the given dates through a JDBC cursor, with
+   * their endpoint. The rows are handed to the action as they are read, so the page is never held in memory as
+   * a whole.
+   *
+   * @param context The Cayenne ObjectContext
+   * @param from    Inclusive first metric date
+   * @param to      Exclusive last metric date
+   * @param afterId Only the entities with a greater id are read
+   * @param limit   The maximum number of entities to read
+   * @param action  Receives the entities in ascending id order
+   */
+  void forEachEndpointMetric(ObjectContext context, LocalDate from, LocalDate to, long afterId, int limit,
+      Consumer<EndpointMetric> action);
 }
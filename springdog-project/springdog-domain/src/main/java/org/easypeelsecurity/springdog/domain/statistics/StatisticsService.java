@@ -18,64 +18,94 @@ package org.easypeelsecurity.springdog.domain.statistics;
 
 import static org.easypeelsecurity.springdog.shared.enums.RuleStatus.ACTIVE;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import org.easypeelsecurity.springdog.domain.export.KeysetExport;
 import org.easypeelsecurity.springdog.domain.ratelimit.EndpointRepository;
 import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
 import org.easypeelsecurity.springdog.domain.statistics.converter.SystemMetricConverter;
 import org.easypeelsecurity.springdog.domain.statistics.model.EndpointMetric;
+import org.easypeelsecurity.springdog.domain.statistics.model.EndpointStatusMetric;
 import org.easypeelsecurity.springdog.domain.statistics.model.SystemMetric;
 import org.easypeelsecurity.springdog.shared.dto.EndpointMetricDto;
+import org.easypeelsecurity.springdog.shared.dto.EndpointStatusCodeDto;
 import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
 import org.easypeelsecurity.springdog.shared.util.Assert;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse;
 
+import org.apache.cayenne.Cayenne;
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
 import org.apache.cayenne.query.ObjectSelect;
 
 /**
  * Service class for statistics.
+ * <p>
+ * Every operation works on its own short-lived {@link ObjectContext}, and every write is committed in its own
+ * transaction.
+ * </p>
+ * <p>
+ * System metrics are kept in the {@link SystemMetricTimeSeries} instead of the database when that optional
+ * engine is configured.
+ * </p>
+ * <p>
+ * The dashboard is served from the {@link DashboardCache} between two metric flushes.
+ * </p>
  *
  * @author PENEKhun
  */
 @Service
 public class StatisticsService {
-  private final ObjectContext context;
+  private final ServerRuntime runtime;
   private final EndpointRepository endpointRepository;
   private final EndpointMetricRepository endpointMetricRepository;
   private final SystemMetricRepository systemMetricRepository;
+  private final SystemMetricTimeSeries systemMetricTimeSeries;
+  private final DashboardCache dashboardCache;
 
   /**
    * Constructor.
    */
   public StatisticsService(
-      @Qualifier("springdogContext") ObjectContext context, EndpointRepository endpointRepository,
-      EndpointMetricRepository endpointMetricRepository, SystemMetricRepository systemMetricRepository) {
-    this.context = context;
+      @Qualifier("springdogRepository") ServerRuntime runtime, EndpointRepository endpointRepository,
+      EndpointMetricRepository endpointMetricRepository, SystemMetricRepository systemMetricRepository,
+      ObjectProvider<SystemMetricTimeSeries> systemMetricTimeSeries, DashboardCache dashboardCache) {
+    this.runtime = runtime;
     this.endpointRepository = endpointRepository;
     this.endpointMetricRepository = endpointMetricRepository;
     this.systemMetricRepository = systemMetricRepository;
+    this.systemMetricTimeSeries = systemMetricTimeSeries.getIfAvailable();
+    this.dashboardCache = dashboardCache;
   }
 
   /**
-   * Get the dashboard response.
+   * Get the dashboard response. It is computed again only once new metrics have been flushed.
    *
    * @param specificDate Date of view
    * @return The {@link DashboardResponse}
    */
   public DashboardResponse getDashboardResponse(LocalDate specificDate) {
+    return dashboardCache.get(specificDate, this::loadDashboardResponse);
+  }
+
+  private DashboardResponse loadDashboardResponse(LocalDate specificDate) {
+    ObjectContext context = runtime.newContext();
     long totalEndpointCount = endpointRepository.getEndpointCount(context);
     long totalActiveEndpointCount = endpointRepository.getEndpointCountByStatus(context, ACTIVE.name());
-    List<SystemMetricDto> recentSystemMetrics = systemMetricRepository.getRecentSystemMetrics(context, 30)
-        .stream()
-        .map(SystemMetricConverter::convert)
-        .toList();
+    List<SystemMetricDto> recentSystemMetrics = getRecentSystemMetrics(context, 30);
 
     return new DashboardResponse(
         totalEndpointCount,
@@ -85,44 +115,126 @@ public class StatisticsService {
         endpointMetricRepository.getDailyEndpointMetrics(context, 10),
         endpointMetricRepository.getDailyTopTrafficEndpoints(context, 7, specificDate),
         endpointMetricRepository.getDailySlowestEndpoints(context, 7, specificDate),
-        endpointMetricRepository.getDailyTopFailWithRatelimitEndpoints(context, 7, specificDate));
+        endpointMetricRepository.getDailyTopFailWithRatelimitEndpoints(context, 7, specificDate),
+        endpointMetricRepository.getDailyTopErrorRateEndpoints(context, 7, specificDate));
   }
 
   /**
-   * Updates or inserts endpoint metrics including page views and response times.
+   * Updates or inserts endpoint metrics including page views, response times and response statuses.
    * <p>
    * This method updates the statistics of an endpoint for the current date.
    * If the endpoint or its metrics do not exist, they will be created.
    * </p>
    *
-   * @param methodSignature the method signature of the endpoint
-   * @param responseTimes   the array of response times to be included in the statistics
-   * @param failureCount    the number of failed rate-limited requests
-   * @param today           the current date
+   * @param methodSignature  the method signature of the endpoint
+   * @param responseTimes    the array of response times to be included in the statistics
+   * @param failureCount     the number of failed rate-limited requests
+   * @param statusCodeCounts the number of responses per HTTP status code
+   * @param exceptionCount   the number of requests that ended with an exception
+   * @param today            the current date
    * @throws IllegalArgumentException if the parameters are invalid
    */
   public void upsertEndpointMetrics(String methodSignature, long[] responseTimes, long failureCount,
-      LocalDate today) {
+      Map<Integer, Long> statusCodeCounts, long exceptionCount, LocalDate today) {
+    upsertEndpointMetrics(methodSignature, responseTimes.length, responseTimes, failureCount, statusCodeCounts,
+        exceptionCount, today);
+  }
+
+  /**
+   * Updates or inserts endpoint metrics where the response times are a sample of the page views, every
+   * response time being sampled with the same probability.
+   *
+   * @param methodSignature  the method signature of the endpoint
+   * @param pageView         the exact number of page views
+   * @param responseTimes    the sampled response times, at most one per page view
+   * @param failureCount     the number of failed rate-limited requests
+   * @param statusCodeCounts the number of responses per HTTP status code
+   * @param exceptionCount   the number of requests that ended with an exception
+   * @param today            the current date
+   * @throws IllegalArgumentException if the parameters are invalid
+   */
+  public void upsertEndpointMetrics(String methodSignature, long pageView, long[] responseTimes,
+      long failureCount, Map<Integer, Long> statusCodeCounts, long exceptionCount, LocalDate today) {
+    double[] samplingProbabilities = new double[responseTimes.length];
+    Arrays.fill(samplingProbabilities, 1.0);
+    upsertEndpointMetrics(methodSignature, pageView, responseTimes, samplingProbabilities, failureCount,
+        statusCodeCounts, exceptionCount, today);
+  }
+
+  /**
+   * Updates or inserts endpoint metrics where the response times are a sample of the page views.
+   * <p>
+   * The page views are counted exactly, while the mean of the sampled response times is applied to all of
+   * them. A response time sampled with probability {@code p} stands for {@code 1 / p} requests, so the mean
+   * is weighted by the inverse probabilities and a busy second sampled at a low rate keeps its real weight.
+   * Without any sample, the page views are added at the current average response time.
+   * </p>
+   *
+   * @param methodSignature       the method signature of the endpoint
+   * @param pageView              the exact number of page views
+   * @param responseTimes         the sampled response times, at most one per page view
+   * @param samplingProbabilities the probability each response time was sampled with, in the same order
+   * @param failureCount          the number of failed rate-limited requests
+   * @param statusCodeCounts      the number of responses per HTTP status code
+   * @param exceptionCount        the number of requests that ended with an exception
+   * @param today                 the current date
+   * @throws IllegalArgumentException if the parameters are invalid
+   */
+  public void upsertEndpointMetrics(String methodSignature, long pageView, long[] responseTimes,
+      double[] samplingProbabilities, long failureCount, Map<Integer, Long> statusCodeCounts,
+      long exceptionCount, LocalDate today) {
+    Assert.isTrue(pageView >= responseTimes.length,
+        "Page view must be greater than or equal to the number of response times");
     Assert.isTrue(Arrays.stream(responseTimes).allMatch(time -> time >= 0),
         "Response times must be non-negative");
+    Assert.isTrue(samplingProbabilities.length == responseTimes.length,
+        "Every response time must have a sampling probability");
+    Assert.isTrue(Arrays.stream(samplingProbabilities)
+            .allMatch(probability -> probability > 0 && probability <= 1),
+        "Sampling probabilities must be greater than 0 and at most 1");
     Assert.isTrue(today != null, "Date must not be null");
     Assert.isTrue(failureCount >= 0, "Failure count must be non-negative");
+    Assert.notNull(statusCodeCounts, "Status code counts must not be null");
+    Assert.isTrue(statusCodeCounts.values().stream().allMatch(count -> count >= 0),
+        "Status code counts must be non-negative");
+    Assert.isTrue(exceptionCount >= 0, "Exception count must be non-negative");
 
-    Endpoint endpoint = ObjectSelect.query(Endpoint.class)
-        .where(Endpoint.METHOD_SIGNATURE.eq(methodSignature))
-        .selectOne(context);
-
-    Assert.notNull(endpoint, "Endpoint not found");
-    EndpointMetric endpointMetric =
-        endpointMetricRepository.findByEndpointAndMetricDateOrNull(context, endpoint, today);
-    if (endpointMetric == null) {
-      endpointMetric = context.newObject(EndpointMetric.class);
-      endpointMetric.setEndpoint(endpoint);
-      endpointMetric.setMetricDate(today);
-    }
-    long responseTimeSum = Arrays.stream(responseTimes).sum();
-    endpointMetric.updateStatistics(responseTimes.length, responseTimeSum, failureCount);
-    context.commitChanges();
+    runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      Endpoint endpoint = endpointRepository.findByMethodSignatureOrNull(context, methodSignature);
+
+      Assert.notNull(endpoint, "Endpoint not found");
+      EndpointMetric endpointMetric =
+          endpointMetricRepository.findByEndpointAndMetricDateOrNull(context, endpoint, today);
+      if (endpointMetric == null) {
+        endpointMetric = context.newObject(EndpointMetric.class);
+        endpointMetric.setEndpoint(endpoint);
+        endpointMetric.setMetricDate(today);
+      }
+      long responseTimeSum = pageView * endpointMetric.getAverageResponseMs();
+      if (responseTimes.length > 0) {
+        double weightedTimeSum = 0;
+        double weightSum = 0;
+        for (int i = 0; i < responseTimes.length; i++) {
+          weightedTimeSum += responseTimes[i] / samplingProbabilities[i];
+          weightSum += 1 / samplingProbabilities[i];
+        }
+        responseTimeSum = Math.round(weightedTimeSum / weightSum * pageView);
+      }
+      endpointMetric.updateStatistics(pageView, responseTimeSum, failureCount);
+      endpointMetric.updateResponseStatuses(statusCodeCounts, exceptionCount);
+      for (Map.Entry<Integer, Long> statusCodeCount : statusCodeCounts.entrySet()) {
+        EndpointStatusMetric statusMetric = endpointMetric.findStatusMetricOrNull(statusCodeCount.getKey());
+        if (statusMetric == null) {
+          statusMetric = context.newObject(EndpointStatusMetric.class);
+          statusMetric.setStatusCode(statusCodeCount.getKey());
+          endpointMetric.addToStatusMetrics(statusMetric);
+        }
+        statusMetric.increaseResponseCount(statusCodeCount.getValue());
+      }
+      context.commitChanges();
+      return null;
+    });
   }
 
   /**
@@ -153,6 +265,21 @@ public class StatisticsService {
       throw new IllegalArgumentException("Disk usage percentage must be between 0 and 100");
     }
 
+    if (systemMetricTimeSeries != null) {
+      systemMetricTimeSeries.append(SystemMetricDto.builder()
+          .cpuUsagePercent(cpuUsagePercent)
+          .memoryUsagePercent(memoryUsagePercent)
+          .diskUsagePercent(diskUsagePercent)
+          .jvmHeapUsagePercent(jvmHeapUsagePercent)
+          .jvmNonHeapUsagePercent(jvmNonHeapUsagePercent)
+          .jvmTotalMemoryUsed(jvmTotalMemoryUsed)
+          .networkInBytes(networkInBytes)
+          .networkOutBytes(networkOutBytes)
+          .build());
+      return;
+    }
+
+    ObjectContext context = runtime.newContext();
     SystemMetric systemMetric = context.newObject(SystemMetric.class);
     systemMetric.setCpuUsagePercent(cpuUsagePercent);
     systemMetric.setMemoryUsagePercent(memoryUsagePercent);
@@ -163,7 +290,10 @@ public class StatisticsService {
     systemMetric.setNetworkInBytes(networkInBytes);
     systemMetric.setNetworkOutBytes(networkOutBytes);
 
-    context.commitChanges();
+    runtime.performInTransaction(() -> {
+      context.commitChanges();
+      return null;
+    });
   }
 
   /**
@@ -174,15 +304,32 @@ public class StatisticsService {
    * @return The list of {@link EndpointMetricDto}
    */
   public List<EndpointMetricDto> getRecentEndpointMetric(long endpointId, int limitDays) {
-    return endpointMetricRepository.getRecentEndpointMetrics(context, endpointId, limitDays)
+    return endpointMetricRepository.getRecentEndpointMetrics(runtime.newContext(), endpointId, limitDays)
         .stream()
-        .map(metric -> new EndpointMetricDto(
-            metric.getEndpoint().getPath(),
-            metric.getEndpoint().getHttpMethod(),
-            metric.getPageView(),
-            metric.getAverageResponseMs(),
-            metric.getFailureWithRatelimit(),
-            metric.getMetricDate()))
+        .map(StatisticsService::toEndpointMetricDto)
+        .toList();
+  }
+
+  /**
+   * Get the most frequent response status codes of an endpoint.
+   *
+   * @param endpointId The endpoint id
+   * @param limitDays  Maximum number of import days to include in results
+   * @param limit      The maximum number of status codes to include in the results
+   * @return The list of {@link EndpointStatusCodeDto} ordered by response count
+   */
+  public List<EndpointStatusCodeDto> getTopStatusCodes(long endpointId, int limitDays, int limit) {
+    Map<Integer, Long> responseCountByStatusCode = new HashMap<>();
+    endpointMetricRepository.getRecentEndpointMetrics(runtime.newContext(), endpointId, limitDays).stream()
+        .flatMap(metric -> metric.getStatusMetrics().stream())
+        .forEach(statusMetric -> responseCountByStatusCode.merge(statusMetric.getStatusCode(),
+            statusMetric.getResponseCount(), Long::sum));
+
+    return responseCountByStatusCode.entrySet().stream()
+        .map(entry -> new EndpointStatusCodeDto(entry.getKey(), entry.getValue()))
+        .sorted(Comparator.comparingLong(EndpointStatusCodeDto::responseCount).reversed()
+            .thenComparingInt(EndpointStatusCodeDto::statusCode))
+        .limit(limit)
         .toList();
   }
 
@@ -193,29 +340,138 @@ public class StatisticsService {
    * @return The list of {@link SystemMetricDto}
    */
   public List<SystemMetricDto> getRecentSystemMetrics(int limit) {
+    return getRecentSystemMetrics(runtime.newContext(), limit);
+  }
+
+  private List<SystemMetricDto> getRecentSystemMetrics(ObjectContext context, int limit) {
+    if (systemMetricTimeSeries != null) {
+      return systemMetricTimeSeries.findRecent(limit);
+    }
     return systemMetricRepository.getRecentSystemMetrics(context, limit)
         .stream()
         .map(SystemMetricConverter::convert)
         .toList();
   }
 
+  /**
+   * Get the system metrics of a range, averaged per bucket.
+   *
+   * @param from   Inclusive start of the range
+   * @param to     Exclusive end of the range
+   * @param bucket The size of a bucket
+   * @return One averaged {@link SystemMetricDto} per bucket that has samples, oldest first
+   * @throws IllegalArgumentException if the range is empty or the bucket is not positive
+   */
+  public List<SystemMetricDto> getSystemMetrics(LocalDateTime from, LocalDateTime to, Duration bucket) {
+    Assert.isTrue(from.isBefore(to), "The start of the range must be before its end");
+    List<SystemMetricDto> samples;
+    if (systemMetricTimeSeries != null) {
+      samples = systemMetricTimeSeries.findRange(from, to);
+    } else {
+      samples = systemMetricRepository.getSystemMetrics(runtime.newContext(), from, to)
+          .stream()
+          .map(SystemMetricConverter::convert)
+          .toList();
+    }
+    return SystemMetricDownsampler.downsample(samples, from, bucket);
+  }
+
+  /**
+   * Export the endpoint metrics of a date range, page by page.
+   *
+   * @param from   Inclusive first metric date
+   * @param to     Exclusive last metric date
+   * @param action Receives the metrics in the order they were first recorded
+   * @return The number of exported metrics
+   * @throws IllegalArgumentException if the range is empty
+   */
+  public long exportEndpointMetrics(LocalDate from, LocalDate to, Consumer<EndpointMetricDto> action) {
+    Assert.isTrue(from.isBefore(to), "The start of the range must be before its end");
+    return KeysetExport.<EndpointMetric>export(0, KeysetExport.PAGE_SIZE,
+        (afterId, limit, sink) -> endpointMetricRepository.forEachEndpointMetric(runtime.newContext(), from, to,
+            afterId, limit, sink),
+        Cayenne::longPKForObject,
+        metric -> action.accept(toEndpointMetricDto(metric)));
+  }
+
+  /**
+   * Export the system metrics of a range, page by page and without averaging them.
+   *
+   * @param from   Inclusive start of the range
+   * @param to     Exclusive end of the range
+   * @param action Receives the metrics, oldest first
+   * @return The number of exported metrics
+   * @throws IllegalArgumentException if the range is empty
+   */
+  public long exportSystemMetrics(LocalDateTime from, LocalDateTime to, Consumer<SystemMetricDto> action) {
+    Assert.isTrue(from.isBefore(to), "The start of the range must be before its end");
+    if (systemMetricTimeSeries != null) {
+      return KeysetExport.<SystemMetricDto>export(0, KeysetExport.PAGE_SIZE,
+          (afterId, limit, sink) -> systemMetricTimeSeries.findPage(afterId, from, to, limit).forEach(sink),
+          SystemMetricDto::getId, action);
+    }
+    return KeysetExport.<SystemMetric>export(0, KeysetExport.PAGE_SIZE,
+        (afterId, limit, sink) -> systemMetricRepository.forEachSystemMetric(runtime.newContext(), from, to,
+            afterId, limit, sink),
+        SystemMetric::getId,
+        metric -> action.accept(SystemMetricConverter.convert(metric)));
+  }
+
+  /**
+   * Check whether a system metric is stored.
+   * @param metricId The system metric id
+   * @return {@code true} if the system metric is stored
+   */
+  public boolean existsSystemMetric(Long metricId) {
+    if (systemMetricTimeSeries != null) {
+      return systemMetricTimeSeries.contains(metricId);
+    }
+    return ObjectSelect.query(SystemMetric.class)
+        .where(SystemMetric.ID.eq(metricId))
+        .selectCount(runtime.newContext()) > 0;
+  }
+
   /**
    * Change the memo of a system metric.
    * @param metricId The system metric id
    * @param description The memo to set
    */
   public void changeMemo(Long metricId, String description) {
-    SystemMetric systemMetric = ObjectSelect.query(SystemMetric.class)
-        .where(SystemMetric.ID.eq(metricId))
-        .selectOne(context);
-    Assert.notNull(systemMetric, "System metric not found");
-
-    if (StringUtils.hasText(description)) {
-      systemMetric.setMemo(description);
-    } else {
-      systemMetric.setMemo(null);
+    if (systemMetricTimeSeries != null) {
+      systemMetricTimeSeries.changeMemo(metricId, StringUtils.hasText(description) ? description : null);
+      return;
     }
 
-    context.commitChanges();
+    runtime.performInTransaction(() -> {
+      ObjectContext context = runtime.newContext();
+      SystemMetric systemMetric = ObjectSelect.query(SystemMetric.class)
+          .where(SystemMetric.ID.eq(metricId))
+          .selectOne(context);
+      Assert.notNull(systemMetric, "System metric not found");
+
+      if (StringUtils.hasText(description)) {
+        systemMetric.setMemo(description);
+      } else {
+        systemMetric.setMemo(null);
+      }
+
+      context.commitChanges();
+      return null;
+    });
+  }
+
+  private static EndpointMetricDto toEndpointMetricDto(EndpointMetric metric) {
+    return new EndpointMetricDto(
+        metric.getEndpoint().getPath(),
+        metric.getEndpoint().getHttpMethod(),
+        metric.getPageView(),
+        metric.getAverageResponseMs(),
+        metric.getFailureWithRatelimit(),
+        metric.getMetricDate(),
+        metric.getStatus2xxCount(),
+        metric.getStatus3xxCount(),
+        metric.getStatus4xxCount(),
+        metric.getStatus5xxCount(),
+        metric.getExceptionCount());
   }
 }
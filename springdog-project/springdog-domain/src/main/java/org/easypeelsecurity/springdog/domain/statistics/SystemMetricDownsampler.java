@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.statistics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+/**
+ * Averages system metric samples into fixed-size time buckets.
+ *
+ * @author PENEKhun
+ */
+final class SystemMetricDownsampler {
+
+  private SystemMetricDownsampler() {
+  }
+
+  /**
+   * Average the samples per bucket. Buckets are aligned to {@code from}, buckets without any sample are left
+   * out, and each result is stamped with the start of its bucket.
+   *
+   * @param samples The samples in timestamp order
+   * @param from    The start of the first bucket
+   * @param bucket  The size of a bucket
+   * @return One averaged sample per non-empty bucket, oldest first
+   */
+  static List<SystemMetricDto> downsample(List<SystemMetricDto> samples, LocalDateTime from, Duration bucket) {
+    Assert.isTrue(!bucket.isNegative() && !bucket.isZero(), "Bucket must be positive");
+    List<SystemMetricDto> result = new ArrayList<>();
+    long bucketMillis = bucket.toMillis();
+    Bucket current = null;
+    for (SystemMetricDto sample : samples) {
+      long index = Duration.between(from, sample.getTimestamp()).toMillis() / bucketMillis;
+      if (current != null && current.index != index) {
+        result.add(current.average());
+        current = null;
+      }
+      if (current == null) {
+        current = new Bucket(index, from.plus(bucket.multipliedBy(index)));
+      }
+      current.add(sample);
+    }
+    if (current != null) {
+      result.add(current.average());
+    }
+    return result;
+  }
+
+  private static final class Bucket {
+    private final long index;
+    private final LocalDateTime start;
+    private int count;
+    private double cpu;
+    private double memory;
+    private double disk;
+    private double jvmHeap;
+    private double jvmNonHeap;
+    private double jvmTotalMemory;
+    private double networkIn;
+    private double networkOut;
+
+    private Bucket(long index, LocalDateTime start) {
+      this.index = index;
+      this.start = start;
+    }
+
+    private void add(SystemMetricDto sample) {
+      count++;
+      cpu += sample.getCpuUsagePercent();
+      memory += sample.getMemoryUsagePercent();
+      disk += sample.getDiskUsagePercent();
+      jvmHeap += sample.getJvmHeapUsagePercent();
+      jvmNonHeap += sample.getJvmNonHeapUsagePercent();
+      jvmTotalMemory += sample.getJvmTotalMemoryUsed();
+      networkIn += sample.getNetworkInBytes();
+      networkOut += sample.getNetworkOutBytes();
+    }
+
+    private SystemMetricDto average() {
+      return SystemMetricDto.builder()
+          .cpuUsagePercent(cpu / count)
+          .memoryUsagePercent(memory / count)
+          .diskUsagePercent(disk / count)
+          .jvmHeapUsagePercent(jvmHeap / count)
+          .jvmNonHeapUsagePercent(jvmNonHeap / count)
+          .jvmTotalMemoryUsed(Math.round(jvmTotalMemory / count))
+          .networkInBytes(Math.round(networkIn / count))
+          .networkOutBytes(Math.round(networkOut / count))
+          .timestamp(start)
+          .build();
+    }
+  }
+}
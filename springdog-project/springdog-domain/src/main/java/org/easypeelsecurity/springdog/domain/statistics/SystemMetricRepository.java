@@ -16,7 +16,9 @@
 
 package org.easypeelsecurity.springdog.domain.statistics;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.easypeelsecurity.springdog.domain.statistics.model.SystemMetric;
 
@@ -37,4 +39,28 @@ public interface SystemMetricRepository {
    * @return The result list of {@link SystemMetric} entities
    */
   List<SystemMetric> getRecentSystemMetrics(ObjectContext context, int limit);
+
+  /**
+   * Find the {@link SystemMetric} entities taken in the given range.
+   *
+   * @param context The Cayenne ObjectContext
+   * @param from    Inclusive start of the range
+   * @param to      Exclusive end of the range
+   * @return The result list of {@link SystemMetric} entities, oldest first
+   */
+  List<SystemMetric> getSystemMetrics(ObjectContext context, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Read one keyset page of the {@link SystemMetric} entities taken in the given range through a JDBC cursor.
+   * The rows are handed to the action as they are read, so the page is never held in memory as a whole.
+   *
+   * @param context The Cayenne ObjectContext
+   * @param from    Inclusive start of the range
+   * @param to      Exclusive end of the range
+   * @param afterId Only the entities with a greater id are read
+   * @param limit   The maximum number of entities to read
+   * @param action  Receives the entities in ascending id order
+   */
+  void forEachSystemMetric(ObjectContext context, LocalDateTime from, LocalDateTime to, long afterId, int limit,
+      Consumer<SystemMetric> action);
 }
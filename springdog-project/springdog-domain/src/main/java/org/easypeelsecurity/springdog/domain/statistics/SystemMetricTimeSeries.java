@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.statistics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
+
+/**
+ * Optional time-series storage engine for system metrics.
+ * <p>
+ * When a bean of this type is present, system metrics are stored here instead of the {@code SYSTEM_METRIC}
+ * table. The samples are append-only; only their memo can be changed afterwards. Timestamps are kept to the
+ * millisecond. The ids of the samples increase in append order, whatever their timestamps, so a clock set
+ * back never makes two samples share an id.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+public interface SystemMetricTimeSeries {
+
+  /**
+   * Append a sample.
+   *
+   * @param systemMetric The sample to append
+   */
+  void append(SystemMetricDto systemMetric);
+
+  /**
+   * Find the most recent samples.
+   *
+   * @param limit The maximum number of samples
+   * @return The samples, newest first
+   */
+  List<SystemMetricDto> findRecent(int limit);
+
+  /**
+   * Find the samples taken in the given range.
+   *
+   * @param from Inclusive start of the range
+   * @param to   Exclusive end of the range
+   * @return The samples, oldest first
+   */
+  List<SystemMetricDto> findRange(LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Find one keyset page of the samples taken in a range.
+   * Only the chunks holding the page are decoded, so a range can be read page by page in bounded memory.
+   *
+   * @param afterId Only the samples with a greater id are returned
+   * @param from    Inclusive start of the range
+   * @param to      Exclusive end of the range
+   * @param limit   The maximum number of samples
+   * @return The samples, in id order
+   */
+  List<SystemMetricDto> findPage(long afterId, LocalDateTime from, LocalDateTime to, int limit);
+
+  /**
+   * Check whether a sample is stored.
+   *
+   * @param metricId The id of the sample
+   * @return {@code true} if the sample is stored
+   */
+  boolean contains(long metricId);
+
+  /**
+   * Change the memo of a sample.
+   *
+   * @param metricId The id of the sample
+   * @param memo     The memo to set, or {@code null} to remove it
+   * @throws IllegalArgumentException if there is no sample with the id
+   */
+  void changeMemo(long metricId, String memo);
+
+  /**
+   * Delete the samples taken before the cutoff. Storage is reclaimed by whole chunks, so samples slightly
+   * older than the cutoff may be kept until the rest of their chunk expires.
+   *
+   * @param cutoff The oldest timestamp to keep
+   * @return The number of deleted samples
+   */
+  long deleteBefore(LocalDateTime cutoff);
+}
@@ -17,6 +17,7 @@
 package org.easypeelsecurity.springdog.domain.statistics.model;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 import org.easypeelsecurity.springdog.domain.statistics.model.auto._EndpointMetric;
 
@@ -39,13 +40,49 @@ public class EndpointMetric extends _EndpointMetric {
     long totalPageView = getPageView() + additionalPageView;
     long existResponseTime = getPageView() * getAverageResponseMs();
     long totalResponseTime = existResponseTime + additionalResponseTimeSum;
-    int averageResponseTime = (int) (totalResponseTime / totalPageView);
+    int averageResponseTime = totalPageView == 0 ? 0 : (int) (totalResponseTime / totalPageView);
 
     setPageView(totalPageView);
     setAverageResponseMs(averageResponseTime);
     setFailureWithRatelimit(getFailureWithRatelimit() + ratelimitFailureCount);
   }
 
+  /**
+   * Updates the endpoint's response status breakdown.
+   * Each status code is added to the counter of its status class (2xx, 3xx, 4xx, 5xx). Status codes
+   * outside of those classes are not counted here, but are still kept per status code.
+   *
+   * @param statusCodeCounts         the number of additional responses per HTTP status code
+   * @param additionalExceptionCount the number of additional requests that ended with an exception
+   */
+  public void updateResponseStatuses(Map<Integer, Long> statusCodeCounts, long additionalExceptionCount) {
+    statusCodeCounts.forEach((statusCode, count) -> {
+      switch (statusCode / 100) {
+        case 2 -> setStatus2xxCount(getStatus2xxCount() + count);
+        case 3 -> setStatus3xxCount(getStatus3xxCount() + count);
+        case 4 -> setStatus4xxCount(getStatus4xxCount() + count);
+        case 5 -> setStatus5xxCount(getStatus5xxCount() + count);
+        default -> {
+          // informational or non-standard status codes have no dedicated counter
+        }
+      }
+    });
+    setExceptionCount(getExceptionCount() + additionalExceptionCount);
+  }
+
+  /**
+   * Find the per status code metric of this endpoint metric.
+   *
+   * @param statusCode the HTTP status code
+   * @return the {@link EndpointStatusMetric} or null if not found
+   */
+  public EndpointStatusMetric findStatusMetricOrNull(int statusCode) {
+    return getStatusMetrics().stream()
+        .filter(statusMetric -> statusMetric.getStatusCode() == statusCode)
+        .findFirst()
+        .orElse(null);
+  }
+
   @Override
   public void setAverageResponseMs(long averageResponseMs) {
     if (averageResponseMs < 0) {
@@ -77,4 +114,12 @@ public class EndpointMetric extends _EndpointMetric {
     }
     super.setFailureWithRatelimit(ratelimitFailureCount);
   }
+
+  @Override
+  public void setExceptionCount(long exceptionCount) {
+    if (exceptionCount < 0) {
+      throw new IllegalArgumentException("exception count must be a positive number");
+    }
+    super.setExceptionCount(exceptionCount);
+  }
 }
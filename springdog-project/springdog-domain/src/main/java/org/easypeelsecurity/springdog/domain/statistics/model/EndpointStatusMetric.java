@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.statistics.model;
+
+import org.easypeelsecurity.springdog.domain.statistics.model.auto._EndpointStatusMetric;
+
+/**
+ * Model class for the number of responses per HTTP status code of an {@link EndpointMetric}.
+ */
+@SuppressWarnings("all")
+public class EndpointStatusMetric extends _EndpointStatusMetric {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Adds the given number of responses to this status code.
+   *
+   * @param additionalResponseCount the number of additional responses
+   */
+  public void increaseResponseCount(long additionalResponseCount) {
+    if (additionalResponseCount < 0) {
+      throw new IllegalArgumentException("response count must be a positive number");
+    }
+    setResponseCount(getResponseCount() + additionalResponseCount);
+  }
+}
@@ -4,13 +4,16 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.time.LocalDate;
+import java.util.List;
 
 import org.apache.cayenne.BaseDataObject;
 import org.apache.cayenne.exp.property.DateProperty;
 import org.apache.cayenne.exp.property.EntityProperty;
+import org.apache.cayenne.exp.property.ListProperty;
 import org.apache.cayenne.exp.property.NumericProperty;
 import org.apache.cayenne.exp.property.PropertyFactory;
 import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
+import org.easypeelsecurity.springdog.domain.statistics.model.EndpointStatusMetric;
 
 /**
  * Class _EndpointMetric was generated by Cayenne.
@@ -25,17 +28,29 @@ public abstract class _EndpointMetric extends BaseDataObject {
     public static final String ID_PK_COLUMN = "ID";
 
     public static final NumericProperty<Long> AVERAGE_RESPONSE_MS = PropertyFactory.createNumeric("averageResponseMs", Long.class);
+    public static final NumericProperty<Long> EXCEPTION_COUNT = PropertyFactory.createNumeric("exceptionCount", Long.class);
     public static final NumericProperty<Long> FAILURE_WITH_RATELIMIT = PropertyFactory.createNumeric("failureWithRatelimit", Long.class);
     public static final DateProperty<LocalDate> METRIC_DATE = PropertyFactory.createDate("metricDate", LocalDate.class);
     public static final NumericProperty<Long> PAGE_VIEW = PropertyFactory.createNumeric("pageView", Long.class);
+    public static final NumericProperty<Long> STATUS2XX_COUNT = PropertyFactory.createNumeric("status2xxCount", Long.class);
+    public static final NumericProperty<Long> STATUS3XX_COUNT = PropertyFactory.createNumeric("status3xxCount", Long.class);
+    public static final NumericProperty<Long> STATUS4XX_COUNT = PropertyFactory.createNumeric("status4xxCount", Long.class);
+    public static final NumericProperty<Long> STATUS5XX_COUNT = PropertyFactory.createNumeric("status5xxCount", Long.class);
     public static final EntityProperty<Endpoint> ENDPOINT = PropertyFactory.createEntity("endpoint", Endpoint.class);
+    public static final ListProperty<EndpointStatusMetric> STATUS_METRICS = PropertyFactory.createList("statusMetrics", EndpointStatusMetric.class);
 
     protected long averageResponseMs;
+    protected long exceptionCount;
     protected long failureWithRatelimit;
     protected LocalDate metricDate;
     protected long pageView;
+    protected long status2xxCount;
+    protected long status3xxCount;
+    protected long status4xxCount;
+    protected long status5xxCount;
 
     protected Object endpoint;
+    protected Object statusMetrics;
 
     public void setAverageResponseMs(long averageResponseMs) {
         beforePropertyWrite("averageResponseMs", this.averageResponseMs, averageResponseMs);
@@ -47,6 +62,16 @@ public abstract class _EndpointMetric extends BaseDataObject {
         return this.averageResponseMs;
     }
 
+    public void setExceptionCount(long exceptionCount) {
+        beforePropertyWrite("exceptionCount", this.exceptionCount, exceptionCount);
+        this.exceptionCount = exceptionCount;
+    }
+
+    public long getExceptionCount() {
+        beforePropertyRead("exceptionCount");
+        return this.exceptionCount;
+    }
+
     public void setFailureWithRatelimit(long failureWithRatelimit) {
         beforePropertyWrite("failureWithRatelimit", this.failureWithRatelimit, failureWithRatelimit);
         this.failureWithRatelimit = failureWithRatelimit;
@@ -77,6 +102,46 @@ public abstract class _EndpointMetric extends BaseDataObject {
         return this.pageView;
     }
 
+    public void setStatus2xxCount(long status2xxCount) {
+        beforePropertyWrite("status2xxCount", this.status2xxCount, status2xxCount);
+        this.status2xxCount = status2xxCount;
+    }
+
+    public long getStatus2xxCount() {
+        beforePropertyRead("status2xxCount");
+        return this.status2xxCount;
+    }
+
+    public void setStatus3xxCount(long status3xxCount) {
+        beforePropertyWrite("status3xxCount", this.status3xxCount, status3xxCount);
+        this.status3xxCount = status3xxCount;
+    }
+
+    public long getStatus3xxCount() {
+        beforePropertyRead("status3xxCount");
+        return this.status3xxCount;
+    }
+
+    public void setStatus4xxCount(long status4xxCount) {
+        beforePropertyWrite("status4xxCount", this.status4xxCount, status4xxCount);
+        this.status4xxCount = status4xxCount;
+    }
+
+    public long getStatus4xxCount() {
+        beforePropertyRead("status4xxCount");
+        return this.status4xxCount;
+    }
+
+    public void setStatus5xxCount(long status5xxCount) {
+        beforePropertyWrite("status5xxCount", this.status5xxCount, status5xxCount);
+        this.status5xxCount = status5xxCount;
+    }
+
+    public long getStatus5xxCount() {
+        beforePropertyRead("status5xxCount");
+        return this.status5xxCount;
+    }
+
     public void setEndpoint(Endpoint endpoint) {
         setToOneTarget("endpoint", endpoint, true);
     }
@@ -85,6 +150,19 @@ public abstract class _EndpointMetric extends BaseDataObject {
         return (Endpoint)readProperty("endpoint");
     }
 
+    public void addToStatusMetrics(EndpointStatusMetric obj) {
+        addToManyTarget("statusMetrics", obj, true);
+    }
+
+    public void removeFromStatusMetrics(EndpointStatusMetric obj) {
+        removeToManyTarget("statusMetrics", obj, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<EndpointStatusMetric> getStatusMetrics() {
+        return (List<EndpointStatusMetric>)readProperty("statusMetrics");
+    }
+
     @Override
     public Object readPropertyDirectly(String propName) {
         if(propName == null) {
@@ -94,14 +172,26 @@ public abstract class _EndpointMetric extends BaseDataObject {
         switch(propName) {
             case "averageResponseMs":
                 return this.averageResponseMs;
+            case "exceptionCount":
+                return this.exceptionCount;
             case "failureWithRatelimit":
                 return this.failureWithRatelimit;
             case "metricDate":
                 return this.metricDate;
             case "pageView":
                 return this.pageView;
+            case "status2xxCount":
+                return this.status2xxCount;
+            case "status3xxCount":
+                return this.status3xxCount;
+            case "status4xxCount":
+                return this.status4xxCount;
+            case "status5xxCount":
+                return this.status5xxCount;
             case "endpoint":
                 return this.endpoint;
+            case "statusMetrics":
+                return this.statusMetrics;
             default:
                 return super.readPropertyDirectly(propName);
         }
@@ -117,6 +207,9 @@ public abstract class _EndpointMetric extends BaseDataObject {
             case "averageResponseMs":
                 this.averageResponseMs = val == null ? 0 : (long)val;
                 break;
+            case "exceptionCount":
+                this.exceptionCount = val == null ? 0 : (long)val;
+                break;
             case "failureWithRatelimit":
                 this.failureWithRatelimit = val == null ? 0 : (long)val;
                 break;
@@ -126,9 +219,24 @@ public abstract class _EndpointMetric extends BaseDataObject {
             case "pageView":
                 this.pageView = val == null ? 0 : (long)val;
                 break;
+            case "status2xxCount":
+                this.status2xxCount = val == null ? 0 : (long)val;
+                break;
+            case "status3xxCount":
+                this.status3xxCount = val == null ? 0 : (long)val;
+                break;
+            case "status4xxCount":
+                this.status4xxCount = val == null ? 0 : (long)val;
+                break;
+            case "status5xxCount":
+                this.status5xxCount = val == null ? 0 : (long)val;
+                break;
             case "endpoint":
                 this.endpoint = val;
                 break;
+            case "statusMetrics":
+                this.statusMetrics = val;
+                break;
             default:
                 super.writePropertyDirectly(propName, val);
         }
@@ -146,20 +254,32 @@ public abstract class _EndpointMetric extends BaseDataObject {
     protected void writeState(ObjectOutputStream out) throws IOException {
         super.writeState(out);
         out.writeLong(this.averageResponseMs);
+        out.writeLong(this.exceptionCount);
         out.writeLong(this.failureWithRatelimit);
         out.writeObject(this.metricDate);
         out.writeLong(this.pageView);
+        out.writeLong(this.status2xxCount);
+        out.writeLong(this.status3xxCount);
+        out.writeLong(this.status4xxCount);
+        out.writeLong(this.status5xxCount);
         out.writeObject(this.endpoint);
+        out.writeObject(this.statusMetrics);
     }
 
     @Override
     protected void readState(ObjectInputStream in) throws IOException, ClassNotFoundException {
         super.readState(in);
         this.averageResponseMs = in.readLong();
+        this.exceptionCount = in.readLong();
         this.failureWithRatelimit = in.readLong();
         this.metricDate = (LocalDate)in.readObject();
         this.pageView = in.readLong();
+        this.status2xxCount = in.readLong();
+        this.status3xxCount = in.readLong();
+        this.status4xxCount = in.readLong();
+        this.status5xxCount = in.readLong();
         this.endpoint = in.readObject();
+        this.statusMetrics = in.readObject();
     }
 
 }
@@ -0,0 +1,125 @@
+package org.easypeelsecurity.springdog.domain.statistics.model.auto;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.exp.property.EntityProperty;
+import org.apache.cayenne.exp.property.NumericProperty;
+import org.apache.cayenne.exp.property.PropertyFactory;
+import org.easypeelsecurity.springdog.domain.statistics.model.EndpointMetric;
+
+/**
+ * Class _EndpointStatusMetric was generated by Cayenne.
+ * It is probably a good idea to avoid changing this class manually,
+ * since it may be overwritten next time code is regenerated.
+ * If you need to make any customizations, please use subclass.
+ */
+public abstract class _EndpointStatusMetric extends BaseDataObject {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String ID_PK_COLUMN = "ID";
+
+    public static final NumericProperty<Long> RESPONSE_COUNT = PropertyFactory.createNumeric("responseCount", Long.class);
+    public static final NumericProperty<Integer> STATUS_CODE = PropertyFactory.createNumeric("statusCode", Integer.class);
+    public static final EntityProperty<EndpointMetric> ENDPOINT_METRIC = PropertyFactory.createEntity("endpointMetric", EndpointMetric.class);
+
+    protected long responseCount;
+    protected int statusCode;
+
+    protected Object endpointMetric;
+
+    public void setResponseCount(long responseCount) {
+        beforePropertyWrite("responseCount", this.responseCount, responseCount);
+        this.responseCount = responseCount;
+    }
+
+    public long getResponseCount() {
+        beforePropertyRead("responseCount");
+        return this.responseCount;
+    }
+
+    public void setStatusCode(int statusCode) {
+        beforePropertyWrite("statusCode", this.statusCode, statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        beforePropertyRead("statusCode");
+        return this.statusCode;
+    }
+
+    public void setEndpointMetric(EndpointMetric endpointMetric) {
+        setToOneTarget("endpointMetric", endpointMetric, true);
+    }
+
+    public EndpointMetric getEndpointMetric() {
+        return (EndpointMetric)readProperty("endpointMetric");
+    }
+
+    @Override
+    public Object readPropertyDirectly(String propName) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch(propName) {
+            case "responseCount":
+                return this.responseCount;
+            case "statusCode":
+                return this.statusCode;
+            case "endpointMetric":
+                return this.endpointMetric;
+            default:
+                return super.readPropertyDirectly(propName);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(String propName, Object val) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch (propName) {
+            case "responseCount":
+                this.responseCount = val == null ? 0 : (long)val;
+                break;
+            case "statusCode":
+                this.statusCode = val == null ? 0 : (int)val;
+                break;
+            case "endpointMetric":
+                this.endpointMetric = val;
+                break;
+            default:
+                super.writePropertyDirectly(propName, val);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        writeSerialized(out);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        readSerialized(in);
+    }
+
+    @Override
+    protected void writeState(ObjectOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeLong(this.responseCount);
+        out.writeInt(this.statusCode);
+        out.writeObject(this.endpointMetric);
+    }
+
+    @Override
+    protected void readState(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        this.responseCount = in.readLong();
+        this.statusCode = in.readInt();
+        this.endpointMetric = in.readObject();
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionGroupTest {
+
+  private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 12, 12, 0);
+
+  @Test
+  @DisplayName("Occurrences are summed and the seen times widened")
+  void addOccurrences() {
+    ExceptionGroup group = new ExceptionGroup();
+
+    group.addOccurrences(3, NOON, NOON.plusMinutes(1), "first", null);
+    group.addOccurrences(2, NOON.minusMinutes(5), NOON.plusMinutes(3), "second", null);
+
+    assertThat(group.getOccurrenceCount()).isEqualTo(5);
+    assertThat(group.getFirstSeen()).isEqualTo(NOON.minusMinutes(5));
+    assertThat(group.getLastSeen()).isEqualTo(NOON.plusMinutes(3));
+    assertThat(group.getSampleMessage()).isEqualTo("second");
+  }
+
+  @Test
+  @DisplayName("The sample message is not replaced by an older occurrence")
+  void olderOccurrenceKeepsMessage() {
+    ExceptionGroup group = new ExceptionGroup();
+
+    group.addOccurrences(1, NOON, NOON, "latest", null);
+    group.addOccurrences(1, NOON.minusHours(1), NOON.minusHours(1), "older", null);
+
+    assertThat(group.getSampleMessage()).isEqualTo("latest");
+  }
+
+  @Test
+  @DisplayName("The endpoint of the latest occurrence is kept when it is known")
+  void latestMethodSignature() {
+    ExceptionGroup group = new ExceptionGroup();
+
+    group.addOccurrences(1, NOON, NOON, "first", "GET /first");
+    group.addOccurrences(1, NOON.plusMinutes(1), NOON.plusMinutes(1), "unknown", null);
+    group.addOccurrences(1, NOON.minusHours(1), NOON.minusHours(1), "older", "GET /older");
+
+    assertThat(group.getMethodSignature()).isEqualTo("GET /first");
+  }
+
+  @Test
+  @DisplayName("Traces can be stored until the limit is reached")
+  void storedTraceLimit() {
+    ExceptionGroup group = new ExceptionGroup();
+
+    group.incrementStoredTraceCount();
+    assertThat(group.canStoreTrace(2)).isTrue();
+    group.incrementStoredTraceCount();
+
+    assertThat(group.canStoreTrace(2)).isFalse();
+    assertThat(group.canStoreTrace(0)).isFalse();
+  }
+
+  @Test
+  @DisplayName("A negative occurrence count is rejected")
+  void negativeCount() {
+    ExceptionGroup group = new ExceptionGroup();
+
+    assertThatThrownBy(() -> group.addOccurrences(-1, NOON, NOON, "message", null))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
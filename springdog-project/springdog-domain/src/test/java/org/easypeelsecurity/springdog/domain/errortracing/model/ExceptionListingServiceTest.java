@@ -17,28 +17,41 @@
 package org.easypeelsecurity.springdog.domain.errortracing.model;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingPageDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto.ExceptionItemDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionOccurrencesDto;
 
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.tx.TransactionalOperation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 class ExceptionListingServiceTest {
 
+  @Mock
+  private ServerRuntime runtime;
+
   @Mock
   private ObjectContext context;
 
@@ -50,24 +63,28 @@ class ExceptionListingServiceTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    exceptionListingService = new ExceptionListingService(context, exceptionRepository);
+    when(runtime.newContext()).thenReturn(context);
+    when(runtime.performInTransaction(any()))
+        .thenAnswer(invocation -> ((TransactionalOperation<?>) invocation.getArgument(0)).perform());
+    exceptionListingService = new ExceptionListingService(runtime, exceptionRepository);
   }
 
   @Test
   void saveExceptionListing_shouldUpdateExistingAndAddNewExceptions() {
     // given
     ExceptionType existingType = mock(ExceptionType.class);
-    ExceptionClass existingClass = mock(ExceptionClass.class);
-    when(existingClass.getExceptionClassName()).thenReturn("IOException");
+    when(existingType.getId()).thenReturn(1L);
     when(existingType.getPackageType()).thenReturn("java.io");
-    when(existingType.getExceptionClasses()).thenReturn(new ArrayList<>(List.of(existingClass)));
-    when(exceptionRepository.findAllExceptions(context)).thenReturn(new ArrayList<>(List.of(existingType)));
+    when(exceptionRepository.findAllExceptionTypes(context)).thenReturn(List.of(existingType));
+    when(exceptionRepository.findAllExceptionClassRows(context))
+        .thenReturn(List.of(new ExceptionClassRow(10L, "IOException", 1L)));
 
     // Mock new objects
     ExceptionClass newClass = mock(ExceptionClass.class);
     ExceptionType newType = mock(ExceptionType.class);
     when(context.newObject(ExceptionClass.class)).thenReturn(newClass);
     when(context.newObject(ExceptionType.class)).thenReturn(newType);
+    when(context.newObject(ExceptionCatalogState.class)).thenReturn(mock(ExceptionCatalogState.class));
 
     ExceptionClassesDto parsedException = new ExceptionClassesDto(List.of(
         new ExceptionListDto(1L, "java.io", "I/O Exceptions", List.of(
@@ -85,8 +102,8 @@ class ExceptionListingServiceTest {
     // then
     verify(context, times(2)).newObject(ExceptionClass.class); // new class
     verify(context, times(1)).newObject(ExceptionType.class); // new type
-    verify(context, never()).deleteObject(existingType);
-    verify(context, never()).deleteObject(existingClass);
+    verify(exceptionRepository).deleteExceptionClasses(context, List.of());
+    verify(exceptionRepository).deleteExceptionTypes(context, List.of());
     verify(context).commitChanges();
   }
 
@@ -94,11 +111,12 @@ class ExceptionListingServiceTest {
   void saveExceptionListing_shouldDeleteRemovedExceptions() {
     // given
     ExceptionType existingType = mock(ExceptionType.class);
-    ExceptionClass existingClass = mock(ExceptionClass.class);
-    when(existingClass.getExceptionClassName()).thenReturn("IOException");
+    when(existingType.getId()).thenReturn(1L);
     when(existingType.getPackageType()).thenReturn("java.io");
-    when(existingType.getExceptionClasses()).thenReturn(new ArrayList<>(List.of(existingClass)));
-    when(exceptionRepository.findAllExceptions(context)).thenReturn(new ArrayList<>(List.of(existingType)));
+    when(exceptionRepository.findAllExceptionTypes(context)).thenReturn(List.of(existingType));
+    when(exceptionRepository.findAllExceptionClassRows(context))
+        .thenReturn(List.of(new ExceptionClassRow(10L, "IOException", 1L)));
+    when(context.newObject(ExceptionCatalogState.class)).thenReturn(mock(ExceptionCatalogState.class));
 
     ExceptionClassesDto parsedExceptions = new ExceptionClassesDto(List.of());
 
@@ -106,9 +124,59 @@ class ExceptionListingServiceTest {
     exceptionListingService.saveExceptionsWithoutDuplicate(parsedExceptions);
 
     // then
-    verify(context).deleteObject(existingType);
-    verify(context).deleteObject(existingClass);
+    InOrder inOrder = inOrder(context, exceptionRepository);
+    inOrder.verify(context).commitChanges();
+    inOrder.verify(exceptionRepository).deleteExceptionClasses(context, List.of(10L));
+    inOrder.verify(exceptionRepository).deleteExceptionTypes(context, List.of(1L));
+  }
+
+  @Test
+  void addExceptionListing_shouldKeepExceptionsMissingFromTheList() {
+    // given
+    ExceptionType existingType = mock(ExceptionType.class);
+    when(existingType.getId()).thenReturn(1L);
+    when(existingType.getPackageType()).thenReturn("com.example");
+    when(exceptionRepository.findAllExceptionTypes(context)).thenReturn(List.of(existingType));
+    when(exceptionRepository.findAllExceptionClassRows(context))
+        .thenReturn(List.of(new ExceptionClassRow(10L, "com.example.ScannedException", 1L)));
+    when(context.newObject(ExceptionClass.class)).thenReturn(mock(ExceptionClass.class));
+    when(context.newObject(ExceptionCatalogState.class)).thenReturn(mock(ExceptionCatalogState.class));
+
+    ExceptionClassesDto catalog = new ExceptionClassesDto(List.of(
+        new ExceptionListDto(null, "com.example", "Application specific exceptions", List.of(
+            new ExceptionItemDto(null, "com.example.CatalogedException", true)))));
+
+    // when
+    exceptionListingService.addExceptionsWithoutDuplicate(catalog);
+
+    // then
+    verify(context).newObject(ExceptionClass.class);
     verify(context).commitChanges();
+    verify(exceptionRepository, never()).deleteExceptionClasses(any(), any());
+    verify(exceptionRepository, never()).deleteExceptionTypes(any(), any());
+  }
+
+  @Test
+  void saveExceptionListing_shouldSkipAnUnchangedList() {
+    // given
+    ExceptionClassesDto parsedExceptions = new ExceptionClassesDto(List.of(
+        new ExceptionListDto(null, "java.io", "I/O Exceptions", List.of(
+            new ExceptionItemDto(null, "IOException", false),
+            new ExceptionItemDto(null, "FileNotFoundException", false)))));
+    ExceptionClassesDto reordered = new ExceptionClassesDto(List.of(
+        new ExceptionListDto(null, "java.io", "I/O Exceptions", List.of(
+            new ExceptionItemDto(null, "FileNotFoundException", false),
+            new ExceptionItemDto(null, "IOException", false)))));
+    ExceptionCatalogState catalogState = mock(ExceptionCatalogState.class);
+    when(catalogState.getCatalogHash()).thenReturn(ExceptionListingService.catalogHash(parsedExceptions));
+    when(exceptionRepository.findExceptionCatalogStateOrNull(context)).thenReturn(catalogState);
+
+    // when
+    exceptionListingService.saveExceptionsWithoutDuplicate(reordered);
+
+    // then
+    verify(exceptionRepository, never()).findAllExceptionClassRows(any());
+    verify(context, never()).commitChanges();
   }
 
   @Test
@@ -138,4 +206,145 @@ class ExceptionListingServiceTest {
     assertThat(listDto.subExceptions().get(0).exceptionId()).isEqualTo(1L);
     assertThat(listDto.subExceptions().get(0).exceptionName()).isEqualTo("IOException");
   }
+
+  @Test
+  void changeMonitoringStatus_shouldCommitTheStatus() {
+    // given
+    ExceptionClass exceptionClass = mock(ExceptionClass.class);
+    when(exceptionRepository.findExceptionClassByIdOrNull(context, 1L)).thenReturn(exceptionClass);
+
+    // when
+    exceptionListingService.changeMonitoringStatus(1L, true);
+
+    // then
+    InOrder inOrder = inOrder(exceptionClass, context);
+    inOrder.verify(exceptionClass).setMonitoringEnabled(true);
+    inOrder.verify(context).commitChanges();
+  }
+
+  @Test
+  void isExceptionEnabled_shouldLoadStatusesOnceAndReloadThemOnChange() {
+    // given
+    ExceptionType exceptionType = mock(ExceptionType.class);
+    ExceptionClass exceptionClass = mock(ExceptionClass.class);
+    when(exceptionClass.getExceptionClassName()).thenReturn(IllegalStateException.class.getName());
+    when(exceptionClass.isMonitoringEnabled()).thenReturn(true);
+    when(exceptionType.getExceptionClasses()).thenReturn(List.of(exceptionClass));
+    when(exceptionRepository.findAllExceptions(context)).thenReturn(List.of(exceptionType));
+    when(exceptionRepository.findExceptionClassByIdOrNull(context, 1L)).thenReturn(exceptionClass);
+
+    // when & then
+    assertThat(exceptionListingService.isExceptionEnabled(IllegalStateException.class)).isTrue();
+    assertThat(exceptionListingService.isExceptionEnabled(IllegalArgumentException.class)).isFalse();
+    verify(exceptionRepository, times(1)).findAllExceptions(context);
+
+    when(exceptionClass.isMonitoringEnabled()).thenReturn(false);
+    exceptionListingService.changeMonitoringStatus(1L, false);
+
+    assertThat(exceptionListingService.isExceptionEnabled(IllegalStateException.class)).isFalse();
+    verify(exceptionRepository, times(2)).findAllExceptions(context);
+  }
+
+  @Test
+  void saveOccurrences_shouldStoreChainsWhileThereIsRoomLeft() {
+    // given
+    ExceptionGroup group = new ExceptionGroup();
+    group.setFingerprint("fp");
+    group.setStoredTraceCount(8);
+    when(exceptionRepository.findExceptionGroupByFingerprintOrNull(context, "fp")).thenReturn(group);
+    ExceptionCause cause = new ExceptionCause();
+    when(context.newObject(ExceptionCause.class)).thenReturn(cause);
+    LocalDateTime now = LocalDateTime.now();
+    ErrorTracingDto chain = ErrorTracingDto.builder().message("boom").build();
+    ExceptionOccurrencesDto occurrences = new ExceptionOccurrencesDto("fp", "java.lang.IllegalStateException",
+        "boom", "GET /api/orders", 5, 2, now.minusSeconds(5), now, List.of(chain, chain));
+
+    // when
+    exceptionListingService.saveOccurrences(occurrences, 10);
+
+    // then
+    assertThat(group.getOccurrenceCount()).isEqualTo(5);
+    assertThat(group.getThrottledCount()).isEqualTo(2);
+    assertThat(group.getMethodSignature()).isEqualTo("GET /api/orders");
+    assertThat(group.getStoredTraceCount()).isEqualTo(10);
+    assertThat(cause.getFingerprint()).isEqualTo("fp");
+    verify(context, times(2)).newObject(ExceptionCause.class);
+    verify(exceptionRepository, never()).deleteExceptionChains(any(), any());
+    verify(context).commitChanges();
+  }
+
+  @Test
+  void saveOccurrences_shouldReplaceRandomStoredChainsWhenFull() {
+    // given
+    ExceptionGroup group = new ExceptionGroup();
+    group.setFingerprint("fp");
+    group.setStoredTraceCount(9);
+    when(exceptionRepository.findExceptionGroupByFingerprintOrNull(context, "fp")).thenReturn(group);
+    List<Long> storedRootIds = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+    when(exceptionRepository.findStoredChainRootIds(context, "fp")).thenReturn(storedRootIds);
+    when(context.newObject(ExceptionCause.class)).thenReturn(new ExceptionCause());
+    LocalDateTime now = LocalDateTime.now();
+    ErrorTracingDto chain = ErrorTracingDto.builder().message("boom").build();
+    ExceptionOccurrencesDto occurrences = new ExceptionOccurrencesDto("fp", "java.lang.IllegalStateException",
+        "boom", null, 3, 0, now.minusSeconds(5), now, List.of(chain, chain, chain));
+
+    // when
+    exceptionListingService.saveOccurrences(occurrences, 10);
+
+    // then
+    assertThat(group.getStoredTraceCount()).isEqualTo(10);
+    verify(context, times(3)).newObject(ExceptionCause.class);
+    verify(exceptionRepository).deleteExceptionChains(any(),
+        argThat(rootIds -> rootIds.size() == 2 && storedRootIds.containsAll(rootIds)));
+  }
+
+  @Test
+  void saveOccurrences_shouldRecountTheStoredChainsWhenFull() {
+    // given
+    ExceptionGroup group = new ExceptionGroup();
+    group.setFingerprint("fp");
+    group.setStoredTraceCount(10);
+    when(exceptionRepository.findExceptionGroupByFingerprintOrNull(context, "fp")).thenReturn(group);
+    when(exceptionRepository.findStoredChainRootIds(context, "fp")).thenReturn(List.of(1L, 2L, 3L));
+    when(context.newObject(ExceptionCause.class)).thenReturn(new ExceptionCause());
+    LocalDateTime now = LocalDateTime.now();
+    ErrorTracingDto chain = ErrorTracingDto.builder().message("boom").build();
+    ExceptionOccurrencesDto occurrences = new ExceptionOccurrencesDto("fp", "java.lang.IllegalStateException",
+        "boom", null, 1, 0, now, now, List.of(chain));
+
+    // when
+    exceptionListingService.saveOccurrences(occurrences, 10);
+
+    // then
+    assertThat(group.getStoredTraceCount()).isEqualTo(4);
+    verify(exceptionRepository, never()).deleteExceptionChains(any(), any());
+  }
+
+  @Test
+  void getParentCauses_shouldFetchTheChainsOfOnePage() {
+    // given
+    when(exceptionRepository.findParentExceptionCauseIds(context, Long.MAX_VALUE, 3))
+        .thenReturn(List.of(30L, 20L, 10L));
+    ExceptionCause newer = cause(30L, "Newer");
+    ExceptionCause nested = cause(31L, "Nested");
+    ExceptionCause older = cause(20L, "Older");
+    when(exceptionRepository.findExceptionChains(context, List.of(30L, 20L)))
+        .thenReturn(Map.of(30L, List.of(newer, nested), 20L, List.of(older)));
+
+    // when
+    ErrorTracingPageDto page = exceptionListingService.getParentCauses(null, 2);
+
+    // then
+    assertThat(page.causes()).extracting(ErrorTracingDto::getClassName).containsExactly("Newer", "Older");
+    assertThat(page.causes().get(0).getNext().getClassName()).isEqualTo("Nested");
+    assertThat(page.causes().get(0).getNext().getParentTraceId()).isEqualTo(30L);
+    assertThat(page.nextBeforeId()).isEqualTo(20L);
+  }
+
+  private static ExceptionCause cause(long id, String className) {
+    ExceptionCause cause = new ExceptionCause();
+    cause.setId(id);
+    cause.setClassName(className);
+    return cause;
+  }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionMonitoringTableTest {
+
+  @Test
+  @DisplayName("Nothing is monitored before the statuses are loaded")
+  void notLoaded() {
+    ExceptionMonitoringTable table = new ExceptionMonitoringTable();
+
+    assertThat(table.isLoaded()).isFalse();
+    assertThat(table.isEnabled(IOException.class)).isFalse();
+  }
+
+  @Test
+  @DisplayName("A class follows its nearest listed superclass")
+  void nearestListedSuperclass() {
+    ExceptionMonitoringTable table = new ExceptionMonitoringTable();
+
+    table.replace(Map.of(
+        IOException.class.getName(), true,
+        FileNotFoundException.class.getName(), false));
+
+    assertThat(table.isEnabled(IOException.class)).isTrue();
+    assertThat(table.isEnabled(FileNotFoundException.class)).isFalse();
+    assertThat(table.isEnabled(NoSuchFileException.class)).isTrue();
+    assertThat(table.isEnabled(UncheckedIOException.class)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Replacing the statuses discards the resolved classes")
+  void replace() {
+    ExceptionMonitoringTable table = new ExceptionMonitoringTable();
+    table.replace(Map.of(IOException.class.getName(), true));
+    assertThat(table.isEnabled(FileNotFoundException.class)).isTrue();
+
+    table.replace(Map.of(IOException.class.getName(), false));
+
+    assertThat(table.isEnabled(FileNotFoundException.class)).isFalse();
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FrameIdCodecTest {
+
+  @Test
+  @DisplayName("Encoded frame ids are decoded in the same order")
+  void roundTrip() {
+    long[] frameIds = {1L, 127L, 128L, 16_384L, 42L, Long.MAX_VALUE};
+
+    byte[] encoded = FrameIdCodec.encode(frameIds);
+
+    assertThat(FrameIdCodec.decode(encoded)).containsExactly(frameIds);
+  }
+
+  @Test
+  @DisplayName("Small ids take a single byte")
+  void smallIdsTakeOneByte() {
+    assertThat(FrameIdCodec.encode(new long[] {1L, 2L, 127L})).hasSize(3);
+    assertThat(FrameIdCodec.encode(new long[] {128L})).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("No frames are stored as null")
+  void noFrames() {
+    assertThat(FrameIdCodec.encode(new long[0])).isNull();
+    assertThat(FrameIdCodec.decode(null)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Negative ids and incomplete input are rejected")
+  void invalidInput() {
+    assertThatThrownBy(() -> FrameIdCodec.encode(new long[] {-1L}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> FrameIdCodec.decode(new byte[] {(byte) 0x80}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.errortracing.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StackFrameDictionaryTest {
+  private static final StackFrameDto STORED_FRAME = new StackFrameDto("com.example.A", "run", "A.java", 10);
+  private static final StackFrameDto NEW_FRAME = new StackFrameDto("com.example.B", "call", "B.java", 20);
+
+  private final ExceptionListingRepository repository = mock(ExceptionListingRepository.class);
+  private final ObjectContext context = mock(ObjectContext.class);
+  private final StackFrameDictionary dictionary = new StackFrameDictionary(repository);
+
+  @Test
+  @DisplayName("Known frames are found by hash and only new frames are inserted")
+  void intern() {
+    when(repository.findStackFramesByHashes(any(), anyCollection()))
+        .thenReturn(List.of(stackFrame(STORED_FRAME, 7L)));
+    StackFrame inserted = stackFrame(null, 8L);
+    when(context.newObject(StackFrame.class)).thenReturn(inserted);
+
+    Map<StackFrameDto, Long> frameIds = dictionary.intern(context, List.of(STORED_FRAME, NEW_FRAME));
+
+    assertThat(frameIds).containsOnly(Map.entry(STORED_FRAME, 7L), Map.entry(NEW_FRAME, 8L));
+    assertThat(inserted.getFrameHash()).isEqualTo(StackFrameDictionary.hash(NEW_FRAME));
+    assertThat(inserted.getClassName()).isEqualTo("com.example.B");
+    verify(context, times(1)).commitChanges();
+  }
+
+  @Test
+  @DisplayName("Cached frames are interned and resolved without querying")
+  void cachedFrames() {
+    when(repository.findStackFramesByHashes(any(), anyCollection()))
+        .thenReturn(List.of(stackFrame(STORED_FRAME, 7L)));
+    dictionary.intern(context, List.of(STORED_FRAME));
+
+    Map<StackFrameDto, Long> frameIds = dictionary.intern(context, List.of(STORED_FRAME));
+    List<StackFrameDto> frames = dictionary.resolve(context, new long[] {7L, 7L});
+
+    assertThat(frameIds).containsOnly(Map.entry(STORED_FRAME, 7L));
+    assertThat(frames).containsExactly(STORED_FRAME, STORED_FRAME);
+    verify(repository, times(1)).findStackFramesByHashes(any(), anyCollection());
+    verify(repository, never()).findStackFramesByIds(any(), anyCollection());
+    verify(context, never()).commitChanges();
+  }
+
+  @Test
+  @DisplayName("Frames are resolved by id in order, and missing ids become unknown frames")
+  void resolve() {
+    when(repository.findStackFramesByIds(any(), anyCollection()))
+        .thenReturn(List.of(stackFrame(NEW_FRAME, 8L)));
+
+    List<StackFrameDto> frames = dictionary.resolve(context, new long[] {8L, 99L, 8L});
+
+    assertThat(frames).hasSize(3);
+    assertThat(frames.get(0)).isEqualTo(NEW_FRAME);
+    assertThat(frames.get(1).className()).isEqualTo("<unknown>");
+    assertThat(frames.get(2)).isEqualTo(NEW_FRAME);
+  }
+
+  private static StackFrame stackFrame(StackFrameDto frame, long id) {
+    StackFrame stackFrame = new StackFrame();
+    stackFrame.setObjectId(ObjectId.of(StackFrame.class.getSimpleName(), StackFrame.ID_PK_COLUMN, id));
+    if (frame != null) {
+      stackFrame.setFrameHash(StackFrameDictionary.hash(frame));
+      stackFrame.setClassName(frame.className());
+      stackFrame.setMethodName(frame.methodName());
+      stackFrame.setFileName(frame.fileName());
+      stackFrame.setLineNumber(frame.lineNumber());
+    }
+    return stackFrame;
+  }
+}
@@ -33,6 +33,7 @@ import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto.ExceptionItemDto;
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
 
 import org.apache.cayenne.ObjectContext;
 import org.junit.jupiter.api.DisplayName;
@@ -102,5 +103,28 @@ class ExceptionConverterTest {
     assertThat(dto.getMethodName()).isEqualTo("myMethod");
     assertThat(dto.getLineNumber()).isEqualTo(42);
   }
-}
 
+  @Test
+  @DisplayName("Should decode the stack frames of every cause")
+  void convertEntityWithStackFrames() {
+    ExceptionCause next = mock(ExceptionCause.class);
+    when(next.getStackFrames()).thenReturn(new byte[] {2});
+    when(next.getOmittedFrameCount()).thenReturn(3);
+    ExceptionCause cause = mock(ExceptionCause.class);
+    when(cause.getStackFrames()).thenReturn(new byte[] {1});
+    when(cause.getTruncatedFrameCount()).thenReturn(5);
+    when(cause.getNextException()).thenReturn(next);
+    StackFrameDto first = new StackFrameDto("com.example.A", "run", "A.java", 1);
+    StackFrameDto second = new StackFrameDto("com.example.B", "call", "B.java", 2);
+
+    // when
+    ErrorTracingDto dto = ExceptionConverter.entityToErrorTracingDto(cause,
+        encoded -> List.of(encoded[0] == 1 ? first : second));
+
+    // then
+    assertThat(dto.getStackFrames()).containsExactly(first);
+    assertThat(dto.getTruncatedFrameCount()).isEqualTo(5);
+    assertThat(dto.getNext().getStackFrames()).containsExactly(second);
+    assertThat(dto.getNext().getOmittedFrameCount()).isEqualTo(3);
+  }
+}
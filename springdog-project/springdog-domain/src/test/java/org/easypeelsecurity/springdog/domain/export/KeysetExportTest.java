@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeysetExportTest {
+
+  @Test
+  @DisplayName("Reads every page after the last id until a short page")
+  void readAllPages() {
+    List<Long> table = LongStream.rangeClosed(1, 25).boxed().toList();
+    List<Long> afterIds = new ArrayList<>();
+    List<Long> exported = new ArrayList<>();
+
+    long total = KeysetExport.<Long>export(0, 10, (afterId, limit, sink) -> {
+      afterIds.add(afterId);
+      table.stream().filter(id -> id > afterId).limit(limit).forEach(sink);
+    }, id -> id, exported::add);
+
+    assertThat(total).isEqualTo(25);
+    assertThat(exported).isEqualTo(table);
+    assertThat(afterIds).containsExactly(0L, 10L, 20L);
+  }
+
+  @Test
+  @DisplayName("Reads one more, empty page when the table fills the last page exactly")
+  void readEmptyLastPage() {
+    List<Long> table = LongStream.rangeClosed(1, 20).boxed().toList();
+    List<Long> afterIds = new ArrayList<>();
+
+    long total = KeysetExport.<Long>export(0, 10, (afterId, limit, sink) -> {
+      afterIds.add(afterId);
+      table.stream().filter(id -> id > afterId).limit(limit).forEach(sink);
+    }, id -> id, id -> { });
+
+    assertThat(total).isEqualTo(20);
+    assertThat(afterIds).containsExactly(0L, 10L, 20L);
+  }
+
+  @Test
+  @DisplayName("Rejects a page reader that does not move forward")
+  void rejectNonAscendingPages() {
+    assertThatThrownBy(() -> KeysetExport.<Long>export(0, 2, (afterId, limit, sink) -> {
+      sink.accept(1L);
+      sink.accept(0L);
+    }, id -> id, id -> { })).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easypeelsecurity.springdog.shared.enums.WriteOverflowPolicy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SpringdogWriteQueueTest {
+
+  @Test
+  @DisplayName("Should commit queued writes in order, one transaction per batch")
+  void batchWrites() {
+    // given
+    AtomicInteger transactions = new AtomicInteger();
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(100, WriteOverflowPolicy.DROP_OLDEST, 0, 2,
+        batch -> {
+          transactions.incrementAndGet();
+          batch.run();
+        }, readyStore());
+    List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+    for (int i = 0; i < 5; i++) {
+      int value = i;
+      writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> written.add(value));
+    }
+
+    // when
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(written).containsExactly(0, 1, 2, 3, 4);
+    assertThat(transactions.get()).isEqualTo(3);
+    WriteQueueStatistics statistics = writeQueue.getStatistics();
+    assertThat(statistics.getDepth()).isZero();
+    assertThat(statistics.getEnqueuedCount()).isEqualTo(5);
+    assertThat(statistics.getFlushCount()).isEqualTo(3);
+    assertThat(statistics.getFlushedWriteCount()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should drop the oldest write when the queue is full")
+  void dropOldest() {
+    // given
+    List<Integer> written = new ArrayList<>();
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(2, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        Runnable::run, readyStore());
+
+    // when
+    for (int i = 0; i < 3; i++) {
+      int value = i;
+      writeQueue.enqueue(WriteType.ENDPOINT_METRIC, () -> written.add(value));
+    }
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(written).containsExactly(1, 2);
+    assertThat(writeQueue.getStatistics().getDroppedCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should drop the new write when the queue stays full for the block timeout")
+  void blockThenDrop() {
+    // given
+    List<Integer> written = new ArrayList<>();
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(1, WriteOverflowPolicy.BLOCK, 10, 10,
+        Runnable::run, readyStore());
+
+    // when
+    writeQueue.enqueue(WriteType.ERROR_TRACE, () -> written.add(0));
+    long startTime = System.nanoTime();
+    writeQueue.enqueue(WriteType.ERROR_TRACE, () -> written.add(1));
+    long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(elapsedMillis).isGreaterThanOrEqualTo(9);
+    assertThat(written).containsExactly(0);
+    assertThat(writeQueue.getStatistics().getDroppedCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("A failing write should not prevent the other writes of its batch")
+  void failingWrite() {
+    // given
+    List<Integer> written = new ArrayList<>();
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(10, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        Runnable::run, readyStore());
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC_MEMO, () -> {
+      throw new IllegalArgumentException("System metric not found");
+    });
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> written.add(1));
+
+    // when
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(written).containsExactly(1);
+    assertThat(writeQueue.getStatistics().getFailedCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("A failing write should roll back its batch, whose writes are then committed one by one")
+  void failingWriteRollsBackBatch() {
+    // given
+    List<Integer> committedRows = new ArrayList<>();
+    List<Integer> pendingRows = new ArrayList<>();
+    AtomicInteger transactions = new AtomicInteger();
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(10, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        batch -> {
+          transactions.incrementAndGet();
+          pendingRows.clear();
+          batch.run();
+          committedRows.addAll(pendingRows);
+        }, readyStore());
+    List<Set<WriteType>> committedTypes = Collections.synchronizedList(new ArrayList<>());
+    writeQueue.addCommitListener(committedTypes::add);
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> pendingRows.add(0));
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC_MEMO, () -> {
+      throw new IllegalArgumentException("System metric not found");
+    });
+    writeQueue.enqueue(WriteType.ENDPOINT_METRIC, () -> pendingRows.add(2));
+
+    // when
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(committedRows).containsExactly(0, 2);
+    assertThat(transactions.get()).isEqualTo(4);
+    assertThat(writeQueue.getStatistics().getFailedCount()).isEqualTo(1);
+    assertThat(committedTypes).containsExactly(Set.of(WriteType.SYSTEM_METRIC, WriteType.ENDPOINT_METRIC));
+  }
+
+  @Test
+  @DisplayName("Should count every write of a batch whose transaction fails")
+  void failingTransaction() {
+    // given
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(10, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        batch -> {
+          throw new IllegalStateException("Disk is full");
+        }, readyStore());
+
+    // when
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> { });
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> { });
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(writeQueue.getStatistics().getFailedCount()).isEqualTo(2);
+    assertThat(writeQueue.getStatistics().getFlushCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should tell the commit listeners which kinds of writes each committed batch held")
+  void commitListener() {
+    // given
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(10, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        Runnable::run, readyStore());
+    List<Set<WriteType>> committed = Collections.synchronizedList(new ArrayList<>());
+    writeQueue.addCommitListener(committed::add);
+    writeQueue.addCommitListener(types -> {
+      throw new IllegalStateException("Listener failed");
+    });
+
+    // when
+    writeQueue.enqueue(WriteType.ENDPOINT_METRIC, () -> { });
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> { });
+    writeQueue.enqueue(WriteType.ENDPOINT_METRIC, () -> { });
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(committed).containsExactly(Set.of(WriteType.ENDPOINT_METRIC, WriteType.SYSTEM_METRIC));
+    assertThat(writeQueue.getStatistics().getFailedCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should not call the commit listeners when the transaction fails")
+  void noCommitListenerOnFailure() {
+    // given
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(10, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        batch -> {
+          throw new IllegalStateException("Disk is full");
+        }, readyStore());
+    List<Set<WriteType>> committed = Collections.synchronizedList(new ArrayList<>());
+    writeQueue.addCommitListener(committed::add);
+
+    // when
+    writeQueue.enqueue(WriteType.ENDPOINT_METRIC, () -> { });
+    writeQueue.start();
+    writeQueue.stop();
+
+    // then
+    assertThat(committed).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should replay the writes queued while the database was initializing once it is ready")
+  void replayOnceReady() throws InterruptedException {
+    // given
+    SpringdogStoreReadiness storeReadiness = new SpringdogStoreReadiness();
+    List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(10, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        Runnable::run, storeReadiness);
+    writeQueue.start();
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> written.add(0));
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> written.add(1));
+    Thread.sleep(50);
+    assertThat(written).isEmpty();
+
+    // when
+    storeReadiness.markReady();
+    writeQueue.stop();
+
+    // then
+    assertThat(written).containsExactly(0, 1);
+  }
+
+  @Test
+  @DisplayName("Should discard the writes when the database failed to initialize")
+  void discardWhenStoreFailed() {
+    // given
+    SpringdogStoreReadiness storeReadiness = new SpringdogStoreReadiness();
+    List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+    SpringdogWriteQueue writeQueue = new SpringdogWriteQueue(10, WriteOverflowPolicy.DROP_OLDEST, 0, 10,
+        Runnable::run, storeReadiness);
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> written.add(0));
+
+    // when
+    storeReadiness.markFailed(new IllegalStateException("Migration failed"));
+    writeQueue.start();
+    writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> written.add(1));
+    writeQueue.stop();
+
+    // then
+    assertThat(written).isEmpty();
+    assertThat(writeQueue.getStatistics().getDroppedCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should reject invalid settings")
+  void invalidSettings() {
+    assertThatThrownBy(() -> new SpringdogWriteQueue(0, WriteOverflowPolicy.BLOCK, 0, 1, Runnable::run,
+        readyStore()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new SpringdogWriteQueue(1, WriteOverflowPolicy.BLOCK, 0, 0, Runnable::run,
+        readyStore()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static SpringdogStoreReadiness readyStore() {
+    SpringdogStoreReadiness storeReadiness = new SpringdogStoreReadiness();
+    storeReadiness.markReady();
+    return storeReadiness;
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.retention;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
+import org.easypeelsecurity.springdog.domain.statistics.SystemMetricTimeSeries;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.tx.TransactionalOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class RetentionServiceTest {
+
+  private final ObjectContext context = mock(ObjectContext.class);
+  private final ServerRuntime runtime = mock(ServerRuntime.class);
+  private final RetentionRepository repository = mock(RetentionRepository.class);
+  @SuppressWarnings("unchecked")
+  private final ObjectProvider<SystemMetricTimeSeries> timeSeriesProvider = mock(ObjectProvider.class);
+  private final ExceptionListingService exceptionListingService = mock(ExceptionListingService.class);
+  private final SpringdogWriteQueue writeQueue = mock(SpringdogWriteQueue.class);
+  private final RetentionService retentionService =
+      new RetentionService(runtime, repository, timeSeriesProvider, exceptionListingService, writeQueue);
+
+  @BeforeEach
+  void setUp() {
+    when(runtime.newContext()).thenReturn(context);
+    when(runtime.performInTransaction(any()))
+        .thenAnswer(invocation -> ((TransactionalOperation<?>) invocation.getArgument(0)).perform());
+  }
+
+  @Test
+  @DisplayName("Deletes chunk by chunk until a chunk is not full")
+  void pruneInChunks() {
+    // given
+    LocalDateTime now = LocalDateTime.of(2024, 10, 1, 12, 0);
+    LocalDateTime cutoff = now.minusDays(30);
+    when(repository.deleteExpired(context, RetentionTarget.SYSTEM_METRIC, cutoff, 100))
+        .thenReturn(100, 100, 42);
+
+    // when
+    long deleted = retentionService.prune(RetentionTarget.SYSTEM_METRIC, 30, 100, now);
+
+    // then
+    assertThat(deleted).isEqualTo(242);
+    verify(repository, times(3)).deleteExpired(context, RetentionTarget.SYSTEM_METRIC, cutoff, 100);
+  }
+
+  @Test
+  @DisplayName("Keeps every row when the retention is zero days")
+  void keepForever() {
+    long deleted = retentionService.prune(RetentionTarget.ERROR_TRACE, 0, 100, LocalDateTime.now());
+
+    assertThat(deleted).isZero();
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Stops after an empty chunk")
+  void nothingToPrune() {
+    when(repository.deleteExpired(eq(context), eq(RetentionTarget.ENDPOINT_METRIC), any(), eq(100)))
+        .thenReturn(0);
+
+    long deleted = retentionService.prune(RetentionTarget.ENDPOINT_METRIC, 365, 100, LocalDateTime.now());
+
+    assertThat(deleted).isZero();
+    verify(repository).deleteExpired(eq(context), eq(RetentionTarget.ENDPOINT_METRIC), any(), eq(100));
+  }
+
+  @Test
+  @DisplayName("Also prunes the system metric time-series when it is configured")
+  void pruneTimeSeries() {
+    // given
+    SystemMetricTimeSeries timeSeries = mock(SystemMetricTimeSeries.class);
+    when(timeSeriesProvider.getIfAvailable()).thenReturn(timeSeries);
+    RetentionService service =
+        new RetentionService(runtime, repository, timeSeriesProvider, exceptionListingService, writeQueue);
+    LocalDateTime now = LocalDateTime.of(2024, 10, 1, 12, 0);
+    when(repository.deleteExpired(context, RetentionTarget.SYSTEM_METRIC, now.minusDays(30), 100)).thenReturn(3);
+    when(timeSeries.deleteBefore(now.minusDays(30))).thenReturn(1440L);
+
+    // when
+    long deleted = service.prune(RetentionTarget.SYSTEM_METRIC, 30, 100, now);
+
+    // then
+    assertThat(deleted).isEqualTo(1443);
+  }
+
+  @Test
+  @DisplayName("Deletes the stack frames left unused on the writer thread once error traces were pruned")
+  void pruneUnusedStackFrames() {
+    // given
+    LocalDateTime now = LocalDateTime.of(2024, 10, 1, 12, 0);
+    when(repository.deleteExpired(context, RetentionTarget.ERROR_TRACE, now.minusDays(30), 100)).thenReturn(3);
+    ArgumentCaptor<Runnable> write = ArgumentCaptor.forClass(Runnable.class);
+
+    // when
+    retentionService.prune(RetentionTarget.ERROR_TRACE, 30, 100, now);
+
+    // then
+    verify(writeQueue).enqueue(eq(WriteType.ERROR_TRACE), write.capture());
+    write.getValue().run();
+    verify(exceptionListingService).deleteUnusedStackFrames();
+  }
+
+  @Test
+  @DisplayName("Leaves the stack frames alone when no error trace expired")
+  void keepStackFrames() {
+    when(repository.deleteExpired(eq(context), eq(RetentionTarget.ERROR_TRACE), any(), eq(100))).thenReturn(0);
+
+    retentionService.prune(RetentionTarget.ERROR_TRACE, 30, 100, LocalDateTime.now());
+
+    verify(writeQueue, never()).enqueue(any(), any());
+  }
+
+  @Test
+  @DisplayName("Deletes the oldest rows chunk by chunk until only the maximum is left")
+  void capInChunks() {
+    // given
+    when(repository.countRows(context, RetentionTarget.SYSTEM_METRIC)).thenReturn(1250L);
+    when(repository.deleteOldest(context, RetentionTarget.SYSTEM_METRIC, 100)).thenReturn(100, 100);
+    when(repository.deleteOldest(context, RetentionTarget.SYSTEM_METRIC, 50)).thenReturn(50);
+
+    // when
+    long deleted = retentionService.cap(RetentionTarget.SYSTEM_METRIC, 1000, 100);
+
+    // then
+    assertThat(deleted).isEqualTo(250);
+    verify(repository, times(2)).deleteOldest(context, RetentionTarget.SYSTEM_METRIC, 100);
+    verify(repository).deleteOldest(context, RetentionTarget.SYSTEM_METRIC, 50);
+  }
+
+  @Test
+  @DisplayName("Deletes nothing while the table is under the maximum")
+  void underCap() {
+    when(repository.countRows(context, RetentionTarget.ERROR_TRACE)).thenReturn(10L);
+
+    long deleted = retentionService.cap(RetentionTarget.ERROR_TRACE, 1000, 100);
+
+    assertThat(deleted).isZero();
+    verify(repository, never()).deleteOldest(any(), any(), anyInt());
+    verify(writeQueue, never()).enqueue(any(), any());
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
+import org.easypeelsecurity.springdog.shared.vo.DashboardResponse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DashboardCacheTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2024, 10, 1);
+
+  private final DashboardCache dashboardCache = new DashboardCache();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final Function<LocalDate, DashboardResponse> loader = date -> {
+    long count = loads.incrementAndGet();
+    return new DashboardResponse(count, count, 0, List.of(), List.of(), List.of(), List.of(), List.of(),
+        List.of());
+  };
+
+  @Test
+  @DisplayName("Should serve the dashboard from memory until new metrics are committed")
+  void cacheUntilMetricsCommitted() {
+    DashboardResponse first = dashboardCache.get(TODAY, loader);
+    assertThat(dashboardCache.get(TODAY, loader)).isSameAs(first);
+
+    dashboardCache.onCommit(Set.of(WriteType.ERROR_TRACE));
+    assertThat(dashboardCache.get(TODAY, loader)).isSameAs(first);
+
+    dashboardCache.onCommit(Set.of(WriteType.ERROR_TRACE, WriteType.ENDPOINT_METRIC));
+    DashboardResponse second = dashboardCache.get(TODAY, loader);
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.totalEndpointCount()).isEqualTo(2);
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should compute the dashboard again for another date or after an invalidation")
+  void reloadOnDateChangeOrInvalidation() {
+    dashboardCache.get(TODAY, loader);
+    dashboardCache.get(TODAY.plusDays(1), loader);
+    dashboardCache.invalidate();
+    dashboardCache.get(TODAY.plusDays(1), loader);
+
+    assertThat(loads.get()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should not serve a dashboard computed while metrics were being committed")
+  void discardDashboardComputedDuringCommit() {
+    dashboardCache.get(TODAY, date -> {
+      DashboardResponse stale = loader.apply(date);
+      dashboardCache.onCommit(Set.of(WriteType.SYSTEM_METRIC));
+      return stale;
+    });
+
+    assertThat(dashboardCache.get(TODAY, loader).totalEndpointCount()).isEqualTo(2);
+  }
+}
@@ -16,34 +16,66 @@
 
 package org.easypeelsecurity.springdog.domain.statistics;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.beans.factory.ObjectProvider;
+
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
+import org.easypeelsecurity.springdog.domain.ratelimit.EndpointRepository;
 import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
 import org.easypeelsecurity.springdog.domain.statistics.model.EndpointMetric;
 import org.easypeelsecurity.springdog.domain.statistics.model.SystemMetric;
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
 
 import org.apache.cayenne.ObjectContext;
-import org.apache.cayenne.configuration.CayenneRuntime;
+import org.apache.cayenne.configuration.server.ServerRuntime;
 import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.tx.TransactionalOperation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 class StatisticsServiceTest {
 
   @Mock
-  private CayenneRuntime mockCayenneRuntime;
+  private ServerRuntime mockCayenneRuntime;
+
+  @Mock
+  private EndpointRepository endpointRepository;
+
+  @Mock
+  private EndpointMetricRepository endpointMetricRepository;
+
+  @Mock
+  private SystemMetricRepository systemMetricRepository;
+
+  @Mock
+  private ObjectProvider<SystemMetricTimeSeries> systemMetricTimeSeriesProvider;
 
   @Mock
   private ObjectContext mockContext;
 
+  @Spy
+  private DashboardCache dashboardCache = new DashboardCache();
+
   @InjectMocks
   private StatisticsService statisticsCommand;
 
@@ -51,6 +83,8 @@ class StatisticsServiceTest {
   public void setUp() {
     MockitoAnnotations.openMocks(this);
     when(mockCayenneRuntime.newContext()).thenReturn(mockContext);
+    when(mockCayenneRuntime.performInTransaction(any()))
+        .thenAnswer(invocation -> ((TransactionalOperation<?>) invocation.getArgument(0)).perform());
   }
 
   @Test
@@ -126,7 +160,7 @@ class StatisticsServiceTest {
     assertThrows(
         IllegalArgumentException.class,
         () -> statisticsCommand.upsertEndpointMetrics("unknown-methodSignature", responseTimes, failureCount,
-            LocalDate.now()), "Endpoint not found");
+            Map.of(), 0L, LocalDate.now()), "Endpoint not found");
   }
 
   @Test
@@ -139,7 +173,7 @@ class StatisticsServiceTest {
     // when & then
     assertThrows(IllegalArgumentException.class,
         () -> statisticsCommand.upsertEndpointMetrics(targetHandler, responseTimes, 10L,
-            LocalDate.now()), "Response time must be greater than 0");
+            Map.of(), 0L, LocalDate.now()), "Response time must be greater than 0");
   }
 
   @Test
@@ -152,6 +186,143 @@ class StatisticsServiceTest {
     // when & then
     assertThrows(IllegalArgumentException.class,
         () -> statisticsCommand.upsertEndpointMetrics(targetHandler, new long[] {10L, 10L}, failureCount,
-            LocalDate.now()), "Failure count must be non-negative");
+            Map.of(), 0L, LocalDate.now()), "Failure count must be non-negative");
+  }
+
+  @Test
+  void testUpsertEndpointMetricsWithInvalidStatusCodeCount() {
+    // given
+    String targetHandler =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+    Map<Integer, Long> statusCodeCounts = Map.of(200, -1L);
+
+    // when & then
+    assertThrows(IllegalArgumentException.class,
+        () -> statisticsCommand.upsertEndpointMetrics(targetHandler, new long[] {10L}, 0L,
+            statusCodeCounts, 0L, LocalDate.now()), "Status code counts must be non-negative");
+  }
+
+  @Test
+  void testUpsertEndpointMetricsWithInvalidExceptionCount() {
+    // given
+    String targetHandler =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+    long exceptionCount = -1L;
+
+    // when & then
+    assertThrows(IllegalArgumentException.class,
+        () -> statisticsCommand.upsertEndpointMetrics(targetHandler, new long[] {10L}, 0L,
+            Map.of(200, 1L), exceptionCount, LocalDate.now()), "Exception count must be non-negative");
+  }
+
+  @Test
+  void testUpsertEndpointMetricsWithMoreSamplesThanPageViews() {
+    // given
+    String targetHandler =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+
+    // when & then
+    assertThrows(IllegalArgumentException.class,
+        () -> statisticsCommand.upsertEndpointMetrics(targetHandler, 1L, new long[] {10L, 20L}, 0L,
+            Map.of(), 0L, LocalDate.now()),
+        "Page view must be greater than or equal to the number of response times");
+  }
+
+  @Test
+  void testUpsertEndpointMetricsWeightsSamplesByTheirProbability() {
+    // given
+    String targetHandler =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+    LocalDate today = LocalDate.now();
+    Endpoint mockEndpoint = mock(Endpoint.class);
+    EndpointMetric mockEndpointMetric = mock(EndpointMetric.class);
+    when(endpointRepository.findByMethodSignatureOrNull(mockContext, targetHandler)).thenReturn(mockEndpoint);
+    when(endpointMetricRepository.findByEndpointAndMetricDateOrNull(mockContext, mockEndpoint, today))
+        .thenReturn(mockEndpointMetric);
+    // a quiet second of 10 requests sampled entirely, and a busy second of 100 requests sampled once
+    long[] responseTimes = {10L, 10L, 10L, 10L, 10L, 10L, 10L, 10L, 10L, 10L, 1000L};
+    double[] samplingProbabilities = {1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 0.01};
+
+    // when
+    statisticsCommand.upsertEndpointMetrics(targetHandler, 110L, responseTimes, samplingProbabilities, 0L,
+        Map.of(), 0L, today);
+
+    // then
+    verify(mockEndpointMetric).updateStatistics(110L, 910L * 110L, 0L);
+  }
+
+  @Test
+  void testUpsertEndpointMetricsWithInvalidSamplingProbability() {
+    // given
+    String targetHandler =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+
+    // when & then
+    assertThrows(IllegalArgumentException.class,
+        () -> statisticsCommand.upsertEndpointMetrics(targetHandler, 1L, new long[] {10L}, new double[] {0.0},
+            0L, Map.of(), 0L, LocalDate.now()),
+        "Sampling probabilities must be greater than 0 and at most 1");
+  }
+
+  @Test
+  void testSystemMetricsGoToTheTimeSeriesWhenConfigured() {
+    // given
+    SystemMetricTimeSeries timeSeries = mock(SystemMetricTimeSeries.class);
+    when(systemMetricTimeSeriesProvider.getIfAvailable()).thenReturn(timeSeries);
+    StatisticsService service = new StatisticsService(mockCayenneRuntime, endpointRepository,
+        mock(EndpointMetricRepository.class), systemMetricRepository, systemMetricTimeSeriesProvider,
+        new DashboardCache());
+    SystemMetricDto stored = SystemMetricDto.builder().id(1L).cpuUsagePercent(50.0).build();
+    when(timeSeries.findRecent(10)).thenReturn(List.of(stored));
+
+    // when
+    service.storeSystemMetrics(50.0, 60.0, 70.0, 55.0, 45.0, 100L, 50L, 30L);
+    List<SystemMetricDto> recent = service.getRecentSystemMetrics(10);
+    service.changeMemo(1L, " ");
+
+    // then
+    verify(timeSeries).append(any(SystemMetricDto.class));
+    verify(mockContext, never()).newObject(SystemMetric.class);
+    verify(systemMetricRepository, never()).getRecentSystemMetrics(any(), anyInt());
+    verify(timeSeries).changeMemo(1L, null);
+    assertThat(recent).containsExactly(stored);
+  }
+
+  @Test
+  void testSystemMetricRangeIsDownsampledFromTheDatabase() {
+    // given
+    LocalDateTime from = LocalDateTime.of(2024, 10, 1, 0, 0);
+    LocalDateTime to = from.plusHours(1);
+    when(systemMetricRepository.getSystemMetrics(mockContext, from, to)).thenReturn(List.of());
+
+    // when & then
+    assertThat(
+        statisticsCommand.getSystemMetrics(from, to, Duration.ofMinutes(5))).isEmpty();
+    assertThrows(IllegalArgumentException.class,
+        () -> statisticsCommand.getSystemMetrics(to, from, Duration.ofMinutes(5)));
+  }
+
+  @Test
+  void testDashboardIsCachedUntilMetricsAreFlushed() {
+    // given
+    LocalDate today = LocalDate.of(2024, 10, 1);
+    when(endpointRepository.getEndpointCount(mockContext)).thenReturn(3L);
+    when(endpointRepository.getEndpointCountByStatus(mockContext, "ACTIVE")).thenReturn(2L);
+
+    // when
+    statisticsCommand.getDashboardResponse(today);
+    statisticsCommand.getDashboardResponse(today);
+
+    // then
+    verify(endpointRepository, times(1)).getEndpointCount(mockContext);
+    verify(endpointMetricRepository, times(1)).getDailyEndpointMetrics(mockContext, 10);
+
+    // when
+    dashboardCache.onCommit(Set.of(WriteType.ENDPOINT_METRIC));
+    var dashboard = statisticsCommand.getDashboardResponse(today);
+
+    // then
+    verify(endpointRepository, times(2)).getEndpointCount(mockContext);
+    assertThat(dashboard.totalInactiveEndpointCount()).isEqualTo(1);
   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.domain.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SystemMetricDownsamplerTest {
+
+  private static final LocalDateTime FROM = LocalDateTime.of(2024, 10, 1, 0, 0);
+
+  @Test
+  @DisplayName("Averages the samples of each bucket and leaves empty buckets out")
+  void downsample() {
+    List<SystemMetricDto> samples = List.of(
+        sample(FROM.plusMinutes(1), 10.0, 100L),
+        sample(FROM.plusMinutes(4), 30.0, 301L),
+        sample(FROM.plusMinutes(12), 50.0, 500L));
+
+    List<SystemMetricDto> result = SystemMetricDownsampler.downsample(samples, FROM, Duration.ofMinutes(5));
+
+    assertThat(result).hasSize(2);
+    assertThat(result.get(0).getTimestamp()).isEqualTo(FROM);
+    assertThat(result.get(0).getCpuUsagePercent()).isEqualTo(20.0);
+    assertThat(result.get(0).getNetworkInBytes()).isEqualTo(201L);
+    assertThat(result.get(1).getTimestamp()).isEqualTo(FROM.plusMinutes(10));
+    assertThat(result.get(1).getCpuUsagePercent()).isEqualTo(50.0);
+  }
+
+  @Test
+  @DisplayName("Rejects a bucket that is not positive")
+  void rejectEmptyBucket() {
+    assertThatThrownBy(() -> SystemMetricDownsampler.downsample(List.of(), FROM, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private SystemMetricDto sample(LocalDateTime timestamp, double cpu, long networkIn) {
+    return SystemMetricDto.builder()
+        .cpuUsagePercent(cpu)
+        .memoryUsagePercent(cpu)
+        .diskUsagePercent(cpu)
+        .jvmHeapUsagePercent(cpu)
+        .jvmNonHeapUsagePercent(cpu)
+        .jvmTotalMemoryUsed(networkIn)
+        .networkInBytes(networkIn)
+        .networkOutBytes(networkIn)
+        .timestamp(timestamp)
+        .build();
+  }
+}
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -138,5 +139,51 @@ class EndpointMetricTest {
     // then
     assertEquals(LocalDate.now(), endpointMetric.getMetricDate());
   }
-}
 
+  @Test
+  @DisplayName("Should add status codes to the counter of their status class")
+  void shouldUpdateResponseStatusesCorrectly() {
+    // given
+    EndpointMetric endpointMetric = new EndpointMetric();
+    Map<Integer, Long> statusCodeCounts = Map.of(
+        200, 10L, 201, 2L, 302, 1L, 404, 3L, 429, 4L, 500, 5L, 103, 7L);
+
+    // when
+    endpointMetric.updateResponseStatuses(statusCodeCounts, 5L);
+    endpointMetric.updateResponseStatuses(Map.of(200, 1L), 1L);
+
+    // then
+    assertEquals(13, endpointMetric.getStatus2xxCount());
+    assertEquals(1, endpointMetric.getStatus3xxCount());
+    assertEquals(7, endpointMetric.getStatus4xxCount());
+    assertEquals(5, endpointMetric.getStatus5xxCount());
+    assertEquals(6, endpointMetric.getExceptionCount());
+  }
+
+  @Test
+  @DisplayName("Should throw exception when exception count is negative")
+  void throwExceptionForNegativeExceptionCount() {
+    // given
+    EndpointMetric endpointMetric = new EndpointMetric();
+
+    // when & then
+    assertThrows(IllegalArgumentException.class,
+        () -> endpointMetric.setExceptionCount(-10),
+        "Exception count must be a positive number");
+  }
+
+  @Test
+  @DisplayName("Should keep the statistics when only rate limit failures are added")
+  void shouldUpdateStatisticsWithoutPageViews() {
+    // given
+    EndpointMetric endpointMetric = new EndpointMetric();
+
+    // when
+    endpointMetric.updateStatistics(0, 0, 3);
+
+    // then
+    assertEquals(0, endpointMetric.getPageView());
+    assertEquals(0, endpointMetric.getAverageResponseMs());
+    assertEquals(3, endpointMetric.getFailureWithRatelimit());
+  }
+}
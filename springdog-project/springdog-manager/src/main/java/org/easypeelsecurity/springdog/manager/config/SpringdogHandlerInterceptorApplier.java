@@ -20,9 +20,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
 import org.easypeelsecurity.springdog.domain.ratelimit.EndpointService;
 import org.easypeelsecurity.springdog.manager.agent.AgentExternalAccessInterceptor;
 import org.easypeelsecurity.springdog.manager.ratelimit.RatelimitInterceptor;
+import org.easypeelsecurity.springdog.manager.statistics.RequestSampler;
 import org.easypeelsecurity.springdog.manager.statistics.RequestTimingInterceptor;
 import org.easypeelsecurity.springdog.notification.SlowResponseEmailNotificationManager;
 import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
@@ -38,22 +40,28 @@ public class SpringdogHandlerInterceptorApplier implements WebMvcConfigurer {
   private final EndpointService endpointService;
   private final SpringdogProperties springdogProperties;
   private final SlowResponseEmailNotificationManager slowResponseEmailNotificationManager;
+  private final RequestSampler requestSampler;
+  private final SpringdogStoreReadiness storeReadiness;
 
   /**
    * Constructor.
    */
   public SpringdogHandlerInterceptorApplier(EndpointService endpointService,
       SpringdogProperties springdogProperties,
-      SlowResponseEmailNotificationManager slowResponseEmailNotificationManager) {
+      SlowResponseEmailNotificationManager slowResponseEmailNotificationManager,
+      RequestSampler requestSampler, SpringdogStoreReadiness storeReadiness) {
     this.endpointService = endpointService;
     this.springdogProperties = springdogProperties;
     this.slowResponseEmailNotificationManager = slowResponseEmailNotificationManager;
+    this.requestSampler = requestSampler;
+    this.storeReadiness = storeReadiness;
   }
 
   @Override
   public void addInterceptors(InterceptorRegistry registry) {
-    registry.addInterceptor(new RatelimitInterceptor(this.endpointService));
+    registry.addInterceptor(new RatelimitInterceptor(this.endpointService, this.storeReadiness));
     registry.addInterceptor(new AgentExternalAccessInterceptor(this.springdogProperties));
-    registry.addInterceptor(new RequestTimingInterceptor(this.slowResponseEmailNotificationManager));
+    registry.addInterceptor(
+        new RequestTimingInterceptor(this.slowResponseEmailNotificationManager, this.requestSampler));
   }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A snapshot of an exception captured on a request thread, waiting in {@link ExceptionCaptureQueue} to be
+ * processed.
+ * <p>
+ * The snapshot is taken on the request thread and holds no reference to the exception, so neither the
+ * exception nor whatever it references stays reachable while it waits in the queue. Each cause keeps its class
+ * name, its message and the frames that the fingerprint and the stored chain need: as
+ * {@link Throwable#printStackTrace()} does, the frames a cause has in common with the enclosing exception are
+ * only counted, and at most {@code maxStackDepth} frames are kept for the chain.
+ * </p>
+ *
+ * @author PENEKhun
+ * @param exceptionClass  the class of the exception, whose monitoring status is looked up
+ * @param causes          the exception followed by its causes, never empty
+ * @param capturedAt      when the exception was captured
+ * @param methodSignature the handler method that threw the exception, or {@code null} if unknown
+ */
+public record CapturedException(Class<? extends Throwable> exceptionClass, List<Cause> causes,
+    LocalDateTime capturedAt, String methodSignature) {
+
+  /**
+   * Constructor.
+   */
+  public CapturedException {
+    causes = List.copyOf(causes);
+  }
+
+  /**
+   * Takes the snapshot of an exception.
+   *
+   * @param exception       the exception
+   * @param capturedAt      when the exception was captured
+   * @param methodSignature the handler method that threw the exception, or {@code null} if unknown
+   * @param maxStackDepth   the maximum number of frames kept per cause for the chain
+   * @return the snapshot
+   */
+  public static CapturedException of(Throwable exception, LocalDateTime capturedAt, String methodSignature,
+      int maxStackDepth) {
+    Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<Cause> causes = new ArrayList<>();
+    StackTraceElement[] enclosingTrace = new StackTraceElement[0];
+    for (Throwable current = exception; current != null && visited.add(current); current = current.getCause()) {
+      StackTraceElement[] stackTrace = current.getStackTrace();
+      int commonFrameCount = countCommonFrames(stackTrace, enclosingTrace);
+      int keptFrameCount = Math.min(stackTrace.length - commonFrameCount, maxStackDepth);
+      int retainedFrameCount = Math.max(keptFrameCount, ExceptionFingerprint.countHashedFrames(stackTrace));
+      causes.add(new Cause(current.getClass().getName(), current.getMessage(),
+          Arrays.asList(stackTrace).subList(0, retainedFrameCount), keptFrameCount, commonFrameCount,
+          stackTrace.length - commonFrameCount - keptFrameCount));
+      enclosingTrace = stackTrace;
+    }
+    return new CapturedException(exception.getClass(), causes, capturedAt, methodSignature);
+  }
+
+  /**
+   * Returns the fully qualified class name of the exception.
+   */
+  public String exceptionClassName() {
+    return exceptionClass.getName();
+  }
+
+  /**
+   * Returns the message of the exception, or {@code null} if it has none.
+   */
+  public String message() {
+    return causes.get(0).message();
+  }
+
+  private static int countCommonFrames(StackTraceElement[] trace, StackTraceElement[] enclosingTrace) {
+    int m = trace.length - 1;
+    int n = enclosingTrace.length - 1;
+    // the first frame is always kept, like Throwable#printStackTrace
+    while (m > 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+      m--;
+      n--;
+    }
+    return trace.length - 1 - m;
+  }
+
+  /**
+   * The exception or one of its causes.
+   *
+   * @param className           the fully qualified class name
+   * @param message             the message, or {@code null} if it has none
+   * @param frames              the top frames of the stack trace, at least the kept ones
+   * @param keptFrameCount      the number of top frames kept for the chain
+   * @param omittedFrameCount   the number of bottom frames in common with the enclosing exception
+   * @param truncatedFrameCount the number of frames beyond the max stack depth
+   */
+  public record Cause(String className, String message, List<StackTraceElement> frames, int keptFrameCount,
+      int omittedFrameCount, int truncatedFrameCount) {
+
+    /**
+     * Constructor.
+     */
+    public Cause {
+      frames = List.copyOf(frames);
+    }
+
+    /**
+     * Returns the frames kept for the chain.
+     */
+    public List<StackTraceElement> keptFrames() {
+      return frames.subList(0, keptFrameCount);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
+
+/**
+ * Processes the exceptions captured by {@link ExceptionCaptureQueue} on its worker thread. Exceptions whose
+ * monitoring is enabled are fingerprinted, counted by {@link ExceptionOccurrenceAggregator} and checked for
+ * rate spikes by {@link ExceptionSpikeDetector}. Once {@link ExceptionCaptureThrottle} runs out of tokens for a
+ * fingerprint, its occurrences are counted as throttled until the bucket refills, and their chain is only built
+ * when reservoir sampling picks them. The exceptions dropped because the queue was full are only counted by
+ * {@link ExceptionSpikeDetector}, per exception class.
+ * <p>
+ * The error chain keeps the frames of every cause that the {@link CapturedException} snapshot kept for it.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+public class ExceptionCaptureProcessor {
+  private final ExceptionListingService exceptionListingService;
+  private final ExceptionOccurrenceAggregator aggregator;
+  private final ExceptionSpikeDetector spikeDetector;
+  private final ExceptionCaptureThrottle throttle;
+
+  /**
+   * Constructor.
+   */
+  public ExceptionCaptureProcessor(ExceptionListingService exceptionListingService,
+      ExceptionOccurrenceAggregator aggregator, ExceptionSpikeDetector spikeDetector,
+      ExceptionCaptureThrottle throttle) {
+    this.exceptionListingService = exceptionListingService;
+    this.aggregator = aggregator;
+    this.spikeDetector = spikeDetector;
+    this.throttle = throttle;
+  }
+
+  /**
+   * Processes a captured exception.
+   *
+   * @param capturedException the captured exception
+   */
+  public void process(CapturedException capturedException) {
+    if (!exceptionListingService.isExceptionEnabled(capturedException.exceptionClass())) {
+      return;
+    }
+    String fingerprint = ExceptionFingerprint.of(capturedException);
+    if (throttle.tryAcquire(fingerprint)) {
+      aggregator.record(fingerprint, capturedException, () -> buildErrorChain(capturedException));
+    } else {
+      aggregator.recordThrottled(fingerprint, capturedException, () -> buildErrorChain(capturedException));
+    }
+    spikeDetector.record(fingerprint, capturedException);
+  }
+
+  /**
+   * Counts an exception that was dropped because the capture queue was full. Called on the request thread.
+   *
+   * @param exceptionClass the class of the dropped exception
+   */
+  public void processDropped(Class<? extends Throwable> exceptionClass) {
+    if (exceptionListingService.isExceptionEnabled(exceptionClass)) {
+      spikeDetector.recordDropped(exceptionClass, LocalDateTime.now());
+    }
+  }
+
+  static ErrorTracingDto buildErrorChain(CapturedException capturedException) {
+    ErrorTracingDto currentDto = null;
+    ErrorTracingDto rootDto = null;
+
+    for (CapturedException.Cause cause : capturedException.causes()) {
+      if (cause.frames().isEmpty()) {
+        break;
+      }
+      StackTraceElement element = cause.frames().get(0);
+      List<StackFrameDto> stackFrames = cause.keptFrames().stream()
+          .map(StackFrameDto::of)
+          .toList();
+
+      ErrorTracingDto newDto = ErrorTracingDto.builder()
+          .message(cause.message())
+          .fileName(element.getFileName())
+          .className(element.getClassName())
+          .methodName(element.getMethodName())
+          .lineNumber(element.getLineNumber())
+          .stackFrames(stackFrames)
+          .omittedFrameCount(cause.omittedFrameCount())
+          .truncatedFrameCount(cause.truncatedFrameCount())
+          .build();
+
+      if (currentDto == null) {
+        rootDto = newDto;
+      } else {
+        currentDto.setNext(newDto);
+      }
+      currentDto = newDto;
+    }
+
+    return rootDto;
+  }
+}
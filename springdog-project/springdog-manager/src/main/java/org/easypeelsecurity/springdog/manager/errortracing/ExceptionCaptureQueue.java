@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the exceptions caught on request threads over to a background worker.
+ * <p>
+ * Capturing an exception only takes its {@link CapturedException} snapshot and puts it into a bounded ring
+ * buffer, so a failing request never waits for the monitoring status lookup, the fingerprint or the database,
+ * and the exception itself is released with the request. When the buffer is full the
+ * new exception is dropped and counted instead of slowing the request down: during an exception storm the
+ * exceptions already captured are enough to tell what is going on. The class of a dropped exception is still
+ * handed to the drop listener, so that the storm shows in the exception rates.
+ * </p>
+ * <p>
+ * A single worker thread processes the captured exceptions in order. The exceptions left in the buffer are
+ * processed when the application shuts down.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+public class ExceptionCaptureQueue {
+  private static final Logger logger = LoggerFactory.getLogger(ExceptionCaptureQueue.class);
+  private static final long POLL_TIMEOUT_MILLIS = 200;
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+  private static final int MAX_BATCH_SIZE = 256;
+  private static final int STACK_DEPTH_LIMIT = 4096;
+
+  private final BlockingQueue<CapturedException> queue;
+  private final Consumer<CapturedException> processor;
+  private final Consumer<Class<? extends Throwable>> dropListener;
+  private final ExceptionCaptureStatistics statistics;
+  private final int maxStackDepth;
+  private volatile boolean running;
+  private Thread worker;
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public ExceptionCaptureQueue(SpringdogProperties properties, ExceptionCaptureProcessor processor) {
+    this(properties.getErrorTracingCaptureQueueCapacity(), properties.getErrorTracingMaxStackDepth(),
+        processor::process, processor::processDropped);
+  }
+
+  ExceptionCaptureQueue(int capacity, int maxStackDepth, Consumer<CapturedException> processor) {
+    this(capacity, maxStackDepth, processor, exceptionClass -> {
+    });
+  }
+
+  ExceptionCaptureQueue(int capacity, int maxStackDepth, Consumer<CapturedException> processor,
+      Consumer<Class<? extends Throwable>> dropListener) {
+    Assert.isTrue(capacity > 0, "Capture queue capacity must be greater than 0");
+    Assert.isTrue(maxStackDepth > 0 && maxStackDepth <= STACK_DEPTH_LIMIT,
+        "Max stack depth must be between 1 and %d", STACK_DEPTH_LIMIT);
+    Assert.notNull(processor, "Processor must not be null");
+    Assert.notNull(dropListener, "Drop listener must not be null");
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.processor = processor;
+    this.dropListener = dropListener;
+    this.maxStackDepth = maxStackDepth;
+    this.statistics = new ExceptionCaptureStatistics(queue::size);
+  }
+
+  /**
+   * Starts the worker thread.
+   */
+  @PostConstruct
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    worker = new Thread(this::runWorker, "springdog-exception-capture");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Stops the worker thread once every captured exception is processed.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    try {
+      worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!queue.isEmpty()) {
+      logger.warn("Springdog exception capture stopped with {} exceptions left unprocessed", queue.size());
+    }
+  }
+
+  /**
+   * Captures an exception to be processed by the worker thread, or drops it if the buffer is full.
+   *
+   * @param exception the exception
+   */
+  public void capture(Throwable exception) {
+    capture(exception, null);
+  }
+
+  /**
+   * Captures an exception thrown by a handler method to be processed by the worker thread, or drops it if the
+   * buffer is full.
+   *
+   * @param exception       the exception
+   * @param methodSignature the signature of the handler method, or {@code null} if unknown
+   */
+  public void capture(Throwable exception, String methodSignature) {
+    if (queue.remainingCapacity() > 0 &&
+        queue.offer(CapturedException.of(exception, LocalDateTime.now(), methodSignature, maxStackDepth))) {
+      statistics.recordCapture();
+      return;
+    }
+    statistics.recordDrop();
+    logger.debug("Springdog exception capture buffer is full, dropped a {}", exception.getClass().getName());
+    try {
+      dropListener.accept(exception.getClass());
+    } catch (RuntimeException e) {
+      statistics.recordFailure();
+      logger.warn("Failed to count a dropped {}", exception.getClass().getName(), e);
+    }
+  }
+
+  /**
+   * Returns the statistics of this queue.
+   */
+  public ExceptionCaptureStatistics getStatistics() {
+    return statistics;
+  }
+
+  private void runWorker() {
+    List<CapturedException> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    while (running || !queue.isEmpty()) {
+      try {
+        CapturedException first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+        batch.forEach(this::process);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void process(CapturedException capturedException) {
+    try {
+      processor.accept(capturedException);
+    } catch (RuntimeException e) {
+      statistics.recordFailure();
+      logger.warn("Failed to process a captured {}", capturedException.exceptionClassName(), e);
+    }
+  }
+}
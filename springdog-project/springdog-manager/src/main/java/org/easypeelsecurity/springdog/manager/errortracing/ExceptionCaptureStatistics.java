@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Records the depth of {@link ExceptionCaptureQueue} and the exceptions it accepted or dropped.
+ *
+ * @author PENEKhun
+ */
+public final class ExceptionCaptureStatistics {
+
+  private final IntSupplier depth;
+  private final LongAdder capturedCount = new LongAdder();
+  private final LongAdder droppedCount = new LongAdder();
+  private final LongAdder failedCount = new LongAdder();
+
+  /**
+   * Constructor.
+   *
+   * @param depth supplies the number of exceptions waiting in the queue
+   */
+  public ExceptionCaptureStatistics(IntSupplier depth) {
+    this.depth = depth;
+  }
+
+  void recordCapture() {
+    capturedCount.increment();
+  }
+
+  void recordDrop() {
+    droppedCount.increment();
+  }
+
+  void recordFailure() {
+    failedCount.increment();
+  }
+
+  /**
+   * Returns the number of exceptions waiting in the queue.
+   */
+  public int getDepth() {
+    return depth.getAsInt();
+  }
+
+  /**
+   * Returns the number of exceptions accepted by the queue.
+   */
+  public long getCapturedCount() {
+    return capturedCount.sum();
+  }
+
+  /**
+   * Returns the number of exceptions discarded because the queue was full.
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * Returns the number of exceptions that could not be processed.
+   */
+  public long getFailedCount() {
+    return failedCount.sum();
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Limits the full captures of each exception fingerprint with a token bucket.
+ * <p>
+ * A bucket holds up to {@code capturesPerWindow} tokens and is refilled at {@code capturesPerWindow} tokens
+ * per {@code captureWindowSeconds}, so a fingerprint is fully captured at most that often on average, with
+ * bursts up to the bucket size. The occurrences beyond it are counted as throttled and only get their chain
+ * built when reservoir sampling picks them, which keeps an exception storm from spending the capture worker on
+ * chains, messages and conversions that would be discarded anyway.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+public class ExceptionCaptureThrottle {
+  private static final int MAX_TRACKED_FINGERPRINTS = 10_000;
+
+  private final Cache<String, TokenBucket> buckets =
+      Caffeine.newBuilder().maximumSize(MAX_TRACKED_FINGERPRINTS).build();
+  private final int capturesPerWindow;
+  private final long windowNanos;
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public ExceptionCaptureThrottle(SpringdogProperties properties) {
+    this(properties.getErrorTracingCapturesPerWindow(), properties.getErrorTracingCaptureWindowSeconds());
+  }
+
+  ExceptionCaptureThrottle(int capturesPerWindow, int captureWindowSeconds) {
+    Assert.isTrue(capturesPerWindow > 0, "Captures per window must be greater than 0");
+    Assert.isTrue(captureWindowSeconds > 0, "Capture window seconds must be greater than 0");
+    this.capturesPerWindow = capturesPerWindow;
+    this.windowNanos = TimeUnit.SECONDS.toNanos(captureWindowSeconds);
+  }
+
+  /**
+   * Takes a token from the bucket of a fingerprint.
+   *
+   * @param fingerprint the fingerprint of the exception
+   * @return true if the exception may be fully captured, false if it should only be counted
+   */
+  public boolean tryAcquire(String fingerprint) {
+    return tryAcquire(fingerprint, System.nanoTime());
+  }
+
+  boolean tryAcquire(String fingerprint, long nanoTime) {
+    TokenBucket bucket = buckets.get(fingerprint, key -> new TokenBucket(capturesPerWindow, nanoTime));
+    return bucket.tryAcquire(nanoTime, capturesPerWindow, windowNanos);
+  }
+
+  private static final class TokenBucket {
+    private double tokens;
+    private long refilledAt;
+
+    private TokenBucket(int capacity, long nanoTime) {
+      this.tokens = capacity;
+      this.refilledAt = nanoTime;
+    }
+
+    private synchronized boolean tryAcquire(long nanoTime, int capacity, long windowNanos) {
+      long elapsed = nanoTime - refilledAt;
+      if (elapsed > 0) {
+        tokens = Math.min(capacity, tokens + (double) elapsed * capacity / windowNanos);
+        refilledAt = nanoTime;
+      }
+      if (tokens < 1) {
+        return false;
+      }
+      tokens--;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the exception classes listed ahead of time, so they do not have to be scanned from the classpath at
+ * startup.
+ * <ul>
+ *   <li>{@value #JDK_CATALOG_PREFIX}{@code <feature version>.txt} lists the exception classes of the JDK,
+ *   and is shipped for each supported Java version.</li>
+ *   <li>{@value #APPLICATION_CATALOG} lists the exception classes of the application, and is written at compile
+ *   time by the {@code @SpringDogEnable} annotation processor.</li>
+ * </ul>
+ * A catalog holds one binary class name per line. Blank lines and lines starting with {@code #} are skipped.
+ */
+final class ExceptionCatalog {
+  static final String APPLICATION_CATALOG = "META-INF/springdog/exception-catalog.txt";
+  static final String JDK_CATALOG_PREFIX = "META-INF/springdog/jdk-exceptions-";
+
+  private ExceptionCatalog() {
+  }
+
+  /**
+   * Reads the JDK exception classes of a Java version.
+   *
+   * @param classLoader the class loader of the catalog
+   * @param javaVersion the feature version of Java
+   * @return the class names, or empty if no catalog is shipped for the version
+   */
+  static Optional<List<String>> readJdkExceptions(ClassLoader classLoader, int javaVersion) {
+    URL catalog = classLoader.getResource(JDK_CATALOG_PREFIX + javaVersion + ".txt");
+    return catalog == null ? Optional.empty() : Optional.of(read(catalog));
+  }
+
+  /**
+   * Reads the application exception classes, from every catalog on the classpath.
+   *
+   * @param classLoader the class loader of the catalogs
+   * @return the class names, or empty if the application was compiled without a catalog
+   */
+  static Optional<List<String>> readApplicationExceptions(ClassLoader classLoader) {
+    try {
+      List<URL> catalogs = Collections.list(classLoader.getResources(APPLICATION_CATALOG));
+      if (catalogs.isEmpty()) {
+        return Optional.empty();
+      }
+      List<String> classNames = new ArrayList<>();
+      catalogs.forEach(catalog -> classNames.addAll(read(catalog)));
+      return Optional.of(classNames);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to find " + APPLICATION_CATALOG, e);
+    }
+  }
+
+  private static List<String> read(URL catalog) {
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(catalog.openStream(), StandardCharsets.UTF_8))) {
+      return reader.lines()
+          .map(String::trim)
+          .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+          .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read " + catalog, e);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the fingerprint of an exception, so that every occurrence of the same failure shares one key.
+ * <p>
+ * The fingerprint is a SHA-256 hash of the class of each exception of the cause chain and of its normalized
+ * frames. Line numbers are left out so a fingerprint survives unrelated edits of the same method, reflection
+ * frames are skipped, and the generated parts of proxy and lambda class names are removed as they change from
+ * one run to the next.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+public final class ExceptionFingerprint {
+  private static final int MAX_CAUSES = 16;
+  private static final int MAX_FRAMES_PER_CAUSE = 64;
+  private static final String[] SKIPPED_PACKAGES =
+      {"jdk.internal.reflect.", "java.lang.reflect.", "sun.reflect."};
+
+  private ExceptionFingerprint() {
+  }
+
+  /**
+   * Computes the fingerprint of a captured exception.
+   *
+   * @param exception the snapshot of the exception
+   * @return the fingerprint, 64 hexadecimal characters
+   */
+  public static String of(CapturedException exception) {
+    MessageDigest digest = sha256();
+    for (CapturedException.Cause cause : exception.causes().subList(0,
+        Math.min(exception.causes().size(), MAX_CAUSES))) {
+      update(digest, cause.className());
+      int frames = 0;
+      for (StackTraceElement element : cause.frames()) {
+        if (frames == MAX_FRAMES_PER_CAUSE) {
+          break;
+        }
+        if (isSkipped(element.getClassName())) {
+          continue;
+        }
+        update(digest, normalizeClassName(element.getClassName()) + '.' + element.getMethodName());
+        frames++;
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Returns how many top frames of a stack trace the fingerprint reads, so a snapshot only needs to keep those.
+   *
+   * @param stackTrace the stack trace of a cause
+   * @return the number of top frames read
+   */
+  static int countHashedFrames(StackTraceElement[] stackTrace) {
+    int frames = 0;
+    for (int i = 0; i < stackTrace.length; i++) {
+      if (!isSkipped(stackTrace[i].getClassName()) && ++frames == MAX_FRAMES_PER_CAUSE) {
+        return i + 1;
+      }
+    }
+    return stackTrace.length;
+  }
+
+  static String normalizeClassName(String className) {
+    int generated = className.indexOf("$$");
+    return generated < 0 ? className : className.substring(0, generated);
+  }
+
+  private static boolean isSkipped(String className) {
+    for (String skippedPackage : SKIPPED_PACKAGES) {
+      if (className.startsWith(skippedPackage)) {
+        return true;
+      }
+    }
+    return className.startsWith("jdk.proxy") || className.contains("GeneratedMethodAccessor");
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) '\n');
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
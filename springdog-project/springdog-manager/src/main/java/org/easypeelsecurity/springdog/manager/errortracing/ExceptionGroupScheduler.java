@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
+import org.easypeelsecurity.springdog.manager.statistics.SchedulerFlushStatistics;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionOccurrencesDto;
+
+/**
+ * Periodically hands the exception occurrences aggregated by {@link ExceptionOccurrenceAggregator} to
+ * {@link SpringdogWriteQueue}, one upsert per fingerprint. On shutdown, the exceptions still waiting in
+ * {@link ExceptionCaptureQueue} are processed first and the occurrences left are flushed.
+ *
+ * @author PENEKhun
+ */
+@Component
+@EnableScheduling
+public class ExceptionGroupScheduler {
+  private final ExceptionOccurrenceAggregator aggregator;
+  private final ExceptionListingService exceptionListingService;
+  private final SpringdogWriteQueue writeQueue;
+  private final ExceptionCaptureQueue captureQueue;
+
+  /**
+   * Constructor.
+   */
+  public ExceptionGroupScheduler(ExceptionOccurrenceAggregator aggregator,
+      ExceptionListingService exceptionListingService, SpringdogWriteQueue writeQueue,
+      ExceptionCaptureQueue captureQueue) {
+    this.aggregator = aggregator;
+    this.exceptionListingService = exceptionListingService;
+    this.writeQueue = writeQueue;
+    this.captureQueue = captureQueue;
+  }
+
+  /**
+   * Scheduled task that queues the aggregated exception occurrences to be saved in the database.
+   */
+  @Scheduled(fixedRateString = "${springdog.exceptionGroupScheduler.fixedRate:10000}")
+  public void saveExceptionGroups() {
+    long startTime = System.nanoTime();
+    try {
+      int storedTracesPerFingerprint = aggregator.getStoredTracesPerFingerprint();
+      for (ExceptionOccurrencesDto occurrences : aggregator.drain()) {
+        writeQueue.enqueue(WriteType.ERROR_TRACE,
+            () -> exceptionListingService.saveOccurrences(occurrences, storedTracesPerFingerprint));
+      }
+    } finally {
+      SchedulerFlushStatistics.ERROR_TRACE.record(System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Processes the captured exceptions and flushes the occurrences left before the application shuts down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    captureQueue.stop();
+    saveExceptionGroups();
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionOccurrencesDto;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Aggregates the occurrences of each exception fingerprint in memory until the next flush.
+ * <p>
+ * Each occurrence only updates the counters of its fingerprint. The full chain is built only for the
+ * occurrences picked by reservoir sampling: the n-th occurrence of a fingerprint since startup, throttled or
+ * not, is sampled with probability {@code storedTracesPerFingerprint / n}, and the first ones always. The
+ * stored chains thus stay a uniform sample of all the occurrences, while the number of chains built only grows
+ * with the logarithm of the occurrences.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+public class ExceptionOccurrenceAggregator {
+  private static final int MAX_TRACKED_FINGERPRINTS = 10_000;
+
+  private final Map<String, PendingOccurrences> pending = new ConcurrentHashMap<>();
+  private final Cache<String, AtomicLong> capturedCounts =
+      Caffeine.newBuilder().maximumSize(MAX_TRACKED_FINGERPRINTS).build();
+  private final int storedTracesPerFingerprint;
+  private final Random random;
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public ExceptionOccurrenceAggregator(SpringdogProperties properties) {
+    this(properties.getErrorTracingStoredTracesPerFingerprint());
+  }
+
+  ExceptionOccurrenceAggregator(int storedTracesPerFingerprint) {
+    this(storedTracesPerFingerprint, new Random());
+  }
+
+  ExceptionOccurrenceAggregator(int storedTracesPerFingerprint, Random random) {
+    Assert.isTrue(storedTracesPerFingerprint >= 0, "Stored traces per fingerprint must not be negative");
+    this.storedTracesPerFingerprint = storedTracesPerFingerprint;
+    this.random = random;
+  }
+
+  /**
+   * Records an occurrence of an exception.
+   *
+   * @param fingerprint the fingerprint of the exception
+   * @param exception   the captured exception
+   * @param chain       builds the full chain of the exception, called only if the occurrence is sampled
+   */
+  public void record(String fingerprint, CapturedException exception, Supplier<ErrorTracingDto> chain) {
+    recordOccurrence(fingerprint, exception, chain, false);
+  }
+
+  /**
+   * Records an occurrence whose capture was throttled. It is counted as throttled, and takes part in the
+   * reservoir sampling like any other occurrence, so that the stored chains still represent the storm.
+   *
+   * @param fingerprint the fingerprint of the exception
+   * @param exception   the captured exception
+   * @param chain       builds the full chain of the exception, called only if the occurrence is sampled
+   */
+  public void recordThrottled(String fingerprint, CapturedException exception,
+      Supplier<ErrorTracingDto> chain) {
+    recordOccurrence(fingerprint, exception, chain, true);
+  }
+
+  private void recordOccurrence(String fingerprint, CapturedException exception,
+      Supplier<ErrorTracingDto> chain, boolean throttled) {
+    ErrorTracingDto sampledChain = shouldSampleChain(fingerprint) ? chain.get() : null;
+    pending.compute(fingerprint, (key, occurrences) -> {
+      PendingOccurrences result = occurrences;
+      if (result == null) {
+        result = new PendingOccurrences(exception.exceptionClassName(), exception.capturedAt());
+      }
+      if (throttled) {
+        result.addThrottled(exception);
+      } else {
+        result.add(exception);
+      }
+      result.addSampledChain(sampledChain, storedTracesPerFingerprint, random);
+      return result;
+    });
+  }
+
+  private boolean shouldSampleChain(String fingerprint) {
+    if (storedTracesPerFingerprint == 0) {
+      return false;
+    }
+    long captured = capturedCounts.get(fingerprint, key -> new AtomicLong()).incrementAndGet();
+    return captured <= storedTracesPerFingerprint || random.nextLong(captured) < storedTracesPerFingerprint;
+  }
+
+  /**
+   * Takes the occurrences recorded since the last call.
+   *
+   * @return one entry per fingerprint that occurred
+   */
+  public List<ExceptionOccurrencesDto> drain() {
+    List<ExceptionOccurrencesDto> result = new ArrayList<>();
+    for (String fingerprint : pending.keySet()) {
+      PendingOccurrences occurrences = pending.remove(fingerprint);
+      if (occurrences != null) {
+        result.add(occurrences.toDto(fingerprint));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the maximum number of full chains stored per fingerprint.
+   */
+  public int getStoredTracesPerFingerprint() {
+    return storedTracesPerFingerprint;
+  }
+
+  /**
+   * The occurrences of one fingerprint. Only modified inside {@link Map#compute}, so never concurrently.
+   */
+  private static final class PendingOccurrences {
+    private final String exceptionClassName;
+    private final LocalDateTime firstSeen;
+    private final List<ErrorTracingDto> sampledChains = new ArrayList<>();
+    private LocalDateTime lastSeen;
+    private String sampleMessage;
+    private String methodSignature;
+    private long count;
+    private long throttledCount;
+
+    private PendingOccurrences(String exceptionClassName, LocalDateTime firstSeen) {
+      this.exceptionClassName = exceptionClassName;
+      this.firstSeen = firstSeen;
+    }
+
+    private void add(CapturedException exception) {
+      count++;
+      lastSeen = exception.capturedAt();
+      sampleMessage = exception.message();
+      if (exception.methodSignature() != null) {
+        methodSignature = exception.methodSignature();
+      }
+    }
+
+    /**
+     * Adds the chain of an occurrence, if it was sampled. A sampled chain replaces a random one once the
+     * reservoir is full, as any chain kept here would replace a stored one anyway.
+     */
+    private void addSampledChain(ErrorTracingDto sampledChain, int reservoirSize, Random random) {
+      if (sampledChain == null) {
+        return;
+      }
+      if (sampledChains.size() < reservoirSize) {
+        sampledChains.add(sampledChain);
+      } else {
+        sampledChains.set(random.nextInt(reservoirSize), sampledChain);
+      }
+    }
+
+    private void addThrottled(CapturedException exception) {
+      count++;
+      throttledCount++;
+      lastSeen = exception.capturedAt();
+      if (exception.methodSignature() != null) {
+        methodSignature = exception.methodSignature();
+      }
+      if (sampleMessage == null) {
+        sampleMessage = exception.message();
+      }
+    }
+
+    private ExceptionOccurrencesDto toDto(String fingerprint) {
+      return new ExceptionOccurrencesDto(fingerprint, exceptionClassName, sampleMessage, methodSignature, count,
+          throttledCount, firstSeen, lastSeen, List.copyOf(sampledChains));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the occurrences of one exception per second over the last {@value #WINDOW_SECONDS} seconds, without
+ * locks.
+ * <p>
+ * The window is a ring of one slot per second. A slot packs the epoch second it counts for in its upper bits
+ * and the count in its lower {@value #COUNT_BITS} bits, so a slot is reset for a new second and incremented by
+ * the same compare-and-set, and never mixes the counts of two seconds. Recording is O(1) and an occurrence
+ * older than the window is ignored.
+ * </p>
+ */
+final class ExceptionRateWindow {
+  static final int WINDOW_SECONDS = 60;
+  private static final int COUNT_BITS = 20;
+  private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+  private final AtomicLongArray slots = new AtomicLongArray(WINDOW_SECONDS);
+
+  /**
+   * Records an occurrence. The count of a second saturates at about a million.
+   *
+   * @param epochSecond the second of the occurrence
+   */
+  void record(long epochSecond) {
+    int index = (int) Math.floorMod(epochSecond, (long) WINDOW_SECONDS);
+    while (true) {
+      long slot = slots.get(index);
+      long slotSecond = slot >>> COUNT_BITS;
+      long next;
+      if (slotSecond == epochSecond) {
+        if ((slot & COUNT_MASK) == COUNT_MASK) {
+          return;
+        }
+        next = slot + 1;
+      } else if (slotSecond < epochSecond) {
+        next = (epochSecond << COUNT_BITS) | 1;
+      } else {
+        return;
+      }
+      if (slots.compareAndSet(index, slot, next)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Sums the occurrences of the last {@value #WINDOW_SECONDS} seconds, up to and including a second.
+   *
+   * @param epochSecond the last second to count
+   * @return the occurrences
+   */
+  long sum(long epochSecond) {
+    long total = 0;
+    for (int i = 0; i < WINDOW_SECONDS; i++) {
+      long slot = slots.get(i);
+      long slotSecond = slot >>> COUNT_BITS;
+      if (slotSecond > epochSecond - WINDOW_SECONDS && slotSecond <= epochSecond) {
+        total += slot & COUNT_MASK;
+      }
+    }
+    return total;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.notification.ExceptionSpikeEmailNotificationManager;
+import org.easypeelsecurity.springdog.shared.settings.ExceptionSpikeSetting;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+
+/**
+ * Detects the exceptions whose rate suddenly rises, such as a {@code NullPointerException} jumping from none to
+ * hundreds per minute.
+ * <p>
+ * Each occurrence only increments the {@link ExceptionRateWindow} of its fingerprint, without locks or database
+ * reads. Periodically, the occurrences of the last minute are compared with the usual rate of the fingerprint,
+ * an exponentially weighted moving average of its past rates per minute. The rate is spiking when it exceeds
+ * both the average times the spike multiplier and the minimum rate of the {@link ExceptionSpikeSetting}, and
+ * the average is not updated while it is spiking, so a lasting spike does not become the usual rate.
+ * Spikes and their recoveries are notified through {@link ExceptionSpikeEmailNotificationManager}.
+ * </p>
+ * <p>
+ * The exceptions dropped by a full {@link ExceptionCaptureQueue} have no snapshot to be fingerprinted, so they
+ * are counted per exception class instead, and a storm that fills the queue still shows as a spike.
+ * </p>
+ * <p>
+ * A fingerprint that has been quiet long enough is forgotten, and at most {@value #MAX_TRACKED_FINGERPRINTS}
+ * fingerprints are tracked at once.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+@EnableScheduling
+public class ExceptionSpikeDetector {
+  private static final int MAX_TRACKED_FINGERPRINTS = 10_000;
+  private static final double BASELINE_TIME_CONSTANT_SECONDS = 600;
+  private static final double IDLE_BASELINE = 0.5;
+  private static final String DROPPED_KEY_PREFIX = "dropped:";
+
+  private final Map<String, TrackedException> tracked = new ConcurrentHashMap<>();
+  private final SpringdogSettingManager settingManager;
+  private final ExceptionSpikeEmailNotificationManager notificationManager;
+  private long lastEvaluatedSecond = Long.MIN_VALUE;
+
+  /**
+   * Constructor.
+   */
+  public ExceptionSpikeDetector(SpringdogSettingManager settingManager,
+      ExceptionSpikeEmailNotificationManager notificationManager) {
+    this.settingManager = settingManager;
+    this.notificationManager = notificationManager;
+  }
+
+  /**
+   * Records an occurrence of an exception.
+   *
+   * @param fingerprint the fingerprint of the exception
+   * @param exception   the captured exception
+   */
+  public void record(String fingerprint, CapturedException exception) {
+    recordOccurrence(fingerprint, () -> describe(exception), exception.capturedAt());
+  }
+
+  /**
+   * Records an occurrence of an exception that was dropped before it could be fingerprinted.
+   *
+   * @param exceptionClass the class of the exception
+   * @param droppedAt      when the exception was dropped
+   */
+  public void recordDropped(Class<? extends Throwable> exceptionClass, LocalDateTime droppedAt) {
+    recordOccurrence(DROPPED_KEY_PREFIX + exceptionClass.getName(),
+        () -> exceptionClass.getName() + " (dropped by the full capture queue)", droppedAt);
+  }
+
+  private void recordOccurrence(String key, Supplier<String> name, LocalDateTime occurredAt) {
+    TrackedException trackedException = tracked.get(key);
+    if (trackedException == null) {
+      if (tracked.size() >= MAX_TRACKED_FINGERPRINTS) {
+        return;
+      }
+      trackedException = tracked.computeIfAbsent(key, k -> new TrackedException(name.get()));
+    }
+    trackedException.window.record(toEpochSecond(occurredAt));
+  }
+
+  /**
+   * Scheduled task that checks the rate of every tracked exception for spikes.
+   */
+  @Scheduled(fixedRateString = "${springdog.exceptionSpikeDetector.fixedRate:10000}")
+  public void detectSpikes() {
+    detectSpikes(toEpochSecond(LocalDateTime.now()));
+  }
+
+  synchronized void detectSpikes(long epochSecond) {
+    ExceptionSpikeSetting setting = settingManager.getSettings().getExceptionSpikeSetting();
+    double alpha = 0;
+    if (lastEvaluatedSecond != Long.MIN_VALUE) {
+      alpha = 1 - Math.exp(-(epochSecond - lastEvaluatedSecond) / BASELINE_TIME_CONSTANT_SECONDS);
+    }
+    lastEvaluatedSecond = epochSecond;
+
+    for (Map.Entry<String, TrackedException> entry : tracked.entrySet()) {
+      TrackedException exception = entry.getValue();
+      long occurrencesPerMinute = exception.window.sum(epochSecond);
+      long spikeThreshold = Math.max(setting.getMinimumOccurrencesPerMinute(),
+          Math.round(exception.baseline * setting.getSpikeMultiplier()));
+      notificationManager.checkExceptionRate(entry.getKey(), exception.name, occurrencesPerMinute,
+          spikeThreshold);
+
+      if (occurrencesPerMinute <= spikeThreshold) {
+        exception.baseline += alpha * (occurrencesPerMinute - exception.baseline);
+      }
+      if (occurrencesPerMinute == 0 && exception.baseline < IDLE_BASELINE) {
+        tracked.remove(entry.getKey(), exception);
+        notificationManager.forget(entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Returns the usual rate per minute of a fingerprint.
+   *
+   * @param fingerprint the fingerprint of the exception
+   * @return the usual rate, or {@code 0} if the fingerprint is not tracked
+   */
+  double getBaseline(String fingerprint) {
+    TrackedException exception = tracked.get(fingerprint);
+    return exception == null ? 0 : exception.baseline;
+  }
+
+  /**
+   * The occurrences and the local time are both counted in seconds of the local date-time taken as UTC.
+   */
+  private static long toEpochSecond(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  private static String describe(CapturedException exception) {
+    List<StackTraceElement> frames = exception.causes().get(0).frames();
+    if (frames.isEmpty()) {
+      return exception.exceptionClassName();
+    }
+    return exception.exceptionClassName() + " at " + frames.get(0).getClassName() + "." +
+        frames.get(0).getMethodName();
+  }
+
+  /**
+   * The rate window and the usual rate of one fingerprint. The usual rate is only read and written under the
+   * lock of {@link #detectSpikes(long)}.
+   */
+  private static final class TrackedException {
+    private final String name;
+    private final ExceptionRateWindow window = new ExceptionRateWindow();
+    private double baseline;
+
+    private TrackedException(String name) {
+      this.name = name;
+    }
+  }
+}
@@ -18,65 +18,36 @@ package org.easypeelsecurity.springdog.manager.errortracing;
 
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.HandlerMethod;
 
-import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
-import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.util.MethodSignatureParser;
 
 /**
  * Springdog exception collector.
+ * The request thread only hands the exception to {@link ExceptionCaptureQueue}. Its worker checks whether the
+ * exception is monitored, fingerprints it and counts it in {@link ExceptionOccurrenceAggregator}, which
+ * {@link ExceptionGroupScheduler} flushes periodically. The exception carries the signature of the handler
+ * method that threw it, so each exception group tells which endpoint it comes from. The per-endpoint exception
+ * counts themselves are kept by the request timing interceptor along with the latency.
  */
 @ControllerAdvice
 public class SpringdogExceptionCollector {
-  private final ExceptionListingService exceptionListingService;
+  private final ExceptionCaptureQueue captureQueue;
 
   /**
    * Constructor.
    */
-  public SpringdogExceptionCollector(ExceptionListingService exceptionListingService) {
-    this.exceptionListingService = exceptionListingService;
+  public SpringdogExceptionCollector(ExceptionCaptureQueue captureQueue) {
+    this.captureQueue = captureQueue;
   }
 
   @SuppressWarnings("checkstyle:MissingJavadocMethod")
   @ExceptionHandler(Exception.class)
-  public void collectException(Exception e) {
-    String exceptionClassName = e.getClass().getName();
-    if (!exceptionListingService.isExceptionEnabled(exceptionClassName)) {
+  public void collectException(Exception e, HandlerMethod handlerMethod) {
+    if (handlerMethod == null) {
+      captureQueue.capture(e);
       return;
     }
-
-    ErrorTracingDto errorChain = buildErrorChain(e);
-    exceptionListingService.saveException(errorChain);
-  }
-
-  private ErrorTracingDto buildErrorChain(Throwable throwable) {
-    ErrorTracingDto currentDto = null;
-    ErrorTracingDto rootDto = null;
-
-    while (throwable != null) {
-      StackTraceElement[] stackTrace = throwable.getStackTrace();
-      StackTraceElement element = stackTrace.length > 0 ? stackTrace[0] : null;
-
-      if (element == null) {
-        break;
-      }
-      ErrorTracingDto newDto = ErrorTracingDto.builder()
-          .message(throwable.getMessage())
-          .fileName(element.getFileName())
-          .className(element.getClassName())
-          .methodName(element.getMethodName())
-          .lineNumber(element.getLineNumber())
-          .build();
-
-      if (currentDto == null) {
-        rootDto = newDto;
-      } else {
-        currentDto.setNext(newDto);
-      }
-      currentDto = newDto;
-
-      throwable = throwable.getCause();
-    }
-
-    return rootDto;
+    captureQueue.capture(e, MethodSignatureParser.parse(handlerMethod));
   }
 }
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import jakarta.annotation.PostConstruct;
 
@@ -29,6 +30,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto;
 import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto.ExceptionItemDto;
@@ -41,7 +43,14 @@ import io.github.classgraph.ScanResult;
 
 /**
  * This class is responsible for listing and categorizing exception classes in a structured manner.
- * It scans for exception classes in both Java standard libraries and the application's base package.
+ * It lists the exception classes of both Java standard libraries and the application's base package.
+ * <p>
+ * Both lists are read from the catalogs of {@link ExceptionCatalog}. A list without a catalog, for a Java
+ * version without a shipped catalog or an application compiled without the annotation processor, is scanned
+ * from the classpath on a background thread instead, off the application startup path.
+ * A list read only from catalogs is added to the saved exception classes, so a saved class missing from the
+ * catalogs, like one found by an earlier scan, is kept along with its monitoring status.
+ * </p>
  */
 @Component
 public class StructuredExceptionLister {
@@ -50,11 +59,12 @@ public class StructuredExceptionLister {
   private final ApplicationContext applicationContext;
   private final Environment environment;
   private final ExceptionListingService exceptionListingService;
+  private final SpringdogStoreReadiness storeReadiness;
 
   /**
    * A map of Java exception packages and their descriptions.
    */
-  private static final Map<String, String> JAVA_EXCEPTION_PACKAGES = new LinkedHashMap<>();
+  static final Map<String, String> JAVA_EXCEPTION_PACKAGES = new LinkedHashMap<>();
 
   static {
     JAVA_EXCEPTION_PACKAGES.put("java.lang", "Core Java classes including basic exceptions");
@@ -73,48 +83,90 @@ public class StructuredExceptionLister {
    *
    * @param applicationContext the Spring application context
    * @param environment        the Spring environment
+   * @param storeReadiness     tells when the Springdog database is ready
    */
   public StructuredExceptionLister(ApplicationContext applicationContext, Environment environment,
-      ExceptionListingService exceptionListingService) {
+      ExceptionListingService exceptionListingService, SpringdogStoreReadiness storeReadiness) {
     this.applicationContext = applicationContext;
     this.environment = environment;
     this.exceptionListingService = exceptionListingService;
+    this.storeReadiness = storeReadiness;
   }
 
   /**
    * Lists all exception classes found in the classpath, including both Java standard exceptions
    * and application-specific exceptions.
+   * The classes are read from the exception catalogs, or scanned from the classpath on a background thread when
+   * a catalog is missing, and saved once the Springdog database is ready. Saved classes missing from the
+   * catalogs are only deleted after a scan.
    */
   @PostConstruct
   public void listExceptions() {
-    var list = scanExistExceptionClasses();
-    exceptionListingService.saveExceptionsWithoutDuplicate(list);
-  }
-
-  private ExceptionClassesDto scanExistExceptionClasses() {
     String basePackage = findBasePackage();
-    Map<String, List<String>> exceptionsByPackage = new LinkedHashMap<>();
+    ClassLoader classLoader = getClass().getClassLoader();
+    int javaVersion = Runtime.version().feature();
+    Optional<List<String>> jdkExceptions = ExceptionCatalog.readJdkExceptions(classLoader, javaVersion);
+    Optional<List<String>> applicationExceptions = ExceptionCatalog.readApplicationExceptions(classLoader);
+
+    if (jdkExceptions.isPresent() && applicationExceptions.isPresent()) {
+      ExceptionClassesDto exceptionClasses = createExceptionClassesDto(
+          groupByPackage(concat(jdkExceptions.get(), applicationExceptions.get()), basePackage));
+      storeReadiness.whenReady("add the exception classes",
+          () -> exceptionListingService.addExceptionsWithoutDuplicate(exceptionClasses));
+      return;
+    }
+
+    List<String> scannedPackages = new ArrayList<>();
+    if (jdkExceptions.isEmpty()) {
+      logger.info("No exception catalog is shipped for Java {}, the Java exceptions are scanned", javaVersion);
+      scannedPackages.addAll(JAVA_EXCEPTION_PACKAGES.keySet());
+    }
+    if (applicationExceptions.isEmpty()) {
+      logger.info("No {} found, the application exceptions are scanned", ExceptionCatalog.APPLICATION_CATALOG);
+      scannedPackages.add(basePackage);
+    }
+    Thread scanner = new Thread(() -> {
+      List<String> exceptionClasses = concat(
+          concat(jdkExceptions.orElse(List.of()), applicationExceptions.orElse(List.of())),
+          scanExceptionClasses(scannedPackages.toArray(new String[0])));
+      ExceptionClassesDto scanned = createExceptionClassesDto(groupByPackage(exceptionClasses, basePackage));
+      storeReadiness.whenReady("save the exception classes",
+          () -> exceptionListingService.saveExceptionsWithoutDuplicate(scanned));
+    }, "springdog-exception-scan");
+    scanner.setDaemon(true);
+    scanner.start();
+  }
 
+  private List<String> scanExceptionClasses(String[] packages) {
     try (ScanResult scanResult = new ClassGraph()
         .enableSystemJarsAndModules()
-        .acceptPackages(getAcceptPackages(basePackage))
+        .acceptPackages(packages)
         .scan()) {
 
-      List<String> exceptionClasses = scanResult.getSubclasses(Exception.class.getName())
+      return scanResult.getSubclasses(Exception.class.getName())
           .getNames()
           .stream()
           .filter(this::isLoadableClass)
           .toList();
-
-      for (String className : exceptionClasses) {
-        String packageType = getPackageType(className, basePackage);
-        exceptionsByPackage.computeIfAbsent(packageType, k -> new ArrayList<>()).add(className);
-      }
     } catch (Exception e) {
       logger.error("Error occurred while scanning for exception classes", e);
+      return List.of();
+    }
+  }
+
+  private Map<String, List<String>> groupByPackage(List<String> exceptionClasses, String basePackage) {
+    Map<String, List<String>> exceptionsByPackage = new LinkedHashMap<>();
+    for (String className : exceptionClasses) {
+      String packageType = getPackageType(className, basePackage);
+      exceptionsByPackage.computeIfAbsent(packageType, k -> new ArrayList<>()).add(className);
     }
+    return exceptionsByPackage;
+  }
 
-    return createExceptionClassesDto(exceptionsByPackage);
+  private static List<String> concat(List<String> first, List<String> second) {
+    List<String> result = new ArrayList<>(first);
+    result.addAll(second);
+    return result;
   }
 
   /**
@@ -149,18 +201,6 @@ public class StructuredExceptionLister {
     return new ExceptionClassesDto(exceptionLists);
   }
 
-  /**
-   * Gets an array of package names to be scanned for exceptions.
-   *
-   * @param basePackage the base package of the application
-   * @return an array of package names to be scanned
-   */
-  private String[] getAcceptPackages(String basePackage) {
-    List<String> packages = new ArrayList<>(JAVA_EXCEPTION_PACKAGES.keySet());
-    packages.add(basePackage);
-    return packages.toArray(new String[0]);
-  }
-
   /**
    * Determines the package type for a given class name.
    *
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteQueueStatistics;
+import org.easypeelsecurity.springdog.manager.errortracing.ExceptionCaptureQueue;
+import org.easypeelsecurity.springdog.manager.errortracing.ExceptionCaptureStatistics;
+import org.easypeelsecurity.springdog.manager.ratelimit.RatelimitCache;
+import org.easypeelsecurity.springdog.manager.statistics.EndpointMetricCacheManager;
+import org.easypeelsecurity.springdog.manager.statistics.EndpointMetricCacheManager.EndpointMetricTotals;
+import org.easypeelsecurity.springdog.manager.statistics.SchedulerFlushStatistics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Binds Springdog's in-memory statistics to Micrometer meters.
+ * <p>
+ * This binder is only registered when Micrometer is on the classpath. Every meter reads the running
+ * totals kept next to the flush buffers, so scraping never drains or locks the data waiting to be
+ * stored by the schedulers. Per endpoint meters are registered the first time an endpoint is seen.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+public class SpringdogMeterBinder implements MeterBinder {
+
+  private static final String ENDPOINT_TAG = "endpoint";
+  private final WriteQueueStatistics writeQueueStatistics;
+  private final ExceptionCaptureStatistics exceptionCaptureStatistics;
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public SpringdogMeterBinder(SpringdogWriteQueue writeQueue, ExceptionCaptureQueue exceptionCaptureQueue) {
+    this(writeQueue.getStatistics(), exceptionCaptureQueue.getStatistics());
+  }
+
+  SpringdogMeterBinder(WriteQueueStatistics writeQueueStatistics,
+      ExceptionCaptureStatistics exceptionCaptureStatistics) {
+    this.writeQueueStatistics = writeQueueStatistics;
+    this.exceptionCaptureStatistics = exceptionCaptureStatistics;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("springdog.endpoint.metrics.pending", EndpointMetricCacheManager::getPendingEndpointCount)
+        .description("Number of endpoints with metrics waiting for the next flush")
+        .register(registry);
+
+    Gauge.builder("springdog.ratelimit.access.history.size", RatelimitCache::getAccessHistorySize)
+        .description("Number of requesters whose access history is kept for rate limiting")
+        .register(registry);
+    Gauge.builder("springdog.ratelimit.ban.history.size", RatelimitCache::getBanHistorySize)
+        .description("Number of requesters in the ban history")
+        .register(registry);
+    FunctionCounter.builder("springdog.ratelimit.bans", RatelimitCache.class,
+            cache -> RatelimitCache.getTotalBanCount())
+        .description("Number of bans issued by rate limit rules")
+        .register(registry);
+
+    bindSchedulerFlush(registry, SchedulerFlushStatistics.ENDPOINT_METRIC);
+    bindSchedulerFlush(registry, SchedulerFlushStatistics.SYSTEM_METRIC);
+    bindSchedulerFlush(registry, SchedulerFlushStatistics.ERROR_TRACE);
+    bindWriteQueue(registry);
+    bindExceptionCapture(registry);
+
+    EndpointMetricCacheManager.addNewEndpointListener(
+        methodSignature -> bindEndpoint(registry, methodSignature));
+  }
+
+  private void bindSchedulerFlush(MeterRegistry registry, SchedulerFlushStatistics statistics) {
+    Tags tags = Tags.of("scheduler", statistics.getSchedulerName());
+    FunctionTimer.builder("springdog.scheduler.enqueue", statistics,
+            SchedulerFlushStatistics::getFlushCount, SchedulerFlushStatistics::getTotalTimeNanos,
+            TimeUnit.NANOSECONDS)
+        .tags(tags)
+        .description("Time spent handing in-memory statistics to the write queue")
+        .register(registry);
+    TimeGauge.builder("springdog.scheduler.enqueue.last", statistics, TimeUnit.NANOSECONDS,
+            SchedulerFlushStatistics::getLastTimeNanos)
+        .tags(tags)
+        .description("Duration of the most recent hand-off to the write queue")
+        .register(registry);
+  }
+
+  private void bindWriteQueue(MeterRegistry registry) {
+    Gauge.builder("springdog.persistence.queue.depth", writeQueueStatistics, WriteQueueStatistics::getDepth)
+        .description("Number of writes waiting for the Springdog writer thread")
+        .register(registry);
+    FunctionCounter.builder("springdog.persistence.queue.dropped", writeQueueStatistics,
+            WriteQueueStatistics::getDroppedCount)
+        .description("Writes discarded because the write queue was full")
+        .register(registry);
+    FunctionCounter.builder("springdog.persistence.writes.failed", writeQueueStatistics,
+            WriteQueueStatistics::getFailedCount)
+        .description("Writes that could not be committed")
+        .register(registry);
+    FunctionTimer.builder("springdog.persistence.flush", writeQueueStatistics,
+            WriteQueueStatistics::getFlushCount, WriteQueueStatistics::getTotalFlushNanos,
+            TimeUnit.NANOSECONDS)
+        .description("Time spent committing a batch of queued writes")
+        .register(registry);
+    TimeGauge.builder("springdog.persistence.flush.last", writeQueueStatistics, TimeUnit.NANOSECONDS,
+            WriteQueueStatistics::getLastFlushNanos)
+        .description("Duration of the most recent batch commit")
+        .register(registry);
+  }
+
+  private void bindExceptionCapture(MeterRegistry registry) {
+    Gauge.builder("springdog.errortracing.capture.depth", exceptionCaptureStatistics,
+            ExceptionCaptureStatistics::getDepth)
+        .description("Number of captured exceptions waiting for the Springdog capture worker")
+        .register(registry);
+    FunctionCounter.builder("springdog.errortracing.capture.dropped", exceptionCaptureStatistics,
+            ExceptionCaptureStatistics::getDroppedCount)
+        .description("Exceptions not traced because the capture buffer was full")
+        .register(registry);
+  }
+
+  private void bindEndpoint(MeterRegistry registry, String methodSignature) {
+    EndpointMetricTotals totals = EndpointMetricCacheManager.getTotals(methodSignature);
+    Tags tags = Tags.of(ENDPOINT_TAG, methodSignature);
+
+    FunctionTimer.builder("springdog.endpoint.requests", totals,
+            EndpointMetricTotals::getRequestCount, EndpointMetricTotals::getResponseTimeSum,
+            TimeUnit.MILLISECONDS)
+        .tags(tags)
+        .description("Requests handled by the endpoint and their response time")
+        .register(registry);
+    FunctionCounter.builder("springdog.endpoint.ratelimit.rejections", totals,
+            EndpointMetricTotals::getRatelimitFailureCount)
+        .tags(tags)
+        .description("Requests rejected by the rate limit rule of the endpoint")
+        .register(registry);
+    FunctionCounter.builder("springdog.endpoint.exceptions", totals, EndpointMetricTotals::getExceptionCount)
+        .tags(tags)
+        .description("Requests of the endpoint that ended with an exception")
+        .register(registry);
+    Gauge.builder("springdog.endpoint.inflight", totals, EndpointMetricTotals::getInFlight)
+        .tags(tags)
+        .description("Requests of the endpoint currently being handled")
+        .register(registry);
+    for (int statusClass = 1; statusClass <= 5; statusClass++) {
+      int targetStatusClass = statusClass;
+      FunctionCounter.builder("springdog.endpoint.responses", totals,
+              endpointTotals -> endpointTotals.getStatusClassCount(targetStatusClass))
+          .tags(tags.and("status", targetStatusClass + "xx"))
+          .description("Responses of the endpoint by status class")
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import org.easypeelsecurity.springdog.agent.SpringdogAgentController;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * Exposes Springdog's metrics in the Prometheus text format under the agent base path.
+ * <p>
+ * A dedicated registry only holds the meters bound by {@link SpringdogMeterBinder}, so the scrape output
+ * does not depend on the meters or the actuator configuration of the application. Access is protected
+ * like every other agent page; scrapers can authenticate with HTTP basic authentication.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@RestController
+@SpringdogAgentController
+@ConditionalOnClass(name = "io.micrometer.prometheus.PrometheusMeterRegistry")
+public class SpringdogPrometheusAPI {
+
+  static final String PROMETHEUS_TEXT_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final PrometheusMeterRegistry registry;
+
+  /**
+   * Constructor.
+   */
+  public SpringdogPrometheusAPI(SpringdogMeterBinder springdogMeterBinder) {
+    this.registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    springdogMeterBinder.bindTo(registry);
+  }
+
+  /**
+   * Scrape Springdog's metrics.
+   *
+   * @return metrics in the Prometheus text exposition format
+   */
+  @GetMapping(value = "/metrics/prometheus", produces = PROMETHEUS_TEXT_CONTENT_TYPE)
+  public String scrape() {
+    return registry.scrape();
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.overhead;
+
+/**
+ * The parts of Springdog that run on the request thread.
+ *
+ * @author PENEKhun
+ */
+public enum OverheadStage {
+  /**
+   * Copying the request body so that it can be read more than once.
+   */
+  BODY_COPY("body-copy"),
+  /**
+   * Building the ratelimit key of a request, including parsing its JSON body.
+   */
+  RATELIMIT("ratelimit"),
+  /**
+   * Recording the response time and status, including the synchronous slow response check.
+   */
+  REQUEST_TIMING("request-timing");
+
+  private final String key;
+
+  OverheadStage(String key) {
+    this.key = key;
+  }
+
+  /**
+   * Returns the key identifying the stage in API responses.
+   */
+  public String getKey() {
+    return key;
+  }
+}
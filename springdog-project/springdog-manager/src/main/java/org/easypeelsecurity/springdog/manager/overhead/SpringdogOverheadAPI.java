@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.overhead;
+
+import static org.springframework.http.HttpStatus.NO_CONTENT;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import org.easypeelsecurity.springdog.agent.CommonResponse;
+import org.easypeelsecurity.springdog.agent.SpringdogAgentController;
+import org.easypeelsecurity.springdog.shared.settings.OverheadMonitoringSetting;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManagerImpl;
+import org.easypeelsecurity.springdog.shared.vo.OverheadResponse;
+
+/**
+ * Exposes the time Springdog adds to each request and allows to turn its measurement on or off at runtime.
+ *
+ * @author PENEKhun
+ */
+@RestController
+@SpringdogAgentController
+public class SpringdogOverheadAPI {
+
+  private final SpringdogSettingManagerImpl settingManager;
+
+  /**
+   * Constructor. Applies the persisted setting to {@link SpringdogOverheadRecorder}.
+   */
+  public SpringdogOverheadAPI(SpringdogSettingManagerImpl settingManager) {
+    this.settingManager = settingManager;
+    SpringdogOverheadRecorder.setEnabled(
+        settingManager.getSettings().getOverheadMonitoringSetting().isEnabled());
+  }
+
+  /**
+   * Get the measured overhead per endpoint.
+   */
+  @GetMapping("/overhead")
+  public CommonResponse<OverheadResponse> getOverhead() {
+    return new CommonResponse<>(new OverheadResponse(SpringdogOverheadRecorder.isEnabled(),
+        SpringdogOverheadRecorder.getEndpointOverheads()));
+  }
+
+  /**
+   * Turn the measurement on or off. Previous measurements are discarded when it is turned on.
+   *
+   * @param enabled true to measure the overhead
+   */
+  @ResponseStatus(NO_CONTENT)
+  @PostMapping("/overhead/configuration")
+  public void changeOverheadMonitoring(@RequestParam("enabled") boolean enabled) {
+    OverheadMonitoringSetting newSetting = new OverheadMonitoringSetting();
+    newSetting.setEnabled(enabled);
+    settingManager.updateOverheadMonitoringSetting(newSetting);
+    if (enabled && !SpringdogOverheadRecorder.isEnabled()) {
+      SpringdogOverheadRecorder.clear();
+    }
+    SpringdogOverheadRecorder.setEnabled(enabled);
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.overhead;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.ServletRequest;
+
+import org.easypeelsecurity.springdog.shared.dto.EndpointOverheadDto;
+
+/**
+ * Records the time Springdog adds to each request, per endpoint and per {@link OverheadStage}.
+ * <p>
+ * Each stage adds its elapsed time to an array kept in a request attribute, and the whole request is
+ * recorded once its endpoint is known. Recording only touches {@link OverheadHistogram}s, so it neither
+ * locks nor allocates per request. While disabled, the stages do not even read the clock.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+public final class SpringdogOverheadRecorder {
+
+  static final String STAGE_NANOS_ATTRIBUTE = SpringdogOverheadRecorder.class.getName() + ".STAGE_NANOS";
+  private static final OverheadStage[] STAGES = OverheadStage.values();
+  private static final Map<String, EndpointOverhead> ENDPOINTS = new ConcurrentHashMap<>();
+  private static volatile boolean enabled;
+
+  private SpringdogOverheadRecorder() {
+  }
+
+  /**
+   * Returns whether the overhead is being measured.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Turns the measurement on or off.
+   *
+   * @param value true to measure the overhead
+   */
+  public static void setEnabled(boolean value) {
+    enabled = value;
+  }
+
+  /**
+   * Adds the time a stage spent on the given request.
+   *
+   * @param request      the request
+   * @param stage        the stage
+   * @param elapsedNanos the time spent in nanoseconds
+   */
+  public static void addStageTime(ServletRequest request, OverheadStage stage, long elapsedNanos) {
+    long[] stageNanos = (long[]) request.getAttribute(STAGE_NANOS_ATTRIBUTE);
+    if (stageNanos == null) {
+      stageNanos = new long[STAGES.length];
+      request.setAttribute(STAGE_NANOS_ATTRIBUTE, stageNanos);
+    }
+    stageNanos[stage.ordinal()] += elapsedNanos;
+  }
+
+  /**
+   * Records the stage times collected on the given request for an endpoint.
+   *
+   * @param methodSignature the method signature of the endpoint
+   * @param request         the request
+   */
+  public static void recordRequest(String methodSignature, ServletRequest request) {
+    long[] stageNanos = (long[]) request.getAttribute(STAGE_NANOS_ATTRIBUTE);
+    if (stageNanos == null) {
+      return;
+    }
+    request.removeAttribute(STAGE_NANOS_ATTRIBUTE);
+    record(methodSignature, stageNanos);
+  }
+
+  static void record(String methodSignature, long[] stageNanos) {
+    ENDPOINTS.computeIfAbsent(methodSignature, key -> new EndpointOverhead()).record(stageNanos);
+  }
+
+  /**
+   * Returns the measured overhead of each endpoint, highest 99th percentile first.
+   */
+  public static List<EndpointOverheadDto> getEndpointOverheads() {
+    return ENDPOINTS.entrySet().stream()
+        .map(entry -> entry.getValue().toDto(entry.getKey()))
+        .filter(dto -> dto.requestCount() > 0)
+        .sorted(Comparator.comparingLong(EndpointOverheadDto::p99Nanos).reversed())
+        .toList();
+  }
+
+  /**
+   * Discards all measurements.
+   */
+  public static void clear() {
+    ENDPOINTS.clear();
+  }
+
+  private static final class EndpointOverhead {
+    private final OverheadHistogram total = new OverheadHistogram();
+    private final OverheadHistogram[] stages = new OverheadHistogram[STAGES.length];
+
+    EndpointOverhead() {
+      for (int i = 0; i < stages.length; i++) {
+        stages[i] = new OverheadHistogram();
+      }
+    }
+
+    void record(long[] stageNanos) {
+      long sum = 0;
+      for (int i = 0; i < stages.length; i++) {
+        stages[i].record(stageNanos[i]);
+        sum += stageNanos[i];
+      }
+      total.record(sum);
+    }
+
+    EndpointOverheadDto toDto(String methodSignature) {
+      Map<String, Long> stageP99Nanos = new LinkedHashMap<>();
+      for (OverheadStage stage : STAGES) {
+        stageP99Nanos.put(stage.getKey(), stages[stage.ordinal()].getPercentile(99));
+      }
+      return new EndpointOverheadDto(methodSignature, total.getCount(), total.getPercentile(50),
+          total.getPercentile(99), stageP99Nanos);
+    }
+  }
+}
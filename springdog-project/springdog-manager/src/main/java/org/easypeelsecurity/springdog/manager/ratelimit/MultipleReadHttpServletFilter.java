@@ -25,6 +25,9 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import org.easypeelsecurity.springdog.manager.overhead.OverheadStage;
+import org.easypeelsecurity.springdog.manager.overhead.SpringdogOverheadRecorder;
+
 /**
  * This filter ensures that the request input stream can be read multiple times by wrapping the original
  * HttpServletRequest with a custom MultipleReadHttpServletRequest.
@@ -37,8 +40,14 @@ public class MultipleReadHttpServletFilter extends OncePerRequestFilter {
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
       FilterChain filterChain)
       throws ServletException, IOException {
+    boolean measureOverhead = SpringdogOverheadRecorder.isEnabled();
+    long startNanos = measureOverhead ? System.nanoTime() : 0L;
     MultipleReadHttpServletRequest wrappedRequest = new MultipleReadHttpServletRequest(request);
     wrappedRequest.getInputStream();
+    if (measureOverhead) {
+      SpringdogOverheadRecorder.addStageTime(wrappedRequest, OverheadStage.BODY_COPY,
+          System.nanoTime() - startNanos);
+    }
     filterChain.doFilter(wrappedRequest, response);
   }
 }
@@ -17,6 +17,7 @@
 package org.easypeelsecurity.springdog.manager.ratelimit;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
 
@@ -31,6 +32,8 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 @SuppressWarnings("checkstyle:MissingJavadocMethod")
 public final class RatelimitCache {
 
+  private static final LongAdder BAN_COUNT = new LongAdder();
+
   private RatelimitCache() {
   }
 
@@ -59,6 +62,28 @@ public final class RatelimitCache {
   public static void ban(String requestHashed, LocalDateTime banUntil) {
     getAccessHistoryInstance().invalidate(requestHashed);
     getBanHistoryInstance().put(requestHashed, banUntil);
+    BAN_COUNT.increment();
+  }
+
+  /**
+   * Returns the approximate number of requesters whose access history is kept.
+   */
+  public static long getAccessHistorySize() {
+    return getAccessHistoryInstance().estimatedSize();
+  }
+
+  /**
+   * Returns the approximate number of requesters currently in the ban history.
+   */
+  public static long getBanHistorySize() {
+    return getBanHistoryInstance().estimatedSize();
+  }
+
+  /**
+   * Returns the number of bans issued since startup.
+   */
+  public static long getTotalBanCount() {
+    return BAN_COUNT.sum();
   }
 
   public static void clearCaches() {
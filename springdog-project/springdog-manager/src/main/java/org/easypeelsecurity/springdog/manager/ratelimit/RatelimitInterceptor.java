@@ -36,8 +36,11 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
 import org.easypeelsecurity.springdog.domain.ratelimit.EndpointService;
 import org.easypeelsecurity.springdog.domain.ratelimit.RuleCache;
+import org.easypeelsecurity.springdog.manager.overhead.OverheadStage;
+import org.easypeelsecurity.springdog.manager.overhead.SpringdogOverheadRecorder;
 import org.easypeelsecurity.springdog.manager.statistics.EndpointMetricCacheManager;
 import org.easypeelsecurity.springdog.manager.util.RequestHandlerUtil;
 import org.easypeelsecurity.springdog.shared.dto.EndpointDto;
@@ -52,6 +55,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Interceptor for ratelimit.
+ * <p>
+ * The rules are served from {@link RuleCache}. A rule missing from the cache is looked up in the Springdog
+ * database only once it is ready, until then the request is not limited.
+ * </p>
  *
  * @author PENEKhun
  */
@@ -60,19 +67,35 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class RatelimitInterceptor implements HandlerInterceptor {
 
   private final EndpointService endpointService;
+  private final SpringdogStoreReadiness storeReadiness;
   private final Logger logger = Logger.getLogger(RatelimitInterceptor.class.getName());
   private final ObjectMapper objectMapper = new ObjectMapper();
 
   /**
    * Constructor.
    */
-  public RatelimitInterceptor(EndpointService endpointService) {
+  public RatelimitInterceptor(EndpointService endpointService, SpringdogStoreReadiness storeReadiness) {
     this.endpointService = endpointService;
+    this.storeReadiness = storeReadiness;
   }
 
   @Override
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
       throws Exception {
+    if (!SpringdogOverheadRecorder.isEnabled()) {
+      return applyRatelimit(request, response, handler);
+    }
+
+    long startNanos = System.nanoTime();
+    try {
+      return applyRatelimit(request, response, handler);
+    } finally {
+      SpringdogOverheadRecorder.addStageTime(request, OverheadStage.RATELIMIT, System.nanoTime() - startNanos);
+    }
+  }
+
+  private boolean applyRatelimit(HttpServletRequest request, HttpServletResponse response, Object handler)
+      throws IOException {
     if (!(request instanceof ContentCachingRequestWrapper)) {
       request = new ContentCachingRequestWrapper(request);
     }
@@ -114,6 +137,9 @@ public class RatelimitInterceptor implements HandlerInterceptor {
   private Optional<EndpointDto> getValidEndpoint(String methodSignature) {
     EndpointDto endpoint = RuleCache.findEndpointByMethodSignature(methodSignature)
         .orElseGet(() -> {
+          if (!storeReadiness.isReady()) {
+            return null;
+          }
           EndpointDto item = endpointService.getEndpointByMethodSignature(methodSignature);
           if (item == null) {
             return null;
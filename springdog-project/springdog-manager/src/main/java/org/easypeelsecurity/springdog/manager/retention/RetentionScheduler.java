@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.retention;
+
+import java.time.LocalDateTime;
+
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.domain.retention.RetentionService;
+import org.easypeelsecurity.springdog.domain.retention.RetentionTarget;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.settings.RetentionSetting;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler that prunes the rows older than the retention configured in the agent.
+ * <p>
+ * Rows are deleted in small chunks, each in its own transaction, so the writer of the collected data is
+ * never blocked for long. Once a table lost rows its space is reclaimed, if enabled. The in-memory database is
+ * also trimmed to {@code springdog.datasource.memoryMaxRows} rows per table, oldest first, so it cannot outgrow
+ * the heap whatever the retention.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+@EnableScheduling
+public class RetentionScheduler {
+  private static final Logger logger = LoggerFactory.getLogger(RetentionScheduler.class);
+
+  private final RetentionService retentionService;
+  private final SpringdogSettingManager settingManager;
+  private final SpringdogStoreReadiness storeReadiness;
+  private final SpringdogProperties properties;
+
+  /**
+   * Constructor.
+   */
+  public RetentionScheduler(RetentionService retentionService, SpringdogSettingManager settingManager,
+      SpringdogStoreReadiness storeReadiness, SpringdogProperties properties) {
+    this.retentionService = retentionService;
+    this.settingManager = settingManager;
+    this.storeReadiness = storeReadiness;
+    this.properties = properties;
+  }
+
+  /**
+   * Prune every table with its own retention, then cap it when the database is kept in memory. Nothing is
+   * pruned until the Springdog database is ready.
+   */
+  @Scheduled(initialDelayString = "${springdog.retentionScheduler.initialDelay:60000}",
+      fixedDelayString = "${springdog.retentionScheduler.fixedDelay:3600000}")
+  public void prune() {
+    if (!storeReadiness.isReady()) {
+      logger.debug("Springdog database is not ready yet, pruning is skipped");
+      return;
+    }
+    RetentionSetting setting = settingManager.getSettings().getRetentionSetting();
+    LocalDateTime now = LocalDateTime.now();
+    prune(RetentionTarget.SYSTEM_METRIC, setting.getSystemMetricRetentionDays(), setting, now);
+    prune(RetentionTarget.ERROR_TRACE, setting.getErrorTraceRetentionDays(), setting, now);
+    prune(RetentionTarget.ENDPOINT_METRIC, setting.getEndpointMetricRetentionDays(), setting, now);
+    if (properties.getDatasourceType().isInMemory()) {
+      for (RetentionTarget target : RetentionTarget.values()) {
+        cap(target, properties.getDatasourceMemoryMaxRows(), setting);
+      }
+    }
+  }
+
+  private void prune(RetentionTarget target, int retentionDays, RetentionSetting setting, LocalDateTime now) {
+    try {
+      long deleted = retentionService.prune(target, retentionDays, setting.getPruneChunkSize(), now);
+      if (deleted == 0) {
+        return;
+      }
+      logger.info("Pruned {} rows of {} older than {} days", deleted, target, retentionDays);
+      if (setting.isCompressAfterPrune()) {
+        retentionService.reclaimSpace(target);
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Failed to prune {}", target, e);
+    }
+  }
+
+  private void cap(RetentionTarget target, int maxRows, RetentionSetting setting) {
+    try {
+      long deleted = retentionService.cap(target, maxRows, setting.getPruneChunkSize());
+      if (deleted == 0) {
+        return;
+      }
+      logger.info("Deleted the {} oldest rows of {} to keep at most {} rows in memory",
+          deleted, target, maxRows);
+      if (setting.isCompressAfterPrune()) {
+        retentionService.reclaimSpace(target);
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Failed to cap {}", target, e);
+    }
+  }
+}
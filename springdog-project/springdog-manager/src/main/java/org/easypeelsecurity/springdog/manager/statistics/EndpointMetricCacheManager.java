@@ -17,20 +17,40 @@
 package org.easypeelsecurity.springdog.manager.statistics;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
  * Manages the cache for endpoint metrics.
+ * <p>
+ * All counters are accumulated without locking, so recording a request never blocks other requests
+ * of the same endpoint.
+ * </p>
+ * <p>
+ * Besides the values waiting for the next flush, running totals are kept per endpoint since startup.
+ * The totals are never reset by a flush, so they can be read at any time (e.g. by a metrics exporter)
+ * without affecting what is stored in the database.
+ * </p>
  *
  * @author PENEKhun
  */
 public abstract class EndpointMetricCacheManager {
 
   private static final Cache<String, EndpointMetricCachedValue> CACHE_INSTANCE;
+  private static final Map<String, EndpointMetricTotals> TOTALS = new ConcurrentHashMap<>();
+  private static final List<Consumer<String>> NEW_ENDPOINT_LISTENERS = new CopyOnWriteArrayList<>();
 
   static {
     CACHE_INSTANCE = Caffeine.newBuilder().build();
@@ -38,12 +58,60 @@ public abstract class EndpointMetricCacheManager {
 
   /**
    * Adds a response time for a specific endpoint identified by its path and method.
+   * The request is counted as a page view and its response time is recorded without sampling.
    *
    * @param methodSignature the method signature of the endpoint
    * @param responseTime    the response time to be added
    */
   public static void addResponseTime(String methodSignature, long responseTime) {
-    CACHE_INSTANCE.get(methodSignature, k -> new EndpointMetricCachedValue()).addResponseTime(responseTime);
+    incrementRequestCount(methodSignature);
+    addSampledResponseTime(methodSignature, responseTime, 1.0);
+  }
+
+  /**
+   * Counts a request of a specific endpoint as a page view, whether its response time is sampled or not.
+   *
+   * @param methodSignature the method signature of the endpoint
+   */
+  public static void incrementRequestCount(String methodSignature) {
+    CACHE_INSTANCE.get(methodSignature, k -> new EndpointMetricCachedValue()).incrementRequestCount();
+    EndpointMetricTotals totals = getTotals(methodSignature);
+    totals.requestCount.increment();
+    totals.throughput.record(System.currentTimeMillis() / 1000);
+  }
+
+  /**
+   * Marks a request of a specific endpoint as being handled. Every call must be followed by
+   * {@link #decrementInFlight(String)} once the request completes.
+   *
+   * @param methodSignature the method signature of the endpoint
+   */
+  public static void incrementInFlight(String methodSignature) {
+    getTotals(methodSignature).inFlight.increment();
+  }
+
+  /**
+   * Marks a request of a specific endpoint as completed.
+   *
+   * @param methodSignature the method signature of the endpoint
+   */
+  public static void decrementInFlight(String methodSignature) {
+    getTotals(methodSignature).inFlight.decrement();
+  }
+
+  /**
+   * Adds the response time of a sampled request. The request must have been counted by
+   * {@link #incrementRequestCount(String)} before.
+   *
+   * @param methodSignature the method signature of the endpoint
+   * @param responseTime    the response time to be added
+   * @param probability     the probability the request was sampled with, used to scale the running totals and
+   *                        to weight the flushed average
+   */
+  public static void addSampledResponseTime(String methodSignature, long responseTime, double probability) {
+    CACHE_INSTANCE.get(methodSignature, k -> new EndpointMetricCachedValue())
+        .addResponseTime(responseTime, probability);
+    getTotals(methodSignature).addSampledResponseTime(responseTime, probability);
   }
 
   /**
@@ -53,10 +121,36 @@ public abstract class EndpointMetricCacheManager {
    */
   public static void incrementFailureCount(String methodSignature) {
     CACHE_INSTANCE.get(methodSignature, k -> new EndpointMetricCachedValue()).incrementFailureCount();
+    getTotals(methodSignature).ratelimitFailureCount.increment();
+  }
+
+  /**
+   * Increments the response count of an HTTP status code for a specific endpoint.
+   *
+   * @param methodSignature the fully qualified method name of the endpoint
+   * @param statusCode      the HTTP status code of the response
+   */
+  public static void addResponseStatus(String methodSignature, int statusCode) {
+    CACHE_INSTANCE.get(methodSignature, k -> new EndpointMetricCachedValue()).addResponseStatus(statusCode);
+    getTotals(methodSignature).addResponseStatus(statusCode);
+  }
+
+  /**
+   * Increments the exception count for a specific endpoint identified by method signature.
+   *
+   * @param methodSignature the fully qualified method name of the endpoint
+   */
+  public static void incrementExceptionCount(String methodSignature) {
+    CACHE_INSTANCE.get(methodSignature, k -> new EndpointMetricCachedValue()).incrementExceptionCount();
+    getTotals(methodSignature).exceptionCount.increment();
   }
 
   /**
    * Gets all cache data.
+   * <p>
+   * The response times are read before the request count. As a request is counted before its response time
+   * is added, the request count is never less than the number of response times.
+   * </p>
    *
    * @return a list of all cache data
    */
@@ -64,14 +158,91 @@ public abstract class EndpointMetricCacheManager {
     List<EndpointMetricCached> result = new ArrayList<>();
     for (Entry<String, EndpointMetricCachedValue> entry : CACHE_INSTANCE.asMap().entrySet()) {
       EndpointMetricCachedValue value = entry.getValue();
+      List<SampledResponseTime> samples = value.getResponseTimes();
       result.add(
           new EndpointMetricCached(entry.getKey(),
-              value.getResponseTimes().stream().mapToLong(Long::longValue).toArray(),
-              value.getFailureCount()));
+              value.getRequestCount(),
+              samples.stream().mapToLong(SampledResponseTime::responseTime).toArray(),
+              samples.stream().mapToDouble(SampledResponseTime::probability).toArray(),
+              value.getFailureCount(),
+              value.getStatusCodeCounts(),
+              value.getExceptionCount()));
     }
     return result;
   }
 
+  /**
+   * Takes the values waiting for the next flush.
+   * <p>
+   * The taken counts are subtracted from the counters instead of removing the cache entries, so a request
+   * recorded while the values are taken is never lost: it is either part of the returned values or left for
+   * the next flush. At most as many response times as requests are taken, so the request count of each
+   * returned value is never less than the number of its response times.
+   * </p>
+   *
+   * @return the values of the endpoints that have any, each endpoint at most once
+   */
+  public static List<EndpointMetricCached> drainAll() {
+    List<EndpointMetricCached> result = new ArrayList<>();
+    for (Entry<String, EndpointMetricCachedValue> entry : CACHE_INSTANCE.asMap().entrySet()) {
+      EndpointMetricCached drained = entry.getValue().drain(entry.getKey());
+      if (drained != null) {
+        result.add(drained);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Gets the number of endpoints that have values waiting for the next flush.
+   *
+   * @return the number of pending endpoints
+   */
+  public static long getPendingEndpointCount() {
+    return CACHE_INSTANCE.asMap().values().stream().filter(EndpointMetricCachedValue::hasPendingValues).count();
+  }
+
+  /**
+   * Gets the running totals of an endpoint since startup.
+   *
+   * @param methodSignature the fully qualified method name of the endpoint
+   * @return the running totals of the endpoint
+   */
+  public static EndpointMetricTotals getTotals(String methodSignature) {
+    EndpointMetricTotals totals = TOTALS.get(methodSignature);
+    if (totals != null) {
+      return totals;
+    }
+
+    EndpointMetricTotals created = new EndpointMetricTotals();
+    totals = TOTALS.putIfAbsent(methodSignature, created);
+    if (totals != null) {
+      return totals;
+    }
+    NEW_ENDPOINT_LISTENERS.forEach(listener -> listener.accept(methodSignature));
+    return created;
+  }
+
+  /**
+   * Gets the running totals of every endpoint seen since startup.
+   *
+   * @return the running totals by method signature
+   */
+  public static Map<String, EndpointMetricTotals> getAllTotals() {
+    return Collections.unmodifiableMap(TOTALS);
+  }
+
+  /**
+   * Registers a listener called with the method signature of every endpoint that has running totals,
+   * once for the endpoints already known and then once for each endpoint seen for the first time.
+   *
+   * @param listener the listener to register
+   */
+  public static void addNewEndpointListener(Consumer<String> listener) {
+    NEW_ENDPOINT_LISTENERS.add(listener);
+    TOTALS.keySet().forEach(listener);
+  }
+
   /**
    * Invalidates the cache for the specified key.
    */
@@ -86,24 +257,192 @@ public abstract class EndpointMetricCacheManager {
     CACHE_INSTANCE.invalidateAll();
   }
 
+  /**
+   * Running totals of an endpoint since startup.
+   */
+  public static class EndpointMetricTotals {
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder sampledRequestCount = new LongAdder();
+    private final LongAdder responseTimeSum = new LongAdder();
+    private final LongAdder ratelimitFailureCount = new LongAdder();
+    private final LongAdder exceptionCount = new LongAdder();
+    private final LongAdder[] statusClassCounts = new LongAdder[6];
+    private final LongAdder inFlight = new LongAdder();
+    private final ThroughputRingBuffer throughput = new ThroughputRingBuffer();
+
+    EndpointMetricTotals() {
+      for (int i = 0; i < statusClassCounts.length; i++) {
+        statusClassCounts[i] = new LongAdder();
+      }
+    }
+
+    void addSampledResponseTime(long responseTime, double probability) {
+      sampledRequestCount.increment();
+      responseTimeSum.add(probability >= 1.0 ? responseTime : Math.round(responseTime / probability));
+    }
+
+    void addResponseStatus(int statusCode) {
+      int statusClass = statusCode / 100;
+      statusClassCounts[statusClass >= 1 && statusClass <= 5 ? statusClass : 0].increment();
+    }
+
+    /**
+     * Returns the number of requests.
+     */
+    public long getRequestCount() {
+      return requestCount.sum();
+    }
+
+    /**
+     * Returns the number of requests whose response time was sampled.
+     */
+    public long getSampledRequestCount() {
+      return sampledRequestCount.sum();
+    }
+
+    /**
+     * Returns the sum of the response times in milliseconds, estimated from the sampled requests by
+     * weighting each of them with the inverse of its sampling probability.
+     */
+    public long getResponseTimeSum() {
+      return responseTimeSum.sum();
+    }
+
+    /**
+     * Returns the number of requests rejected by the rate limit rule.
+     */
+    public long getRatelimitFailureCount() {
+      return ratelimitFailureCount.sum();
+    }
+
+    /**
+     * Returns the number of requests that ended with an exception.
+     */
+    public long getExceptionCount() {
+      return exceptionCount.sum();
+    }
+
+    /**
+     * Returns the number of requests currently being handled.
+     */
+    public long getInFlight() {
+      return inFlight.sum();
+    }
+
+    /**
+     * Returns the number of requests per second over the last seconds, oldest first.
+     *
+     * @param lastEpochSecond the last second to include
+     * @param seconds         the number of seconds, at most {@link ThroughputRingBuffer#CAPACITY}
+     * @return the number of requests of each second
+     */
+    public long[] getThroughput(long lastEpochSecond, int seconds) {
+      return throughput.getCounts(lastEpochSecond, seconds);
+    }
+
+    /**
+     * Gets the number of responses of a status class.
+     *
+     * @param statusClass the status class from 1 (1xx) to 5 (5xx), 0 for non-standard status codes
+     * @return the number of responses
+     */
+    public long getStatusClassCount(int statusClass) {
+      return statusClassCounts[statusClass].sum();
+    }
+  }
+
   static class EndpointMetricCachedValue {
-    private final ArrayList<Long> responseTimes = new ArrayList<>();
-    private int failureCount;
+    private final LongAdder requestCount = new LongAdder();
+    private final Queue<SampledResponseTime> responseTimes = new ConcurrentLinkedQueue<>();
+    private final LongAdder failureCount = new LongAdder();
+    private final Map<Integer, LongAdder> statusCodeCounts = new ConcurrentHashMap<>();
+    private final LongAdder exceptionCount = new LongAdder();
+
+    public void incrementRequestCount() {
+      requestCount.increment();
+    }
+
+    public void addResponseTime(long responseTime, double probability) {
+      responseTimes.add(new SampledResponseTime(responseTime, probability));
+    }
+
+    public void incrementFailureCount() {
+      failureCount.increment();
+    }
+
+    public void addResponseStatus(int statusCode) {
+      statusCodeCounts.computeIfAbsent(statusCode, k -> new LongAdder()).increment();
+    }
 
-    public synchronized void addResponseTime(long responseTime) {
-      responseTimes.add(responseTime);
+    public void incrementExceptionCount() {
+      exceptionCount.increment();
     }
 
-    public synchronized void incrementFailureCount() {
-      failureCount++;
+    public long getRequestCount() {
+      return requestCount.sum();
     }
 
-    public List<Long> getResponseTimes() {
-      return responseTimes;
+    public List<SampledResponseTime> getResponseTimes() {
+      return new ArrayList<>(responseTimes);
     }
 
     public int getFailureCount() {
-      return failureCount;
+      return failureCount.intValue();
     }
+
+    public Map<Integer, Long> getStatusCodeCounts() {
+      Map<Integer, Long> result = new HashMap<>();
+      statusCodeCounts.forEach((statusCode, count) -> result.put(statusCode, count.sum()));
+      return result;
+    }
+
+    public long getExceptionCount() {
+      return exceptionCount.sum();
+    }
+
+    boolean hasPendingValues() {
+      return requestCount.sum() != 0 || failureCount.sum() != 0 || exceptionCount.sum() != 0 ||
+          !responseTimes.isEmpty() || statusCodeCounts.values().stream().anyMatch(count -> count.sum() != 0);
+    }
+
+    /**
+     * Subtracts the current values from the counters and returns them, or {@code null} if there is none.
+     */
+    EndpointMetricCached drain(String methodSignature) {
+      long requests = take(requestCount);
+      List<SampledResponseTime> times = new ArrayList<>();
+      SampledResponseTime responseTime;
+      while (times.size() < requests && (responseTime = responseTimes.poll()) != null) {
+        times.add(responseTime);
+      }
+      long failures = take(failureCount);
+      Map<Integer, Long> statuses = new HashMap<>();
+      statusCodeCounts.forEach((statusCode, count) -> {
+        long taken = take(count);
+        if (taken != 0) {
+          statuses.put(statusCode, taken);
+        }
+      });
+      long exceptions = take(exceptionCount);
+      if (requests == 0 && failures == 0 && statuses.isEmpty() && exceptions == 0) {
+        return null;
+      }
+      return new EndpointMetricCached(methodSignature, requests,
+          times.stream().mapToLong(SampledResponseTime::responseTime).toArray(),
+          times.stream().mapToDouble(SampledResponseTime::probability).toArray(), (int) failures, statuses,
+          exceptions);
+    }
+
+    private static long take(LongAdder adder) {
+      long value = adder.sum();
+      adder.add(-value);
+      return value;
+    }
+  }
+
+  /**
+   * A sampled response time together with the probability its request was sampled with.
+   */
+  record SampledResponseTime(long responseTime, double probability) {
   }
 }
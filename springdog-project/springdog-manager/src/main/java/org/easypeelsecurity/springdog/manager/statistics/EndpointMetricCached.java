@@ -17,15 +17,22 @@
 package org.easypeelsecurity.springdog.manager.statistics;
 
 import java.util.Arrays;
+import java.util.Map;
 
 /**
  * EndpointMetricCached.
  *
  * @param methodSignature       methodSignature
- * @param responseTimes         response times
+ * @param requestCount          number of requests (page views)
+ * @param responseTimes         response times of the sampled requests
+ * @param samplingProbabilities the probability each response time was sampled with, in the same order
  * @param ratelimitFailureCount failure count of the endpoint by ratelimit
+ * @param statusCodeCounts      response count per HTTP status code
+ * @param exceptionCount        number of requests that ended with an exception
  */
-public record EndpointMetricCached(String methodSignature, long[] responseTimes, int ratelimitFailureCount) {
+public record EndpointMetricCached(String methodSignature, long requestCount, long[] responseTimes,
+                                   double[] samplingProbabilities, int ratelimitFailureCount,
+                                   Map<Integer, Long> statusCodeCounts, long exceptionCount) {
 
   @Override
   public boolean equals(Object o) {
@@ -48,8 +55,12 @@ public record EndpointMetricCached(String methodSignature, long[] responseTimes,
   public String toString() {
     return "EndpointMetricCached{" +
         "methodSignature='" + methodSignature + '\'' +
+        ", requestCount=" + requestCount +
         ", responseTimes=" + Arrays.toString(responseTimes) +
+        ", samplingProbabilities=" + Arrays.toString(samplingProbabilities) +
         ", ratelimitFailureCount=" + ratelimitFailureCount +
+        ", statusCodeCounts=" + statusCodeCounts +
+        ", exceptionCount=" + exceptionCount +
         '}';
   }
 }
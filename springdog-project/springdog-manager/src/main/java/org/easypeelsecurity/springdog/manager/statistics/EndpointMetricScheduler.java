@@ -23,12 +23,15 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
 import org.easypeelsecurity.springdog.domain.statistics.StatisticsService;
 
 /**
  * This class is responsible for scheduling tasks to store endpoint metrics in the database such as average
  * response times, number of failures, etc.
  * It retrieves response times from {@link RequestTimingInterceptor} and processes them at regular intervals.
+ * The metrics are handed to {@link SpringdogWriteQueue}, which commits them off the scheduler thread.
  *
  * @author PENEKhun
  */
@@ -36,25 +39,33 @@ import org.easypeelsecurity.springdog.domain.statistics.StatisticsService;
 @EnableScheduling
 public class EndpointMetricScheduler {
   private final StatisticsService statisticsService;
+  private final SpringdogWriteQueue writeQueue;
 
   /**
    * Constructor.
    */
-  public EndpointMetricScheduler(StatisticsService statisticsService) {
+  public EndpointMetricScheduler(StatisticsService statisticsService, SpringdogWriteQueue writeQueue) {
     this.statisticsService = statisticsService;
+    this.writeQueue = writeQueue;
   }
 
   /**
-   * Scheduled task that saves the endpoint statistics in the database.
+   * Scheduled task that queues the endpoint statistics to be saved in the database.
    */
   @Scheduled(fixedRateString = "${springdog.endpointMetricScheduler.fixedRate:10000}")
   public void saveEndpointStatistics() {
-    List<EndpointMetricCached> cached = EndpointMetricCacheManager.getAllData();
+    long startTime = System.nanoTime();
+    try {
+      List<EndpointMetricCached> cached = EndpointMetricCacheManager.drainAll();
 
-    for (EndpointMetricCached entry : cached) {
-      statisticsService.upsertEndpointMetrics(entry.methodSignature(), entry.responseTimes(),
-          entry.ratelimitFailureCount(), LocalDate.now());
-      EndpointMetricCacheManager.invalidateByMethodSignature(entry.methodSignature());
+      LocalDate today = LocalDate.now();
+      for (EndpointMetricCached entry : cached) {
+        writeQueue.enqueue(WriteType.ENDPOINT_METRIC, () -> statisticsService.upsertEndpointMetrics(
+            entry.methodSignature(), entry.requestCount(), entry.responseTimes(), entry.samplingProbabilities(),
+            entry.ratelimitFailureCount(), entry.statusCodeCounts(), entry.exceptionCount(), today));
+      }
+    } finally {
+      SchedulerFlushStatistics.ENDPOINT_METRIC.record(System.nanoTime() - startTime);
     }
   }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.statistics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.easypeelsecurity.springdog.shared.dto.EndpointSamplingDto;
+import org.easypeelsecurity.springdog.shared.enums.SamplingMode;
+import org.easypeelsecurity.springdog.shared.settings.RequestSamplingSetting;
+import org.easypeelsecurity.springdog.shared.settings.SamplingRule;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+
+/**
+ * Decides which requests get their response time recorded by {@link RequestTimingInterceptor}.
+ * <p>
+ * Every endpoint follows its {@link SamplingRule}, or the global rule if it has none. In the adaptive mode,
+ * the probability of the current second is derived from the number of requests of the previous second.
+ * The {@link RequestSamplingSetting} is read again at most once per second, so a changed setting applies
+ * within a second without reading the settings on every request.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Component
+public class RequestSampler {
+
+  private final SpringdogSettingManager settingManager;
+  private final LongSupplier clock;
+  private final Map<String, EndpointSampler> samplers = new ConcurrentHashMap<>();
+  private final AtomicLong settingCheckedSecond = new AtomicLong(Long.MIN_VALUE);
+  private volatile RequestSamplingSetting setting;
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public RequestSampler(SpringdogSettingManager settingManager) {
+    this(settingManager, System::currentTimeMillis);
+  }
+
+  RequestSampler(SpringdogSettingManager settingManager, LongSupplier clock) {
+    this.settingManager = settingManager;
+    this.clock = clock;
+    this.setting = settingManager.getSettings().getRequestSamplingSetting();
+  }
+
+  /**
+   * Decides whether the response time of a request is recorded.
+   *
+   * @param methodSignature the method signature of the endpoint
+   * @return the probability the request was sampled with, or 0 if it is not sampled
+   */
+  public double sample(String methodSignature) {
+    long second = clock.getAsLong() / 1000;
+    refreshSetting(second);
+    EndpointSampler sampler = samplers.get(methodSignature);
+    if (sampler == null) {
+      sampler = samplers.computeIfAbsent(methodSignature,
+          key -> new EndpointSampler(setting.findRule(key), second));
+    }
+    return sampler.sample(second);
+  }
+
+  /**
+   * Returns the sampling state of every endpoint that received a request.
+   */
+  public List<EndpointSamplingDto> getEndpointSamplings() {
+    long second = clock.getAsLong() / 1000;
+    return samplers.entrySet().stream()
+        .map(entry -> entry.getValue().toDto(entry.getKey(), second))
+        .sorted(Comparator.comparing(EndpointSamplingDto::methodSignature))
+        .toList();
+  }
+
+  private void refreshSetting(long second) {
+    long checkedSecond = settingCheckedSecond.get();
+    if (checkedSecond == second || !settingCheckedSecond.compareAndSet(checkedSecond, second)) {
+      return;
+    }
+
+    RequestSamplingSetting current = settingManager.getSettings().getRequestSamplingSetting();
+    if (current != setting) {
+      setting = current;
+      samplers.forEach((methodSignature, sampler) -> sampler.changeRule(current.findRule(methodSignature)));
+    }
+  }
+
+  private static final class EndpointSampler {
+    private final AtomicLong currentSecond;
+    private final LongAdder currentSecondRequests = new LongAdder();
+    private final LongAdder currentSecondSamples = new LongAdder();
+    private final LongAdder totalRequests = new LongAdder();
+    private final LongAdder totalSamples = new LongAdder();
+    private volatile SamplingRule rule;
+    private volatile double probability;
+    private volatile long lastSecondRequests;
+    private volatile long lastSecondSamples;
+
+    EndpointSampler(SamplingRule rule, long second) {
+      this.currentSecond = new AtomicLong(second);
+      changeRule(rule);
+    }
+
+    void changeRule(SamplingRule newRule) {
+      this.rule = newRule;
+      this.probability = switch (newRule.getMode()) {
+        case ALL, ADAPTIVE -> 1.0;
+        case FIXED_RATE -> newRule.getRate();
+      };
+    }
+
+    double sample(long second) {
+      long startedSecond = currentSecond.get();
+      if (second > startedSecond && currentSecond.compareAndSet(startedSecond, second)) {
+        startSecond(second - startedSecond);
+      }
+
+      currentSecondRequests.increment();
+      totalRequests.increment();
+      double current = probability;
+      if (current < 1.0 && ThreadLocalRandom.current().nextDouble() >= current) {
+        return 0;
+      }
+      currentSecondSamples.increment();
+      totalSamples.increment();
+      return current;
+    }
+
+    private void startSecond(long elapsedSeconds) {
+      long requests = currentSecondRequests.sumThenReset();
+      long samples = currentSecondSamples.sumThenReset();
+      lastSecondRequests = elapsedSeconds == 1 ? requests : 0;
+      lastSecondSamples = elapsedSeconds == 1 ? samples : 0;
+
+      SamplingRule current = rule;
+      if (current.getMode() == SamplingMode.ADAPTIVE) {
+        double requestsPerSecond = (double) requests / elapsedSeconds;
+        probability = Math.min(1.0, current.getTargetSamplesPerSecond() / requestsPerSecond);
+      }
+    }
+
+    EndpointSamplingDto toDto(String methodSignature, long second) {
+      long startedSecond = currentSecond.get();
+      long requests = 0;
+      long samples = 0;
+      if (startedSecond == second) {
+        requests = lastSecondRequests;
+        samples = lastSecondSamples;
+      } else if (startedSecond == second - 1) {
+        requests = currentSecondRequests.sum();
+        samples = currentSecondSamples.sum();
+      }
+      double effectiveRate = requests == 0 ? probability : (double) samples / requests;
+      return new EndpointSamplingDto(methodSignature, rule.getMode(), probability, effectiveRate,
+          totalRequests.sum(), totalSamples.sum());
+    }
+  }
+}
@@ -21,8 +21,11 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import org.easypeelsecurity.springdog.manager.overhead.OverheadStage;
+import org.easypeelsecurity.springdog.manager.overhead.SpringdogOverheadRecorder;
 import org.easypeelsecurity.springdog.manager.util.RequestHandlerUtil;
 import org.easypeelsecurity.springdog.notification.SlowResponseEmailNotificationManager;
 import org.easypeelsecurity.springdog.notification.SlowResponseEmailNotificationManager.SlowResponse;
@@ -30,7 +33,11 @@ import org.easypeelsecurity.springdog.shared.util.MethodSignatureParser;
 
 /**
  * Interceptor to measure and record the response times of HTTP requests.
- * This interceptor stores the duration of each request, categorized by the request method and URI.
+ * This interceptor stores the duration, the response status code and whether an exception occurred for each
+ * request, categorized by the request method and URI.
+ * Every request is timed and checked for a slow response, but only the response times of the requests chosen
+ * by {@link RequestSampler} are recorded.
+ * The requests in flight and the completed requests per second are also kept per endpoint for live charts.
  * The recorded times can be retrieved for monitoring and analysis purposes.
  *
  * @author PENEKhun
@@ -40,28 +47,46 @@ public class RequestTimingInterceptor implements HandlerInterceptor {
 
   private static final String SKIP_REQUEST_TIMING_CALC = "SKIP_REQUEST_TIMING_CALC";
   private static final String START_TIME_REQUEST_TIMING = "START_TIME_REQUEST_TIMING";
+  private static final String METHOD_SIGNATURE_REQUEST_TIMING = "METHOD_SIGNATURE_REQUEST_TIMING";
+  private static final String SAMPLING_PROBABILITY_REQUEST_TIMING = "SAMPLING_PROBABILITY_REQUEST_TIMING";
   private final SlowResponseEmailNotificationManager notificationManager;
+  private final RequestSampler requestSampler;
 
   /**
    * Constructor.
    */
-  public RequestTimingInterceptor(SlowResponseEmailNotificationManager notificationManager) {
+  public RequestTimingInterceptor(SlowResponseEmailNotificationManager notificationManager,
+      RequestSampler requestSampler) {
     this.notificationManager = notificationManager;
+    this.requestSampler = requestSampler;
   }
 
   /**
-   * Records the start time of the request.
+   * Marks the request as in flight, records its start time and whether its response time is sampled.
    */
   @Override
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    boolean measureOverhead = SpringdogOverheadRecorder.isEnabled();
+    long startNanos = measureOverhead ? System.nanoTime() : 0L;
     request.setAttribute(SKIP_REQUEST_TIMING_CALC, true);
-    request.setAttribute(START_TIME_REQUEST_TIMING, System.currentTimeMillis());
 
     if (handler instanceof HandlerMethod handlerMethod) {
       Object controller = handlerMethod.getBean();
       Class<?> controllerClass = controller.getClass();
       if (!RequestHandlerUtil.shouldSkipRequest(controllerClass)) {
         request.setAttribute(SKIP_REQUEST_TIMING_CALC, false);
+        String methodSignature = MethodSignatureParser.parse(handlerMethod);
+        request.setAttribute(METHOD_SIGNATURE_REQUEST_TIMING, methodSignature);
+        request.setAttribute(START_TIME_REQUEST_TIMING, System.currentTimeMillis());
+        EndpointMetricCacheManager.incrementInFlight(methodSignature);
+        double probability = requestSampler.sample(methodSignature);
+        if (probability > 0) {
+          request.setAttribute(SAMPLING_PROBABILITY_REQUEST_TIMING, probability);
+        }
+        if (measureOverhead) {
+          SpringdogOverheadRecorder.addStageTime(request, OverheadStage.REQUEST_TIMING,
+              System.nanoTime() - startNanos);
+        }
         return true;
       }
     }
@@ -69,7 +94,14 @@ public class RequestTimingInterceptor implements HandlerInterceptor {
   }
 
   /**
-   * Calculates the duration of the request and records it.
+   * Counts the request together with its response status, marks it as no longer in flight, checks it for a
+   * slow response, and records its duration if it is sampled.
+   * <p>
+   * An exception resolved by an exception handler is not passed as {@code ex}, so the exception exposed by
+   * {@link DispatcherServlet#EXCEPTION_ATTRIBUTE} is counted as well. Every request is checked for a slow
+   * response, whether sampled or not. When enabled, the time Springdog spent on the request is recorded by
+   * {@link SpringdogOverheadRecorder}.
+   * </p>
    */
   @Override
   public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
@@ -78,15 +110,29 @@ public class RequestTimingInterceptor implements HandlerInterceptor {
     if (shouldSkip) {
       return;
     }
+    boolean measureOverhead = SpringdogOverheadRecorder.isEnabled();
+    long startNanos = measureOverhead ? System.nanoTime() : 0L;
 
-    long startTime = (Long) request.getAttribute(START_TIME_REQUEST_TIMING);
-    long endTime = System.currentTimeMillis();
-    long responseTime = endTime - startTime;
+    String methodSignature = (String) request.getAttribute(METHOD_SIGNATURE_REQUEST_TIMING);
+    EndpointMetricCacheManager.decrementInFlight(methodSignature);
+    EndpointMetricCacheManager.incrementRequestCount(methodSignature);
+    EndpointMetricCacheManager.addResponseStatus(methodSignature, response.getStatus());
+    if (ex != null || request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE) != null) {
+      EndpointMetricCacheManager.incrementExceptionCount(methodSignature);
+    }
 
-    HandlerMethod handlerMethod = (HandlerMethod) handler;
-    String methodSignature = MethodSignatureParser.parse(handlerMethod);
-    EndpointMetricCacheManager.addResponseTime(methodSignature, responseTime);
+    long startTime = (Long) request.getAttribute(START_TIME_REQUEST_TIMING);
+    long responseTime = System.currentTimeMillis() - startTime;
+    Object probability = request.getAttribute(SAMPLING_PROBABILITY_REQUEST_TIMING);
+    if (probability != null) {
+      EndpointMetricCacheManager.addSampledResponseTime(methodSignature, responseTime, (Double) probability);
+    }
     notificationManager.checkSlowResponse(
         new SlowResponse(request.getRequestURI(), request.getMethod(), responseTime));
+    if (measureOverhead) {
+      SpringdogOverheadRecorder.addStageTime(request, OverheadStage.REQUEST_TIMING,
+          System.nanoTime() - startNanos);
+      SpringdogOverheadRecorder.recordRequest(methodSignature, request);
+    }
   }
 }
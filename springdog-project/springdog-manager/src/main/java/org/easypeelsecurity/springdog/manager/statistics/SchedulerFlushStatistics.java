@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long each run of a Springdog scheduler takes to hand its data to the write queue.
+ *
+ * @author PENEKhun
+ */
+public final class SchedulerFlushStatistics {
+
+  public static final SchedulerFlushStatistics ENDPOINT_METRIC =
+      new SchedulerFlushStatistics("endpoint-metric");
+  public static final SchedulerFlushStatistics SYSTEM_METRIC =
+      new SchedulerFlushStatistics("system-metric");
+  public static final SchedulerFlushStatistics ERROR_TRACE =
+      new SchedulerFlushStatistics("error-trace");
+
+  private final String schedulerName;
+  private final LongAdder flushCount = new LongAdder();
+  private final LongAdder totalTimeNanos = new LongAdder();
+  private final AtomicLong lastTimeNanos = new AtomicLong();
+
+  private SchedulerFlushStatistics(String schedulerName) {
+    this.schedulerName = schedulerName;
+  }
+
+  /**
+   * Records the duration of a flush.
+   *
+   * @param elapsedNanos the duration of the flush in nanoseconds
+   */
+  public void record(long elapsedNanos) {
+    flushCount.increment();
+    totalTimeNanos.add(elapsedNanos);
+    lastTimeNanos.set(elapsedNanos);
+  }
+
+  /**
+   * Returns the name of the scheduler.
+   */
+  public String getSchedulerName() {
+    return schedulerName;
+  }
+
+  /**
+   * Returns the number of recorded flushes.
+   */
+  public long getFlushCount() {
+    return flushCount.sum();
+  }
+
+  /**
+   * Returns the total time spent flushing in nanoseconds.
+   */
+  public long getTotalTimeNanos() {
+    return totalTimeNanos.sum();
+  }
+
+  /**
+   * Returns the duration of the most recent flush in nanoseconds.
+   */
+  public long getLastTimeNanos() {
+    return lastTimeNanos.get();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import org.easypeelsecurity.springdog.agent.CommonResponse;
+import org.easypeelsecurity.springdog.agent.SpringdogAPIExceptionHandler;
+import org.easypeelsecurity.springdog.agent.SpringdogAgentController;
+import org.easypeelsecurity.springdog.manager.statistics.EndpointMetricCacheManager.EndpointMetricTotals;
+import org.easypeelsecurity.springdog.shared.dto.EndpointLiveMetricDto;
+
+/**
+ * Exposes the requests in flight and the per-second throughput of each endpoint for live charts.
+ * The values are read from memory and are never stored in the database.
+ *
+ * @author PENEKhun
+ */
+@RestController
+@SpringdogAgentController
+public class SpringdogLiveMetricAPI extends SpringdogAPIExceptionHandler {
+
+  /**
+   * Get the live traffic of every endpoint that received a request.
+   * The current second is excluded because it is still being counted.
+   *
+   * @param seconds number of seconds to return, at most {@link ThroughputRingBuffer#CAPACITY}
+   * @throws IllegalArgumentException if the number of seconds is out of range, answered with 400
+   */
+  @GetMapping("/live-metrics")
+  public CommonResponse<List<EndpointLiveMetricDto>> getLiveMetrics(
+      @RequestParam(value = "seconds", defaultValue = "60") int seconds) {
+    return new CommonResponse<>(getLiveMetrics(System.currentTimeMillis() / 1000 - 1, seconds));
+  }
+
+  static List<EndpointLiveMetricDto> getLiveMetrics(long lastEpochSecond, int seconds) {
+    if (seconds < 1 || seconds > ThroughputRingBuffer.CAPACITY) {
+      throw new IllegalArgumentException("Seconds must be between 1 and " + ThroughputRingBuffer.CAPACITY);
+    }
+
+    List<EndpointLiveMetricDto> result = new ArrayList<>();
+    Map<String, EndpointMetricTotals> allTotals = EndpointMetricCacheManager.getAllTotals();
+    allTotals.forEach((methodSignature, totals) -> result.add(
+        new EndpointLiveMetricDto(methodSignature, totals.getInFlight(), lastEpochSecond - seconds + 1,
+            totals.getThroughput(lastEpochSecond, seconds))));
+    return result;
+  }
+}
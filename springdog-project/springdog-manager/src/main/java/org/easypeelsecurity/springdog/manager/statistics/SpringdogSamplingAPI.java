@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.statistics;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import org.easypeelsecurity.springdog.agent.CommonResponse;
+import org.easypeelsecurity.springdog.agent.SpringdogAgentController;
+import org.easypeelsecurity.springdog.shared.dto.EndpointSamplingDto;
+
+/**
+ * Exposes the effective sampling rate of each endpoint.
+ *
+ * @author PENEKhun
+ */
+@RestController
+@SpringdogAgentController
+public class SpringdogSamplingAPI {
+
+  private final RequestSampler requestSampler;
+
+  /**
+   * Constructor.
+   */
+  public SpringdogSamplingAPI(RequestSampler requestSampler) {
+    this.requestSampler = requestSampler;
+  }
+
+  /**
+   * Get the sampling state of every endpoint that received a request.
+   */
+  @GetMapping("/sampling")
+  public CommonResponse<List<EndpointSamplingDto>> getSamplings() {
+    return new CommonResponse<>(requestSampler.getEndpointSamplings());
+  }
+}
@@ -20,6 +20,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogWriteQueue;
+import org.easypeelsecurity.springdog.domain.persistence.WriteType;
 import org.easypeelsecurity.springdog.domain.statistics.StatisticsService;
 import org.easypeelsecurity.springdog.notification.SystemWatchNotificationManager;
 
@@ -34,14 +36,16 @@ public class SystemMetricsScheduler {
 
   private final StatisticsService statisticsService;
   private final SystemWatchNotificationManager systemWatchNotificationManager;
+  private final SpringdogWriteQueue writeQueue;
 
   /**
    * Constructor.
    */
   public SystemMetricsScheduler(StatisticsService statisticsService,
-      SystemWatchNotificationManager systemWatchNotificationManager) {
+      SystemWatchNotificationManager systemWatchNotificationManager, SpringdogWriteQueue writeQueue) {
     this.statisticsService = statisticsService;
     this.systemWatchNotificationManager = systemWatchNotificationManager;
+    this.writeQueue = writeQueue;
   }
 
   /**
@@ -60,9 +64,14 @@ public class SystemMetricsScheduler {
     long networkInBytes = systemUsageMonitor.getNetworkInBytes();
     long networkOutBytes = systemUsageMonitor.getNetworkOutBytes();
 
-    statisticsService.storeSystemMetrics(cpuUsagePercent, memoryUsagePercent, diskUsagePercent,
-        jvmHeapUsagePercent, jvmNonHeapUsagePercent, jvmTotalMemoryUsed,
-        networkInBytes, networkOutBytes);
+    long startTime = System.nanoTime();
+    try {
+      writeQueue.enqueue(WriteType.SYSTEM_METRIC, () -> statisticsService.storeSystemMetrics(cpuUsagePercent,
+          memoryUsagePercent, diskUsagePercent, jvmHeapUsagePercent, jvmNonHeapUsagePercent,
+          jvmTotalMemoryUsed, networkInBytes, networkOutBytes));
+    } finally {
+      SchedulerFlushStatistics.SYSTEM_METRIC.record(System.nanoTime() - startTime);
+    }
     systemWatchNotificationManager.checkMetrics(cpuUsagePercent, memoryUsagePercent, diskUsagePercent);
   }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events per second over the last {@value #CAPACITY} seconds.
+ * <p>
+ * Each slot packs the second it belongs to and its count into a single long, so a slot is reused for a new
+ * second and incremented with the same compare-and-set, without locks and without losing counts when a
+ * second rolls over. Seconds older than the capacity are reported as zero.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+public final class ThroughputRingBuffer {
+
+  /**
+   * Number of seconds kept.
+   */
+  public static final int CAPACITY = 300;
+  private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+  private final AtomicLongArray slots = new AtomicLongArray(CAPACITY);
+
+  /**
+   * Counts an event.
+   *
+   * @param epochSecond the second the event happened in
+   */
+  public void record(long epochSecond) {
+    int index = indexOf(epochSecond);
+    long stamp = epochSecond & COUNT_MASK;
+    while (true) {
+      long current = slots.get(index);
+      long next = (current >>> 32) == stamp ? current + 1 : (stamp << 32) | 1;
+      if (slots.compareAndSet(index, current, next)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of events per second, oldest first.
+   *
+   * @param lastEpochSecond the last second to include
+   * @param seconds         the number of seconds to return, at most {@link #CAPACITY}
+   * @return the counts from {@code lastEpochSecond - seconds + 1} to {@code lastEpochSecond}
+   */
+  public long[] getCounts(long lastEpochSecond, int seconds) {
+    if (seconds < 1 || seconds > CAPACITY) {
+      throw new IllegalArgumentException("Seconds must be between 1 and " + CAPACITY);
+    }
+
+    long[] counts = new long[seconds];
+    for (int i = 0; i < seconds; i++) {
+      long epochSecond = lastEpochSecond - seconds + 1 + i;
+      long slot = slots.get(indexOf(epochSecond));
+      counts[i] = (slot >>> 32) == (epochSecond & COUNT_MASK) ? slot & COUNT_MASK : 0;
+    }
+    return counts;
+  }
+
+  private static int indexOf(long epochSecond) {
+    return (int) Math.floorMod(epochSecond, (long) CAPACITY);
+  }
+}
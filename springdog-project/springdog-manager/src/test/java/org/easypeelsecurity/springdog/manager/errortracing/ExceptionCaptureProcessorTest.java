@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDateTime;
+
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionCaptureProcessorTest {
+  private static final StackTraceElement SERVICE = frame("com.example.Service", "run", 10);
+  private static final StackTraceElement REPOSITORY = frame("com.example.Repository", "find", 20);
+  private static final StackTraceElement CONTROLLER = frame("com.example.Controller", "handle", 30);
+  private static final StackTraceElement SERVLET = frame("jakarta.servlet.http.HttpServlet", "service", 40);
+
+  private static StackTraceElement frame(String className, String methodName, int line) {
+    return new StackTraceElement(className, methodName, className + ".java", line);
+  }
+
+  private static Throwable exception(Throwable throwable, StackTraceElement... frames) {
+    throwable.setStackTrace(frames);
+    return throwable;
+  }
+
+  private static ErrorTracingDto buildErrorChain(Throwable exception, int maxStackDepth) {
+    return ExceptionCaptureProcessor.buildErrorChain(
+        CapturedException.of(exception, LocalDateTime.now(), null, maxStackDepth));
+  }
+
+  @Test
+  @DisplayName("Every frame of the exception is kept")
+  void keepsAllFrames() {
+    Throwable exception = exception(new IllegalStateException("failed"), SERVICE, CONTROLLER, SERVLET);
+
+    ErrorTracingDto chain = buildErrorChain(exception, 64);
+
+    assertThat(chain.getClassName()).isEqualTo("com.example.Service");
+    assertThat(chain.getStackFrames()).containsExactly(
+        StackFrameDto.of(SERVICE), StackFrameDto.of(CONTROLLER), StackFrameDto.of(SERVLET));
+    assertThat(chain.getOmittedFrameCount()).isZero();
+    assertThat(chain.getTruncatedFrameCount()).isZero();
+    assertThat(chain.getNext()).isNull();
+  }
+
+  @Test
+  @DisplayName("Frames in common with the enclosing exception are omitted from the cause")
+  void omitsCommonFrames() {
+    Throwable cause = exception(new IllegalArgumentException(), REPOSITORY, SERVICE, CONTROLLER, SERVLET);
+    Throwable exception = exception(new IllegalStateException(null, cause), SERVICE, CONTROLLER, SERVLET);
+
+    ErrorTracingDto chain = buildErrorChain(exception, 64);
+
+    ErrorTracingDto causeDto = chain.getNext();
+    assertThat(causeDto.getStackFrames()).containsExactly(StackFrameDto.of(REPOSITORY));
+    assertThat(causeDto.getOmittedFrameCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Frames beyond the max stack depth are counted as truncated")
+  void truncatesDeepStacks() {
+    Throwable exception = exception(new IllegalStateException(), SERVICE, REPOSITORY, CONTROLLER, SERVLET);
+
+    ErrorTracingDto chain = buildErrorChain(exception, 2);
+
+    assertThat(chain.getStackFrames()).containsExactly(StackFrameDto.of(SERVICE), StackFrameDto.of(REPOSITORY));
+    assertThat(chain.getTruncatedFrameCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("The snapshot keeps the messages and the frames of every cause")
+  void snapshotKeepsCauses() {
+    Throwable cause = exception(new IllegalArgumentException("bad id"), REPOSITORY, SERVICE, CONTROLLER, SERVLET);
+    Throwable exception = exception(new IllegalStateException("failed", cause), SERVICE, CONTROLLER, SERVLET);
+
+    CapturedException captured = CapturedException.of(exception, LocalDateTime.now(), null, 64);
+
+    assertThat(captured.exceptionClassName()).isEqualTo(IllegalStateException.class.getName());
+    assertThat(captured.message()).isEqualTo("failed");
+    assertThat(captured.causes())
+        .extracting(CapturedException.Cause::className, CapturedException.Cause::message)
+        .containsExactly(tuple(IllegalStateException.class.getName(), "failed"),
+            tuple(IllegalArgumentException.class.getName(), "bad id"));
+    assertThat(captured.causes().get(1).keptFrames()).containsExactly(REPOSITORY);
+  }
+}
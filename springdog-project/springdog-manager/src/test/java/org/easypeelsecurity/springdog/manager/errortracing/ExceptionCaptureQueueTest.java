@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionCaptureQueueTest {
+
+  private ExceptionCaptureQueue queue;
+
+  @AfterEach
+  void tearDown() {
+    queue.stop();
+  }
+
+  @Test
+  @DisplayName("Captured exceptions are processed in order on the worker thread")
+  void processOnWorker() throws InterruptedException {
+    // given
+    List<String> processedBy = new CopyOnWriteArrayList<>();
+    List<Class<?>> processed = new CopyOnWriteArrayList<>();
+    CountDownLatch latch = new CountDownLatch(2);
+    queue = new ExceptionCaptureQueue(8, 64, captured -> {
+      processedBy.add(Thread.currentThread().getName());
+      processed.add(captured.exceptionClass());
+      latch.countDown();
+    });
+    queue.start();
+    IllegalStateException first = new IllegalStateException();
+    IllegalArgumentException second = new IllegalArgumentException();
+
+    // when
+    queue.capture(first);
+    queue.capture(second);
+
+    // then
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(processed).containsExactly(IllegalStateException.class, IllegalArgumentException.class);
+    assertThat(processedBy).containsOnly("springdog-exception-capture");
+    assertThat(queue.getStatistics().getCapturedCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("The handler method signature is handed over with the exception")
+  void carriesMethodSignature() {
+    // given
+    List<CapturedException> processed = new CopyOnWriteArrayList<>();
+    queue = new ExceptionCaptureQueue(8, 64, processed::add);
+
+    // when
+    queue.capture(new IllegalStateException(), "GET /api/orders");
+    queue.capture(new IllegalStateException());
+    queue.start();
+    queue.stop();
+
+    // then
+    assertThat(processed).extracting(CapturedException::methodSignature)
+        .containsExactly("GET /api/orders", null);
+  }
+
+  @Test
+  @DisplayName("Exceptions are dropped and counted when the buffer is full")
+  void dropWhenFull() {
+    // given
+    List<CapturedException> processed = new CopyOnWriteArrayList<>();
+    queue = new ExceptionCaptureQueue(2, 64, processed::add);
+
+    // when
+    for (int i = 0; i < 5; i++) {
+      queue.capture(new IllegalStateException(String.valueOf(i)));
+    }
+
+    // then
+    assertThat(queue.getStatistics().getDepth()).isEqualTo(2);
+    assertThat(queue.getStatistics().getDroppedCount()).isEqualTo(3);
+    queue.start();
+    queue.stop();
+    assertThat(processed).extracting(CapturedException::message).containsExactly("0", "1");
+  }
+
+  @Test
+  @DisplayName("Exceptions dropped when the buffer is full still count in the rate of their class")
+  void dropsCountInSpikeDetection() {
+    // given
+    ExceptionListingService exceptionListingService = mock(ExceptionListingService.class);
+    when(exceptionListingService.isExceptionEnabled(any())).thenReturn(true);
+    ExceptionSpikeDetector spikeDetector = mock(ExceptionSpikeDetector.class);
+    ExceptionCaptureProcessor processor = new ExceptionCaptureProcessor(exceptionListingService,
+        new ExceptionOccurrenceAggregator(0), spikeDetector, new ExceptionCaptureThrottle(10, 1));
+    queue = new ExceptionCaptureQueue(2, 64, processor::process, processor::processDropped);
+
+    // when
+    queue.capture(new IllegalStateException());
+    queue.capture(new IllegalStateException());
+    for (int i = 0; i < 3; i++) {
+      queue.capture(new IllegalArgumentException());
+    }
+
+    // then
+    assertThat(queue.getStatistics().getDroppedCount()).isEqualTo(3);
+    verify(spikeDetector, times(3)).recordDropped(eq(IllegalArgumentException.class), any());
+    queue.start();
+    queue.stop();
+    verify(spikeDetector, times(2)).record(any(), any());
+  }
+
+  @Test
+  @DisplayName("A failing exception does not stop the worker")
+  void failureIsIsolated() throws InterruptedException {
+    // given
+    CountDownLatch latch = new CountDownLatch(1);
+    queue = new ExceptionCaptureQueue(8, 64, captured -> {
+      if (captured.exceptionClass() == IllegalStateException.class) {
+        throw new IllegalArgumentException("processing failed");
+      }
+      latch.countDown();
+    });
+    queue.start();
+
+    // when
+    queue.capture(new IllegalStateException());
+    queue.capture(new RuntimeException());
+
+    // then
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(queue.getStatistics().getFailedCount()).isEqualTo(1);
+  }
+}
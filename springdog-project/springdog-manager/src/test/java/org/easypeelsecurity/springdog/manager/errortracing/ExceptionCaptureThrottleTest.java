@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionCaptureThrottleTest {
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  @DisplayName("A fingerprint is captured up to the bucket size, then only counted")
+  void throttlesBeyondTheBucket() {
+    ExceptionCaptureThrottle throttle = new ExceptionCaptureThrottle(3, 60);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(throttle.tryAcquire("a", 0)).isTrue();
+    }
+    assertThat(throttle.tryAcquire("a", 0)).isFalse();
+    assertThat(throttle.tryAcquire("a", SECOND)).isFalse();
+    assertThat(throttle.tryAcquire("b", SECOND)).isTrue();
+  }
+
+  @Test
+  @DisplayName("The bucket refills at the bucket size per window")
+  void refillsOverTheWindow() {
+    ExceptionCaptureThrottle throttle = new ExceptionCaptureThrottle(3, 60);
+    for (int i = 0; i < 3; i++) {
+      throttle.tryAcquire("a", 0);
+    }
+
+    assertThat(throttle.tryAcquire("a", 19 * SECOND)).isFalse();
+    assertThat(throttle.tryAcquire("a", 20 * SECOND)).isTrue();
+    assertThat(throttle.tryAcquire("a", 20 * SECOND)).isFalse();
+    assertThat(throttle.tryAcquire("a", 600 * SECOND)).isTrue();
+    assertThat(throttle.tryAcquire("a", 600 * SECOND)).isTrue();
+    assertThat(throttle.tryAcquire("a", 600 * SECOND)).isTrue();
+    assertThat(throttle.tryAcquire("a", 600 * SECOND)).isFalse();
+  }
+
+  @Test
+  @DisplayName("The bucket size and the window must be positive")
+  void rejectsInvalidSettings() {
+    assertThatThrownBy(() -> new ExceptionCaptureThrottle(0, 60)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new ExceptionCaptureThrottle(10, 0)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
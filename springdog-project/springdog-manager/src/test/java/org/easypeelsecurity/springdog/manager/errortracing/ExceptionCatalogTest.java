@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExceptionCatalogTest {
+
+  @TempDir
+  Path firstRoot;
+
+  @TempDir
+  Path secondRoot;
+
+  private static void writeCatalog(Path root, String contents) throws IOException {
+    Path catalog = root.resolve(ExceptionCatalog.APPLICATION_CATALOG);
+    Files.createDirectories(catalog.getParent());
+    Files.writeString(catalog, contents);
+  }
+
+  @Test
+  @DisplayName("The JDK catalog of the running Java version lists the same exceptions as a classpath scan")
+  void jdkCatalogMatchesScan() {
+    int javaVersion = Runtime.version().feature();
+    var catalog = ExceptionCatalog.readJdkExceptions(getClass().getClassLoader(), javaVersion);
+    assumeTrue(catalog.isPresent(), "No exception catalog is shipped for Java " + javaVersion);
+
+    assertThat(catalog.get()).containsExactlyInAnyOrderElementsOf(JdkExceptionCatalogGenerator.scanJdkExceptions());
+  }
+
+  @Test
+  @DisplayName("No JDK catalog is found for an unknown Java version")
+  void noJdkCatalog() {
+    assertThat(ExceptionCatalog.readJdkExceptions(getClass().getClassLoader(), 1)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("The application catalogs on the classpath are merged, without blank and comment lines")
+  void applicationCatalogsMerged() throws IOException {
+    writeCatalog(firstRoot, "# generated\ncom.example.OrderException\n\n");
+    writeCatalog(secondRoot, "com.example.billing.PaymentException\n");
+
+    try (URLClassLoader classLoader = new URLClassLoader(
+        new URL[] {firstRoot.toUri().toURL(), secondRoot.toUri().toURL()}, null)) {
+      assertThat(ExceptionCatalog.readApplicationExceptions(classLoader)).hasValueSatisfying(
+          classNames -> assertThat(classNames)
+              .containsExactly("com.example.OrderException", "com.example.billing.PaymentException"));
+    }
+  }
+
+  @Test
+  @DisplayName("No application catalog is found when the application was compiled without one")
+  void noApplicationCatalog() throws IOException {
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {firstRoot.toUri().toURL()}, null)) {
+      assertThat(ExceptionCatalog.readApplicationExceptions(classLoader)).isEmpty();
+    }
+  }
+}
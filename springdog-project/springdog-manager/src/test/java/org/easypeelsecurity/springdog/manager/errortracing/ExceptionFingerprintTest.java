@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionFingerprintTest {
+
+  private static StackTraceElement frame(String className, String methodName, int line) {
+    return new StackTraceElement(className, methodName, className + ".java", line);
+  }
+
+  private static Throwable exception(Throwable throwable, StackTraceElement... frames) {
+    throwable.setStackTrace(frames);
+    return throwable;
+  }
+
+  private static String fingerprint(Throwable throwable) {
+    return ExceptionFingerprint.of(CapturedException.of(throwable, LocalDateTime.now(), null, 1));
+  }
+
+  @Test
+  @DisplayName("The same failure has the same fingerprint")
+  void sameFailure() {
+    Throwable first = exception(new IllegalStateException("a"), frame("com.example.Service", "run", 10));
+    Throwable second = exception(new IllegalStateException("b"), frame("com.example.Service", "run", 10));
+
+    assertThat(fingerprint(first)).isEqualTo(fingerprint(second)).hasSize(64);
+  }
+
+  @Test
+  @DisplayName("Line numbers do not change the fingerprint")
+  void lineNumbersIgnored() {
+    Throwable first = exception(new IllegalStateException(), frame("com.example.Service", "run", 10));
+    Throwable second = exception(new IllegalStateException(), frame("com.example.Service", "run", 42));
+
+    assertThat(fingerprint(first)).isEqualTo(fingerprint(second));
+  }
+
+  @Test
+  @DisplayName("The exception type and the cause chain change the fingerprint")
+  void typeAndCauseMatter() {
+    StackTraceElement site = frame("com.example.Service", "run", 10);
+    Throwable illegalState = exception(new IllegalStateException(), site);
+    Throwable illegalArgument = exception(new IllegalArgumentException(), site);
+    Throwable withCause = exception(new IllegalStateException(null, exception(new RuntimeException(), site)), site);
+
+    assertThat(fingerprint(illegalState))
+        .isNotEqualTo(fingerprint(illegalArgument))
+        .isNotEqualTo(fingerprint(withCause));
+  }
+
+  @Test
+  @DisplayName("Reflection frames and generated class name suffixes are ignored")
+  void generatedFramesIgnored() {
+    Throwable direct = exception(new IllegalStateException(),
+        frame("com.example.Service", "run", 10),
+        frame("com.example.Controller", "handle", 20));
+    Throwable proxied = exception(new IllegalStateException(),
+        frame("com.example.Service$$SpringCGLIB$$0", "run", 10),
+        frame("jdk.internal.reflect.DirectMethodHandleAccessor", "invoke", 103),
+        frame("com.example.Controller", "handle", 21));
+
+    assertThat(fingerprint(direct)).isEqualTo(fingerprint(proxied));
+  }
+
+  @Test
+  @DisplayName("A cause cycle does not loop forever")
+  void causeCycle() {
+    IllegalStateException first = new IllegalStateException();
+    RuntimeException second = new RuntimeException(first);
+    first.initCause(second);
+
+    assertThat(fingerprint(first)).hasSize(64);
+  }
+
+  @Test
+  @DisplayName("The frames hashed beyond the max stack depth are kept by the snapshot")
+  void deepFramesHashed() {
+    Throwable first = exception(new IllegalStateException(),
+        frame("com.example.Service", "run", 10),
+        frame("com.example.Controller", "handle", 20));
+    Throwable second = exception(new IllegalStateException(),
+        frame("com.example.Service", "run", 10),
+        frame("com.example.OtherController", "handle", 20));
+
+    assertThat(fingerprint(first)).isNotEqualTo(fingerprint(second));
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionOccurrencesDto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionOccurrenceAggregatorTest {
+
+  @Test
+  @DisplayName("Occurrences are counted per fingerprint and drained once")
+  void countAndDrain() {
+    ExceptionOccurrenceAggregator aggregator = new ExceptionOccurrenceAggregator(10);
+    LocalDateTime now = LocalDateTime.now();
+
+    aggregator.record("a", captured(new IllegalStateException("boom"), now, null),
+        () -> ErrorTracingDto.builder().build());
+    aggregator.record("a", captured(new IllegalStateException("last"), now.plusSeconds(1), null),
+        () -> ErrorTracingDto.builder().build());
+    aggregator.record("b", captured(new IllegalArgumentException("other"), now, null),
+        () -> ErrorTracingDto.builder().build());
+
+    List<ExceptionOccurrencesDto> drained = aggregator.drain();
+    assertThat(drained).hasSize(2);
+    ExceptionOccurrencesDto a = drained.stream().filter(o -> o.fingerprint().equals("a")).findFirst().orElseThrow();
+    assertThat(a.occurrenceCount()).isEqualTo(2);
+    assertThat(a.exceptionClassName()).isEqualTo(IllegalStateException.class.getName());
+    assertThat(a.sampleMessage()).isEqualTo("last");
+    assertThat(a.firstSeen()).isEqualTo(now);
+    assertThat(a.lastSeen()).isEqualTo(now.plusSeconds(1));
+    assertThat(a.sampledChains()).hasSize(2);
+    assertThat(aggregator.drain()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("The chain is only built for the occurrences picked by reservoir sampling")
+  void chainsAreSampled() {
+    ExceptionOccurrenceAggregator aggregator = new ExceptionOccurrenceAggregator(2, fixedRandom(Long.MAX_VALUE));
+    AtomicInteger built = new AtomicInteger();
+
+    for (int i = 0; i < 5; i++) {
+      aggregator.record("a", captured(new IllegalStateException(), LocalDateTime.now(), null), () -> {
+        built.incrementAndGet();
+        return ErrorTracingDto.builder().build();
+      });
+      aggregator.drain();
+    }
+
+    assertThat(built).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("A later occurrence picked by reservoir sampling replaces a chain of the same flush")
+  void laterOccurrencesReplaceSampledChains() {
+    ExceptionOccurrenceAggregator aggregator = new ExceptionOccurrenceAggregator(2, fixedRandom(0));
+    LocalDateTime now = LocalDateTime.now();
+
+    for (int i = 0; i < 5; i++) {
+      String message = "occurrence " + i;
+      aggregator.record("a", captured(new IllegalStateException(message), now, null),
+        () -> ErrorTracingDto.builder().message(message).build());
+    }
+
+    ExceptionOccurrencesDto a = aggregator.drain().get(0);
+    assertThat(a.occurrenceCount()).isEqualTo(5);
+    assertThat(a.sampledChains()).extracting(ErrorTracingDto::getMessage)
+        .containsExactly("occurrence 4", "occurrence 1");
+  }
+
+  @Test
+  @DisplayName("Throttled occurrences are counted without building their chain unless they are sampled")
+  void throttledOccurrencesAreOnlyCounted() {
+    ExceptionOccurrenceAggregator aggregator = new ExceptionOccurrenceAggregator(1, fixedRandom(Long.MAX_VALUE));
+    LocalDateTime now = LocalDateTime.now();
+
+    aggregator.record("a", captured(new IllegalStateException("captured"), now, null),
+        () -> ErrorTracingDto.builder().build());
+    aggregator.recordThrottled("a", captured(new IllegalStateException("throttled"), now.plusSeconds(1), null),
+        () -> ErrorTracingDto.builder().build());
+    aggregator.recordThrottled("b", captured(new IllegalArgumentException("only throttled"), now, null),
+        () -> ErrorTracingDto.builder().message("only throttled").build());
+
+    List<ExceptionOccurrencesDto> drained = aggregator.drain();
+    ExceptionOccurrencesDto a = drained.stream().filter(o -> o.fingerprint().equals("a")).findFirst().orElseThrow();
+    assertThat(a.occurrenceCount()).isEqualTo(2);
+    assertThat(a.throttledCount()).isEqualTo(1);
+    assertThat(a.sampleMessage()).isEqualTo("captured");
+    assertThat(a.lastSeen()).isEqualTo(now.plusSeconds(1));
+    assertThat(a.sampledChains()).hasSize(1);
+    ExceptionOccurrencesDto b = drained.stream().filter(o -> o.fingerprint().equals("b")).findFirst().orElseThrow();
+    assertThat(b.throttledCount()).isEqualTo(1);
+    assertThat(b.sampleMessage()).isEqualTo("only throttled");
+    assertThat(b.sampledChains()).extracting(ErrorTracingDto::getMessage).containsExactly("only throttled");
+  }
+
+  @Test
+  @DisplayName("During a storm, throttled occurrences count in the reservoir and are sampled like the others")
+  void throttledOccurrencesAreSampledDuringStorm() {
+    List<Long> bounds = new ArrayList<>();
+    Random random = new Random() {
+      @Override
+      public long nextLong(long bound) {
+        bounds.add(bound);
+        return 0;
+      }
+
+      @Override
+      public int nextInt(int bound) {
+        return 1;
+      }
+    };
+    ExceptionOccurrenceAggregator aggregator = new ExceptionOccurrenceAggregator(2, random);
+    LocalDateTime now = LocalDateTime.now();
+
+    aggregator.record("a", captured(new IllegalStateException(), now, null),
+        () -> ErrorTracingDto.builder().message("captured 1").build());
+    aggregator.record("a", captured(new IllegalStateException(), now, null),
+        () -> ErrorTracingDto.builder().message("captured 2").build());
+    for (int i = 3; i <= 10; i++) {
+      if (i % 3 == 0) {
+        String message = "captured " + i;
+        aggregator.record("a", captured(new IllegalStateException(), now, null),
+            () -> ErrorTracingDto.builder().message(message).build());
+      } else {
+        String message = "throttled " + i;
+        aggregator.recordThrottled("a", captured(new IllegalStateException(), now, null),
+            () -> ErrorTracingDto.builder().message(message).build());
+      }
+    }
+
+    ExceptionOccurrencesDto a = aggregator.drain().get(0);
+    assertThat(a.occurrenceCount()).isEqualTo(10);
+    assertThat(a.throttledCount()).isEqualTo(5);
+    // the n-th draw has the n-th occurrence as its bound, throttled ones included
+    assertThat(bounds).containsExactly(3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    assertThat(a.sampledChains()).extracting(ErrorTracingDto::getMessage)
+        .containsExactly("captured 1", "throttled 10");
+  }
+
+  @Test
+  @DisplayName("The endpoint of the latest occurrence thrown by a handler method is kept")
+  void keepsLatestMethodSignature() {
+    ExceptionOccurrenceAggregator aggregator = new ExceptionOccurrenceAggregator(0);
+    LocalDateTime now = LocalDateTime.now();
+
+    aggregator.record("a", captured(new IllegalStateException(), now, "GET /first"),
+        () -> ErrorTracingDto.builder().build());
+    aggregator.recordThrottled("a", captured(new IllegalStateException(), now, "GET /second"),
+        () -> ErrorTracingDto.builder().build());
+    aggregator.record("a", captured(new IllegalStateException(), now, null),
+        () -> ErrorTracingDto.builder().build());
+    aggregator.record("b", captured(new IllegalStateException(), now, null),
+        () -> ErrorTracingDto.builder().build());
+
+    List<ExceptionOccurrencesDto> drained = aggregator.drain();
+    assertThat(drained)
+        .extracting(ExceptionOccurrencesDto::fingerprint, ExceptionOccurrencesDto::methodSignature)
+        .containsExactlyInAnyOrder(tuple("a", "GET /second"), tuple("b", null));
+  }
+
+  private static CapturedException captured(Throwable exception, LocalDateTime capturedAt,
+      String methodSignature) {
+    return CapturedException.of(exception, capturedAt, methodSignature, 64);
+  }
+
+  /**
+   * A random whose draws are all the given value, capped below their bound.
+   */
+  private static Random fixedRandom(long value) {
+    return new Random() {
+      @Override
+      public long nextLong(long bound) {
+        return Math.min(value, bound - 1);
+      }
+
+      @Override
+      public int nextInt(int bound) {
+        return (int) Math.min(value, bound - 1);
+      }
+    };
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionRateWindowTest {
+  private static final long NOW = 1_700_000_000L;
+
+  @Test
+  @DisplayName("Only the occurrences of the last minute are summed")
+  void sumsTheLastMinute() {
+    ExceptionRateWindow window = new ExceptionRateWindow();
+    window.record(NOW - 61);
+    window.record(NOW - 59);
+    window.record(NOW - 1);
+    window.record(NOW);
+    window.record(NOW);
+
+    assertThat(window.sum(NOW)).isEqualTo(4);
+    assertThat(window.sum(NOW + 59)).isEqualTo(2);
+    assertThat(window.sum(NOW + 60)).isZero();
+  }
+
+  @Test
+  @DisplayName("A slot reused by a later second starts over, and an older second is ignored")
+  void slotsAreReused() {
+    ExceptionRateWindow window = new ExceptionRateWindow();
+    window.record(NOW);
+    window.record(NOW);
+    window.record(NOW + ExceptionRateWindow.WINDOW_SECONDS);
+    window.record(NOW);
+
+    assertThat(window.sum(NOW + ExceptionRateWindow.WINDOW_SECONDS)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Concurrent occurrences are all counted")
+  void concurrentRecords() throws InterruptedException {
+    ExceptionRateWindow window = new ExceptionRateWindow();
+    int threads = 8;
+    int perThread = 10_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int i = 0; i < threads; i++) {
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int j = 0; j < perThread; j++) {
+          window.record(NOW - (j % 3));
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(window.sum(NOW)).isEqualTo((long) threads * perThread);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.easypeelsecurity.springdog.notification.ExceptionSpikeEmailNotificationManager;
+import org.easypeelsecurity.springdog.shared.settings.ExceptionSpikeSetting;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettings;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionSpikeDetectorTest {
+  private static final LocalDateTime START = LocalDateTime.of(2024, 10, 1, 12, 0);
+  private static final String FINGERPRINT = "fingerprint";
+  private static final String NAME = "java.lang.NullPointerException at com.example.OrderController.place";
+
+  private final ExceptionSpikeEmailNotificationManager notificationManager =
+      mock(ExceptionSpikeEmailNotificationManager.class);
+  private ExceptionSpikeDetector detector;
+  private Throwable exception;
+
+  private static long epochSecond(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  @BeforeEach
+  void setUp() {
+    ExceptionSpikeSetting setting = new ExceptionSpikeSetting();
+    setting.setEnabled(true);
+    setting.setSpikeMultiplier(5.0);
+    setting.setMinimumOccurrencesPerMinute(30);
+    SpringdogSettings settings = mock(SpringdogSettings.class);
+    when(settings.getExceptionSpikeSetting()).thenReturn(setting);
+    SpringdogSettingManager settingManager = mock(SpringdogSettingManager.class);
+    when(settingManager.getSettings()).thenReturn(settings);
+    detector = new ExceptionSpikeDetector(settingManager, notificationManager);
+
+    exception = new NullPointerException();
+    exception.setStackTrace(new StackTraceElement[] {
+        new StackTraceElement("com.example.OrderController", "place", "OrderController.java", 42)});
+  }
+
+  private void recordPerMinute(LocalDateTime minute, int count) {
+    for (int i = 0; i < count; i++) {
+      detector.record(FINGERPRINT, CapturedException.of(exception, minute.plusSeconds(i % 60), null, 64));
+    }
+  }
+
+  @Test
+  @DisplayName("A jump from none to hundreds per minute is a spike")
+  void suddenSpike() {
+    recordPerMinute(START, 300);
+
+    detector.detectSpikes(epochSecond(START.plusSeconds(59)));
+
+    verify(notificationManager).checkExceptionRate(FINGERPRINT, NAME, 300, 30);
+  }
+
+  @Test
+  @DisplayName("The spike threshold follows the usual rate, which a spike does not raise")
+  void thresholdFollowsTheUsualRate() {
+    LocalDateTime minute = START;
+    for (int i = 0; i < 60; i++) {
+      recordPerMinute(minute, 20);
+      detector.detectSpikes(epochSecond(minute.plusSeconds(59)));
+      minute = minute.plusMinutes(1);
+    }
+    double usualRate = detector.getBaseline(FINGERPRINT);
+    assertThat(usualRate).isBetween(19.0, 20.0);
+
+    recordPerMinute(minute, 500);
+    detector.detectSpikes(epochSecond(minute.plusSeconds(59)));
+
+    verify(notificationManager).checkExceptionRate(FINGERPRINT, NAME, 500, Math.round(usualRate * 5));
+    assertThat(detector.getBaseline(FINGERPRINT)).isEqualTo(usualRate);
+  }
+
+  @Test
+  @DisplayName("Exceptions dropped by a full capture queue are counted per class and can spike")
+  void droppedExceptionsSpike() {
+    for (int i = 0; i < 300; i++) {
+      detector.recordDropped(NullPointerException.class, START.plusSeconds(i % 60));
+    }
+
+    detector.detectSpikes(epochSecond(START.plusSeconds(59)));
+
+    verify(notificationManager).checkExceptionRate("dropped:java.lang.NullPointerException",
+        "java.lang.NullPointerException (dropped by the full capture queue)", 300, 30);
+  }
+
+  @Test
+  @DisplayName("A quiet fingerprint is forgotten")
+  void quietFingerprintForgotten() {
+    recordPerMinute(START, 1);
+    detector.detectSpikes(epochSecond(START.plusSeconds(59)));
+
+    detector.detectSpikes(epochSecond(START.plusMinutes(2)));
+    detector.detectSpikes(epochSecond(START.plusMinutes(3)));
+
+    verify(notificationManager).forget(FINGERPRINT);
+    verify(notificationManager, times(2)).checkExceptionRate(anyString(), anyString(), anyLong(), anyLong());
+  }
+}
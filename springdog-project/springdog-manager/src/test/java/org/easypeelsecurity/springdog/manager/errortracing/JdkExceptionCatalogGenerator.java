@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.errortracing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ScanResult;
+
+/**
+ * Generates the JDK exception catalog of the running Java version from a ClassGraph scan of the packages
+ * listed by {@link StructuredExceptionLister}. Run it on the new Java version with
+ * {@code ./gradlew :springdog-project:springdog-manager:generateJdkExceptionCatalog}.
+ */
+final class JdkExceptionCatalogGenerator {
+
+  private JdkExceptionCatalogGenerator() {
+  }
+
+  /**
+   * Writes {@code jdk-exceptions-<feature version>.txt} into the directory given as the only argument.
+   */
+  public static void main(String[] args) throws IOException {
+    int javaVersion = Runtime.version().feature();
+    List<String> lines = new ArrayList<>();
+    lines.add("# Exception classes of the JDK " + javaVersion + " packages listed by StructuredExceptionLister.");
+    lines.add("# Regenerate with ./gradlew :springdog-project:springdog-manager:generateJdkExceptionCatalog.");
+    lines.addAll(scanJdkExceptions());
+    Path catalog = Path.of(args[0]).resolve("jdk-exceptions-" + javaVersion + ".txt");
+    Files.write(catalog, lines);
+  }
+
+  /**
+   * Scans the exception classes of the JDK packages listed by {@link StructuredExceptionLister}.
+   *
+   * @return the loadable exception class names, sorted
+   */
+  static List<String> scanJdkExceptions() {
+    try (ScanResult scanResult = new ClassGraph()
+        .enableSystemJarsAndModules()
+        .acceptPackages(StructuredExceptionLister.JAVA_EXCEPTION_PACKAGES.keySet().toArray(new String[0]))
+        .scan()) {
+      return scanResult.getSubclasses(Exception.class.getName())
+          .getNames()
+          .stream()
+          .filter(JdkExceptionCatalogGenerator::isLoadable)
+          .sorted()
+          .toList();
+    }
+  }
+
+  private static boolean isLoadable(String className) {
+    try {
+      Class.forName(className, false, JdkExceptionCatalogGenerator.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | NoClassDefFoundError e) {
+      return false;
+    }
+  }
+}
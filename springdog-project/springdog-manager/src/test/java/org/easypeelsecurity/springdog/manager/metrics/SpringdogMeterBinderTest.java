@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.easypeelsecurity.springdog.domain.persistence.WriteQueueStatistics;
+import org.easypeelsecurity.springdog.manager.errortracing.ExceptionCaptureStatistics;
+import org.easypeelsecurity.springdog.manager.statistics.EndpointMetricCacheManager;
+import org.easypeelsecurity.springdog.manager.statistics.SchedulerFlushStatistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+class SpringdogMeterBinderTest {
+
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    new SpringdogMeterBinder(new WriteQueueStatistics(() -> 3), new ExceptionCaptureStatistics(() -> 2))
+        .bindTo(registry);
+  }
+
+  @Test
+  @DisplayName("Should expose running totals of endpoints seen after binding")
+  void bindEndpointTotals() {
+    // given
+    String methodSignature = "void org.easypeelsecurity.springdogtest.MeterController.bindEndpointTotals()";
+
+    // when
+    EndpointMetricCacheManager.addResponseTime(methodSignature, 100L);
+    EndpointMetricCacheManager.addResponseTime(methodSignature, 300L);
+    EndpointMetricCacheManager.addResponseStatus(methodSignature, 200);
+    EndpointMetricCacheManager.addResponseStatus(methodSignature, 503);
+    EndpointMetricCacheManager.incrementExceptionCount(methodSignature);
+    EndpointMetricCacheManager.incrementFailureCount(methodSignature);
+    EndpointMetricCacheManager.incrementInFlight(methodSignature);
+
+    // then
+    FunctionTimer requests = registry.get("springdog.endpoint.requests")
+        .tag("endpoint", methodSignature).functionTimer();
+    assertThat(requests.count()).isEqualTo(2);
+    assertThat(requests.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(400);
+    assertThat(registry.get("springdog.endpoint.responses")
+        .tags("endpoint", methodSignature, "status", "5xx").functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("springdog.endpoint.exceptions")
+        .tag("endpoint", methodSignature).functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("springdog.endpoint.ratelimit.rejections")
+        .tag("endpoint", methodSignature).functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("springdog.endpoint.inflight")
+        .tag("endpoint", methodSignature).gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should keep running totals after the flush buffer is invalidated")
+  void totalsSurviveFlush() {
+    // given
+    String methodSignature = "void org.easypeelsecurity.springdogtest.MeterController.totalsSurviveFlush()";
+    EndpointMetricCacheManager.addResponseTime(methodSignature, 10L);
+
+    // when
+    EndpointMetricCacheManager.invalidateByMethodSignature(methodSignature);
+
+    // then
+    assertThat(registry.get("springdog.endpoint.requests")
+        .tag("endpoint", methodSignature).functionTimer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should expose scheduler enqueue timings")
+  void bindSchedulerFlush() {
+    // given
+    long before = SchedulerFlushStatistics.SYSTEM_METRIC.getFlushCount();
+
+    // when
+    SchedulerFlushStatistics.SYSTEM_METRIC.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+    // then
+    FunctionTimer flush = registry.get("springdog.scheduler.enqueue")
+        .tag("scheduler", "system-metric").functionTimer();
+    assertThat(flush.count()).isEqualTo(before + 1);
+    assertThat(registry.get("springdog.scheduler.enqueue.last")
+        .tag("scheduler", "system-metric").timeGauge().value(TimeUnit.MILLISECONDS)).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should expose the write queue depth and flush timings")
+  void bindWriteQueue() {
+    assertThat(registry.get("springdog.persistence.queue.depth").gauge().value()).isEqualTo(3);
+    assertThat(registry.get("springdog.persistence.queue.dropped").functionCounter().count()).isZero();
+    assertThat(registry.get("springdog.persistence.flush").functionTimer().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should expose the exception capture buffer depth and drops")
+  void bindExceptionCapture() {
+    assertThat(registry.get("springdog.errortracing.capture.depth").gauge().value()).isEqualTo(2);
+    assertThat(registry.get("springdog.errortracing.capture.dropped").functionCounter().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should render meters in the Prometheus text format")
+  void scrapePrometheus() {
+    // given
+    PrometheusMeterRegistry prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    new SpringdogMeterBinder(new WriteQueueStatistics(() -> 0), new ExceptionCaptureStatistics(() -> 0))
+        .bindTo(prometheusRegistry);
+
+    // when
+    String scraped = prometheusRegistry.scrape();
+
+    // then
+    assertThat(scraped)
+        .contains("springdog_ratelimit_bans_total")
+        .contains("springdog_scheduler_enqueue_seconds_count{scheduler=\"endpoint-metric\"");
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.overhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OverheadHistogramTest {
+
+  @Test
+  @DisplayName("Every value falls into a bucket whose bounds contain it")
+  void bucketBoundsContainValue() {
+    for (long value : new long[] {0, 1, 7, 8, 15, 16, 100, 1_000, 123_456, OverheadHistogram.MAX_VALUE}) {
+      int index = OverheadHistogram.indexOf(value);
+      assertThat(index).isBetween(0, OverheadHistogram.BUCKET_COUNT - 1);
+      assertThat(OverheadHistogram.upperBoundOf(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(OverheadHistogram.upperBoundOf(index - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Percentiles stay within the relative error of a bucket")
+  void percentiles() {
+    // given
+    OverheadHistogram histogram = new OverheadHistogram();
+
+    // when
+    for (long nanos = 1; nanos <= 10_000; nanos++) {
+      histogram.record(nanos);
+    }
+
+    // then
+    assertThat(histogram.getCount()).isEqualTo(10_000);
+    assertThat(histogram.getPercentile(50)).isBetween(5_000L, 5_625L);
+    assertThat(histogram.getPercentile(99)).isBetween(9_900L, 11_138L);
+    assertThat(histogram.getPercentile(100)).isGreaterThanOrEqualTo(10_000L);
+  }
+
+  @Test
+  @DisplayName("Out of range values are clamped and an empty histogram reports zero")
+  void edgeCases() {
+    OverheadHistogram histogram = new OverheadHistogram();
+    assertThat(histogram.getPercentile(99)).isZero();
+
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.getCount()).isEqualTo(2);
+    assertThat(histogram.getPercentile(50)).isZero();
+    assertThat(histogram.getPercentile(100)).isEqualTo(OverheadHistogram.MAX_VALUE);
+    assertThatThrownBy(() -> histogram.getPercentile(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
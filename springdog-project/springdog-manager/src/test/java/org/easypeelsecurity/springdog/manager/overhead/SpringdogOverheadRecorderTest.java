@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.overhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.easypeelsecurity.springdog.shared.dto.EndpointOverheadDto;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SpringdogOverheadRecorderTest {
+
+  private static final String METHOD_SIGNATURE =
+      "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+
+  @BeforeEach
+  void setUp() {
+    SpringdogOverheadRecorder.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SpringdogOverheadRecorder.clear();
+  }
+
+  @Test
+  @DisplayName("Stage times of a request are summed and recorded for its endpoint")
+  void recordRequest() {
+    // when
+    SpringdogOverheadRecorder.record(METHOD_SIGNATURE, new long[] {1_000, 3_000, 1_000});
+
+    // then
+    List<EndpointOverheadDto> overheads = SpringdogOverheadRecorder.getEndpointOverheads();
+    assertThat(overheads).hasSize(1);
+    EndpointOverheadDto overhead = overheads.get(0);
+    assertThat(overhead.methodSignature()).isEqualTo(METHOD_SIGNATURE);
+    assertThat(overhead.requestCount()).isEqualTo(1);
+    assertThat(overhead.p99Nanos()).isBetween(4_608L, 5_119L);
+    assertThat(overhead.stageP99Nanos()).containsOnlyKeys("body-copy", "ratelimit", "request-timing");
+    assertThat(overhead.stageP99Nanos().get("ratelimit")).isBetween(3_000L, 3_071L);
+  }
+
+  @Test
+  @DisplayName("Endpoints are ordered by their 99th percentile overhead")
+  void orderedByP99() {
+    SpringdogOverheadRecorder.record("fast", new long[] {100, 0, 0});
+    SpringdogOverheadRecorder.record("slow", new long[] {100_000, 0, 0});
+
+    assertThat(SpringdogOverheadRecorder.getEndpointOverheads())
+        .extracting(EndpointOverheadDto::methodSignature)
+        .containsExactly("slow", "fast");
+  }
+
+  @Test
+  @DisplayName("Clearing discards all measurements")
+  void clear() {
+    SpringdogOverheadRecorder.record(METHOD_SIGNATURE, new long[] {100, 0, 0});
+
+    SpringdogOverheadRecorder.clear();
+
+    assertThat(SpringdogOverheadRecorder.getEndpointOverheads()).isEmpty();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.retention;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.domain.retention.RetentionService;
+import org.easypeelsecurity.springdog.domain.retention.RetentionTarget;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.shared.settings.RetentionSetting;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettings;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RetentionSchedulerTest {
+
+  private final RetentionService retentionService = mock(RetentionService.class);
+  private final RetentionSetting setting = new RetentionSetting();
+  private final SpringdogStoreReadiness storeReadiness = new SpringdogStoreReadiness();
+  private final SpringdogProperties properties = mock(SpringdogProperties.class);
+  private RetentionScheduler retentionScheduler;
+
+  @BeforeEach
+  void setUp() {
+    SpringdogSettingManager settingManager = mock(SpringdogSettingManager.class);
+    SpringdogSettings settings = mock(SpringdogSettings.class);
+    when(settingManager.getSettings()).thenReturn(settings);
+    when(settings.getRetentionSetting()).thenReturn(setting);
+    when(properties.getDatasourceType()).thenReturn(DatabaseType.DERBY);
+    retentionScheduler = new RetentionScheduler(retentionService, settingManager, storeReadiness, properties);
+    storeReadiness.markReady();
+  }
+
+  @Test
+  @DisplayName("Prunes every table with its own retention and compresses only the pruned ones")
+  void pruneEveryTable() {
+    setting.setSystemMetricRetentionDays(30);
+    setting.setErrorTraceRetentionDays(7);
+    setting.setEndpointMetricRetentionDays(365);
+    when(retentionService.prune(eq(RetentionTarget.SYSTEM_METRIC), eq(30), eq(500), any())).thenReturn(12L);
+
+    retentionScheduler.prune();
+
+    verify(retentionService).prune(eq(RetentionTarget.ERROR_TRACE), eq(7), eq(500), any());
+    verify(retentionService).prune(eq(RetentionTarget.ENDPOINT_METRIC), eq(365), eq(500), any());
+    verify(retentionService).reclaimSpace(RetentionTarget.SYSTEM_METRIC);
+    verify(retentionService, never()).reclaimSpace(RetentionTarget.ERROR_TRACE);
+    verify(retentionService, never()).reclaimSpace(RetentionTarget.ENDPOINT_METRIC);
+    verify(retentionService, never()).cap(any(), anyInt(), anyInt());
+  }
+
+  @Test
+  @DisplayName("Caps every table of the in-memory database and compresses only the trimmed ones")
+  void capInMemory() {
+    when(properties.getDatasourceType()).thenReturn(DatabaseType.MEMORY);
+    when(properties.getDatasourceMemoryMaxRows()).thenReturn(1000);
+    when(retentionService.cap(RetentionTarget.ERROR_TRACE, 1000, 500)).thenReturn(4L);
+
+    retentionScheduler.prune();
+
+    verify(retentionService).cap(RetentionTarget.SYSTEM_METRIC, 1000, 500);
+    verify(retentionService).cap(RetentionTarget.ENDPOINT_METRIC, 1000, 500);
+    verify(retentionService).reclaimSpace(RetentionTarget.ERROR_TRACE);
+    verify(retentionService, never()).reclaimSpace(RetentionTarget.SYSTEM_METRIC);
+    verify(retentionService, never()).reclaimSpace(RetentionTarget.ENDPOINT_METRIC);
+  }
+
+  @Test
+  @DisplayName("A failing table does not stop the others from being pruned")
+  void continueAfterFailure() {
+    setting.setCompressAfterPrune(false);
+    when(retentionService.prune(eq(RetentionTarget.SYSTEM_METRIC), anyInt(), anyInt(), any()))
+        .thenThrow(new IllegalStateException("locked"));
+    when(retentionService.prune(eq(RetentionTarget.ERROR_TRACE), anyInt(), anyInt(), any())).thenReturn(3L);
+
+    retentionScheduler.prune();
+
+    verify(retentionService).prune(eq(RetentionTarget.ENDPOINT_METRIC), anyInt(), anyInt(), any());
+    verify(retentionService, never()).reclaimSpace(any());
+  }
+
+  @Test
+  @DisplayName("Nothing is pruned until the Springdog database is ready")
+  void skipUntilStoreReady() {
+    SpringdogSettingManager settingManager = mock(SpringdogSettingManager.class);
+    RetentionScheduler scheduler =
+        new RetentionScheduler(retentionService, settingManager, new SpringdogStoreReadiness(), properties);
+
+    scheduler.prune();
+
+    verifyNoInteractions(retentionService, settingManager);
+  }
+}
@@ -19,7 +19,9 @@ package org.easypeelsecurity.springdog.manager.statistics;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -71,6 +73,25 @@ class EndpointMetricCacheManagerTest {
         cached.ratelimitFailureCount() == 1);
   }
 
+  @Test
+  @DisplayName("Should count response status codes and exceptions for a specific endpoint")
+  void addResponseStatusSuccessfully() {
+    // given
+    String methodSignature =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+
+    // when
+    EndpointMetricCacheManager.addResponseStatus(methodSignature, 200);
+    EndpointMetricCacheManager.addResponseStatus(methodSignature, 200);
+    EndpointMetricCacheManager.addResponseStatus(methodSignature, 500);
+    EndpointMetricCacheManager.incrementExceptionCount(methodSignature);
+
+    // then
+    EndpointMetricCached result = EndpointMetricCacheManager.getAllData().get(0);
+    assertThat(result.statusCodeCounts()).containsExactlyInAnyOrderEntriesOf(Map.of(200, 2L, 500, 1L));
+    assertThat(result.exceptionCount()).isEqualTo(1L);
+  }
+
   @Test
   @DisplayName("Should get all cache data")
   void getAllDataSuccessfully() {
@@ -111,4 +132,90 @@ class EndpointMetricCacheManagerTest {
     List<EndpointMetricCached> data = EndpointMetricCacheManager.getAllData();
     assertThat(data).noneMatch(cached -> cached.methodSignature().equals(methodSignature));
   }
+
+  @Test
+  @DisplayName("Should take the pending values and leave the later ones for the next flush")
+  void drainAll() {
+    // given
+    String methodSignature =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.drained(java.lang.String)";
+    EndpointMetricCacheManager.addResponseTime(methodSignature, 100L);
+    EndpointMetricCacheManager.addResponseStatus(methodSignature, 500);
+    EndpointMetricCacheManager.incrementExceptionCount(methodSignature);
+    // counted, but its response time is added after the drain
+    EndpointMetricCacheManager.incrementRequestCount(methodSignature);
+
+    // when
+    List<EndpointMetricCached> first = EndpointMetricCacheManager.drainAll();
+    EndpointMetricCacheManager.addSampledResponseTime(methodSignature, 200L, 1.0);
+    List<EndpointMetricCached> second = EndpointMetricCacheManager.drainAll();
+    EndpointMetricCacheManager.incrementRequestCount(methodSignature);
+    List<EndpointMetricCached> third = EndpointMetricCacheManager.drainAll();
+
+    // then
+    assertThat(first).singleElement().satisfies(cached -> {
+      assertThat(cached.requestCount()).isEqualTo(2);
+      assertThat(cached.responseTimes()).containsExactly(100L);
+      assertThat(cached.statusCodeCounts()).containsExactlyEntriesOf(Map.of(500, 1L));
+      assertThat(cached.exceptionCount()).isEqualTo(1);
+    });
+    // the late response time waits for a request to be flushed with
+    assertThat(second).isEmpty();
+    assertThat(third).singleElement().satisfies(cached -> {
+      assertThat(cached.requestCount()).isEqualTo(1);
+      assertThat(cached.responseTimes()).containsExactly(200L);
+      assertThat(cached.statusCodeCounts()).isEmpty();
+    });
+    assertThat(EndpointMetricCacheManager.drainAll()).isEmpty();
+    assertThat(EndpointMetricCacheManager.getPendingEndpointCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should count every request while keeping only the sampled response times")
+  void sampledResponseTimes() {
+    // given
+    String methodSignature =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.sampled(java.lang.String)";
+
+    // when
+    for (int i = 0; i < 4; i++) {
+      EndpointMetricCacheManager.incrementRequestCount(methodSignature);
+    }
+    EndpointMetricCacheManager.addSampledResponseTime(methodSignature, 100L, 0.25);
+
+    // then
+    EndpointMetricCached cached = EndpointMetricCacheManager.getAllData().stream()
+        .filter(data -> data.methodSignature().equals(methodSignature))
+        .findFirst().get();
+    assertThat(cached.requestCount()).isEqualTo(4);
+    assertThat(cached.responseTimes()).containsExactly(100L);
+    assertThat(cached.samplingProbabilities()).containsExactly(0.25);
+
+    EndpointMetricCacheManager.EndpointMetricTotals totals = EndpointMetricCacheManager.getTotals(methodSignature);
+    assertThat(totals.getRequestCount()).isEqualTo(4);
+    assertThat(totals.getSampledRequestCount()).isEqualTo(1);
+    assertThat(totals.getResponseTimeSum()).isEqualTo(400L);
+  }
+
+  @Test
+  @DisplayName("Should track requests in flight and the throughput of the current second")
+  void inFlightAndThroughput() {
+    // given
+    String methodSignature =
+        "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.live(java.lang.String)";
+
+    // when
+    EndpointMetricCacheManager.incrementInFlight(methodSignature);
+    EndpointMetricCacheManager.incrementInFlight(methodSignature);
+    EndpointMetricCacheManager.decrementInFlight(methodSignature);
+    long before = System.currentTimeMillis() / 1000;
+    EndpointMetricCacheManager.incrementRequestCount(methodSignature);
+    long after = System.currentTimeMillis() / 1000;
+
+    // then
+    EndpointMetricCacheManager.EndpointMetricTotals totals = EndpointMetricCacheManager.getTotals(methodSignature);
+    assertThat(totals.getInFlight()).isEqualTo(1);
+    long[] throughput = totals.getThroughput(after, (int) (after - before) + 1);
+    assertThat(Arrays.stream(throughput).sum()).isEqualTo(1);
+  }
 }
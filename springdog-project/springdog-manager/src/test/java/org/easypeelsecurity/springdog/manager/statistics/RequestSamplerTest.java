@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.easypeelsecurity.springdog.shared.dto.EndpointSamplingDto;
+import org.easypeelsecurity.springdog.shared.enums.SamplingMode;
+import org.easypeelsecurity.springdog.shared.settings.RequestSamplingSetting;
+import org.easypeelsecurity.springdog.shared.settings.SamplingRule;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettings;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RequestSamplerTest {
+
+  private static final String METHOD_SIGNATURE =
+      "java.lang.String org.easypeelsecurity.springdogtest.ExampleController.example(java.lang.String)";
+
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+  private final SpringdogSettings settings = mock(SpringdogSettings.class);
+  private RequestSampler requestSampler;
+
+  @BeforeEach
+  void setUp() {
+    SpringdogSettingManager settingManager = mock(SpringdogSettingManager.class);
+    when(settingManager.getSettings()).thenReturn(settings);
+    when(settings.getRequestSamplingSetting()).thenReturn(new RequestSamplingSetting());
+    requestSampler = new RequestSampler(settingManager, now::get);
+  }
+
+  @Test
+  @DisplayName("Every request is sampled by default")
+  void sampleAllByDefault() {
+    for (int i = 0; i < 100; i++) {
+      assertThat(requestSampler.sample(METHOD_SIGNATURE)).isEqualTo(1.0);
+    }
+
+    EndpointSamplingDto sampling = requestSampler.getEndpointSamplings().get(0);
+    assertThat(sampling.mode()).isEqualTo(SamplingMode.ALL);
+    assertThat(sampling.requestCount()).isEqualTo(100);
+    assertThat(sampling.sampledCount()).isEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("A fixed rate samples about the given ratio of requests")
+  void fixedRate() {
+    changeSetting(rule(SamplingMode.FIXED_RATE, 0.1, 0), Map.of());
+
+    int sampled = 0;
+    for (int i = 0; i < 10_000; i++) {
+      double probability = requestSampler.sample(METHOD_SIGNATURE);
+      if (probability > 0) {
+        assertThat(probability).isEqualTo(0.1);
+        sampled++;
+      }
+    }
+
+    assertThat(sampled).isBetween(800, 1_200);
+  }
+
+  @Test
+  @DisplayName("The adaptive mode targets the configured number of samples per second")
+  void adaptive() {
+    changeSetting(rule(SamplingMode.ADAPTIVE, 1.0, 50), Map.of());
+
+    for (int i = 0; i < 1_000; i++) {
+      requestSampler.sample(METHOD_SIGNATURE);
+    }
+    now.addAndGet(1_000);
+    int sampled = 0;
+    for (int i = 0; i < 1_000; i++) {
+      if (requestSampler.sample(METHOD_SIGNATURE) > 0) {
+        sampled++;
+      }
+    }
+    now.addAndGet(1_000);
+
+    assertThat(sampled).isBetween(20, 90);
+    EndpointSamplingDto sampling = requestSampler.getEndpointSamplings().get(0);
+    assertThat(sampling.probability()).isEqualTo(0.05);
+    assertThat(sampling.effectiveRate()).isEqualTo(sampled / 1_000.0);
+  }
+
+  @Test
+  @DisplayName("An endpoint rule overrides the global rule")
+  void endpointRule() {
+    changeSetting(rule(SamplingMode.FIXED_RATE, 0.5, 0),
+        Map.of(METHOD_SIGNATURE, rule(SamplingMode.ALL, 1.0, 0)));
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(requestSampler.sample(METHOD_SIGNATURE)).isEqualTo(1.0);
+    }
+  }
+
+  private void changeSetting(SamplingRule globalRule, Map<String, SamplingRule> endpointRules) {
+    RequestSamplingSetting setting = new RequestSamplingSetting();
+    setting.setGlobalRule(globalRule);
+    setting.setEndpointRules(new HashMap<>(endpointRules));
+    when(settings.getRequestSamplingSetting()).thenReturn(setting);
+    now.addAndGet(1_000);
+  }
+
+  private SamplingRule rule(SamplingMode mode, double rate, long targetSamplesPerSecond) {
+    SamplingRule rule = new SamplingRule();
+    rule.setMode(mode);
+    rule.setRate(rate);
+    rule.setTargetSamplesPerSecond(targetSamplesPerSecond);
+    return rule;
+  }
+}
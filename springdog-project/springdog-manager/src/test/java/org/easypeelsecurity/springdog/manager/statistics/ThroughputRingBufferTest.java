@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.manager.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ThroughputRingBufferTest {
+
+  private static final long NOW = 1_720_000_000L;
+
+  @Test
+  @DisplayName("Should count events per second, oldest first")
+  void countsPerSecond() {
+    // given
+    ThroughputRingBuffer buffer = new ThroughputRingBuffer();
+
+    // when
+    buffer.record(NOW - 2);
+    buffer.record(NOW);
+    buffer.record(NOW);
+
+    // then
+    assertThat(buffer.getCounts(NOW, 4)).containsExactly(0, 1, 0, 2);
+  }
+
+  @Test
+  @DisplayName("Should not report a slot left over from an earlier lap")
+  void reuseSlots() {
+    // given
+    ThroughputRingBuffer buffer = new ThroughputRingBuffer();
+    buffer.record(NOW - ThroughputRingBuffer.CAPACITY);
+    buffer.record(NOW - ThroughputRingBuffer.CAPACITY + 1);
+
+    // when
+    buffer.record(NOW);
+
+    // then
+    assertThat(buffer.getCounts(NOW, 1)).containsExactly(1);
+    assertThat(buffer.getCounts(NOW + ThroughputRingBuffer.CAPACITY - 1, ThroughputRingBuffer.CAPACITY))
+        .containsOnly(0, 1)
+        .satisfies(counts -> assertThat(counts[0]).isEqualTo(1));
+  }
+
+  @Test
+  @DisplayName("Should not lose events recorded concurrently")
+  void concurrentRecords() throws InterruptedException {
+    // given
+    ThroughputRingBuffer buffer = new ThroughputRingBuffer();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // when
+    for (int i = 0; i < 8; i++) {
+      executor.submit(() -> {
+        for (int j = 0; j < 10_000; j++) {
+          buffer.record(NOW);
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    // then
+    assertThat(buffer.getCounts(NOW, 1)).containsExactly(80_000);
+  }
+
+  @Test
+  @DisplayName("Should reject a window outside of the capacity")
+  void invalidWindow() {
+    ThroughputRingBuffer buffer = new ThroughputRingBuffer();
+
+    assertThatThrownBy(() -> buffer.getCounts(NOW, 0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> buffer.getCounts(NOW, ThroughputRingBuffer.CAPACITY + 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
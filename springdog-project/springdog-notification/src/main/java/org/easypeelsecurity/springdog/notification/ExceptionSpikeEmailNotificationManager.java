@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.notification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import org.easypeelsecurity.springdog.notification.email.ExceptionSpikeEmailNotification;
+import org.easypeelsecurity.springdog.notification.email.MetricContext;
+import org.easypeelsecurity.springdog.shared.settings.ExceptionSpikeSetting;
+import org.easypeelsecurity.springdog.shared.settings.NotificationGlobalSetting;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettings;
+
+/**
+ * Manages the exception spike process. Each exception fingerprint has its own {@link MetricContext}, so a
+ * notification is sent once when its rate spikes and once when it recovers.
+ */
+@Service
+public class ExceptionSpikeEmailNotificationManager {
+  private final Map<String, MetricContext<String, Long>> metricContexts = new ConcurrentHashMap<>();
+  private final SpringdogSettingManager settings;
+  private final ExceptionSpikeEmailNotification emailNotification;
+
+  /**
+   * Constructs a new ExceptionSpikeEmailNotificationManager.
+   *
+   * @param settings          The properties containing threshold values.
+   * @param emailNotification The email notification service to use.
+   */
+  public ExceptionSpikeEmailNotificationManager(SpringdogSettingManager settings,
+      ExceptionSpikeEmailNotification emailNotification) {
+    this.settings = settings;
+    this.emailNotification = emailNotification;
+  }
+
+  /**
+   * Checks the recent rate of an exception against its spike threshold.
+   *
+   * @param fingerprint          The fingerprint of the exception.
+   * @param exceptionName        The exception, as shown in the notification.
+   * @param occurrencesPerMinute The occurrences of the exception in the last minute.
+   * @param spikeThreshold       The rate above which the exception is spiking.
+   */
+  public void checkExceptionRate(String fingerprint, String exceptionName, long occurrencesPerMinute,
+      long spikeThreshold) {
+    SpringdogSettings springdogSettings = settings.getSettings();
+    ExceptionSpikeSetting exceptionSpikeSetting = springdogSettings.getExceptionSpikeSetting();
+    NotificationGlobalSetting notificationGlobalSetting = springdogSettings.getNotificationGlobalSetting();
+    if (!notificationGlobalSetting.isEnabled() || !exceptionSpikeSetting.isEnabled()) {
+      return;
+    }
+
+    MetricContext<String, Long> context =
+        metricContexts.computeIfAbsent(fingerprint, f -> new MetricContext<>(exceptionName, emailNotification));
+    context.checkMetric(occurrencesPerMinute, spikeThreshold);
+  }
+
+  /**
+   * Forgets an exception that is no longer tracked.
+   *
+   * @param fingerprint The fingerprint of the exception.
+   */
+  public void forget(String fingerprint) {
+    metricContexts.remove(fingerprint);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.notification.email;
+
+import static org.easypeelsecurity.springdog.shared.settings.ExceptionSpikePlaceholder.EXCEPTION;
+import static org.easypeelsecurity.springdog.shared.settings.ExceptionSpikePlaceholder.OCCURRENCES_PER_MINUTE;
+import static org.easypeelsecurity.springdog.shared.settings.ExceptionSpikePlaceholder.SPIKE_STATUS;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import org.easypeelsecurity.springdog.shared.settings.Placeholder;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManagerImpl;
+import org.easypeelsecurity.springdog.shared.settings.Template;
+
+/**
+ * Exception spike email notification.
+ */
+@Service
+public class ExceptionSpikeEmailNotification extends AbstractEmailNotification<String, Long> {
+
+  private final SpringdogSettingManagerImpl settingManager;
+
+  /**
+   * Constructor.
+   */
+  @Autowired
+  public ExceptionSpikeEmailNotification(@Qualifier("gmailNotificationSender") JavaMailSender mailSender,
+      SpringdogSettingManagerImpl settingManager) {
+    super(mailSender, settingManager);
+    this.settingManager = settingManager;
+  }
+
+  @Override
+  protected String generateBody() {
+    return settingManager.getSettings()
+        .getNotificationGlobalSetting()
+        .generateMailTemplate(Template.EXCEPTION_SPIKE_BODY, replacement());
+  }
+
+  @Override
+  public String getSubject() {
+    return settingManager.getSettings()
+        .getNotificationGlobalSetting()
+        .generateMailTemplate(Template.EXCEPTION_SPIKE_SUBJECT, replacement());
+  }
+
+  private Map<Placeholder, String> replacement() {
+    Cause<String, Long> current = this.cause != null ? this.cause : this.recovered;
+    Map<Placeholder, String> replacement = new HashMap<>();
+    replacement.put(EXCEPTION, current.key());
+    replacement.put(SPIKE_STATUS, this.cause != null ? "spiked" : "recovered");
+    replacement.put(OCCURRENCES_PER_MINUTE, current.value().toString());
+    return replacement;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.notification;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.easypeelsecurity.springdog.notification.email.ExceptionSpikeEmailNotification;
+import org.easypeelsecurity.springdog.shared.settings.ExceptionSpikeSetting;
+import org.easypeelsecurity.springdog.shared.settings.NotificationGlobalSetting;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettingManager;
+import org.easypeelsecurity.springdog.shared.settings.SpringdogSettings;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class ExceptionSpikeEmailNotificationManagerTest {
+  private static final String FINGERPRINT = "3f2a";
+  private static final String EXCEPTION = "java.lang.NullPointerException at com.example.OrderController.place";
+
+  @Mock
+  private SpringdogSettingManager mockSettingManager;
+
+  @Mock
+  private ExceptionSpikeEmailNotification mockEmailNotification;
+
+  @Mock
+  private SpringdogSettings mockSpringdogSettings;
+
+  @Mock
+  private ExceptionSpikeSetting mockExceptionSpikeSetting;
+
+  @Mock
+  private NotificationGlobalSetting mockNotificationGlobalSetting;
+
+  private ExceptionSpikeEmailNotificationManager manager;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    manager = new ExceptionSpikeEmailNotificationManager(mockSettingManager, mockEmailNotification);
+
+    when(mockSettingManager.getSettings()).thenReturn(mockSpringdogSettings);
+    when(mockSpringdogSettings.getExceptionSpikeSetting()).thenReturn(mockExceptionSpikeSetting);
+    when(mockSpringdogSettings.getNotificationGlobalSetting()).thenReturn(mockNotificationGlobalSetting);
+    when(mockNotificationGlobalSetting.isEnabled()).thenReturn(true);
+    when(mockExceptionSpikeSetting.isEnabled()).thenReturn(true);
+  }
+
+  @Test
+  @DisplayName("A spike is notified once, and so is its recovery")
+  void spikeAndRecovery() {
+    manager.checkExceptionRate(FINGERPRINT, EXCEPTION, 300, 30);
+    manager.checkExceptionRate(FINGERPRINT, EXCEPTION, 280, 30);
+    manager.checkExceptionRate(FINGERPRINT, EXCEPTION, 2, 30);
+
+    verify(mockEmailNotification).setCause(EXCEPTION, 300L);
+    verify(mockEmailNotification).setRecovery(EXCEPTION, 2L);
+  }
+
+  @Test
+  @DisplayName("Nothing is notified when exception spike notifications are disabled")
+  void spikeNotificationDisabled() {
+    when(mockExceptionSpikeSetting.isEnabled()).thenReturn(false);
+
+    manager.checkExceptionRate(FINGERPRINT, EXCEPTION, 300, 30);
+
+    verify(mockEmailNotification, never()).setCause(anyString(), anyLong());
+    verify(mockEmailNotification, never()).send();
+  }
+
+  @Test
+  @DisplayName("A forgotten exception starts over from the normal state")
+  void forget() {
+    manager.checkExceptionRate(FINGERPRINT, EXCEPTION, 300, 30);
+    manager.forget(FINGERPRINT);
+    manager.checkExceptionRate(FINGERPRINT, EXCEPTION, 2, 30);
+
+    verify(mockEmailNotification, never()).setRecovery(anyString(), anyLong());
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Springdog datasource properties.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "springdog.datasource")
+@SuppressWarnings("checkstyle:MissingJavadocMethod")
+class SpringdogDatasourceProperties {
+
+  private DatabaseType type = DatabaseType.DERBY;
+  private String url;
+  private String username;
+  private String password;
+  private int maxPoolSize = 8;
+  private int statementCacheSize = 64;
+  private boolean asyncInitialization = true;
+  private int memoryMaxRows = 100_000;
+}
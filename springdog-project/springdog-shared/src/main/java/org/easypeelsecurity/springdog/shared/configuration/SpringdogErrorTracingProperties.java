@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Springdog error tracing properties.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "springdog.error-tracing")
+@SuppressWarnings("checkstyle:MissingJavadocMethod")
+class SpringdogErrorTracingProperties {
+
+  private int storedTracesPerFingerprint = 10;
+  private int captureQueueCapacity = 1024;
+  private int maxStackDepth = 64;
+  private int capturesPerWindow = 100;
+  private int captureWindowSeconds = 60;
+}
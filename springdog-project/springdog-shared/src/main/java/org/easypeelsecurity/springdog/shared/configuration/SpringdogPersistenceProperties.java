@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.easypeelsecurity.springdog.shared.enums.WriteOverflowPolicy;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Springdog persistence properties.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "springdog.persistence")
+@SuppressWarnings("checkstyle:MissingJavadocMethod")
+class SpringdogPersistenceProperties {
+
+  private int queueCapacity = 10_000;
+  private WriteOverflowPolicy overflowPolicy = WriteOverflowPolicy.DROP_OLDEST;
+  private long blockTimeoutMillis = 50;
+  private int maxBatchSize = 500;
+}
@@ -22,6 +22,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.shared.enums.WriteOverflowPolicy;
 import org.easypeelsecurity.springdog.shared.util.Assert;
 
 import org.slf4j.Logger;
@@ -32,15 +34,29 @@ import org.slf4j.LoggerFactory;
  */
 @Configuration
 @ConfigurationProperties(prefix = "springdog")
-@EnableConfigurationProperties(SpringdogAgentProperties.class)
+@EnableConfigurationProperties({SpringdogAgentProperties.class, SpringdogPersistenceProperties.class,
+    SpringdogDatasourceProperties.class, SpringdogTimeSeriesProperties.class,
+    SpringdogErrorTracingProperties.class})
 @SuppressWarnings("checkstyle:MissingJavadocMethod")
 public class SpringdogProperties {
 
   private final Logger logger = LoggerFactory.getLogger(SpringdogProperties.class);
   private final SpringdogAgentProperties agentProperties;
-
-  public SpringdogProperties(SpringdogAgentProperties agentProperties) {
+  private final SpringdogPersistenceProperties persistenceProperties;
+  private final SpringdogDatasourceProperties datasourceProperties;
+  private final SpringdogTimeSeriesProperties timeSeriesProperties;
+  private final SpringdogErrorTracingProperties errorTracingProperties;
+
+  public SpringdogProperties(SpringdogAgentProperties agentProperties,
+      SpringdogPersistenceProperties persistenceProperties,
+      SpringdogDatasourceProperties datasourceProperties,
+      SpringdogTimeSeriesProperties timeSeriesProperties,
+      SpringdogErrorTracingProperties errorTracingProperties) {
     this.agentProperties = agentProperties;
+    this.persistenceProperties = persistenceProperties;
+    this.datasourceProperties = datasourceProperties;
+    this.timeSeriesProperties = timeSeriesProperties;
+    this.errorTracingProperties = errorTracingProperties;
   }
 
   @PostConstruct
@@ -50,6 +66,25 @@ public class SpringdogProperties {
     logger.debug("Springdog Agent's username was set by {}", agentProperties.getUsername());
     logger.debug("Springdog Agent's password was set by {}", agentProperties.getPassword());
     logger.debug("Springdog Agent's external access was set by {}", agentProperties.isExternalAccess());
+    logger.debug("Springdog write queue capacity was set by {}", persistenceProperties.getQueueCapacity());
+    logger.debug("Springdog write queue overflow policy was set by {}",
+        persistenceProperties.getOverflowPolicy());
+    logger.debug("Springdog datasource type was set by {}", datasourceProperties.getType());
+    logger.debug("Springdog datasource is initialized asynchronously: {}",
+        datasourceProperties.isAsyncInitialization());
+    if (datasourceProperties.getType().isInMemory()) {
+      logger.debug("Springdog in-memory datasource keeps at most {} rows per table",
+          datasourceProperties.getMemoryMaxRows());
+    }
+    logger.debug("Springdog time-series store was enabled: {}", timeSeriesProperties.isEnabled());
+    logger.debug("Springdog stores at most {} error traces per fingerprint",
+        errorTracingProperties.getStoredTracesPerFingerprint());
+    logger.debug("Springdog exception capture queue capacity was set by {}",
+        errorTracingProperties.getCaptureQueueCapacity());
+    logger.debug("Springdog stores at most {} stack frames per exception",
+        errorTracingProperties.getMaxStackDepth());
+    logger.debug("Springdog captures at most {} exceptions per fingerprint every {} seconds",
+        errorTracingProperties.getCapturesPerWindow(), errorTracingProperties.getCaptureWindowSeconds());
   }
 
   public String getAgentBasePath() {
@@ -87,4 +122,95 @@ public class SpringdogProperties {
   public boolean enableExternalAccess() {
     return agentProperties.isExternalAccess();
   }
+
+  public int getWriteQueueCapacity() {
+    return persistenceProperties.getQueueCapacity();
+  }
+
+  public WriteOverflowPolicy getWriteQueueOverflowPolicy() {
+    return persistenceProperties.getOverflowPolicy();
+  }
+
+  public long getWriteQueueBlockTimeoutMillis() {
+    return persistenceProperties.getBlockTimeoutMillis();
+  }
+
+  public int getWriteBatchSize() {
+    return persistenceProperties.getMaxBatchSize();
+  }
+
+  public DatabaseType getDatasourceType() {
+    return datasourceProperties.getType();
+  }
+
+  /**
+   * Returns the JDBC URL of the Springdog store, falling back to the default URL of the database type.
+   *
+   * @return the JDBC URL
+   * @throws IllegalArgumentException if no URL is configured and the database type has no default
+   */
+  public String getDatasourceUrl() {
+    String url = datasourceProperties.getUrl();
+    if (url == null || url.isBlank()) {
+      url = datasourceProperties.getType().getDefaultUrl();
+    }
+    Assert.notNull(url, "springdog.datasource.url must be set for " + datasourceProperties.getType());
+    return url;
+  }
+
+  public String getDatasourceUsername() {
+    return datasourceProperties.getUsername();
+  }
+
+  public String getDatasourcePassword() {
+    return datasourceProperties.getPassword();
+  }
+
+  public int getDatasourceMaxPoolSize() {
+    return datasourceProperties.getMaxPoolSize();
+  }
+
+  public int getDatasourceStatementCacheSize() {
+    return datasourceProperties.getStatementCacheSize();
+  }
+
+  public boolean isDatasourceAsyncInitialization() {
+    return datasourceProperties.isAsyncInitialization();
+  }
+
+  public int getDatasourceMemoryMaxRows() {
+    return datasourceProperties.getMemoryMaxRows();
+  }
+
+  public boolean isTimeSeriesEnabled() {
+    return timeSeriesProperties.isEnabled();
+  }
+
+  public String getTimeSeriesDirectory() {
+    return timeSeriesProperties.getDirectory();
+  }
+
+  public int getTimeSeriesChunkSizeBytes() {
+    return timeSeriesProperties.getChunkSizeBytes();
+  }
+
+  public int getErrorTracingStoredTracesPerFingerprint() {
+    return errorTracingProperties.getStoredTracesPerFingerprint();
+  }
+
+  public int getErrorTracingCaptureQueueCapacity() {
+    return errorTracingProperties.getCaptureQueueCapacity();
+  }
+
+  public int getErrorTracingMaxStackDepth() {
+    return errorTracingProperties.getMaxStackDepth();
+  }
+
+  public int getErrorTracingCapturesPerWindow() {
+    return errorTracingProperties.getCapturesPerWindow();
+  }
+
+  public int getErrorTracingCaptureWindowSeconds() {
+    return errorTracingProperties.getCaptureWindowSeconds();
+  }
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.dto;
+
+/**
+ * DTO for the live traffic of an endpoint, kept in memory only.
+ *
+ * @param methodSignature   method signature of the endpoint
+ * @param inFlight          number of requests currently being handled
+ * @param startEpochSecond  epoch second of the first element of {@code requestsPerSecond}
+ * @param requestsPerSecond number of completed requests of each second, oldest first
+ */
+public record EndpointLiveMetricDto(String methodSignature, long inFlight, long startEpochSecond,
+                                    long[] requestsPerSecond) {
+}
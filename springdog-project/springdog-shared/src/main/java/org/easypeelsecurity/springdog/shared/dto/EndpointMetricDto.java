@@ -26,7 +26,15 @@ import java.time.LocalDate;
  * @param visitCount                  number of visits
  * @param averageResponseMilliseconds average response time in milliseconds
  * @param ratelimitFailureCount       number of rate limit failures
+ * @param baseDate                    date of the metric
+ * @param status2xxCount              number of responses with a 2xx status code
+ * @param status3xxCount              number of responses with a 3xx status code
+ * @param status4xxCount              number of responses with a 4xx status code
+ * @param status5xxCount              number of responses with a 5xx status code
+ * @param exceptionCount              number of requests that ended with an exception
  */
 public record EndpointMetricDto(String path, String method, long visitCount, long averageResponseMilliseconds,
-                                long ratelimitFailureCount, LocalDate baseDate) {
+                                long ratelimitFailureCount, LocalDate baseDate, long status2xxCount,
+                                long status3xxCount, long status4xxCount, long status5xxCount,
+                                long exceptionCount) {
 }
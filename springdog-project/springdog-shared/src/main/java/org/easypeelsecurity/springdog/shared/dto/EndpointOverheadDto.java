@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.dto;
+
+import java.util.Map;
+
+/**
+ * DTO for the time Springdog added to the requests of an endpoint.
+ *
+ * @param methodSignature method signature of the endpoint
+ * @param requestCount    number of measured requests
+ * @param p50Nanos        median overhead per request in nanoseconds
+ * @param p99Nanos        99th percentile overhead per request in nanoseconds
+ * @param stageP99Nanos   99th percentile overhead in nanoseconds by Springdog stage
+ */
+public record EndpointOverheadDto(String methodSignature, long requestCount, long p50Nanos, long p99Nanos,
+                                  Map<String, Long> stageP99Nanos) {
+}
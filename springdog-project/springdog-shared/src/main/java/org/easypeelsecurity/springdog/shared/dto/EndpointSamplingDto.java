@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.dto;
+
+import org.easypeelsecurity.springdog.shared.enums.SamplingMode;
+
+/**
+ * DTO for how the response times of an endpoint are sampled.
+ *
+ * @param methodSignature method signature of the endpoint
+ * @param mode            sampling mode applied to the endpoint
+ * @param probability     probability a request is currently sampled with
+ * @param effectiveRate   ratio of sampled requests during the last second
+ * @param requestCount    number of requests since startup
+ * @param sampledCount    number of sampled requests since startup
+ */
+public record EndpointSamplingDto(String methodSignature, SamplingMode mode, double probability,
+                                  double effectiveRate, long requestCount, long sampledCount) {
+}
@@ -17,6 +17,7 @@
 package org.easypeelsecurity.springdog.shared.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import lombok.Builder;
 import lombok.Getter;
@@ -38,13 +39,21 @@ public class ErrorTracingDto {
   @Setter
   private ErrorTracingDto next;
   private final LocalDateTime timestamp;
+  private final List<StackFrameDto> stackFrames;
+  private final int omittedFrameCount;
+  private final int truncatedFrameCount;
 
   /**
    * Constructor.
+   *
+   * @param stackFrames         the frames of this cause, without the frames in common with the enclosing cause
+   * @param omittedFrameCount   the number of frames in common with the enclosing cause, left out
+   * @param truncatedFrameCount the number of frames left out beyond the maximum stack depth
    */
   @Builder
   public ErrorTracingDto(Long id, String message, String fileName, String className, String methodName,
-      int lineNumber, Long parentTraceId, ErrorTracingDto next, LocalDateTime timestamp) {
+      int lineNumber, Long parentTraceId, ErrorTracingDto next, LocalDateTime timestamp,
+      List<StackFrameDto> stackFrames, int omittedFrameCount, int truncatedFrameCount) {
     this.id = id;
     if (message == null) {
       message = "Unknown message";
@@ -66,6 +75,9 @@ public class ErrorTracingDto {
     this.parentTraceId = parentTraceId;
     this.next = next;
     this.timestamp = timestamp;
+    this.stackFrames = stackFrames == null ? List.of() : List.copyOf(stackFrames);
+    this.omittedFrameCount = omittedFrameCount;
+    this.truncatedFrameCount = truncatedFrameCount;
   }
 
   @Override
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one keyset page of the root error traces.
+ *
+ * @param causes       the root error traces with their whole chains, the newest first
+ * @param nextBeforeId the cursor of the next page, or null if this page is the last one
+ */
+public record ErrorTracingPageDto(List<ErrorTracingDto> causes, Long nextBeforeId) {
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the aggregated occurrences of one exception fingerprint.
+ *
+ * @param fingerprint        identifies the exception type and its normalized stack
+ * @param exceptionClassName fully qualified name of the exception class
+ * @param sampleMessage      message of the most recent occurrence
+ * @param methodSignature    endpoint of the most recent occurrence thrown by a handler method, if any
+ * @param occurrenceCount    number of occurrences
+ * @param storedTraceCount   number of occurrences whose full chain is stored
+ * @param throttledCount     number of occurrences only counted because the capture was throttled
+ * @param firstSeen          time of the first occurrence
+ * @param lastSeen           time of the last occurrence
+ */
+public record ExceptionGroupDto(String fingerprint, String exceptionClassName, String sampleMessage,
+                                String methodSignature, long occurrenceCount, long storedTraceCount,
+                                long throttledCount, LocalDateTime firstSeen, LocalDateTime lastSeen) {
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.dto;
+
+/**
+ * DTO for one frame of a stack trace.
+ *
+ * @param className  fully qualified name of the class
+ * @param methodName name of the method
+ * @param fileName   name of the source file, or null if unknown
+ * @param lineNumber line number, negative if unknown
+ */
+public record StackFrameDto(String className, String methodName, String fileName, int lineNumber) {
+
+  private static final int NATIVE_METHOD_LINE_NUMBER = -2;
+
+  /**
+   * Creates the DTO of a stack trace element.
+   *
+   * @param element the stack trace element
+   * @return the DTO
+   */
+  public static StackFrameDto of(StackTraceElement element) {
+    return new StackFrameDto(element.getClassName(), element.getMethodName(), element.getFileName(),
+        element.getLineNumber());
+  }
+
+  /**
+   * Formats the frame as {@link StackTraceElement#toString()} does, without the module and class loader.
+   */
+  @Override
+  public String toString() {
+    String location;
+    if (lineNumber == NATIVE_METHOD_LINE_NUMBER) {
+      location = "Native Method";
+    } else if (fileName == null) {
+      location = "Unknown Source";
+    } else if (lineNumber >= 0) {
+      location = fileName + ":" + lineNumber;
+    } else {
+      location = fileName;
+    }
+    return className + "." + methodName + "(" + location + ")";
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.enums;
+
+/**
+ * Enum for the databases the Springdog store can run on.
+ *
+ * @author PENEKhun
+ */
+public enum DatabaseType {
+  /**
+   * Embedded Apache Derby, stored in the working directory. This is the default.
+   */
+  DERBY("org.apache.derby.jdbc.EmbeddedDriver", "jdbc:derby:springdog-embedded-database;create=true", "derby"),
+  /**
+   * Embedded Apache Derby kept in memory only. Nothing is written to disk and no migration is run: the latest
+   * schema is created on startup, and every collected data is lost when the application stops.
+   */
+  MEMORY("org.apache.derby.jdbc.EmbeddedDriver", "jdbc:derby:memory:springdog;create=true", "derby"),
+  /**
+   * Embedded H2, stored in the working directory.
+   */
+  H2("org.h2.Driver", "jdbc:h2:./springdog-h2-database", "h2"),
+  /**
+   * External PostgreSQL. The URL must be configured.
+   */
+  POSTGRESQL("org.postgresql.Driver", null, "postgresql");
+
+  private final String driverClassName;
+  private final String defaultUrl;
+  private final String vendor;
+
+  DatabaseType(String driverClassName, String defaultUrl, String vendor) {
+    this.driverClassName = driverClassName;
+    this.defaultUrl = defaultUrl;
+    this.vendor = vendor;
+  }
+
+  /**
+   * Returns the class name of the JDBC driver.
+   */
+  public String getDriverClassName() {
+    return driverClassName;
+  }
+
+  /**
+   * Returns the URL used when none is configured, or {@code null} if a URL must be configured.
+   */
+  public String getDefaultUrl() {
+    return defaultUrl;
+  }
+
+  /**
+   * Returns the name of the directory holding the migrations specific to this database.
+   */
+  public String getVendor() {
+    return vendor;
+  }
+
+  /**
+   * Returns whether this database runs on Apache Derby.
+   */
+  public boolean isDerby() {
+    return "derby".equals(vendor);
+  }
+
+  /**
+   * Returns whether the data is kept in memory only, in which case the number of rows per table is capped.
+   */
+  public boolean isInMemory() {
+    return this == MEMORY;
+  }
+}
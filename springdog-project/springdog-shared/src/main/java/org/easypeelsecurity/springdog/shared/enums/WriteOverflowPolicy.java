@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.enums;
+
+/**
+ * Enum for what happens to a database write when the write-behind queue is full.
+ *
+ * @author PENEKhun
+ */
+public enum WriteOverflowPolicy {
+  /**
+   * Discard the oldest queued write to make room for the new one.
+   */
+  DROP_OLDEST,
+  /**
+   * Wait for free space for a bounded time, then discard the new write.
+   */
+  BLOCK
+}
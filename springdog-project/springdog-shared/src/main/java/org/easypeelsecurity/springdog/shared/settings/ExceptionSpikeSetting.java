@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.settings;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Exception spike setting. A notification is sent when the occurrences of an exception in the last minute
+ * exceed both {@code spikeMultiplier} times its usual rate per minute and {@code minimumOccurrencesPerMinute}.
+ */
+@Getter
+@Setter
+public class ExceptionSpikeSetting {
+  private boolean enabled;
+  private double spikeMultiplier = 5.0;
+  private long minimumOccurrencesPerMinute = 30;
+
+  /**
+   * Validate fields.
+   */
+  protected void validate() {
+    if (enabled) {
+      if (spikeMultiplier < 1) {
+        throw new IllegalArgumentException("Spike multiplier must be greater than or equal to 1");
+      }
+      if (minimumOccurrencesPerMinute < 1) {
+        throw new IllegalArgumentException("Minimum occurrences per minute must be greater than 0");
+      }
+    }
+  }
+}
@@ -95,6 +95,19 @@ public class NotificationGlobalSetting {
     return result;
   }
 
+  /**
+   * Set the templates. A template missing from the map, such as one added after the settings were saved, keeps
+   * its default.
+   * @param templates the templates
+   */
+  public void setTemplates(Map<Template, String> templates) {
+    this.templates = new EnumMap<>(Template.class);
+    initializeDefaultTemplates();
+    if (templates != null) {
+      this.templates.putAll(templates);
+    }
+  }
+
   /**
    * Initialize default templates.
    */
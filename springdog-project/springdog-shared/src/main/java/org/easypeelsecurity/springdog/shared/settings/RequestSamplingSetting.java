@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.settings;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Request sampling setting. Page views are always counted exactly, only the response times are sampled.
+ */
+@Getter
+@Setter
+public class RequestSamplingSetting {
+  private SamplingRule globalRule = new SamplingRule();
+  private Map<String, SamplingRule> endpointRules = new HashMap<>();
+
+  /**
+   * Returns the rule of an endpoint, falling back to the global rule.
+   *
+   * @param methodSignature the method signature of the endpoint
+   * @return the rule to apply
+   */
+  public SamplingRule findRule(String methodSignature) {
+    return endpointRules.getOrDefault(methodSignature, globalRule);
+  }
+
+  /**
+   * Validate fields.
+   */
+  protected void validate() {
+    if (globalRule == null) {
+      throw new IllegalArgumentException("Global sampling rule must not be null");
+    }
+    if (endpointRules == null) {
+      throw new IllegalArgumentException("Endpoint sampling rules must not be null");
+    }
+    globalRule.validate();
+    endpointRules.values().forEach(SamplingRule::validate);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.settings;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Retention setting. Rows older than the configured number of days are pruned in the background, a value of
+ * {@code 0} keeps the rows forever. Pruning is opt-in: every kind of data is kept forever by default, so an
+ * upgrade never deletes collected data.
+ */
+@Getter
+@Setter
+public class RetentionSetting {
+  private int systemMetricRetentionDays;
+  private int errorTraceRetentionDays;
+  private int endpointMetricRetentionDays;
+  private int pruneChunkSize = 500;
+  private boolean compressAfterPrune = true;
+
+  /**
+   * Validate fields.
+   */
+  protected void validate() {
+    if (systemMetricRetentionDays < 0 || errorTraceRetentionDays < 0 || endpointMetricRetentionDays < 0) {
+      throw new IllegalArgumentException("Retention days must be greater than or equal to 0");
+    }
+    if (pruneChunkSize < 1 || pruneChunkSize > 10_000) {
+      throw new IllegalArgumentException("Prune chunk size must be between 1 and 10000");
+    }
+  }
+}
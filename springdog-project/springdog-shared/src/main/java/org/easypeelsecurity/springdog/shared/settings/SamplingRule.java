@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.settings;
+
+import org.easypeelsecurity.springdog.shared.enums.SamplingMode;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Rule deciding which requests of an endpoint get their response time recorded.
+ */
+@Getter
+@Setter
+public class SamplingRule {
+  private SamplingMode mode = SamplingMode.ALL;
+  private double rate = 1.0;
+  private long targetSamplesPerSecond = 100;
+
+  /**
+   * Validate fields.
+   */
+  protected void validate() {
+    if (mode == null) {
+      throw new IllegalArgumentException("Sampling mode must not be null");
+    }
+    if (mode == SamplingMode.FIXED_RATE && (rate <= 0 || rate > 1)) {
+      throw new IllegalArgumentException("Sampling rate must be greater than 0 and less than or equal to 1");
+    }
+    if (mode == SamplingMode.ADAPTIVE && targetSamplesPerSecond < 1) {
+      throw new IllegalArgumentException("Target samples per second must be greater than or equal to 1");
+    }
+  }
+}
@@ -43,4 +43,28 @@ public interface SpringdogSettingManager {
    * @param newSetting the new setting
    */
   void updateSlowResponseSetting(SlowResponseSetting newSetting);
+
+  /**
+   * Update the overhead monitoring setting.
+   * @param newSetting the new setting
+   */
+  void updateOverheadMonitoringSetting(OverheadMonitoringSetting newSetting);
+
+  /**
+   * Update the request sampling setting.
+   * @param newSetting the new setting
+   */
+  void updateRequestSamplingSetting(RequestSamplingSetting newSetting);
+
+  /**
+   * Update the retention setting.
+   * @param newSetting the new setting
+   */
+  void updateRetentionSetting(RetentionSetting newSetting);
+
+  /**
+   * Update the exception spike setting.
+   * @param newSetting the new setting
+   */
+  void updateExceptionSpikeSetting(ExceptionSpikeSetting newSetting);
 }
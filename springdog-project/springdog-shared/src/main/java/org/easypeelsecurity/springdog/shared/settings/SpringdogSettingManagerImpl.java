@@ -141,6 +141,60 @@ public class SpringdogSettingManagerImpl implements SpringdogSettingManager {
     }
   }
 
+  /**
+   * Update overhead monitoring setting.
+   * @param newSetting new setting
+   */
+  public void updateOverheadMonitoringSetting(OverheadMonitoringSetting newSetting) {
+    rwLock.writeLock().lock();
+    try {
+      SpringdogSettings existSetting = getSettings();
+      existSetting.changeOverheadMonitoringSetting(newSetting);
+      updateSettings(existSetting);
+    } finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Update request sampling setting.
+   * @param newSetting new setting
+   */
+  public void updateRequestSamplingSetting(RequestSamplingSetting newSetting) {
+    rwLock.writeLock().lock();
+    try {
+      SpringdogSettings existSetting = getSettings();
+      existSetting.changeRequestSamplingSetting(newSetting);
+      updateSettings(existSetting);
+    } finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void updateRetentionSetting(RetentionSetting newSetting) {
+    rwLock.writeLock().lock();
+    try {
+      SpringdogSettings existSetting = getSettings();
+      existSetting.changeRetentionSetting(newSetting);
+      updateSettings(existSetting);
+    } finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void updateExceptionSpikeSetting(ExceptionSpikeSetting newSetting) {
+    rwLock.writeLock().lock();
+    try {
+      SpringdogSettings existSetting = getSettings();
+      existSetting.changeExceptionSpikeSetting(newSetting);
+      updateSettings(existSetting);
+    } finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
   private SpringdogSettings loadOrCreateSettings() {
     try {
       objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
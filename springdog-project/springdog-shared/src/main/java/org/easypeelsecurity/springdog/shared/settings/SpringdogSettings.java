@@ -26,11 +26,19 @@ public class SpringdogSettings {
   private NotificationGlobalSetting notificationGlobalSetting;
   private SystemWatchSetting systemWatchSetting;
   private SlowResponseSetting slowResponseSetting;
+  private OverheadMonitoringSetting overheadMonitoringSetting;
+  private RequestSamplingSetting requestSamplingSetting;
+  private RetentionSetting retentionSetting;
+  private ExceptionSpikeSetting exceptionSpikeSetting;
 
   SpringdogSettings() {
     this.notificationGlobalSetting = new NotificationGlobalSetting();
     this.systemWatchSetting = new SystemWatchSetting();
     this.slowResponseSetting = new SlowResponseSetting();
+    this.overheadMonitoringSetting = new OverheadMonitoringSetting();
+    this.requestSamplingSetting = new RequestSamplingSetting();
+    this.retentionSetting = new RetentionSetting();
+    this.exceptionSpikeSetting = new ExceptionSpikeSetting();
   }
 
   /**
@@ -62,4 +70,39 @@ public class SpringdogSettings {
     newSetting.validate();
     this.slowResponseSetting = newSetting;
   }
+
+  /**
+   * Change overhead monitoring setting.
+   * @param newSetting new setting
+   */
+  public void changeOverheadMonitoringSetting(OverheadMonitoringSetting newSetting) {
+    this.overheadMonitoringSetting = newSetting;
+  }
+
+  /**
+   * Change request sampling setting.
+   * @param newSetting new setting
+   */
+  public void changeRequestSamplingSetting(RequestSamplingSetting newSetting) {
+    newSetting.validate();
+    this.requestSamplingSetting = newSetting;
+  }
+
+  /**
+   * Change retention setting.
+   * @param newSetting new setting
+   */
+  public void changeRetentionSetting(RetentionSetting newSetting) {
+    newSetting.validate();
+    this.retentionSetting = newSetting;
+  }
+
+  /**
+   * Change exception spike setting.
+   * @param newSetting new setting
+   */
+  public void changeExceptionSpikeSetting(ExceptionSpikeSetting newSetting) {
+    newSetting.validate();
+    this.exceptionSpikeSetting = newSetting;
+  }
 }
@@ -60,6 +60,29 @@ public enum Template {
                 </p>
             </div>
         </div>
+      """),
+  EXCEPTION_SPIKE_SUBJECT("Exception Spike Alert : {{EXCEPTION}} {{SPIKE_STATUS}} - {{OCCURRENCES_PER_MINUTE}}/min"),
+  EXCEPTION_SPIKE_BODY("""
+        <div style="border-radius: 8px; border: 1px solid #ccc; background-color: #f9f9f9; color: #333;
+        box-shadow: 0 2px 4px rgba(0, 0, 0, 0.1); max-width: 600px; margin: 0 auto;
+        font-family: Arial, sans-serif;">
+            <div style="padding: 16px;">
+                <h3 style="margin: 0; font-size: 24px; font-weight: 600; text-align: center;">
+                    Exception Spike Alert
+                </h3>
+            </div>
+            <div style="padding: 16px; line-height: 1.5;">
+                <p>Hello,</p>
+                <p>The rate of one of your exceptions has {{SPIKE_STATUS}} compared to its usual rate.
+                This has been detected by springdog monitoring system.</p>
+                <p><strong>Exception:</strong><br>
+                  {{EXCEPTION}}
+                </p>
+                <p><strong>Occurrences in the last minute:</strong><br>
+                  {{OCCURRENCES_PER_MINUTE}}
+                </p>
+            </div>
+        </div>
       """);
 
   private final String defaultTemplate;
@@ -16,7 +16,10 @@
 
 package org.easypeelsecurity.springdog.shared.util;
 
+import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.web.method.HandlerMethod;
 
@@ -24,11 +27,19 @@ import org.springframework.web.method.HandlerMethod;
  * Utility class for parsing Method Signature from HandlerMethod instances.
  * This class provides functionality to obtain a string representation of a method's full
  * signature including return type, class name, method name, and parameter types.
+ * The signatures are cached per bean type and method, since they are parsed on every request.
  *
  * @author PENEKhun
  */
 public abstract class MethodSignatureParser {
 
+  private static final ClassValue<Map<Method, String>> SIGNATURES = new ClassValue<>() {
+    @Override
+    protected Map<Method, String> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
   /**
    * Parse methodSignature for the given HandlerMethod.
    * (e.g. "void
@@ -38,12 +49,17 @@ public abstract class MethodSignatureParser {
    * @return a string representing the fully qualified method name
    */
   public static String parse(HandlerMethod method) {
-    String returnType = method.getMethod().getReturnType().getName();
-    String fullClassName = method.getBeanType().getName();
+    Class<?> beanType = method.getBeanType();
+    return SIGNATURES.get(beanType).computeIfAbsent(method.getMethod(), key -> parse(beanType, key));
+  }
+
+  private static String parse(Class<?> beanType, Method method) {
+    String returnType = method.getReturnType().getName();
+    String fullClassName = beanType.getName();
     StringBuilder result =
-        new StringBuilder(returnType + " " + fullClassName + "." + method.getMethod().getName() + "(");
+        new StringBuilder(returnType + " " + fullClassName + "." + method.getName() + "(");
     StringBuilder parameterPart = new StringBuilder();
-    for (Parameter parameter : method.getMethod().getParameters()) {
+    for (Parameter parameter : method.getParameters()) {
       parameterPart.append(parameter.getType().getName()).append(", ");
     }
 
@@ -32,6 +32,7 @@ import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
  * @param dailyTopTrafficEndpoints   The daily top traffic endpoints
  * @param dailySlowestEndpoints      The daily slowest endpoints
  * @param dailyTopFailEndpoints      The daily top fail endpoints
+ * @param dailyTopErrorRateEndpoints The daily endpoints with the highest exception rate
  */
 public record DashboardResponse(
     long totalEndpointCount,
@@ -41,7 +42,8 @@ public record DashboardResponse(
     List<DailyEndpointMetric> dailyEndpointMetrics,
     List<DailyTopTrafficEndpoint> dailyTopTrafficEndpoints,
     List<DailySlowestEndpoint> dailySlowestEndpoints,
-    List<DailyTopFailWithRatelimitEndpoint> dailyTopFailEndpoints
+    List<DailyTopFailWithRatelimitEndpoint> dailyTopFailEndpoints,
+    List<DailyTopErrorRateEndpoint> dailyTopErrorRateEndpoints
 ) {
   /**
    * The daily endpoint metric.
@@ -100,4 +102,22 @@ public record DashboardResponse(
       long count
   ) {
   }
+
+  /**
+   * The daily endpoint ranked by the share of its requests that threw an exception.
+   *
+   * @param endpoint       The endpoint(path)
+   * @param method         The http method
+   * @param exceptionCount The number of requests that threw an exception
+   * @param requestCount   The number of requests
+   * @param errorRate      The exception count over the request count, in percent
+   */
+  public record DailyTopErrorRateEndpoint(
+      String endpoint,
+      String method,
+      long exceptionCount,
+      long requestCount,
+      double errorRate
+  ) {
+  }
 }
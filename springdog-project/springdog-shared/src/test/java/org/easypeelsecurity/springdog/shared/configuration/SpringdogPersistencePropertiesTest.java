@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.easypeelsecurity.springdog.shared.enums.WriteOverflowPolicy;
+
+import org.junit.jupiter.api.Test;
+
+class SpringdogPersistencePropertiesTest {
+
+  @Test
+  void defaultValuesTest() {
+    // when
+    SpringdogPersistenceProperties properties = new SpringdogPersistenceProperties();
+
+    // then
+    assertThat(properties.getQueueCapacity()).isEqualTo(10_000);
+    assertThat(properties.getOverflowPolicy()).isEqualTo(WriteOverflowPolicy.DROP_OLDEST);
+    assertThat(properties.getBlockTimeoutMillis()).isEqualTo(50);
+    assertThat(properties.getMaxBatchSize()).isEqualTo(500);
+  }
+
+  @Test
+  void overflowPolicyTest() {
+    // given
+    SpringdogPersistenceProperties properties = new SpringdogPersistenceProperties();
+    properties.setOverflowPolicy(WriteOverflowPolicy.BLOCK);
+
+    // when
+    WriteOverflowPolicy overflowPolicy = properties.getOverflowPolicy();
+
+    // then
+    assertThat(overflowPolicy).isEqualTo(WriteOverflowPolicy.BLOCK);
+  }
+}
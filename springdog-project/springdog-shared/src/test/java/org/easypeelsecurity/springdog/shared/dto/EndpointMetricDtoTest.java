@@ -35,11 +35,16 @@ class EndpointMetricDtoTest {
     long averageResponseMilliseconds = 200;
     long ratelimitFailureCount = 1_000;
     LocalDate baseDate = LocalDate.now();
+    long status2xxCount = 90;
+    long status3xxCount = 1;
+    long status4xxCount = 7;
+    long status5xxCount = 2;
+    long exceptionCount = 2;
 
     // when
     EndpointMetricDto dto =
         new EndpointMetricDto(path, method, visitCount, averageResponseMilliseconds, ratelimitFailureCount,
-            baseDate);
+            baseDate, status2xxCount, status3xxCount, status4xxCount, status5xxCount, exceptionCount);
 
     // then
     assertEquals(path, dto.path());
@@ -48,5 +53,10 @@ class EndpointMetricDtoTest {
     assertEquals(averageResponseMilliseconds, dto.averageResponseMilliseconds());
     assertEquals(ratelimitFailureCount, dto.ratelimitFailureCount());
     assertEquals(baseDate, dto.baseDate());
+    assertEquals(status2xxCount, dto.status2xxCount());
+    assertEquals(status3xxCount, dto.status3xxCount());
+    assertEquals(status4xxCount, dto.status4xxCount());
+    assertEquals(status5xxCount, dto.status5xxCount());
+    assertEquals(exceptionCount, dto.exceptionCount());
   }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.settings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.easypeelsecurity.springdog.shared.enums.SamplingMode;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RequestSamplingSettingTest {
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0.0, -0.1, 1.1})
+  @DisplayName("Throws exception when the fixed rate is out of range")
+  void invalidFixedRate(double rate) {
+    RequestSamplingSetting setting = new RequestSamplingSetting();
+    setting.getGlobalRule().setMode(SamplingMode.FIXED_RATE);
+    setting.getGlobalRule().setRate(rate);
+
+    assertThatThrownBy(setting::validate).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Throws exception when an endpoint rule targets no samples")
+  void invalidEndpointRule() {
+    SamplingRule rule = new SamplingRule();
+    rule.setMode(SamplingMode.ADAPTIVE);
+    rule.setTargetSamplesPerSecond(0);
+    RequestSamplingSetting setting = new RequestSamplingSetting();
+    setting.getEndpointRules().put("endpoint", rule);
+
+    assertThatThrownBy(setting::validate).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("An endpoint without its own rule uses the global rule")
+  void findRule() {
+    SamplingRule rule = new SamplingRule();
+    rule.setMode(SamplingMode.FIXED_RATE);
+    rule.setRate(0.5);
+    RequestSamplingSetting setting = new RequestSamplingSetting();
+    setting.getEndpointRules().put("endpoint", rule);
+
+    assertThatCode(setting::validate).doesNotThrowAnyException();
+    assertThat(setting.findRule("endpoint")).isSameAs(rule);
+    assertThat(setting.findRule("other")).isSameAs(setting.getGlobalRule());
+  }
+}
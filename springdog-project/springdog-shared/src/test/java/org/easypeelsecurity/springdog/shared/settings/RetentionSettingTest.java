@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.shared.settings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RetentionSettingTest {
+
+  @Test
+  @DisplayName("Throws exception when the retention days are negative")
+  void negativeRetentionDays() {
+    RetentionSetting setting = new RetentionSetting();
+    setting.setErrorTraceRetentionDays(-1);
+
+    assertThatThrownBy(setting::validate).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, -1, 10_001})
+  @DisplayName("Throws exception when the chunk size is out of range")
+  void invalidChunkSize(int chunkSize) {
+    RetentionSetting setting = new RetentionSetting();
+    setting.setPruneChunkSize(chunkSize);
+
+    assertThatThrownBy(setting::validate).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Zero retention days keep the rows forever")
+  void keepForever() {
+    RetentionSetting setting = new RetentionSetting();
+    setting.setSystemMetricRetentionDays(0);
+    setting.setErrorTraceRetentionDays(0);
+    setting.setEndpointMetricRetentionDays(0);
+
+    assertThatCode(setting::validate).doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Keeps every row by default")
+  void keepForeverByDefault() {
+    RetentionSetting setting = new RetentionSetting();
+
+    assertThat(setting.getSystemMetricRetentionDays()).isZero();
+    assertThat(setting.getErrorTraceRetentionDays()).isZero();
+    assertThat(setting.getEndpointMetricRetentionDays()).isZero();
+  }
+}
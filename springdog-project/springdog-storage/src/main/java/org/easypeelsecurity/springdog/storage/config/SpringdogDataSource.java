@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.config;
+
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+/**
+ * Connection pool of the Springdog store, shared by Cayenne and Flyway.
+ * <p>
+ * The pool caches the prepared statements of each connection, so the statements repeated by the schedulers
+ * are parsed only once per connection. This class deliberately does not implement {@link DataSource}, so
+ * registering it as a bean never replaces the datasource of the application.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+public class SpringdogDataSource implements AutoCloseable {
+
+  /**
+   * Stream that swallows the Derby log of the in-memory database, see {@link #bootWithoutDerbyLog()}.
+   */
+  public static final OutputStream DISCARDED_DERBY_LOG = OutputStream.nullOutputStream();
+  private static final String DERBY_ERROR_FIELD = "derby.stream.error.field";
+  private static final List<String> DERBY_ERROR_STREAMS =
+      List.of("derby.stream.error.file", DERBY_ERROR_FIELD, "derby.stream.error.method");
+
+  private final DatabaseType type;
+  private final BasicDataSource dataSource;
+
+  /**
+   * Constructor.
+   *
+   * @param type               the database type
+   * @param url                the JDBC URL
+   * @param username           the username, or {@code null} for none
+   * @param password           the password, or {@code null} for none
+   * @param maxPoolSize        the maximum number of pooled connections
+   * @param statementCacheSize the maximum number of cached prepared statements per connection, 0 to disable
+   */
+  public SpringdogDataSource(DatabaseType type, String url, String username, String password, int maxPoolSize,
+      int statementCacheSize) {
+    Assert.notNull(type, "Database type must not be null");
+    Assert.hasText(url, "Datasource URL must not be empty");
+    Assert.isTrue(maxPoolSize > 0, "Max pool size must be greater than 0");
+    Assert.isTrue(statementCacheSize >= 0, "Statement cache size must be non-negative");
+
+    this.type = type;
+    this.dataSource = new BasicDataSource();
+    dataSource.setDriverClassName(type.getDriverClassName());
+    dataSource.setUrl(url);
+    dataSource.setUsername(username);
+    dataSource.setPassword(password);
+    dataSource.setMaxTotal(maxPoolSize);
+    dataSource.setMaxIdle(maxPoolSize);
+    if (statementCacheSize > 0) {
+      dataSource.setPoolPreparedStatements(true);
+      dataSource.setMaxOpenPreparedStatements(statementCacheSize);
+    }
+  }
+
+  /**
+   * Opens the first connection of the in-memory database so Derby does not write its {@code derby.log} into the
+   * working directory, unless the application already chose where the log goes. Called when the store is
+   * initialized, so Derby boots off the application startup path unless asynchronous initialization is
+   * disabled.
+   * <p>
+   * Derby ignores the error stream given as a connection attribute and only reads the system property once,
+   * when its engine boots, so the property is set for the first connection only and cleared right after.
+   * It has no effect when the engine was already booted by the application.
+   * </p>
+   */
+  void bootWithoutDerbyLog() {
+    synchronized (SpringdogDataSource.class) {
+      boolean configured = DERBY_ERROR_STREAMS.stream().anyMatch(name -> System.getProperty(name) != null);
+      if (!configured) {
+        System.setProperty(DERBY_ERROR_FIELD, SpringdogDataSource.class.getName() + ".DISCARDED_DERBY_LOG");
+      }
+      try (Connection ignored = dataSource.getConnection()) {
+        // Booting the engine and creating the database is all this connection is for.
+      } catch (SQLException e) {
+        throw new IllegalStateException("Failed to create the in-memory Springdog database", e);
+      } finally {
+        if (!configured) {
+          System.clearProperty(DERBY_ERROR_FIELD);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the database type.
+   */
+  public DatabaseType getType() {
+    return type;
+  }
+
+  /**
+   * Returns the pooled datasource.
+   */
+  public DataSource getDataSource() {
+    return dataSource;
+  }
+
+  /**
+   * Closes every pooled connection.
+   */
+  @Override
+  public void close() throws SQLException {
+    dataSource.close();
+  }
+}
@@ -16,13 +16,28 @@
 
 package org.easypeelsecurity.springdog.storage.config;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Scope;
 
-import org.apache.cayenne.ObjectContext;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+import org.easypeelsecurity.springdog.storage.migration.ExceptionCauseRootMigration;
+
+import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.configuration.server.ServerRuntime;
 import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.configuration.FluentConfiguration;
@@ -32,13 +47,26 @@ import org.slf4j.LoggerFactory;
 /**
  * Configuration class for setting up the Springdog datasource and managing database migrations.
  * <p>
- * This configuration ensures that the Apache Derby database is fully initialized before Flyway
- * performs any migration operations. This is crucial to prevent Flyway from attempting to migrate
- * an uninitialized or partially initialized database, which can lead to migration errors.
+ * Cayenne and Flyway share one {@link SpringdogDataSource}, which points at embedded Derby (the default),
+ * embedded H2 or an external PostgreSQL database depending on {@code springdog.datasource.type}.
+ * The database is prepared in three steps:
+ * </p>
+ * <ol>
+ *   <li>A short-lived runtime on the {@code cayenne-before-migration} project creates the baseline
+ *   schema if the database is empty.</li>
+ *   <li>Flyway migrates the baseline schema to the latest version, applying the common migrations and the
+ *   ones specific to the database type.</li>
+ *   <li>The runtime used by Springdog is built on the {@code cayenne-after-migration} project, so
+ *   every column added by a migration is mapped from the very first query.</li>
+ * </ol>
+ * <p>
+ * The first two steps run off the application startup path unless asynchronous initialization is disabled,
+ * and {@link SpringdogStoreReadiness} tells when they are done.
  * </p>
  * <p>
- * The initialization order is managed by defining dependencies between Spring beans and using
- * {@link CommandLineRunner} to execute Flyway migrations after the Derby datasource is ready.
+ * The in-memory database skips Flyway: its latest schema is created in one step from the
+ * {@code cayenne-after-migration} project, and the indexes of the migrations are added from
+ * {@code springdog-db/memory/indexes.sql}. Its first connection, which boots Derby, is opened in the same step.
  * </p>
  *
  * @see <a href="https://flywaydb.org/documentation/">Flyway Documentation</a>
@@ -46,87 +74,195 @@ import org.slf4j.LoggerFactory;
  */
 @Configuration
 public class SpringdogDatasourceConfig {
+  private static final String SCHEMA = "APP";
+  private static final String MIGRATION_LOCATION = "springdog-db/migration/";
+  private static final String AFTER_MIGRATION_CONFIG =
+      "springdog-db/cayenne-after-migration/cayenne-springdog.xml";
+  private static final String MEMORY_INDEXES = "springdog-db/memory/indexes.sql";
   Logger logger = LoggerFactory.getLogger(SpringdogDatasourceConfig.class);
 
   /**
-   * Configures and initializes the Springdog datasource using Apache Derby.
+   * Creates the connection pool of the Springdog store from the {@code springdog.datasource} properties.
+   *
+   * @param properties the Springdog properties
+   * @return the pooled datasource, closed when the application context is closed
+   */
+  @Bean(name = "springdogDataSource", destroyMethod = "close")
+  public SpringdogDataSource springdogDataSource(SpringdogProperties properties) {
+    logger.info("Springdog datasource uses {}", properties.getDatasourceType());
+    return new SpringdogDataSource(properties.getDatasourceType(), properties.getDatasourceUrl(),
+        properties.getDatasourceUsername(), properties.getDatasourcePassword(),
+        properties.getDatasourceMaxPoolSize(), properties.getDatasourceStatementCacheSize());
+  }
+
+  /**
+   * Configures the Springdog runtime on the pooled datasource and initializes the database.
    * <p>
-   * This bean sets up the {@link ServerRuntime} for the Springdog datasource with the specified
-   * JDBC driver and URL. The Derby database is created if it does not already exist.
+   * The baseline schema is created and migrated by Flyway on the raw pool, so the runtime always works on the
+   * latest schema. An in-memory database gets the latest schema created from the mapping instead, without
+   * Flyway. When {@code springdog.datasource.asyncInitialization} is enabled (the default) this happens
+   * on a background thread and the runtime is returned at once; its connections are held back until the
+   * database is ready.
    * </p>
    *
+   * @param flyway         the Flyway instance responsible for performing migrations.
+   * @param dataSource     the pooled Springdog datasource.
+   * @param storeReadiness marked once the database is ready.
+   * @param properties     the Springdog properties.
    * @return a configured {@link ServerRuntime} instance for the Springdog datasource.
    */
   @Bean(name = "springdogRepository")
-  public ServerRuntime springdogRepository() {
+  public ServerRuntime springdogRepository(@Qualifier("springdogFlyway") Flyway flyway,
+      @Qualifier("springdogDataSource") SpringdogDataSource dataSource, SpringdogStoreReadiness storeReadiness,
+      SpringdogProperties properties) {
     logger.info("Springdog datasource configuration started");
-    return ServerRuntime.builder()
-        .jdbcDriver("org.apache.derby.jdbc.EmbeddedDriver")
-        .url("jdbc:derby:springdog-embedded-database;create=true")
-        .addConfig("springdog-db/cayenne-before-migration/cayenne-springdog.xml")
+    ServerRuntime runtime = ServerRuntime.builder()
+        .dataSource(new StoreReadinessDataSource(dataSource.getDataSource(), storeReadiness))
+        .addConfig(AFTER_MIGRATION_CONFIG)
         .build();
+
+    if (properties.isDatasourceAsyncInitialization()) {
+      Thread initializer = new Thread(() -> {
+        try {
+          initializeStore(flyway, dataSource, storeReadiness);
+        } catch (RuntimeException e) {
+          logger.error("Springdog database failed to initialize, its features stay disabled", e);
+        }
+      }, "springdog-store-initializer");
+      initializer.setDaemon(true);
+      initializer.start();
+    } else {
+      initializeStore(flyway, dataSource, storeReadiness);
+    }
+    return runtime;
   }
 
-  /**
-   * Provides a prototype-scoped {@link ObjectContext} for interacting with the Springdog datasource.
-   * <p>
-   * Each call to this bean will create a new {@link ObjectContext}, ensuring thread safety and
-   * isolation between different operations.
-   * </p>
-   *
-   * @return a new {@link ObjectContext} instance for the Springdog datasource.
-   */
-  @Bean(name = "springdogContext")
-  @Scope("prototype")
-  public ObjectContext springdogContext() {
-    return springdogRepository().newContext();
+  private void initializeStore(Flyway flyway, SpringdogDataSource dataSource,
+      SpringdogStoreReadiness storeReadiness) {
+    long startTime = System.nanoTime();
+    try {
+      if (dataSource.getType().isInMemory()) {
+        dataSource.bootWithoutDerbyLog();
+        createSchema(dataSource, AFTER_MIGRATION_CONFIG);
+        executeScript(dataSource, MEMORY_INDEXES);
+        logger.info("Springdog in-memory schema created without migration");
+      } else {
+        createBaselineSchemaIfAbsent(dataSource);
+
+        logger.info("Starting Flyway migration for Springdog datasource");
+        flyway.migrate();
+        logger.info("Flyway migration for Springdog datasource completed");
+      }
+    } catch (RuntimeException e) {
+      storeReadiness.markFailed(e);
+      throw e;
+    }
+    logger.info("Springdog database is ready after {} ms", (System.nanoTime() - startTime) / 1_000_000);
+    storeReadiness.markReady();
   }
 
   /**
    * Configures the Flyway instance for managing database migrations.
    * <p>
-   * This Flyway bean is configured with the appropriate datasource URL and migration settings.
-   * The Flyway instance does not automatically execute migrations upon bean creation to allow
-   * for controlled initialization order.
+   * This Flyway bean migrates through the pooled Springdog datasource, using the migrations shared by every
+   * database type plus the ones under the directory of the configured type. The Java migrations are
+   * registered explicitly instead of being scanned from the classpath.
+   * The Flyway instance does not automatically execute migrations upon bean creation; they are
+   * executed once the {@code springdogRepository} bean is created.
    * </p>
    *
+   * @param dataSource the pooled Springdog datasource.
    * @return a configured {@link Flyway} instance ready for migration.
    */
   @Bean(name = "springdogFlyway")
-  public Flyway flyway() {
+  public Flyway flyway(@Qualifier("springdogDataSource") SpringdogDataSource dataSource) {
     logger.info("Springdog datasource flyway migration ready");
     FluentConfiguration config = new FluentConfiguration();
     config
-        .dataSource("jdbc:derby:springdog-embedded-database", null, null)
+        .dataSource(dataSource.getDataSource())
         .baselineOnMigrate(true)
         .baselineVersion("0")
         .sqlMigrationPrefix("V")
         .sqlMigrationSeparator("__")
-        .locations("classpath:springdog-db/migration")
+        .locations(migrationLocations(dataSource.getType()))
+        .javaMigrations(new ExceptionCauseRootMigration())
         .validateMigrationNaming(true);
+    if (!dataSource.getType().isDerby()) {
+      config.defaultSchema(SCHEMA);
+    }
     return new Flyway(config);
   }
 
+  private String[] migrationLocations(DatabaseType type) {
+    List<String> locations = new ArrayList<>();
+    locations.add("classpath:" + MIGRATION_LOCATION + "common");
+    String vendorLocation = MIGRATION_LOCATION + type.getVendor();
+    if (getClass().getClassLoader().getResource(vendorLocation) != null) {
+      locations.add("classpath:" + vendorLocation);
+    }
+    return locations.toArray(String[]::new);
+  }
+
   /**
-   * Executes Flyway migrations after the Springdog datasource has been fully initialized.
-   * <p>
-   * This {@link CommandLineRunner} bean ensures that Flyway's {@code migrate} method is called
-   * only after the {@code springdogRepository} bean has been initialized. This prevents Flyway
-   * from attempting to migrate the database before Derby has completed its initialization,
-   * avoiding potential migration errors.
-   * </p>
-   *
-   * @param flyway the Flyway instance responsible for performing migrations.
-   * @param springdogRepository the Springdog datasource repository to ensure Derby is initialized.
-   * @return a {@link CommandLineRunner} that triggers Flyway migrations at application startup.
+   * Creates the baseline (version 0) schema when the database does not contain any Springdog table yet.
+   * Derby creates the {@code APP} schema of the mapping by itself, the other databases get it created here.
+   */
+  private void createBaselineSchemaIfAbsent(SpringdogDataSource dataSource) {
+    if (!dataSource.getType().isDerby()) {
+      try (Connection connection = dataSource.getDataSource().getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute("create schema if not exists " + SCHEMA);
+      } catch (SQLException e) {
+        throw new IllegalStateException("Failed to create the Springdog schema", e);
+      }
+    }
+
+    createSchema(dataSource, "springdog-db/cayenne-before-migration/cayenne-springdog.xml");
+  }
+
+  /**
+   * Creates the tables of the given mapping when the database does not contain any of them yet.
+   * The bootstrap runtime works on the raw pool and is shut down right after, it is never used to access data.
+   */
+  private void createSchema(SpringdogDataSource dataSource, String config) {
+    ServerRuntime bootstrapRuntime = ServerRuntime.builder()
+        .dataSource(dataSource.getDataSource())
+        .addConfig(config)
+        .build();
+    try {
+      DataNode node = bootstrapRuntime.getDataDomain().getDefaultNode();
+      node.getSchemaUpdateStrategy().updateSchema(node);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to create the Springdog schema", e);
+    } finally {
+      bootstrapRuntime.shutdown();
+    }
+  }
+
+  /**
+   * Executes the statements of a script resource, separated by semicolons, skipping its comment lines.
    */
-  @Bean(name = "springdogFlywayRunner")
-  public CommandLineRunner migrateFlyway(@Qualifier("springdogFlyway") Flyway flyway,
-      @Qualifier("springdogRepository") ServerRuntime springdogRepository) {
-    return args -> {
-      logger.info("Starting Flyway migration for Springdog datasource");
-      flyway.migrate();
-      logger.info("Flyway migration for Springdog datasource completed");
-    };
+  private void executeScript(SpringdogDataSource dataSource, String script) {
+    String sql;
+    try (InputStream input = getClass().getClassLoader().getResourceAsStream(script)) {
+      Assert.notNull(input, "Script not found: " + script);
+      sql = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + script, e);
+    }
+
+    try (Connection connection = dataSource.getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      String withoutComments = sql.lines()
+          .filter(line -> !line.startsWith("--"))
+          .collect(Collectors.joining("\n"));
+      for (String command : withoutComments.split(";")) {
+        if (!command.isBlank()) {
+          statement.execute(command.strip());
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to execute " + script, e);
+    }
   }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.config;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.storage.timeseries.GorillaSystemMetricStore;
+
+/**
+ * Configuration of the optional time-series storage engine for system metrics.
+ * <p>
+ * Only active when {@code springdog.timeseries.enabled} is {@code true}. System metrics are then kept in
+ * compressed chunk files under {@code springdog.timeseries.directory} instead of the {@code SYSTEM_METRIC}
+ * table, which is left untouched.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "springdog.timeseries", name = "enabled", havingValue = "true")
+public class SpringdogTimeSeriesConfig {
+
+  /**
+   * Opens the system metric time-series store.
+   *
+   * @param properties the Springdog properties
+   * @return the store, flushed when the application context is closed
+   */
+  @Bean(name = "springdogSystemMetricTimeSeries", destroyMethod = "close")
+  public GorillaSystemMetricStore springdogSystemMetricTimeSeries(SpringdogProperties properties) {
+    return new GorillaSystemMetricStore(Path.of(properties.getTimeSeriesDirectory()),
+        properties.getTimeSeriesChunkSizeBytes());
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.config;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+
+/**
+ * Datasource handed to the Springdog runtime, which gives out connections only once the database is ready.
+ * <p>
+ * The database is created and migrated on the raw pool while the runtime may already be in use. Holding
+ * the connections of the runtime back until then makes sure no query sees a half-migrated schema and that the
+ * runtime never creates the tables of the latest mapping before Flyway ran. A connection is waited for at most
+ * {@link #READY_TIMEOUT_MILLIS}, so a slow migration fails the query instead of hanging the calling thread.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+class StoreReadinessDataSource implements DataSource {
+  static final long READY_TIMEOUT_MILLIS = 10_000;
+
+  private final DataSource delegate;
+  private final SpringdogStoreReadiness storeReadiness;
+  private final long readyTimeoutMillis;
+
+  StoreReadinessDataSource(DataSource delegate, SpringdogStoreReadiness storeReadiness) {
+    this(delegate, storeReadiness, READY_TIMEOUT_MILLIS);
+  }
+
+  StoreReadinessDataSource(DataSource delegate, SpringdogStoreReadiness storeReadiness,
+      long readyTimeoutMillis) {
+    this.delegate = delegate;
+    this.storeReadiness = storeReadiness;
+    this.readyTimeoutMillis = readyTimeoutMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    awaitStore();
+    return delegate.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    awaitStore();
+    return delegate.getConnection(username, password);
+  }
+
+  private void awaitStore() throws SQLException {
+    try {
+      if (!storeReadiness.await(readyTimeoutMillis)) {
+        throw new SQLTransientConnectionException("Springdog database is not ready yet");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for the Springdog database", e);
+    } catch (IllegalStateException e) {
+      throw new SQLException(e.getMessage(), e.getCause());
+    }
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    return delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.migration;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+
+/**
+ * Version 7: marks the root cause of every stored chain and links each other cause to its root.
+ * <p>
+ * Derby has no recursive query, so the causes are linked one level deeper per update until an update links
+ * none, however deep the chains are. Each pass only touches the causes whose parent was already linked, so a
+ * cause whose parent is missing keeps a {@code null} root and the loop always ends.
+ * </p>
+ * <p>
+ * The version is declared here rather than parsed from the class name, so the class is named like any other.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+public class ExceptionCauseRootMigration implements JavaMigration {
+
+  @Override
+  public MigrationVersion getVersion() {
+    return MigrationVersion.fromVersion("7");
+  }
+
+  @Override
+  public String getDescription() {
+    return "add exception cause root";
+  }
+
+  @Override
+  public Integer getChecksum() {
+    return null;
+  }
+
+  @Override
+  public boolean canExecuteInTransaction() {
+    return true;
+  }
+
+  @Override
+  public void migrate(Context context) throws SQLException {
+    try (Statement statement = context.getConnection().createStatement()) {
+      statement.execute("alter table EXCEPTION_CAUSE add column IS_ROOT boolean default false not null");
+      statement.execute("alter table EXCEPTION_CAUSE add column ROOT_ID bigint default null");
+      statement.executeUpdate("update EXCEPTION_CAUSE set IS_ROOT = true where NEXT_EXCEPTION_ID is null");
+
+      int linked = statement.executeUpdate("update EXCEPTION_CAUSE set ROOT_ID = NEXT_EXCEPTION_ID" +
+          " where NEXT_EXCEPTION_ID in (select ID from EXCEPTION_CAUSE where IS_ROOT = true)");
+      while (linked > 0) {
+        linked = statement.executeUpdate("update EXCEPTION_CAUSE set ROOT_ID =" +
+            " (select P.ROOT_ID from EXCEPTION_CAUSE P where P.ID = EXCEPTION_CAUSE.NEXT_EXCEPTION_ID)" +
+            " where ROOT_ID is null and IS_ROOT = false and exists (select 1 from EXCEPTION_CAUSE P" +
+            " where P.ID = EXCEPTION_CAUSE.NEXT_EXCEPTION_ID and P.ROOT_ID is not null)");
+      }
+
+      statement.execute("create index IDX_EXCEPTION_CAUSE_ROOT on EXCEPTION_CAUSE (IS_ROOT, ID desc)");
+      statement.execute("create index IDX_EXCEPTION_CAUSE_ROOT_ID on EXCEPTION_CAUSE (ROOT_ID)");
+    }
+  }
+}
@@ -18,6 +18,7 @@ package org.easypeelsecurity.springdog.storage.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Repository;
 
@@ -26,12 +27,18 @@ import org.easypeelsecurity.springdog.domain.statistics.EndpointMetricRepository
 import org.easypeelsecurity.springdog.domain.statistics.model.EndpointMetric;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyEndpointMetric;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailySlowestEndpoint;
+import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopErrorRateEndpoint;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopFailWithRatelimitEndpoint;
 import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopTrafficEndpoint;
 
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.query.CapsStrategy;
 import org.apache.cayenne.query.EJBQLQuery;
 import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.Ordering;
+import org.apache.cayenne.query.SQLSelect;
+import org.apache.cayenne.query.SortOrder;
 
 /**
  * Implementation of {@link EndpointMetricRepository}.
@@ -56,6 +63,7 @@ public class EndpointMetricRepositoryImpl implements EndpointMetricRepository {
         .where(EndpointMetric.ENDPOINT.eqId(endpointId))
         .orderBy(EndpointMetric.METRIC_DATE.desc())
         .limit(limit)
+        .prefetch(EndpointMetric.STATUS_METRICS.disjoint())
         .select(context);
   }
 
@@ -128,4 +136,45 @@ public class EndpointMetricRepositoryImpl implements EndpointMetricRepository {
             metric.getPageView()))
         .toList();
   }
+
+  @Override
+  public List<DailyTopErrorRateEndpoint> getDailyTopErrorRateEndpoints(ObjectContext context, int limit,
+      LocalDate specificDate) {
+    // the same error rate as errorRate(), computed in double precision so that the order matches it
+    return SQLSelect.query(EndpointMetric.class, "SELECT * FROM APP.ENDPOINT_METRIC" +
+            " WHERE METRIC_DATE = #bind($date) AND EXCEPTION_COUNT > 0" +
+            " ORDER BY CAST(EXCEPTION_COUNT AS DOUBLE PRECISION) * 100 /" +
+            " CASE WHEN PAGE_VIEW > EXCEPTION_COUNT THEN PAGE_VIEW ELSE EXCEPTION_COUNT END DESC," +
+            " EXCEPTION_COUNT DESC")
+        .param("date", specificDate)
+        .columnNameCaps(CapsStrategy.UPPER)
+        .limit(limit)
+        .addPrefetch(EndpointMetric.ENDPOINT.disjointById())
+        .select(context)
+        .stream()
+        .map(metric -> new DailyTopErrorRateEndpoint(
+            metric.getEndpoint().getPath(),
+            metric.getEndpoint().getHttpMethod(),
+            metric.getExceptionCount(),
+            metric.getPageView(),
+            errorRate(metric)))
+        .toList();
+  }
+
+  private static double errorRate(EndpointMetric metric) {
+    return metric.getExceptionCount() * 100.0 / Math.max(metric.getPageView(), metric.getExceptionCount());
+  }
+
+  @Override
+  public void forEachEndpointMetric(ObjectContext context, LocalDate from, LocalDate to, long afterId,
+      int limit, Consumer<EndpointMetric> action) {
+    ObjectSelect.query(EndpointMetric.class)
+        .where(ExpressionFactory.greaterDbExp("ID", afterId))
+        .and(EndpointMetric.METRIC_DATE.gte(from))
+        .and(EndpointMetric.METRIC_DATE.lt(to))
+        .orderBy(new Ordering("db:ID", SortOrder.ASCENDING))
+        .limit(limit)
+        .statementFetchSize(limit)
+        .iterate(context, action::accept);
+  }
 }
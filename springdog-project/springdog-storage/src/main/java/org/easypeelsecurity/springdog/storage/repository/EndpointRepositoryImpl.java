@@ -38,6 +38,7 @@ public class EndpointRepositoryImpl implements EndpointRepository {
   public Endpoint findByMethodSignatureOrNull(ObjectContext context, String methodSignature) {
     return ObjectSelect.query(Endpoint.class)
         .where(Endpoint.METHOD_SIGNATURE.eq(methodSignature))
+        .sharedCache(CACHE_GROUP)
         .selectOne(context);
   }
 
@@ -16,24 +16,50 @@
 
 package org.easypeelsecurity.springdog.storage.repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Repository;
 
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionCatalogState;
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionCause;
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionClass;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionClassRow;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionGroup;
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingRepository;
 import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionType;
+import org.easypeelsecurity.springdog.domain.errortracing.model.StackFrame;
 
 import org.apache.cayenne.ObjectContext;
-import org.apache.cayenne.query.EJBQLQuery;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.exp.property.EntityProperty;
+import org.apache.cayenne.exp.property.NumericProperty;
+import org.apache.cayenne.exp.property.PropertyFactory;
 import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.SQLExec;
+import org.apache.cayenne.query.SQLSelect;
 
 /**
- * Repository implementation for {@link ExceptionType}, {@link ExceptionClass} entities.
+ * Repository implementation for {@link ExceptionType}, {@link ExceptionClass}, {@link ExceptionCatalogState},
+ * {@link ExceptionCause}, {@link ExceptionGroup} and {@link StackFrame} entities.
  */
 @Repository
 public class ExceptionListRepositoryImpl implements ExceptionListingRepository {
+  private static final String ROOT_ID_COLUMN = "ROOT_ID";
+  private static final int DELETE_CHUNK_SIZE = 500;
+  private static final int STACK_FRAMES_FETCH_SIZE = 1000;
+  private static final EntityProperty<ExceptionCause> CAUSE = PropertyFactory.createSelf(ExceptionCause.class);
+  private static final NumericProperty<Long> ENCLOSING_ID =
+      PropertyFactory.createNumeric(ExpressionFactory.dbPathExp("NEXT_EXCEPTION_ID"), Long.class);
+  private static final NumericProperty<Long> ROOT_ID =
+      PropertyFactory.createNumeric(ExpressionFactory.dbPathExp(ROOT_ID_COLUMN), Long.class);
+  private static final NumericProperty<Long> EXCEPTION_TYPE_ID =
+      PropertyFactory.createNumeric(ExpressionFactory.dbPathExp("EXCEPTION_TYPE_ID"), Long.class);
 
   @Override
   public List<ExceptionType> findAllExceptions(ObjectContext context) {
@@ -44,6 +70,63 @@ public class ExceptionListRepositoryImpl implements ExceptionListingRepository {
         .select(context);
   }
 
+  @Override
+  public List<ExceptionType> findAllExceptionTypes(ObjectContext context) {
+    return ObjectSelect.query(ExceptionType.class)
+        .select(context);
+  }
+
+  @Override
+  public List<ExceptionClassRow> findAllExceptionClassRows(ObjectContext context) {
+    return ObjectSelect.columnQuery(ExceptionClass.class,
+            ExceptionClass.ID, ExceptionClass.EXCEPTION_CLASS_NAME, EXCEPTION_TYPE_ID)
+        .select(context)
+        .stream()
+        .map(row -> new ExceptionClassRow(((Number) row[0]).longValue(), (String) row[1],
+            row[2] == null ? null : ((Number) row[2]).longValue()))
+        .toList();
+  }
+
+  @Override
+  public List<ExceptionClass> findExceptionClassesByIds(ObjectContext context,
+      Collection<Long> exceptionClassIds) {
+    if (exceptionClassIds.isEmpty()) {
+      return List.of();
+    }
+    return ObjectSelect.query(ExceptionClass.class)
+        .where(ExceptionClass.ID.in(exceptionClassIds))
+        .select(context);
+  }
+
+  @Override
+  public void deleteExceptionClasses(ObjectContext context, Collection<Long> exceptionClassIds) {
+    deleteByIds(context, "EXCEPTION_CLASS", exceptionClassIds);
+  }
+
+  @Override
+  public void deleteExceptionTypes(ObjectContext context, Collection<Long> exceptionTypeIds) {
+    deleteByIds(context, "EXCEPTION_TYPE", exceptionTypeIds);
+  }
+
+  /**
+   * The ids are deleted in chunks, as Derby fails to compile a statement with a very long {@code IN} list.
+   */
+  private static void deleteByIds(ObjectContext context, String table, Collection<Long> ids) {
+    List<Long> idList = new ArrayList<>(ids);
+    for (int from = 0; from < idList.size(); from += DELETE_CHUNK_SIZE) {
+      List<Long> chunk = idList.subList(from, Math.min(from + DELETE_CHUNK_SIZE, idList.size()));
+      SQLExec.query("DELETE FROM APP." + table + " WHERE ID IN (#bind($ids))")
+          .params("ids", chunk)
+          .update(context);
+    }
+  }
+
+  @Override
+  public ExceptionCatalogState findExceptionCatalogStateOrNull(ObjectContext context) {
+    return ObjectSelect.query(ExceptionCatalogState.class)
+        .selectFirst(context);
+  }
+
   @Override
   public ExceptionClass findExceptionClassByIdOrNull(ObjectContext context, long exceptionClassId) {
     return ObjectSelect.query(ExceptionClass.class)
@@ -52,22 +135,83 @@ public class ExceptionListRepositoryImpl implements ExceptionListingRepository {
   }
 
   @Override
-  public ExceptionClass findByExceptionClassByFQCM(ObjectContext context, String exceptionFQCM) {
-    return ObjectSelect.query(ExceptionClass.class)
-        .where(ExceptionClass.EXCEPTION_CLASS_NAME.eq(exceptionFQCM))
-        .selectOne(context);
+  public List<Long> findParentExceptionCauseIds(ObjectContext context, long beforeId, int limit) {
+    return ObjectSelect.columnQuery(ExceptionCause.class, ExceptionCause.ID)
+        .where(ExceptionCause.ROOT.isTrue())
+        .and(ExceptionCause.ID.lt(beforeId))
+        .orderBy(ExceptionCause.ID.desc())
+        .limit(limit)
+        .select(context);
   }
 
+  /**
+   * The {@code NEXT_EXCEPTION_ID} column is read along with each cause, as it is the only link to the enclosing
+   * cause. Walking {@code nextException} instead would cost one query per cause.
+   */
   @Override
-  public List<ExceptionCause> findAllParentExceptionCauses(ObjectContext context) {
-    String ejbql = """
-        SELECT e FROM ExceptionCause e
-        WHERE e.id NOT IN (SELECT e2.nextException.id FROM ExceptionCause e2 WHERE e2.nextException IS NOT NULL)
-        ORDER BY e.timestamp DESC
-        """;
+  public Map<Long, List<ExceptionCause>> findExceptionChains(ObjectContext context, Collection<Long> rootIds) {
+    if (rootIds.isEmpty()) {
+      return Map.of();
+    }
+    List<Object[]> rows = ObjectSelect.columnQuery(ExceptionCause.class, CAUSE, ENCLOSING_ID)
+        .where(ExpressionFactory.inDbExp(ExceptionCause.ID_PK_COLUMN, rootIds)
+            .orExp(ExpressionFactory.inDbExp(ROOT_ID_COLUMN, rootIds)))
+        .select(context);
+
+    Map<Long, ExceptionCause> roots = new HashMap<>();
+    Map<Long, ExceptionCause> causeByEnclosingId = new HashMap<>();
+    for (Object[] row : rows) {
+      ExceptionCause cause = (ExceptionCause) row[0];
+      Number enclosingId = (Number) row[1];
+      if (enclosingId == null) {
+        roots.put(cause.getId(), cause);
+      } else {
+        causeByEnclosingId.put(enclosingId.longValue(), cause);
+      }
+    }
 
-    EJBQLQuery query = new EJBQLQuery(ejbql);
-    return context.performQuery(query);
+    Map<Long, List<ExceptionCause>> chains = new HashMap<>();
+    for (Long rootId : rootIds) {
+      List<ExceptionCause> chain = new ArrayList<>();
+      ExceptionCause cause = roots.get(rootId);
+      while (cause != null && chain.size() <= rows.size()) {
+        chain.add(cause);
+        cause = causeByEnclosingId.get(cause.getId());
+      }
+      if (!chain.isEmpty()) {
+        chains.put(rootId, chain);
+      }
+    }
+    return chains;
+  }
+
+  @Override
+  public List<ExceptionCause> findExceptionChainFrom(ObjectContext context, long exceptionCauseId) {
+    Object[] row = ObjectSelect.columnQuery(ExceptionCause.class, CAUSE, ROOT_ID)
+        .where(ExceptionCause.ID.eq(exceptionCauseId))
+        .selectOne(context);
+    if (row == null) {
+      return List.of();
+    }
+    ExceptionCause cause = (ExceptionCause) row[0];
+    Number rootId = cause.isRoot() ? Long.valueOf(exceptionCauseId) : (Number) row[1];
+    if (rootId == null) {
+      // a cause nested deeper than the causes linked to their root when the root column was added
+      List<ExceptionCause> chain = new ArrayList<>();
+      for (ExceptionCause next = cause; next != null; next = next.getNextException()) {
+        chain.add(next);
+      }
+      return chain;
+    }
+
+    List<ExceptionCause> chain = findExceptionChains(context, List.of(rootId.longValue()))
+        .getOrDefault(rootId.longValue(), List.of());
+    for (int i = 0; i < chain.size(); i++) {
+      if (chain.get(i).getId() == exceptionCauseId) {
+        return chain.subList(i, chain.size());
+      }
+    }
+    return List.of(cause);
   }
 
   @Override
@@ -76,4 +220,94 @@ public class ExceptionListRepositoryImpl implements ExceptionListingRepository {
         .where(ExceptionCause.ID.eq(exceptionCauseId))
         .selectOne(context);
   }
+
+  @Override
+  public void forEachExceptionCause(ObjectContext context, LocalDateTime from, LocalDateTime to, long afterId,
+      int limit, Consumer<ExceptionCause> action) {
+    ObjectSelect.query(ExceptionCause.class)
+        .where(ExceptionCause.ID.gt(afterId))
+        .and(ExceptionCause.TIMESTAMP.gte(from))
+        .and(ExceptionCause.TIMESTAMP.lt(to))
+        .orderBy(ExceptionCause.ID.asc())
+        .limit(limit)
+        .statementFetchSize(limit)
+        .iterate(context, action::accept);
+  }
+
+  @Override
+  public ExceptionGroup findExceptionGroupByFingerprintOrNull(ObjectContext context, String fingerprint) {
+    return ObjectSelect.query(ExceptionGroup.class)
+        .where(ExceptionGroup.FINGERPRINT.eq(fingerprint))
+        .selectOne(context);
+  }
+
+  @Override
+  public List<ExceptionGroup> findRecentExceptionGroups(ObjectContext context, int limit) {
+    return ObjectSelect.query(ExceptionGroup.class)
+        .orderBy(ExceptionGroup.LAST_SEEN.desc())
+        .limit(limit)
+        .select(context);
+  }
+
+  @Override
+  public long sumThrottledOccurrences(ObjectContext context) {
+    Long sum = ObjectSelect.columnQuery(ExceptionGroup.class, ExceptionGroup.THROTTLED_COUNT.sum())
+        .selectOne(context);
+    return sum == null ? 0 : sum;
+  }
+
+  @Override
+  public List<Long> findStoredChainRootIds(ObjectContext context, String fingerprint) {
+    return ObjectSelect.columnQuery(ExceptionCause.class, ExceptionCause.ID)
+        .where(ExceptionCause.FINGERPRINT.eq(fingerprint))
+        .and(ExceptionCause.ROOT.isTrue())
+        .select(context);
+  }
+
+  /**
+   * The causes of a chain are found by their {@code ROOT_ID}, so a chain is deleted by a single statement
+   * whatever its depth.
+   */
+  @Override
+  public void deleteExceptionChains(ObjectContext context, Collection<Long> rootIds) {
+    List<Long> idList = new ArrayList<>(rootIds);
+    for (int from = 0; from < idList.size(); from += DELETE_CHUNK_SIZE) {
+      List<Long> chunk = idList.subList(from, Math.min(from + DELETE_CHUNK_SIZE, idList.size()));
+      SQLExec.query("DELETE FROM APP.EXCEPTION_CAUSE WHERE ID IN (#bind($ids)) OR ROOT_ID IN (#bind($ids))")
+          .params("ids", chunk)
+          .update(context);
+    }
+  }
+
+  @Override
+  public List<StackFrame> findStackFramesByHashes(ObjectContext context, Collection<String> frameHashes) {
+    return ObjectSelect.query(StackFrame.class)
+        .where(StackFrame.FRAME_HASH.in(frameHashes))
+        .select(context);
+  }
+
+  @Override
+  public List<StackFrame> findStackFramesByIds(ObjectContext context, Collection<Long> frameIds) {
+    return ObjectSelect.query(StackFrame.class)
+        .where(ExpressionFactory.inDbExp(StackFrame.ID_PK_COLUMN, frameIds))
+        .select(context);
+  }
+
+  @Override
+  public void forEachEncodedStackFrames(ObjectContext context, Consumer<byte[]> action) {
+    ObjectSelect.columnQuery(ExceptionCause.class, ExceptionCause.STACK_FRAMES)
+        .statementFetchSize(STACK_FRAMES_FETCH_SIZE)
+        .iterate(context, action::accept);
+  }
+
+  @Override
+  public List<Long> findAllStackFrameIds(ObjectContext context) {
+    return SQLSelect.scalarQuery("SELECT ID FROM APP.STACK_FRAME", Long.class)
+        .select(context);
+  }
+
+  @Override
+  public void deleteStackFrames(ObjectContext context, Collection<Long> frameIds) {
+    deleteByIds(context, "STACK_FRAME", frameIds);
+  }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import org.easypeelsecurity.springdog.domain.retention.RetentionRepository;
+import org.easypeelsecurity.springdog.domain.retention.RetentionTarget;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDataSource;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.query.SQLExec;
+import org.apache.cayenne.query.SQLSelect;
+
+/**
+ * Implementation of {@link RetentionRepository}.
+ * <p>
+ * The expired IDs are read in the order of the {@code (timestamp, ID)} index, so finding a chunk never scans
+ * or sorts the whole table, and the chunk is then deleted by primary key in its own short transaction.
+ * </p>
+ *
+ * @author PENEKhun
+ */
+@Repository
+public class RetentionRepositoryImpl implements RetentionRepository {
+  private final DatabaseType databaseType;
+
+  /**
+   * Constructor.
+   */
+  public RetentionRepositoryImpl(@Qualifier("springdogDataSource") SpringdogDataSource dataSource) {
+    this.databaseType = dataSource.getType();
+  }
+
+  @Override
+  public int deleteExpired(ObjectContext context, RetentionTarget target, LocalDateTime cutoff, int limit) {
+    return deleteOldestRows(context, target, cutoff, limit);
+  }
+
+  @Override
+  public int deleteOldest(ObjectContext context, RetentionTarget target, int limit) {
+    return deleteOldestRows(context, target, null, limit);
+  }
+
+  @Override
+  public long countRows(ObjectContext context, RetentionTarget target) {
+    String where = target == RetentionTarget.ERROR_TRACE ? " WHERE IS_ROOT = #bind($root)" : "";
+    return SQLSelect.scalarQuery("SELECT COUNT(*) FROM APP." + tableOf(target) + where, Long.class)
+        .param("root", true)
+        .selectOne(context);
+  }
+
+  /**
+   * Deletes the oldest rows of the target, only the ones older than the cutoff unless it is {@code null}.
+   */
+  private static int deleteOldestRows(ObjectContext context, RetentionTarget target, LocalDateTime cutoff,
+      int limit) {
+    if (target == RetentionTarget.ERROR_TRACE) {
+      return deleteOldestChains(context, cutoff, limit);
+    }
+
+    String table = tableOf(target);
+    String column = timestampColumnOf(target);
+    Object cutoffValue =
+        target == RetentionTarget.ENDPOINT_METRIC && cutoff != null ? cutoff.toLocalDate() : cutoff;
+
+    String selectOldest = "SELECT ID FROM APP." + table +
+        (cutoff == null ? "" : " WHERE " + column + " < #bind($cutoff)") +
+        " ORDER BY " + column + ", ID";
+    List<Long> oldestIds = SQLSelect.scalarQuery(selectOldest, Long.class)
+        .param("cutoff", cutoffValue)
+        .limit(limit)
+        .select(context);
+    if (oldestIds.isEmpty()) {
+      return 0;
+    }
+
+    if (target == RetentionTarget.ENDPOINT_METRIC) {
+      // the in-memory schema is created from the mapping, whose foreign key does not cascade
+      SQLExec.query("DELETE FROM APP.ENDPOINT_STATUS_METRIC WHERE ENDPOINT_METRIC_ID IN (#bind($ids))")
+          .params("ids", oldestIds)
+          .update(context);
+    }
+    return SQLExec.query("DELETE FROM APP." + table + " WHERE ID IN (#bind($ids))")
+        .params("ids", oldestIds)
+        .update(context);
+  }
+
+  /**
+   * Error traces are deleted by whole chains, the oldest roots being found through the {@code (TIMESTAMP, ID)}
+   * index. The stored trace count of each group loses the chains of its fingerprint.
+   */
+  private static int deleteOldestChains(ObjectContext context, LocalDateTime cutoff, int limit) {
+    List<Long> rootIds = SQLSelect.scalarQuery("SELECT ID FROM APP.EXCEPTION_CAUSE WHERE " +
+            (cutoff == null ? "" : "TIMESTAMP < #bind($cutoff) AND ") +
+            "IS_ROOT = #bind($root) ORDER BY TIMESTAMP, ID", Long.class)
+        .param("cutoff", cutoff)
+        .param("root", true)
+        .limit(limit)
+        .select(context);
+    if (rootIds.isEmpty()) {
+      return 0;
+    }
+
+    List<Object[]> chainsByFingerprint = SQLSelect.columnQuery("SELECT FINGERPRINT, COUNT(*)" +
+            " FROM APP.EXCEPTION_CAUSE WHERE ID IN (#bind($ids)) AND FINGERPRINT IS NOT NULL" +
+            " GROUP BY FINGERPRINT", String.class, Long.class)
+        .param("ids", rootIds)
+        .select(context);
+    SQLExec.query("DELETE FROM APP.EXCEPTION_CAUSE WHERE ROOT_ID IN (#bind($ids))")
+        .params("ids", rootIds)
+        .update(context);
+    int deleted = SQLExec.query("DELETE FROM APP.EXCEPTION_CAUSE WHERE ID IN (#bind($ids))")
+        .params("ids", rootIds)
+        .update(context);
+    for (Object[] row : chainsByFingerprint) {
+      SQLExec.query("UPDATE APP.EXCEPTION_GROUP SET STORED_TRACE_COUNT = CASE" +
+              " WHEN STORED_TRACE_COUNT > #bind($count) THEN STORED_TRACE_COUNT - #bind($count) ELSE 0 END" +
+              " WHERE FINGERPRINT = #bind($fingerprint)")
+          .params("count", row[1])
+          .params("fingerprint", row[0])
+          .update(context);
+    }
+    return deleted;
+  }
+
+  /**
+   * Derby never shrinks its files, or its memory when kept in memory, on its own, so the table is compressed
+   * in place.
+   * H2 compacts its store in the background and PostgreSQL relies on autovacuum.
+   */
+  @Override
+  public void reclaimSpace(ObjectContext context, RetentionTarget target) {
+    if (!databaseType.isDerby()) {
+      return;
+    }
+    SQLExec.query("CALL SYSCS_UTIL.SYSCS_INPLACE_COMPRESS_TABLE('APP', #bind($table), 1, 1, 1)")
+        .params("table", tableOf(target))
+        .execute(context);
+  }
+
+  private static String tableOf(RetentionTarget target) {
+    return switch (target) {
+      case SYSTEM_METRIC -> "SYSTEM_METRIC";
+      case ERROR_TRACE -> "EXCEPTION_CAUSE";
+      case ENDPOINT_METRIC -> "ENDPOINT_METRIC";
+    };
+  }
+
+  private static String timestampColumnOf(RetentionTarget target) {
+    return target == RetentionTarget.ENDPOINT_METRIC ? "METRIC_DATE" : "TIMESTAMP";
+  }
+}
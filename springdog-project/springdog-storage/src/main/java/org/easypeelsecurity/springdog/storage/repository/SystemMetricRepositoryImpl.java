@@ -16,7 +16,9 @@
 
 package org.easypeelsecurity.springdog.storage.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Repository;
 
@@ -40,4 +42,26 @@ public class SystemMetricRepositoryImpl implements SystemMetricRepository {
         .limit(limit)
         .select(context);
   }
+
+  @Override
+  public List<SystemMetric> getSystemMetrics(ObjectContext context, LocalDateTime from, LocalDateTime to) {
+    return ObjectSelect.query(SystemMetric.class)
+        .where(SystemMetric.TIMESTAMP.gte(from))
+        .and(SystemMetric.TIMESTAMP.lt(to))
+        .orderBy(SystemMetric.TIMESTAMP.asc())
+        .select(context);
+  }
+
+  @Override
+  public void forEachSystemMetric(ObjectContext context, LocalDateTime from, LocalDateTime to, long afterId,
+      int limit, Consumer<SystemMetric> action) {
+    ObjectSelect.query(SystemMetric.class)
+        .where(SystemMetric.ID.gt(afterId))
+        .and(SystemMetric.TIMESTAMP.gte(from))
+        .and(SystemMetric.TIMESTAMP.lt(to))
+        .orderBy(SystemMetric.ID.asc())
+        .limit(limit)
+        .statementFetchSize(limit)
+        .iterate(context, action::accept);
+  }
 }
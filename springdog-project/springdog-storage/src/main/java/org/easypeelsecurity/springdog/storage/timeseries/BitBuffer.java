@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.timeseries;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes a stream of bits, most significant bit first, into a region of a {@link ByteBuffer}.
+ * Only absolute accesses are made, so the position of the underlying buffer is never changed.
+ */
+final class BitBuffer {
+  private final ByteBuffer buffer;
+  private final int offset;
+  private final long capacityBits;
+  private long position;
+
+  BitBuffer(ByteBuffer buffer, int offset, long position) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.capacityBits = (long) (buffer.capacity() - offset) * Byte.SIZE;
+    this.position = position;
+  }
+
+  long position() {
+    return position;
+  }
+
+  long remaining() {
+    return capacityBits - position;
+  }
+
+  void writeBit(boolean bit) {
+    writeBits(bit ? 1 : 0, 1);
+  }
+
+  /**
+   * Write the lowest {@code bits} bits of the value.
+   */
+  void writeBits(long value, int bits) {
+    int remaining = bits;
+    while (remaining > 0) {
+      int index = offset + (int) (position >>> 3);
+      int free = Byte.SIZE - (int) (position & 7);
+      int count = Math.min(free, remaining);
+      int mask = ((1 << count) - 1) << (free - count);
+      int chunk = (int) (value >>> (remaining - count)) & ((1 << count) - 1);
+      int current = buffer.get(index) & ~mask;
+      buffer.put(index, (byte) (current | (chunk << (free - count))));
+      position += count;
+      remaining -= count;
+    }
+  }
+
+  boolean readBit() {
+    return readBits(1) == 1;
+  }
+
+  /**
+   * Read {@code bits} bits as an unsigned value.
+   */
+  long readBits(int bits) {
+    long value = 0;
+    int remaining = bits;
+    while (remaining > 0) {
+      int index = offset + (int) (position >>> 3);
+      int free = Byte.SIZE - (int) (position & 7);
+      int count = Math.min(free, remaining);
+      int chunk = (buffer.get(index) >>> (free - count)) & ((1 << count) - 1);
+      value = (value << count) | chunk;
+      position += count;
+      remaining -= count;
+    }
+    return value;
+  }
+}
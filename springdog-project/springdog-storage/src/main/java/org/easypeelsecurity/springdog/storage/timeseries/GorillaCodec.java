@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.timeseries;
+
+/**
+ * Encodes samples of a fixed number of 64-bit columns as described in the Gorilla paper.
+ * <p>
+ * Timestamps are stored as delta-of-deltas, values as the XOR with the previous value of their column. A
+ * codec is stateful: the samples of a chunk must be encoded, or decoded, by one codec in chunk order. Decoding
+ * a chunk leaves the codec in the same state as encoding it, so appending can resume after a restart.
+ * </p>
+ *
+ * @see <a href="https://www.vldb.org/pvldb/vol8/p1816-teller.pdf">Gorilla: A Fast, Scalable, In-Memory
+ *     Time Series Database</a>
+ */
+final class GorillaCodec {
+
+  /**
+   * The largest number of bits one sample of {@code columns} columns can take.
+   */
+  static int maxSampleBits(int columns) {
+    return 5 + Long.SIZE + columns * (2 + 5 + 6 + Long.SIZE);
+  }
+
+  private final int columns;
+  private final long[] previousValues;
+  private final int[] previousLeading;
+  private final int[] previousTrailing;
+  private long previousTimestamp;
+  private long previousDelta;
+  private boolean empty = true;
+
+  GorillaCodec(int columns) {
+    this.columns = columns;
+    this.previousValues = new long[columns];
+    this.previousLeading = new int[columns];
+    this.previousTrailing = new int[columns];
+  }
+
+  void encode(BitBuffer out, long timestamp, long[] values) {
+    if (empty) {
+      out.writeBits(timestamp, Long.SIZE);
+      for (int column = 0; column < columns; column++) {
+        out.writeBits(values[column], Long.SIZE);
+        previousValues[column] = values[column];
+        previousLeading[column] = -1;
+      }
+      previousTimestamp = timestamp;
+      empty = false;
+      return;
+    }
+
+    long delta = timestamp - previousTimestamp;
+    writeDeltaOfDelta(out, delta - previousDelta);
+    previousDelta = delta;
+    previousTimestamp = timestamp;
+    for (int column = 0; column < columns; column++) {
+      writeXor(out, column, values[column]);
+    }
+  }
+
+  long decode(BitBuffer in, long[] values) {
+    if (empty) {
+      previousTimestamp = in.readBits(Long.SIZE);
+      for (int column = 0; column < columns; column++) {
+        previousValues[column] = in.readBits(Long.SIZE);
+        previousLeading[column] = -1;
+        values[column] = previousValues[column];
+      }
+      empty = false;
+      return previousTimestamp;
+    }
+
+    previousDelta += readDeltaOfDelta(in);
+    previousTimestamp += previousDelta;
+    for (int column = 0; column < columns; column++) {
+      values[column] = readXor(in, column);
+    }
+    return previousTimestamp;
+  }
+
+  private static void writeDeltaOfDelta(BitBuffer out, long deltaOfDelta) {
+    if (deltaOfDelta == 0) {
+      out.writeBit(false);
+    } else if (fits(deltaOfDelta, 7)) {
+      out.writeBits(0b10, 2);
+      out.writeBits(deltaOfDelta, 7);
+    } else if (fits(deltaOfDelta, 9)) {
+      out.writeBits(0b110, 3);
+      out.writeBits(deltaOfDelta, 9);
+    } else if (fits(deltaOfDelta, 12)) {
+      out.writeBits(0b1110, 4);
+      out.writeBits(deltaOfDelta, 12);
+    } else if (fits(deltaOfDelta, 32)) {
+      out.writeBits(0b11110, 5);
+      out.writeBits(deltaOfDelta, 32);
+    } else {
+      out.writeBits(0b11111, 5);
+      out.writeBits(deltaOfDelta, Long.SIZE);
+    }
+  }
+
+  private static long readDeltaOfDelta(BitBuffer in) {
+    int prefix = 0;
+    while (prefix < 5 && in.readBit()) {
+      prefix++;
+    }
+    return switch (prefix) {
+      case 0 -> 0;
+      case 1 -> signed(in.readBits(7), 7);
+      case 2 -> signed(in.readBits(9), 9);
+      case 3 -> signed(in.readBits(12), 12);
+      case 4 -> signed(in.readBits(32), 32);
+      default -> in.readBits(Long.SIZE);
+    };
+  }
+
+  private void writeXor(BitBuffer out, int column, long value) {
+    long xor = value ^ previousValues[column];
+    previousValues[column] = value;
+    if (xor == 0) {
+      out.writeBit(false);
+      return;
+    }
+    out.writeBit(true);
+
+    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+    int trailing = Long.numberOfTrailingZeros(xor);
+    if (previousLeading[column] != -1 && leading >= previousLeading[column] &&
+        trailing >= previousTrailing[column]) {
+      out.writeBit(false);
+      int significant = Long.SIZE - previousLeading[column] - previousTrailing[column];
+      out.writeBits(xor >>> previousTrailing[column], significant);
+      return;
+    }
+
+    int significant = Long.SIZE - leading - trailing;
+    out.writeBit(true);
+    out.writeBits(leading, 5);
+    out.writeBits(significant - 1, 6);
+    out.writeBits(xor >>> trailing, significant);
+    previousLeading[column] = leading;
+    previousTrailing[column] = trailing;
+  }
+
+  private long readXor(BitBuffer in, int column) {
+    if (!in.readBit()) {
+      return previousValues[column];
+    }
+    if (in.readBit()) {
+      previousLeading[column] = (int) in.readBits(5);
+      int significant = (int) in.readBits(6) + 1;
+      previousTrailing[column] = Long.SIZE - previousLeading[column] - significant;
+    }
+    int significant = Long.SIZE - previousLeading[column] - previousTrailing[column];
+    long xor = in.readBits(significant) << previousTrailing[column];
+    previousValues[column] ^= xor;
+    return previousValues[column];
+  }
+
+  private static boolean fits(long value, int bits) {
+    long bound = 1L << (bits - 1);
+    return value >= -bound && value < bound;
+  }
+
+  private static long signed(long value, int bits) {
+    return (value << (Long.SIZE - bits)) >> (Long.SIZE - bits);
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.timeseries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.easypeelsecurity.springdog.domain.statistics.SystemMetricTimeSeries;
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
+import org.easypeelsecurity.springdog.shared.util.Assert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SystemMetricTimeSeries} storing the samples Gorilla-compressed in memory-mapped chunk files.
+ * <p>
+ * Each sample is a timestamp and eight 64-bit columns: the five percentages as the bits of their
+ * {@code double}, and the three byte counts as they are. The chunks are numbered in the order they were
+ * created and only the newest one is written to; a new chunk is started when it is full. Retention drops whole
+ * chunks. The samples are numbered in append order, continuing from chunk to chunk, and that number is their
+ * id: a timestamp can repeat or go back when the clock does, an id cannot. The rarely changed memos are kept
+ * apart by id, in a properties file next to the chunks.
+ * </p>
+ */
+public class GorillaSystemMetricStore implements SystemMetricTimeSeries, Closeable {
+  static final int MIN_CHUNK_SIZE_BYTES = 4096;
+  private static final int COLUMNS = 8;
+  private static final Pattern CHUNK_NAME = Pattern.compile("system-metric-(\\d{10})\\.chunk");
+  private static final String MEMO_FILE = "system-metric-memos.properties";
+
+  private final Logger logger = LoggerFactory.getLogger(GorillaSystemMetricStore.class);
+  private final Path directory;
+  private final int chunkSizeBytes;
+  private final List<TimeSeriesChunk> chunks = new ArrayList<>();
+  private final Map<Long, String> memos = new HashMap<>();
+  private long nextSequence = 1;
+  private long nextId = 1;
+
+  /**
+   * Open the store in the directory, creating it if needed.
+   *
+   * @param directory      The directory of the chunk files
+   * @param chunkSizeBytes The size of a chunk file
+   * @throws IllegalArgumentException if the chunk size is too small
+   * @throws IllegalStateException    if the directory cannot be read
+   */
+  public GorillaSystemMetricStore(Path directory, int chunkSizeBytes) {
+    Assert.isTrue(chunkSizeBytes >= MIN_CHUNK_SIZE_BYTES,
+        "Chunk size must be at least " + MIN_CHUNK_SIZE_BYTES + " bytes");
+    this.directory = directory;
+    this.chunkSizeBytes = chunkSizeBytes;
+    try {
+      Files.createDirectories(directory);
+      openChunks();
+      loadMemos();
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open the system metric time-series in " + directory, e);
+    }
+    logger.info("Springdog system metric time-series opened in {} with {} chunks", directory, chunks.size());
+  }
+
+  @Override
+  public synchronized void append(SystemMetricDto systemMetric) {
+    long timestamp = toMillis(systemMetric.getTimestamp());
+    long[] values = {
+        Double.doubleToRawLongBits(systemMetric.getCpuUsagePercent()),
+        Double.doubleToRawLongBits(systemMetric.getMemoryUsagePercent()),
+        Double.doubleToRawLongBits(systemMetric.getDiskUsagePercent()),
+        Double.doubleToRawLongBits(systemMetric.getJvmHeapUsagePercent()),
+        Double.doubleToRawLongBits(systemMetric.getJvmNonHeapUsagePercent()),
+        systemMetric.getJvmTotalMemoryUsed(),
+        systemMetric.getNetworkInBytes(),
+        systemMetric.getNetworkOutBytes()
+    };
+    if (chunks.isEmpty() || !chunks.get(chunks.size() - 1).append(timestamp, values)) {
+      startChunk().append(timestamp, values);
+    }
+    nextId++;
+  }
+
+  @Override
+  public synchronized List<SystemMetricDto> findRecent(int limit) {
+    List<SystemMetricDto> result = new ArrayList<>();
+    for (int i = chunks.size() - 1; i >= 0 && result.size() < limit; i--) {
+      List<SystemMetricDto> samples = decode(chunks.get(i), Long.MIN_VALUE, Long.MAX_VALUE);
+      Collections.reverse(samples);
+      result.addAll(samples.subList(0, Math.min(samples.size(), limit - result.size())));
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized List<SystemMetricDto> findRange(LocalDateTime from, LocalDateTime to) {
+    long fromMillis = toMillis(from);
+    long toMillis = toMillis(to);
+    List<SystemMetricDto> result = new ArrayList<>();
+    for (TimeSeriesChunk chunk : chunks) {
+      if (chunk.overlaps(fromMillis, toMillis)) {
+        result.addAll(decode(chunk, fromMillis, toMillis));
+      }
+    }
+    result.sort(Comparator.comparing(SystemMetricDto::getTimestamp));
+    return result;
+  }
+
+  @Override
+  public synchronized List<SystemMetricDto> findPage(long afterId, LocalDateTime from, LocalDateTime to,
+      int limit) {
+    long fromMillis = toMillis(from);
+    long toMillis = toMillis(to);
+    List<SystemMetricDto> result = new ArrayList<>();
+    for (TimeSeriesChunk chunk : chunks) {
+      if (result.size() >= limit) {
+        break;
+      }
+      if (chunk.nextId() > afterId + 1 && chunk.overlaps(fromMillis, toMillis)) {
+        chunk.forEach((id, timestamp, values) -> {
+          if (id > afterId && timestamp >= fromMillis && timestamp < toMillis) {
+            result.add(toDto(id, timestamp, values));
+          }
+        });
+      }
+    }
+    return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+  }
+
+  @Override
+  public synchronized boolean contains(long metricId) {
+    return chunks.stream().anyMatch(chunk -> chunk.firstId() <= metricId && metricId < chunk.nextId());
+  }
+
+  @Override
+  public synchronized void changeMemo(long metricId, String memo) {
+    Assert.isTrue(contains(metricId), "System metric not found");
+
+    if (memo == null) {
+      memos.remove(metricId);
+    } else {
+      memos.put(metricId, memo);
+    }
+    storeMemos();
+  }
+
+  @Override
+  public synchronized long deleteBefore(LocalDateTime cutoff) {
+    long cutoffMillis = toMillis(cutoff);
+    long deleted = 0;
+    Iterator<TimeSeriesChunk> iterator = chunks.iterator();
+    while (iterator.hasNext()) {
+      TimeSeriesChunk chunk = iterator.next();
+      if (chunk.count() > 0 && chunk.maxTimestamp() < cutoffMillis) {
+        chunk.seal();
+        try {
+          Files.deleteIfExists(chunk.path());
+        } catch (IOException e) {
+          logger.warn("Failed to delete the expired time-series chunk {}", chunk.path(), e);
+          continue;
+        }
+        iterator.remove();
+        deleted += chunk.count();
+      }
+    }
+
+    long oldestKept = chunks.isEmpty() ? Long.MAX_VALUE : chunks.get(0).firstId();
+    if (memos.keySet().removeIf(metricId -> metricId < oldestKept)) {
+      storeMemos();
+    }
+    return deleted;
+  }
+
+  /**
+   * Flush the newest chunk to disk.
+   */
+  @Override
+  public synchronized void close() {
+    if (!chunks.isEmpty()) {
+      chunks.get(chunks.size() - 1).seal();
+    }
+  }
+
+  private TimeSeriesChunk startChunk() {
+    if (!chunks.isEmpty()) {
+      chunks.get(chunks.size() - 1).seal();
+    }
+    Path path = directory.resolve("system-metric-%010d.chunk".formatted(nextSequence++));
+    try {
+      TimeSeriesChunk chunk = TimeSeriesChunk.create(path, COLUMNS, chunkSizeBytes, nextId);
+      chunks.add(chunk);
+      return chunk;
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to create the time-series chunk " + path, e);
+    }
+  }
+
+  private void openChunks() throws IOException {
+    List<Path> paths;
+    try (Stream<Path> files = Files.list(directory)) {
+      paths = files.filter(path -> CHUNK_NAME.matcher(path.getFileName().toString()).matches())
+          .sorted()
+          .toList();
+    }
+    for (int i = 0; i < paths.size(); i++) {
+      Path path = paths.get(i);
+      chunks.add(TimeSeriesChunk.open(path, COLUMNS, i == paths.size() - 1));
+      Matcher matcher = CHUNK_NAME.matcher(path.getFileName().toString());
+      if (matcher.matches()) {
+        nextSequence = Math.max(nextSequence, Long.parseLong(matcher.group(1)) + 1);
+      }
+    }
+    if (!chunks.isEmpty()) {
+      nextId = chunks.get(chunks.size() - 1).nextId();
+    }
+  }
+
+  private List<SystemMetricDto> decode(TimeSeriesChunk chunk, long fromMillis, long toMillis) {
+    List<SystemMetricDto> samples = new ArrayList<>(chunk.count());
+    chunk.forEach((id, timestamp, values) -> {
+      if (timestamp >= fromMillis && timestamp < toMillis) {
+        samples.add(toDto(id, timestamp, values));
+      }
+    });
+    return samples;
+  }
+
+  private SystemMetricDto toDto(long id, long timestamp, long[] values) {
+    return SystemMetricDto.builder()
+        .id(id)
+        .cpuUsagePercent(Double.longBitsToDouble(values[0]))
+        .memoryUsagePercent(Double.longBitsToDouble(values[1]))
+        .diskUsagePercent(Double.longBitsToDouble(values[2]))
+        .jvmHeapUsagePercent(Double.longBitsToDouble(values[3]))
+        .jvmNonHeapUsagePercent(Double.longBitsToDouble(values[4]))
+        .jvmTotalMemoryUsed(values[5])
+        .networkInBytes(values[6])
+        .networkOutBytes(values[7])
+        .memo(memos.get(id))
+        .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC))
+        .build();
+  }
+
+  private static long toMillis(LocalDateTime dateTime) {
+    return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  private void loadMemos() throws IOException {
+    Path path = directory.resolve(MEMO_FILE);
+    if (!Files.exists(path)) {
+      return;
+    }
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(path)) {
+      properties.load(in);
+    }
+    properties.forEach((key, value) -> memos.put(Long.parseLong((String) key), (String) value));
+  }
+
+  private void storeMemos() {
+    Properties properties = new Properties();
+    memos.forEach((metricId, memo) -> properties.setProperty(metricId.toString(), memo));
+    Path path = directory.resolve(MEMO_FILE);
+    Path temporary = directory.resolve(MEMO_FILE + ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        properties.store(out, "Springdog system metric memos");
+      }
+      Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to store the system metric memos", e);
+    }
+  }
+}
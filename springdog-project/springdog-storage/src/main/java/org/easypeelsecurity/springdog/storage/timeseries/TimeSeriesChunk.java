@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.timeseries;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed-size, memory-mapped file holding Gorilla-encoded samples.
+ * <p>
+ * The file starts with a header of {@value #HEADER_BYTES} bytes holding the number of samples, the length of
+ * the encoded bit stream, the timestamp range of the samples and the id of the first sample. The samples of a
+ * chunk have consecutive ids in append order, so the ids never depend on the timestamps. The header is updated
+ * after every append, so a chunk only ever exposes fully written samples. Only the newest chunk of a store is
+ * writable.
+ * </p>
+ */
+final class TimeSeriesChunk {
+  static final int HEADER_BYTES = 64;
+  private static final int MAGIC = 0x53445453;
+  private static final int VERSION = 2;
+  private static final int COUNT_OFFSET = 8;
+  private static final int BIT_LENGTH_OFFSET = 16;
+  private static final int MIN_TIMESTAMP_OFFSET = 24;
+  private static final int MAX_TIMESTAMP_OFFSET = 32;
+  private static final int FIRST_ID_OFFSET = 40;
+  private static final OpenOption[] WRITABLE_OPTIONS = {StandardOpenOption.READ, StandardOpenOption.WRITE};
+  private static final OpenOption[] READ_ONLY_OPTIONS = {StandardOpenOption.READ};
+
+  private final Path path;
+  private final int columns;
+  private final MappedByteBuffer buffer;
+  private final GorillaCodec appendCodec;
+  private boolean writable;
+  private int count;
+  private long bitLength;
+  private long minTimestamp;
+  private long maxTimestamp;
+  private long firstId;
+
+  private TimeSeriesChunk(Path path, int columns, MappedByteBuffer buffer, boolean writable) {
+    this.path = path;
+    this.columns = columns;
+    this.buffer = buffer;
+    this.writable = writable;
+    this.appendCodec = new GorillaCodec(columns);
+  }
+
+  /**
+   * Create a new, empty chunk file whose first sample will have the given id.
+   */
+  static TimeSeriesChunk create(Path path, int columns, int sizeBytes, long firstId) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      TimeSeriesChunk chunk = new TimeSeriesChunk(path, columns, buffer, true);
+      chunk.minTimestamp = Long.MAX_VALUE;
+      chunk.maxTimestamp = Long.MIN_VALUE;
+      chunk.firstId = firstId;
+      buffer.putLong(FIRST_ID_OFFSET, firstId);
+      chunk.writeHeader();
+      return chunk;
+    }
+  }
+
+  /**
+   * Open an existing chunk file. A writable chunk replays its samples so that appending can resume.
+   */
+  static TimeSeriesChunk open(Path path, int columns, boolean writable) throws IOException {
+    FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+    OpenOption[] options = writable ? WRITABLE_OPTIONS : READ_ONLY_OPTIONS;
+    try (FileChannel channel = FileChannel.open(path, options)) {
+      MappedByteBuffer buffer = channel.map(mode, 0, channel.size());
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        throw new IOException("Not a Springdog time-series chunk: " + path);
+      }
+      TimeSeriesChunk chunk = new TimeSeriesChunk(path, columns, buffer, writable);
+      chunk.count = buffer.getInt(COUNT_OFFSET);
+      chunk.bitLength = buffer.getLong(BIT_LENGTH_OFFSET);
+      chunk.minTimestamp = buffer.getLong(MIN_TIMESTAMP_OFFSET);
+      chunk.maxTimestamp = buffer.getLong(MAX_TIMESTAMP_OFFSET);
+      chunk.firstId = buffer.getLong(FIRST_ID_OFFSET);
+      if (writable) {
+        chunk.replay();
+      }
+      return chunk;
+    }
+  }
+
+  /**
+   * Append a sample.
+   *
+   * @return {@code false} if the chunk is full or sealed, in which case nothing is written
+   */
+  boolean append(long timestamp, long[] values) {
+    BitBuffer out = new BitBuffer(buffer, HEADER_BYTES, bitLength);
+    if (!writable || out.remaining() < GorillaCodec.maxSampleBits(columns)) {
+      return false;
+    }
+    appendCodec.encode(out, timestamp, values);
+    count++;
+    bitLength = out.position();
+    minTimestamp = Math.min(minTimestamp, timestamp);
+    maxTimestamp = Math.max(maxTimestamp, timestamp);
+    writeHeader();
+    return true;
+  }
+
+  /**
+   * Decode every sample in append order.
+   */
+  void forEach(SampleConsumer consumer) {
+    GorillaCodec codec = new GorillaCodec(columns);
+    BitBuffer in = new BitBuffer(buffer, HEADER_BYTES, 0);
+    long[] values = new long[columns];
+    for (int i = 0; i < count; i++) {
+      long timestamp = codec.decode(in, values);
+      consumer.accept(firstId + i, timestamp, values);
+    }
+  }
+
+  private void replay() {
+    BitBuffer in = new BitBuffer(buffer, HEADER_BYTES, 0);
+    long[] values = new long[columns];
+    for (int i = 0; i < count; i++) {
+      appendCodec.decode(in, values);
+    }
+  }
+
+  /**
+   * Flush the chunk to disk and stop accepting samples.
+   */
+  void seal() {
+    if (writable) {
+      buffer.force();
+      writable = false;
+    }
+  }
+
+  Path path() {
+    return path;
+  }
+
+  int count() {
+    return count;
+  }
+
+  long minTimestamp() {
+    return minTimestamp;
+  }
+
+  long maxTimestamp() {
+    return maxTimestamp;
+  }
+
+  long firstId() {
+    return firstId;
+  }
+
+  /**
+   * The id the next sample appended to this chunk would have.
+   */
+  long nextId() {
+    return firstId + count;
+  }
+
+  /**
+   * The number of bytes taken by the header and the encoded samples.
+   */
+  long usedBytes() {
+    return HEADER_BYTES + (bitLength + Byte.SIZE - 1) / Byte.SIZE;
+  }
+
+  boolean overlaps(long fromInclusive, long toExclusive) {
+    return count > 0 && maxTimestamp >= fromInclusive && minTimestamp < toExclusive;
+  }
+
+  private void writeHeader() {
+    buffer.putLong(BIT_LENGTH_OFFSET, bitLength);
+    buffer.putLong(MIN_TIMESTAMP_OFFSET, minTimestamp);
+    buffer.putLong(MAX_TIMESTAMP_OFFSET, maxTimestamp);
+    buffer.putInt(COUNT_OFFSET, count);
+  }
+
+  /**
+   * Receives decoded samples. The values array is reused between samples.
+   */
+  @FunctionalInterface
+  interface SampleConsumer {
+    void accept(long id, long timestamp, long[] values);
+  }
+}
@@ -0,0 +1,17 @@
+-- The indexes of the migrations V3 to V10, created on the in-memory database after its tables were created from
+-- the cayenne-after-migration mapping, which cannot describe them. Keep in sync with the migrations.
+-- ROOT_ID needs none: the mapping creates a foreign key on it, which Derby backs with an index.
+create index IDX_SYSTEM_METRIC_TIMESTAMP on SYSTEM_METRIC (TIMESTAMP, ID);
+create index IDX_EXCEPTION_CAUSE_TIMESTAMP on EXCEPTION_CAUSE (TIMESTAMP, ID);
+create index IDX_ENDPOINT_METRIC_DATE on ENDPOINT_METRIC (METRIC_DATE, ID);
+create unique index UX_ENDPOINT_METHOD_SIGNATURE on ENDPOINT (METHOD_SIGNATURE);
+create unique index UX_EXCEPTION_CLASS_NAME on EXCEPTION_CLASS (EXCEPTION_CLASS_NAME);
+create unique index UX_ENDPOINT_METRIC_ENDPOINT_DATE on ENDPOINT_METRIC (ENDPOINT_ID, METRIC_DATE);
+create index IDX_ENDPOINT_METRIC_DATE_DESC on ENDPOINT_METRIC (METRIC_DATE desc);
+create index IDX_SYSTEM_METRIC_TIMESTAMP_DESC on SYSTEM_METRIC (TIMESTAMP desc);
+create index IDX_EXCEPTION_CAUSE_NEXT on EXCEPTION_CAUSE (NEXT_EXCEPTION_ID);
+create unique index UX_EXCEPTION_GROUP_FINGERPRINT on EXCEPTION_GROUP (FINGERPRINT);
+create index IDX_EXCEPTION_GROUP_LAST_SEEN on EXCEPTION_GROUP (LAST_SEEN desc);
+create index IDX_EXCEPTION_CAUSE_FINGERPRINT on EXCEPTION_CAUSE (FINGERPRINT);
+create unique index UX_STACK_FRAME_HASH on STACK_FRAME (FRAME_HASH);
+create index IDX_EXCEPTION_CAUSE_ROOT on EXCEPTION_CAUSE (IS_ROOT, ID desc);
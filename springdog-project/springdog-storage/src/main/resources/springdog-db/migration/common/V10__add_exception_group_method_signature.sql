@@ -0,0 +1 @@
+alter table EXCEPTION_GROUP add column METHOD_SIGNATURE varchar(700) default null;
@@ -0,0 +1,14 @@
+alter table ENDPOINT_METRIC add column STATUS_2XX_COUNT bigint default 0 not null;
+alter table ENDPOINT_METRIC add column STATUS_3XX_COUNT bigint default 0 not null;
+alter table ENDPOINT_METRIC add column STATUS_4XX_COUNT bigint default 0 not null;
+alter table ENDPOINT_METRIC add column STATUS_5XX_COUNT bigint default 0 not null;
+alter table ENDPOINT_METRIC add column EXCEPTION_COUNT bigint default 0 not null;
+
+create table ENDPOINT_STATUS_METRIC (
+    ID bigint generated by default as identity not null,
+    ENDPOINT_METRIC_ID bigint not null,
+    STATUS_CODE integer not null,
+    RESPONSE_COUNT bigint not null,
+    primary key (ID),
+    foreign key (ENDPOINT_METRIC_ID) references ENDPOINT_METRIC (ID) on delete cascade
+);
@@ -0,0 +1,3 @@
+create index IDX_SYSTEM_METRIC_TIMESTAMP on SYSTEM_METRIC (TIMESTAMP, ID);
+create index IDX_EXCEPTION_CAUSE_TIMESTAMP on EXCEPTION_CAUSE (TIMESTAMP, ID);
+create index IDX_ENDPOINT_METRIC_DATE on ENDPOINT_METRIC (METRIC_DATE, ID);
@@ -0,0 +1,61 @@
+-- The unique indexes below fail on duplicated rows, so the duplicates are merged into the row with the lowest ID
+-- first. Endpoints keep their lowest ID: the daily metrics of the duplicates are moved to it, and their headers
+-- and parameters are dropped as the kept endpoint has its own.
+update ENDPOINT_METRIC set ENDPOINT_ID = (
+        select min(K.ID) from ENDPOINT K, ENDPOINT E
+        where E.ID = ENDPOINT_METRIC.ENDPOINT_ID and K.METHOD_SIGNATURE = E.METHOD_SIGNATURE)
+    where ENDPOINT_ID not in (select min(ID) from ENDPOINT group by METHOD_SIGNATURE);
+delete from ENDPOINTHEADER where ENDPOINT_ID not in (select min(ID) from ENDPOINT group by METHOD_SIGNATURE);
+delete from ENDPOINTPARAMETER where ENDPOINT_ID not in (select min(ID) from ENDPOINT group by METHOD_SIGNATURE);
+delete from ENDPOINT where ID not in (select min(ID) from ENDPOINT group by METHOD_SIGNATURE);
+
+-- The daily metrics of the same endpoint and date are summed into the one with the lowest ID, the average
+-- response time being weighted by the page views.
+update ENDPOINT_METRIC set
+    AVERAGE_RESPONSE_MS = (
+        select case when sum(D.PAGE_VIEW) = 0 then max(D.AVERAGE_RESPONSE_MS)
+            else sum(D.AVERAGE_RESPONSE_MS * D.PAGE_VIEW) / sum(D.PAGE_VIEW) end
+        from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE),
+    PAGE_VIEW = (select sum(D.PAGE_VIEW) from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE),
+    FAILURE_WITH_RATELIMIT = (select sum(D.FAILURE_WITH_RATELIMIT) from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE),
+    STATUS_2XX_COUNT = (select sum(D.STATUS_2XX_COUNT) from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE),
+    STATUS_3XX_COUNT = (select sum(D.STATUS_3XX_COUNT) from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE),
+    STATUS_4XX_COUNT = (select sum(D.STATUS_4XX_COUNT) from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE),
+    STATUS_5XX_COUNT = (select sum(D.STATUS_5XX_COUNT) from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE),
+    EXCEPTION_COUNT = (select sum(D.EXCEPTION_COUNT) from ENDPOINT_METRIC D
+        where D.ENDPOINT_ID = ENDPOINT_METRIC.ENDPOINT_ID and D.METRIC_DATE = ENDPOINT_METRIC.METRIC_DATE)
+    where ID in (select min(ID) from ENDPOINT_METRIC group by ENDPOINT_ID, METRIC_DATE having count(*) > 1);
+update ENDPOINT_STATUS_METRIC set ENDPOINT_METRIC_ID = (
+        select min(K.ID) from ENDPOINT_METRIC K, ENDPOINT_METRIC M
+        where M.ID = ENDPOINT_STATUS_METRIC.ENDPOINT_METRIC_ID
+            and K.ENDPOINT_ID = M.ENDPOINT_ID and K.METRIC_DATE = M.METRIC_DATE)
+    where ENDPOINT_METRIC_ID not in (select min(ID) from ENDPOINT_METRIC group by ENDPOINT_ID, METRIC_DATE);
+update ENDPOINT_STATUS_METRIC set RESPONSE_COUNT = (
+        select sum(D.RESPONSE_COUNT) from ENDPOINT_STATUS_METRIC D
+        where D.ENDPOINT_METRIC_ID = ENDPOINT_STATUS_METRIC.ENDPOINT_METRIC_ID
+            and D.STATUS_CODE = ENDPOINT_STATUS_METRIC.STATUS_CODE)
+    where ID in (select min(ID) from ENDPOINT_STATUS_METRIC group by ENDPOINT_METRIC_ID, STATUS_CODE
+        having count(*) > 1);
+delete from ENDPOINT_STATUS_METRIC
+    where ID not in (select min(ID) from ENDPOINT_STATUS_METRIC group by ENDPOINT_METRIC_ID, STATUS_CODE);
+delete from ENDPOINT_METRIC where ID not in (select min(ID) from ENDPOINT_METRIC group by ENDPOINT_ID, METRIC_DATE);
+
+-- An exception class stays monitored when any of its duplicates was.
+update EXCEPTION_CLASS set MONITORING_ENABLED = true
+    where MONITORING_ENABLED = false and exists (select 1 from EXCEPTION_CLASS D
+        where D.EXCEPTION_CLASS_NAME = EXCEPTION_CLASS.EXCEPTION_CLASS_NAME and D.MONITORING_ENABLED = true);
+delete from EXCEPTION_CLASS where ID not in (select min(ID) from EXCEPTION_CLASS group by EXCEPTION_CLASS_NAME);
+
+create unique index UX_ENDPOINT_METHOD_SIGNATURE on ENDPOINT (METHOD_SIGNATURE);
+create unique index UX_EXCEPTION_CLASS_NAME on EXCEPTION_CLASS (EXCEPTION_CLASS_NAME);
+create unique index UX_ENDPOINT_METRIC_ENDPOINT_DATE on ENDPOINT_METRIC (ENDPOINT_ID, METRIC_DATE);
+create index IDX_ENDPOINT_METRIC_DATE_DESC on ENDPOINT_METRIC (METRIC_DATE desc);
+create index IDX_SYSTEM_METRIC_TIMESTAMP_DESC on SYSTEM_METRIC (TIMESTAMP desc);
+create index IDX_EXCEPTION_CAUSE_NEXT on EXCEPTION_CAUSE (NEXT_EXCEPTION_ID);
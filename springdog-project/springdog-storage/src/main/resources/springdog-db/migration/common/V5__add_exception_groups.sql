@@ -0,0 +1,16 @@
+create table EXCEPTION_GROUP (
+    ID bigint generated by default as identity not null,
+    FINGERPRINT varchar(64) not null,
+    EXCEPTION_CLASS_NAME varchar(500) not null,
+    SAMPLE_MESSAGE varchar(3000) not null,
+    OCCURRENCE_COUNT bigint not null,
+    STORED_TRACE_COUNT bigint not null,
+    FIRST_SEEN timestamp not null,
+    LAST_SEEN timestamp not null,
+    primary key (ID)
+);
+create unique index UX_EXCEPTION_GROUP_FINGERPRINT on EXCEPTION_GROUP (FINGERPRINT);
+create index IDX_EXCEPTION_GROUP_LAST_SEEN on EXCEPTION_GROUP (LAST_SEEN desc);
+
+alter table EXCEPTION_CAUSE add column FINGERPRINT varchar(64) default null;
+create index IDX_EXCEPTION_CAUSE_FINGERPRINT on EXCEPTION_CAUSE (FINGERPRINT);
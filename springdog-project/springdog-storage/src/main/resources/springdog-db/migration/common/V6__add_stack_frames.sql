@@ -0,0 +1,13 @@
+create table STACK_FRAME (
+    ID bigint generated by default as identity not null,
+    FRAME_HASH varchar(64) not null,
+    CLASS_NAME varchar(500) not null,
+    METHOD_NAME varchar(300) not null,
+    FILE_NAME varchar(500),
+    LINE_NUMBER integer not null,
+    primary key (ID)
+);
+create unique index UX_STACK_FRAME_HASH on STACK_FRAME (FRAME_HASH);
+
+alter table EXCEPTION_CAUSE add column OMITTED_FRAME_COUNT integer default 0 not null;
+alter table EXCEPTION_CAUSE add column TRUNCATED_FRAME_COUNT integer default 0 not null;
@@ -0,0 +1,6 @@
+create table EXCEPTION_CATALOG_STATE (
+    ID bigint generated by default as identity not null,
+    CATALOG_HASH varchar(64) not null,
+    SYNCED_AT timestamp not null,
+    primary key (ID)
+);
@@ -0,0 +1 @@
+alter table EXCEPTION_GROUP add column THROTTLED_COUNT bigint default 0 not null;
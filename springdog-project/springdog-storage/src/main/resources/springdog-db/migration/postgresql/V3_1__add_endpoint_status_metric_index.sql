@@ -0,0 +1 @@
+create index IDX_ENDPOINT_STATUS_METRIC_METRIC on ENDPOINT_STATUS_METRIC (ENDPOINT_METRIC_ID);
@@ -0,0 +1 @@
+alter table EXCEPTION_CAUSE add column STACK_FRAMES bytea;
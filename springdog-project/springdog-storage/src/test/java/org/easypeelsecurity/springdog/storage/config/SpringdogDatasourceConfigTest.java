@@ -0,0 +1,341 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
+import org.easypeelsecurity.springdog.domain.statistics.model.EndpointMetric;
+import org.easypeelsecurity.springdog.domain.statistics.model.EndpointStatusMetric;
+import org.easypeelsecurity.springdog.domain.statistics.model.SystemMetric;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SpringdogDatasourceConfigTest {
+
+  private final SpringdogDatasourceConfig config = new SpringdogDatasourceConfig();
+
+  @Test
+  @DisplayName("Should create, migrate and use the Springdog schema on H2")
+  void migrateOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    migrateAndUse(DatabaseType.H2, url, "sa", "");
+  }
+
+  @Test
+  @DisplayName("Should create, migrate and use the Springdog schema on Derby")
+  void migrateOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    migrateAndUse(DatabaseType.DERBY, url, null, null);
+  }
+
+  private void migrateAndUse(DatabaseType type, String url, String username, String password) throws Exception {
+    // given
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(type, url, username, password, 4, 16)) {
+      Flyway flyway = config.flyway(dataSource);
+
+      // when
+      ServerRuntime runtime = config.springdogRepository(flyway, dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      // then
+      assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("10");
+      ObjectContext context = runtime.newContext();
+      SystemMetric systemMetric = context.newObject(SystemMetric.class);
+      systemMetric.setCpuUsagePercent(12.5);
+      systemMetric.setMemo("memo");
+      context.commitChanges();
+
+      SystemMetric stored = ObjectSelect.query(SystemMetric.class).selectOne(runtime.newContext());
+      assertThat(stored.getCpuUsagePercent()).isEqualTo(12.5);
+      assertThat(stored.getMemo()).isEqualTo("memo");
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should create the latest schema and indexes in memory without running Flyway")
+  void createInMemory() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.MEMORY, url, null, null, 4, 16)) {
+      Flyway flyway = mock(Flyway.class);
+
+      // when
+      ServerRuntime runtime = config.springdogRepository(flyway, dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      // then
+      verifyNoInteractions(flyway);
+      assertThat(System.getProperty("derby.stream.error.field")).isNull();
+      // Derby does not create the ROOT_ID index when the foreign key of the mapping already indexes the column
+      Set<String> migratedIndexNames = migratedDerbyIndexNames();
+      migratedIndexNames.remove("IDX_EXCEPTION_CAUSE_ROOT_ID");
+      assertThat(indexNames(dataSource)).isEqualTo(migratedIndexNames);
+      ObjectContext context = runtime.newContext();
+      Endpoint endpoint = context.newObject(Endpoint.class);
+      endpoint.setMethodSignature("void example.Controller.hello()");
+      endpoint.setPath("/hello");
+      endpoint.setHttpMethod("GET");
+      endpoint.setRuleStatus("NOT_CONFIGURED");
+      EndpointMetric endpointMetric = context.newObject(EndpointMetric.class);
+      endpointMetric.setEndpoint(endpoint);
+      endpointMetric.setMetricDate(LocalDate.now());
+      endpointMetric.updateResponseStatuses(Map.of(200, 1L), 0L);
+      EndpointStatusMetric statusMetric = context.newObject(EndpointStatusMetric.class);
+      statusMetric.setStatusCode(200);
+      statusMetric.increaseResponseCount(1L);
+      endpointMetric.addToStatusMetrics(statusMetric);
+      SystemMetric systemMetric = context.newObject(SystemMetric.class);
+      systemMetric.setMemo("memo");
+      context.commitChanges();
+
+      EndpointMetric stored = ObjectSelect.query(EndpointMetric.class).selectOne(runtime.newContext());
+      assertThat(stored.getStatus2xxCount()).isEqualTo(1L);
+      assertThat(stored.getStatusMetrics()).hasSize(1);
+      assertThat(ObjectSelect.query(SystemMetric.class).selectOne(runtime.newContext()).getMemo())
+          .isEqualTo("memo");
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should not open the in-memory database before the store is initialized")
+  void bootInMemoryOnInitialization() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+
+    // when
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.MEMORY, url, null, null, 4, 16)) {
+
+      // then
+      assertThat(((BasicDataSource) dataSource.getDataSource()).getNumIdle()).isZero();
+    }
+  }
+
+  private static Set<String> migratedDerbyIndexNames() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      SpringdogDatasourceConfig migrated = new SpringdogDatasourceConfig();
+      migrated.springdogRepository(migrated.flyway(dataSource), dataSource, new SpringdogStoreReadiness(),
+          mock(SpringdogProperties.class)).shutdown();
+      return indexNames(dataSource);
+    }
+  }
+
+  /**
+   * Returns the names of the indexes created by name, leaving out the ones Derby creates for the constraints.
+   */
+  private static Set<String> indexNames(SpringdogDataSource dataSource) throws Exception {
+    Set<String> names = new TreeSet<>();
+    try (Connection connection = dataSource.getDataSource().getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("select C.CONGLOMERATENAME from SYS.SYSCONGLOMERATES C" +
+            " join SYS.SYSTABLES T on T.TABLEID = C.TABLEID join SYS.SYSSCHEMAS S on S.SCHEMAID = T.SCHEMAID" +
+            " where S.SCHEMANAME = 'APP' and C.ISINDEX = true and C.ISCONSTRAINT = false")) {
+      while (resultSet.next()) {
+        String name = resultSet.getString(1);
+        if (name.startsWith("IDX_") || name.startsWith("UX_")) {
+          names.add(name);
+        }
+      }
+    }
+    return names;
+  }
+
+  @Test
+  @DisplayName("Should migrate in the background and run the waiting work once the database is ready")
+  void initializeAsynchronously() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      Flyway flyway = config.flyway(dataSource);
+      SpringdogStoreReadiness storeReadiness = new SpringdogStoreReadiness();
+      SpringdogProperties properties = mock(SpringdogProperties.class);
+      when(properties.isDatasourceAsyncInitialization()).thenReturn(true);
+      CountDownLatch workDone = new CountDownLatch(1);
+      storeReadiness.whenReady("count down", workDone::countDown);
+
+      // when
+      ServerRuntime runtime = config.springdogRepository(flyway, dataSource, storeReadiness, properties);
+      ObjectContext context = runtime.newContext();
+      SystemMetric systemMetric = context.newObject(SystemMetric.class);
+      systemMetric.setMemo("written while migrating");
+      context.commitChanges();
+
+      // then
+      assertThat(storeReadiness.isReady()).isTrue();
+      assertThat(workDone.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("10");
+      assertThat(ObjectSelect.query(SystemMetric.class).selectOne(runtime.newContext()).getMemo())
+          .isEqualTo("written while migrating");
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should merge the duplicated lookups before indexing them uniquely on Derby")
+  void mergeDuplicatesOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    mergeDuplicates(DatabaseType.DERBY, url, null, null);
+  }
+
+  @Test
+  @DisplayName("Should merge the duplicated lookups before indexing them uniquely on H2")
+  void mergeDuplicatesOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    mergeDuplicates(DatabaseType.H2, url, "sa", "");
+  }
+
+  private void mergeDuplicates(DatabaseType type, String url, String username, String password)
+      throws Exception {
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(type, url, username, password, 4, 16)) {
+      // given
+      Flyway beforeLookupIndexes = Flyway.configure()
+          .configuration(config.flyway(dataSource).getConfiguration())
+          .target("3")
+          .load();
+      config.springdogRepository(beforeLookupIndexes, dataSource, new SpringdogStoreReadiness(),
+          mock(SpringdogProperties.class)).shutdown();
+      try (Connection connection = dataSource.getDataSource().getConnection();
+          Statement statement = connection.createStatement()) {
+        for (long endpointId : new long[] {1, 2}) {
+          statement.executeUpdate("insert into APP.ENDPOINT (ID, HTTPMETHOD, ISPATTERNPATH, METHOD_SIGNATURE," +
+              " PATH, RULEBANTIMEINSECONDS, RULEIPBASED, RULEPERMANENTBAN, RULEREQUESTLIMITCOUNT, RULESTATUS," +
+              " RULETIMELIMITINSECONDS) values (" + endpointId + ", 'GET', false," +
+              " 'void example.Controller.hello()', '/hello', 0, false, false, 0, 'NOT_CONFIGURED', 0)");
+        }
+        statement.executeUpdate("insert into APP.ENDPOINT_METRIC (ENDPOINT_ID, METRIC_DATE, PAGE_VIEW," +
+            " AVERAGE_RESPONSE_MS, FAILURE_WITH_RATELIMIT, STATUS_2XX_COUNT)" +
+            " values (1, '2024-10-01', 1, 10, 0, 1), (2, '2024-10-01', 3, 30, 1, 3)");
+        statement.executeUpdate("insert into APP.ENDPOINT_STATUS_METRIC (ENDPOINT_METRIC_ID, STATUS_CODE," +
+            " RESPONSE_COUNT) select ID, 200, PAGE_VIEW from APP.ENDPOINT_METRIC");
+        statement.executeUpdate("insert into APP.EXCEPTION_CLASS" +
+            " (ID, EXCEPTION_CLASS_NAME, MONITORING_ENABLED) values (1, 'java.io.IOException', false)," +
+            " (2, 'java.io.IOException', true)");
+      }
+
+      // when
+      config.flyway(dataSource).migrate();
+
+      // then
+      try (Connection connection = dataSource.getDataSource().getConnection();
+          Statement statement = connection.createStatement()) {
+        assertThat(queryRow(statement, "select count(*), min(ID) from APP.ENDPOINT")).containsExactly(1L, 1L);
+        assertThat(queryRow(statement, "select count(*), min(ENDPOINT_ID), min(PAGE_VIEW)," +
+            " min(AVERAGE_RESPONSE_MS), min(FAILURE_WITH_RATELIMIT), min(STATUS_2XX_COUNT)" +
+            " from APP.ENDPOINT_METRIC"))
+            .containsExactly(1L, 1L, 4L, 25L, 1L, 4L);
+        assertThat(queryRow(statement, "select count(*), min(RESPONSE_COUNT) from APP.ENDPOINT_STATUS_METRIC"))
+            .containsExactly(1L, 4L);
+        assertThat(queryRow(statement, "select count(*), min(ID) from APP.EXCEPTION_CLASS" +
+            " where MONITORING_ENABLED = true")).containsExactly(1L, 1L);
+        assertThat(queryRow(statement, "select count(*) from APP.EXCEPTION_CLASS")).containsExactly(1L);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should link every cause of a deep chain to its root on Derby")
+  void linkCauseRootsOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    linkCauseRoots(DatabaseType.DERBY, url, null, null);
+  }
+
+  @Test
+  @DisplayName("Should link every cause of a deep chain to its root on H2")
+  void linkCauseRootsOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    linkCauseRoots(DatabaseType.H2, url, "sa", "");
+  }
+
+  private void linkCauseRoots(DatabaseType type, String url, String username, String password)
+      throws Exception {
+    int chainLength = 25;
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(type, url, username, password, 4, 16)) {
+      // given
+      Flyway beforeCauseRoots = Flyway.configure()
+          .configuration(config.flyway(dataSource).getConfiguration())
+          .target("6.1")
+          .load();
+      config.springdogRepository(beforeCauseRoots, dataSource, new SpringdogStoreReadiness(),
+          mock(SpringdogProperties.class)).shutdown();
+      try (Connection connection = dataSource.getDataSource().getConnection();
+          Statement statement = connection.createStatement()) {
+        for (long id = 1; id <= chainLength; id++) {
+          statement.executeUpdate("insert into APP.EXCEPTION_CAUSE (ID, CLASS_NAME, FILE_NAME, LINE, MESSAGE," +
+              " METHOD_NAME, NEXT_EXCEPTION_ID, TIMESTAMP) values (" + id + ", 'java.io.IOException'," +
+              " 'Example.java', 1, 'failed', 'run', " + (id == 1 ? "null" : String.valueOf(id - 1)) +
+              ", '2024-10-01 00:00:00')");
+        }
+      }
+
+      // when
+      config.flyway(dataSource).migrate();
+
+      // then
+      try (Connection connection = dataSource.getDataSource().getConnection();
+          Statement statement = connection.createStatement()) {
+        assertThat(queryRow(statement, "select count(*), min(ID) from APP.EXCEPTION_CAUSE where IS_ROOT = true"))
+            .containsExactly(1L, 1L);
+        assertThat(queryRow(statement, "select count(*), min(ROOT_ID), max(ROOT_ID) from APP.EXCEPTION_CAUSE" +
+            " where IS_ROOT = false")).containsExactly((long) chainLength - 1, 1L, 1L);
+      }
+    }
+  }
+
+  private static List<Long> queryRow(Statement statement, String sql) throws Exception {
+    try (ResultSet resultSet = statement.executeQuery(sql)) {
+      resultSet.next();
+      List<Long> row = new ArrayList<>();
+      for (int column = 1; column <= resultSet.getMetaData().getColumnCount(); column++) {
+        row.add(resultSet.getLong(column));
+      }
+      return row;
+    }
+  }
+
+  @Test
+  @DisplayName("Should reject a datasource without URL")
+  void rejectMissingUrl() {
+    assertThatThrownBy(() -> new SpringdogDataSource(DatabaseType.POSTGRESQL, null, null, null, 4, 16))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
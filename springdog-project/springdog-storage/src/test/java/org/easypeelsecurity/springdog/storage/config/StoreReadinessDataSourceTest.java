@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StoreReadinessDataSourceTest {
+
+  private final DataSource delegate = mock(DataSource.class);
+  private final SpringdogStoreReadiness storeReadiness = new SpringdogStoreReadiness();
+
+  @Test
+  @DisplayName("Gives out the connections of the pool once the database is ready")
+  void connectWhenReady() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(delegate.getConnection()).thenReturn(connection);
+    storeReadiness.markReady();
+
+    assertThat(new StoreReadinessDataSource(delegate, storeReadiness, 50).getConnection()).isSameAs(connection);
+  }
+
+  @Test
+  @DisplayName("Fails after the timeout instead of waiting forever for a database that is not ready")
+  void failWhenNotReadyInTime() {
+    StoreReadinessDataSource dataSource = new StoreReadinessDataSource(delegate, storeReadiness, 50);
+
+    assertThatThrownBy(dataSource::getConnection)
+        .isInstanceOf(SQLTransientConnectionException.class)
+        .hasMessage("Springdog database is not ready yet");
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  @DisplayName("Fails with the cause of a database that failed to initialize")
+  void failWhenInitializationFailed() {
+    IllegalStateException cause = new IllegalStateException("migration failed");
+    storeReadiness.markFailed(cause);
+    StoreReadinessDataSource dataSource = new StoreReadinessDataSource(delegate, storeReadiness, 50);
+
+    assertThatThrownBy(dataSource::getConnection)
+        .isInstanceOf(SQLException.class)
+        .hasCause(cause);
+    verifyNoInteractions(delegate);
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.shared.vo.DashboardResponse.DailyTopErrorRateEndpoint;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDataSource;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDatasourceConfig;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Seeds a Derby database with metric volumes of a long-running application, then checks that the queries of the
+ * dashboard and of the collectors read through indexes and stay within a latency budget.
+ * <p>
+ * The regular build seeds a small volume and only checks the plans, as its timings depend on the machine.
+ * {@code gradle queryPlanTest} seeds one million system metrics and checks the latency budget as well.
+ * </p>
+ */
+@Tag("query-plan")
+class DashboardQueryPlanTest {
+
+  private static final int SYSTEM_METRIC_ROWS = Integer.getInteger("springdog.queryPlan.rows", 20_000);
+  private static final Long LATENCY_BUDGET_MILLIS = Long.getLong("springdog.queryPlan.budgetMillis");
+  private static final int ENDPOINTS = 200;
+  private static final int METRIC_DAYS = Math.max(10, SYSTEM_METRIC_ROWS / (ENDPOINTS * 5));
+  private static final int EXCEPTION_CLASSES = 2_000;
+  private static final LocalDate TODAY = LocalDate.of(2024, 10, 1);
+  private static final String PLAN_SCHEMA = "SPRINGDOG_PLAN";
+  private static final List<String> SEEDED_TABLES =
+      List.of("ENDPOINT", "ENDPOINT_METRIC", "SYSTEM_METRIC", "EXCEPTION_TYPE", "EXCEPTION_CLASS");
+
+  @TempDir
+  static Path databaseDirectory;
+
+  private static SpringdogDataSource dataSource;
+  private static ServerRuntime runtime;
+
+  private final EndpointRepositoryImpl endpointRepository = new EndpointRepositoryImpl();
+  private final EndpointMetricRepositoryImpl endpointMetricRepository = new EndpointMetricRepositoryImpl();
+  private final SystemMetricRepositoryImpl systemMetricRepository = new SystemMetricRepositoryImpl();
+  private final ExceptionListRepositoryImpl exceptionRepository = new ExceptionListRepositoryImpl();
+
+  @BeforeAll
+  static void seed() throws SQLException {
+    // a single connection, so that the plans of the Cayenne queries are captured on the session enabling it
+    String url = "jdbc:derby:" + databaseDirectory.resolve("springdog") + ";create=true";
+    dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 1, 16);
+    SpringdogDatasourceConfig config = new SpringdogDatasourceConfig();
+    runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+        new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+    try (Connection connection = dataSource.getDataSource().getConnection()) {
+      connection.setAutoCommit(false);
+      seedEndpoints(connection);
+      seedEndpointMetrics(connection);
+      seedSystemMetrics(connection);
+      seedExceptionClasses(connection);
+      connection.commit();
+      connection.setAutoCommit(true);
+
+      try (Statement statement = connection.createStatement()) {
+        for (String table : SEEDED_TABLES) {
+          statement.execute("CALL SYSCS_UTIL.SYSCS_UPDATE_STATISTICS('APP', '" + table + "', NULL)");
+        }
+      }
+    }
+  }
+
+  @AfterAll
+  static void tearDown() throws Exception {
+    runtime.shutdown();
+    dataSource.close();
+  }
+
+  @Test
+  @DisplayName("Recent system metrics are read from the timestamp index")
+  void recentSystemMetrics() throws SQLException {
+    assertIndexedAndFast(context -> assertThat(systemMetricRepository.getRecentSystemMetrics(context, 30))
+        .hasSize(30));
+  }
+
+  @Test
+  @DisplayName("Daily top endpoints are read from the metric date index")
+  void dailyTopEndpoints() throws SQLException {
+    assertIndexedAndFast(context -> {
+      assertThat(endpointMetricRepository.getDailyTopTrafficEndpoints(context, 7, TODAY)).hasSize(7);
+      assertThat(endpointMetricRepository.getDailySlowestEndpoints(context, 7, TODAY)).hasSize(7);
+      assertThat(endpointMetricRepository.getDailyTopFailWithRatelimitEndpoints(context, 7, TODAY)).hasSize(7);
+      assertThat(endpointMetricRepository.getDailyTopErrorRateEndpoints(context, 7, TODAY)).hasSize(7);
+    });
+  }
+
+  @Test
+  @DisplayName("Daily top error rate endpoints are ranked by their share of requests that threw an exception")
+  void dailyTopErrorRateEndpoints() {
+    List<DailyTopErrorRateEndpoint> endpoints =
+        endpointMetricRepository.getDailyTopErrorRateEndpoints(runtime.newContext(), 7, TODAY);
+
+    assertThat(endpoints).hasSize(7)
+        .allMatch(endpoint -> endpoint.exceptionCount() > 0)
+        .allMatch(endpoint -> endpoint.errorRate() == endpoint.exceptionCount() * 100.0 / endpoint.requestCount());
+    assertThat(endpoints).extracting(DailyTopErrorRateEndpoint::errorRate)
+        .isSortedAccordingTo(Comparator.reverseOrder());
+  }
+
+  @Test
+  @DisplayName("Daily totals are grouped from the metric date index")
+  void dailyEndpointMetrics() throws SQLException {
+    assertIndexedAndFast(context -> assertThat(endpointMetricRepository.getDailyEndpointMetrics(context, 10))
+        .hasSize(10));
+  }
+
+  @Test
+  @DisplayName("The metrics of an endpoint are found by endpoint and date")
+  void endpointMetricsOfEndpoint() throws SQLException {
+    assertIndexedAndFast(context -> {
+      assertThat(endpointRepository.findByMethodSignatureOrNull(context, methodSignature(42))).isNotNull();
+      assertThat(endpointMetricRepository.getRecentEndpointMetrics(context, 42, 30)).hasSize(Math.min(30, METRIC_DAYS));
+    });
+  }
+
+  @Test
+  @DisplayName("An exception class is found by its id")
+  void exceptionClassById() throws SQLException {
+    assertIndexedAndFast(context -> assertThat(
+        exceptionRepository.findExceptionClassByIdOrNull(context, 1_234)).isNotNull());
+  }
+
+  private void assertIndexedAndFast(Consumer<ObjectContext> queries) throws SQLException {
+    setPlanCapture(true);
+    queries.accept(runtime.newContext());
+    setPlanCapture(false);
+    List<ScanPlan> scans = capturedScans();
+    assertThat(scans).as("captured scans").isNotEmpty();
+    assertThat(scans)
+        .as("full scans of seeded tables")
+        .noneMatch(scan -> "TABLESCAN".equals(scan.operation()) && SEEDED_TABLES.contains(scan.objectName()));
+    if (LATENCY_BUDGET_MILLIS == null) {
+      return;
+    }
+
+    long[] elapsedMillis = new long[5];
+    for (int i = 0; i < elapsedMillis.length; i++) {
+      long start = System.nanoTime();
+      queries.accept(runtime.newContext());
+      elapsedMillis[i] = (System.nanoTime() - start) / 1_000_000;
+    }
+    Arrays.sort(elapsedMillis);
+    assertThat(elapsedMillis[elapsedMillis.length / 2]).as("median latency in ms")
+        .isLessThanOrEqualTo(LATENCY_BUDGET_MILLIS);
+  }
+
+  private void setPlanCapture(boolean enabled) throws SQLException {
+    try (Connection connection = dataSource.getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(" + (enabled ? 1 : 0) + ")");
+      statement.execute("CALL SYSCS_UTIL.SYSCS_SET_XPLAIN_SCHEMA('" + (enabled ? PLAN_SCHEMA : "") + "')");
+    }
+  }
+
+  private List<ScanPlan> capturedScans() throws SQLException {
+    List<ScanPlan> scans = new ArrayList<>();
+    try (Connection connection = dataSource.getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      try (ResultSet resultSet = statement.executeQuery("""
+          SELECT st.STMT_TEXT, rs.OP_IDENTIFIER, sp.SCAN_OBJECT_NAME
+          FROM SPRINGDOG_PLAN.SYSXPLAIN_SCAN_PROPS sp
+          JOIN SPRINGDOG_PLAN.SYSXPLAIN_RESULTSETS rs ON rs.SCAN_RS_ID = sp.SCAN_RS_ID
+          JOIN SPRINGDOG_PLAN.SYSXPLAIN_STATEMENTS st ON st.STMT_ID = rs.STMT_ID
+          WHERE st.STMT_TEXT LIKE 'SELECT%'
+          """)) {
+        while (resultSet.next()) {
+          scans.add(new ScanPlan(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3)));
+        }
+      }
+      statement.execute("DELETE FROM SPRINGDOG_PLAN.SYSXPLAIN_STATEMENTS");
+    }
+    return scans;
+  }
+
+  private static void seedEndpoints(Connection connection) throws SQLException {
+    try (PreparedStatement insert = connection.prepareStatement("""
+        INSERT INTO APP.ENDPOINT (ID, HTTPMETHOD, ISPATTERNPATH, METHOD_SIGNATURE, PATH, RULEBANTIMEINSECONDS,
+        RULEIPBASED, RULEPERMANENTBAN, RULEREQUESTLIMITCOUNT, RULESTATUS, RULETIMELIMITINSECONDS)
+        VALUES (?, 'GET', FALSE, ?, ?, 0, FALSE, FALSE, 0, 'NOT_CONFIGURED', 0)
+        """)) {
+      for (int i = 1; i <= ENDPOINTS; i++) {
+        insert.setLong(1, i);
+        insert.setString(2, methodSignature(i));
+        insert.setString(3, "/api/resource" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  private static void seedEndpointMetrics(Connection connection) throws SQLException {
+    try (PreparedStatement insert = connection.prepareStatement("""
+        INSERT INTO APP.ENDPOINT_METRIC (ENDPOINT_ID, METRIC_DATE, PAGE_VIEW, AVERAGE_RESPONSE_MS,
+        FAILURE_WITH_RATELIMIT, STATUS_2XX_COUNT, STATUS_3XX_COUNT, STATUS_4XX_COUNT, STATUS_5XX_COUNT,
+        EXCEPTION_COUNT)
+        VALUES (?, ?, ?, ?, ?, ?, 0, 0, 0, ?)
+        """)) {
+      for (int day = 0; day < METRIC_DAYS; day++) {
+        Date metricDate = Date.valueOf(TODAY.minusDays(day));
+        for (int endpoint = 1; endpoint <= ENDPOINTS; endpoint++) {
+          long pageView = (endpoint * 31L + day * 7L) % 10_000;
+          insert.setLong(1, endpoint);
+          insert.setDate(2, metricDate);
+          insert.setLong(3, pageView);
+          insert.setLong(4, (endpoint * 13L + day) % 500);
+          insert.setLong(5, pageView % 17);
+          insert.setLong(6, pageView);
+          insert.setLong(7, pageView % 11);
+          insert.addBatch();
+        }
+        insert.executeBatch();
+      }
+    }
+  }
+
+  private static void seedSystemMetrics(Connection connection) throws SQLException {
+    LocalDateTime now = TODAY.atStartOfDay();
+    try (PreparedStatement insert = connection.prepareStatement("""
+        INSERT INTO APP.SYSTEM_METRIC (ID, TIMESTAMP, CPU_USAGE_PERCENT, MEMORY_USAGE_PERCENT,
+        DISK_USAGE_PERCENT, JVM_HEAP_USAGE_PERCENT, JVM_NON_HEAP_USAGE_PERCENT, JVM_TOTAL_MEMORY_USED,
+        NETWORK_IN_BYTES, NETWORK_OUT_BYTES)
+        VALUES (?, ?, ?, 40.0, 70.0, 55.0, 20.0, 123456789, 1024, 2048)
+        """)) {
+      for (int i = 1; i <= SYSTEM_METRIC_ROWS; i++) {
+        insert.setLong(1, i);
+        insert.setTimestamp(2, Timestamp.valueOf(now.minusMinutes(SYSTEM_METRIC_ROWS - i)));
+        insert.setDouble(3, i % 100);
+        insert.addBatch();
+        if (i % 10_000 == 0) {
+          insert.executeBatch();
+        }
+      }
+      insert.executeBatch();
+    }
+  }
+
+  private static void seedExceptionClasses(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(
+          "INSERT INTO APP.EXCEPTION_TYPE (ID, DESCRIPTION, PACKAGE_TYPE) VALUES (1, 'seeded', 'java.lang')");
+    }
+    try (PreparedStatement insert = connection.prepareStatement("""
+        INSERT INTO APP.EXCEPTION_CLASS (ID, EXCEPTION_CLASS_NAME, EXCEPTION_TYPE_ID, MONITORING_ENABLED)
+        VALUES (?, ?, 1, FALSE)
+        """)) {
+      for (int i = 1; i <= EXCEPTION_CLASSES; i++) {
+        insert.setLong(1, i);
+        insert.setString(2, exceptionClassName(i));
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  private static String methodSignature(int endpoint) {
+    return "public java.lang.String org.easypeelsecurity.springdogtest.ResourceController.resource" + endpoint +
+        "(java.lang.String)";
+  }
+
+  private static String exceptionClassName(int exceptionClass) {
+    return "org.easypeelsecurity.springdogtest.exception.SeededException" + exceptionClass;
+  }
+
+  private record ScanPlan(String statement, String operation, String objectName) {
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.UUID;
+
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.domain.ratelimit.EndpointRepository;
+import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDataSource;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDatasourceConfig;
+
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.RefreshQuery;
+import org.apache.cayenne.query.SQLExec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EndpointRepositoryImplTest {
+
+  private static final String SIGNATURE = "void example.Controller.hello()";
+
+  private final SpringdogDatasourceConfig config = new SpringdogDatasourceConfig();
+  private final EndpointRepositoryImpl repository = new EndpointRepositoryImpl();
+
+  @Test
+  @DisplayName("Should serve method signature lookups from the shared cache until the group is refreshed")
+  void sharedCacheByMethodSignature() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+      SQLExec.query("INSERT INTO ENDPOINT (ID, HTTPMETHOD, ISPATTERNPATH, METHOD_SIGNATURE, PATH, " +
+              "RULEBANTIMEINSECONDS, RULEIPBASED, RULEPERMANENTBAN, RULEREQUESTLIMITCOUNT, RULESTATUS, " +
+              "RULETIMELIMITINSECONDS) VALUES (1, 'GET', FALSE, #bind($signature), '/hello', 0, FALSE, FALSE, " +
+              "0, 'NOT_CONFIGURED', 0)")
+          .params("signature", SIGNATURE)
+          .update(runtime.newContext());
+
+      Endpoint first = repository.findByMethodSignatureOrNull(runtime.newContext(), SIGNATURE);
+      assertThat(first).isNotNull();
+
+      // a change behind the ORM's back is not seen while the cached result lives
+      SQLExec.query("DELETE FROM ENDPOINT").update(runtime.newContext());
+      assertThat(repository.findByMethodSignatureOrNull(runtime.newContext(), SIGNATURE))
+          .isNotNull()
+          .isNotSameAs(first);
+
+      runtime.newContext().performGenericQuery(new RefreshQuery(EndpointRepository.CACHE_GROUP));
+      assertThat(repository.findByMethodSignatureOrNull(runtime.newContext(), SIGNATURE)).isNull();
+      runtime.shutdown();
+    }
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionCause;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionClassRow;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionGroup;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionType;
+import org.easypeelsecurity.springdog.domain.errortracing.model.converter.ExceptionConverter;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionClassesDto.ExceptionListDto.ExceptionItemDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionOccurrencesDto;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDataSource;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDatasourceConfig;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.ObjectSelect;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExceptionListRepositoryImplTest {
+
+  private final SpringdogDatasourceConfig config = new SpringdogDatasourceConfig();
+  private final ExceptionListRepositoryImpl repository = new ExceptionListRepositoryImpl();
+
+  @Test
+  @DisplayName("Should page the root causes and fetch their chains on Derby")
+  void chainsOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      pageAndFetchChains(runtime);
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should page the root causes and fetch their chains on H2")
+  void chainsOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.H2, url, "sa", "", 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      pageAndFetchChains(runtime);
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should save only the difference of the exception classes on Derby")
+  void exceptionClassesOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      saveExceptionClasses(runtime);
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should save only the difference of the exception classes on H2")
+  void exceptionClassesOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.H2, url, "sa", "", 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      saveExceptionClasses(runtime);
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should replace stored chains beyond the limit and sum the throttled occurrences on Derby")
+  void storedChainsOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      replaceStoredChains(runtime);
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should replace stored chains beyond the limit and sum the throttled occurrences on H2")
+  void storedChainsOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.H2, url, "sa", "", 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      replaceStoredChains(runtime);
+      runtime.shutdown();
+    }
+  }
+
+  private void replaceStoredChains(ServerRuntime runtime) {
+    // given
+    ExceptionListingService service = new ExceptionListingService(runtime, repository);
+    LocalDateTime now = LocalDateTime.now();
+    service.saveOccurrences(new ExceptionOccurrencesDto("fp", "java.lang.IllegalStateException", "first",
+        "GET /api/orders", 2, 0, now, now, List.of(chain("First", "Cause"), chain("Second", "Cause"))), 2);
+
+    // when
+    service.saveOccurrences(new ExceptionOccurrencesDto("fp", "java.lang.IllegalStateException", "third",
+        null, 5, 4, now, now, List.of(chain("Third", "Cause", "Deepest"))), 2);
+
+    // then
+    ObjectContext context = runtime.newContext();
+    List<Long> rootIds = repository.findStoredChainRootIds(context, "fp");
+    assertThat(rootIds).hasSize(2);
+    assertThat(repository.findExceptionChains(context, rootIds).values())
+        .extracting(chain -> chain.get(0).getClassName())
+        .contains("Third")
+        .containsAnyOf("First", "Second");
+    assertThat(ObjectSelect.query(ExceptionCause.class).selectCount(context))
+        .isEqualTo(5L);
+    ExceptionGroup group = repository.findExceptionGroupByFingerprintOrNull(context, "fp");
+    assertThat(group.getStoredTraceCount()).isEqualTo(2);
+    assertThat(group.getMethodSignature()).isEqualTo("GET /api/orders");
+    assertThat(repository.sumThrottledOccurrences(context)).isEqualTo(4);
+  }
+
+  private void saveExceptionClasses(ServerRuntime runtime) {
+    // given
+    ExceptionListingService service = new ExceptionListingService(runtime, repository);
+    service.saveExceptionsWithoutDuplicate(new ExceptionClassesDto(List.of(
+        exceptionList("java.io", "java.io.IOException", "java.io.FileNotFoundException"),
+        exceptionList("com.example", "com.example.OrderException"))));
+    Map<String, Long> savedIds = new HashMap<>();
+    repository.findAllExceptionClassRows(runtime.newContext())
+        .forEach(row -> savedIds.put(row.exceptionClassName(), row.id()));
+    long ioExceptionId = savedIds.get("java.io.IOException");
+    long orderExceptionId = savedIds.get("com.example.OrderException");
+    service.changeMonitoringStatus(orderExceptionId, true);
+    ExceptionClassesDto changed = new ExceptionClassesDto(List.of(
+        exceptionList("java.io", "java.io.IOException"),
+        exceptionList("com.example.order", "com.example.OrderException", "com.example.OrderNotFoundException")));
+
+    // when
+    service.saveExceptionsWithoutDuplicate(changed);
+    LocalDateTime syncedAt = repository.findExceptionCatalogStateOrNull(runtime.newContext()).getSyncedAt();
+    service.saveExceptionsWithoutDuplicate(changed);
+
+    // then
+    Map<String, ExceptionClassRow> classes = new HashMap<>();
+    repository.findAllExceptionClassRows(runtime.newContext())
+        .forEach(row -> classes.put(row.exceptionClassName(), row));
+    assertThat(classes).containsOnlyKeys("java.io.IOException", "com.example.OrderException",
+        "com.example.OrderNotFoundException");
+    assertThat(classes.get("java.io.IOException").id()).isEqualTo(ioExceptionId);
+    assertThat(classes.get("com.example.OrderException").id()).isEqualTo(orderExceptionId);
+    assertThat(repository.findAllExceptionTypes(runtime.newContext())).extracting(ExceptionType::getPackageType)
+        .containsExactlyInAnyOrder("java.io", "com.example.order");
+    assertThat(repository.findExceptionClassByIdOrNull(runtime.newContext(), orderExceptionId)
+        .isMonitoringEnabled()).isTrue();
+    assertThat(repository.findExceptionCatalogStateOrNull(runtime.newContext()).getSyncedAt())
+        .isEqualTo(syncedAt);
+  }
+
+  private static ExceptionListDto exceptionList(String packageType, String... exceptionNames) {
+    return new ExceptionListDto(null, packageType, packageType + " exceptions",
+        Arrays.stream(exceptionNames).map(name -> new ExceptionItemDto(null, name, false)).toList());
+  }
+
+  private void pageAndFetchChains(ServerRuntime runtime) {
+    // given
+    ObjectContext context = runtime.newContext();
+    ExceptionCause older = ExceptionConverter.convertDtoToEntity(context, chain("Older", "Cause"),
+        frames -> null);
+    context.commitChanges();
+    ExceptionCause newer = ExceptionConverter.convertDtoToEntity(context, chain("Newer", "Middle", "Deepest"),
+        frames -> null);
+    context.commitChanges();
+
+    // when
+    List<Long> firstPage = repository.findParentExceptionCauseIds(runtime.newContext(), Long.MAX_VALUE, 1);
+    List<Long> secondPage = repository.findParentExceptionCauseIds(runtime.newContext(), firstPage.get(0), 1);
+    Map<Long, List<ExceptionCause>> chains = repository.findExceptionChains(runtime.newContext(),
+        List.of(older.getId(), newer.getId()));
+    List<ExceptionCause> fromMiddle = repository.findExceptionChainFrom(runtime.newContext(),
+        newer.getNextException().getId());
+
+    // then
+    assertThat(firstPage).containsExactly(newer.getId());
+    assertThat(secondPage).containsExactly(older.getId());
+    assertThat(chains.get(newer.getId())).extracting(ExceptionCause::getClassName)
+        .containsExactly("Newer", "Middle", "Deepest");
+    assertThat(chains.get(older.getId())).extracting(ExceptionCause::getClassName)
+        .containsExactly("Older", "Cause");
+    assertThat(fromMiddle).extracting(ExceptionCause::getClassName)
+        .containsExactly("Middle", "Deepest");
+  }
+
+  private static ErrorTracingDto chain(String... classNames) {
+    ErrorTracingDto root = null;
+    ErrorTracingDto current = null;
+    for (String className : classNames) {
+      ErrorTracingDto cause = ErrorTracingDto.builder()
+          .message("failed")
+          .fileName(className + ".java")
+          .className(className)
+          .methodName("run")
+          .lineNumber(1)
+          .build();
+      if (current == null) {
+        root = cause;
+      } else {
+        current.setNext(cause);
+      }
+      current = cause;
+    }
+    return root;
+  }
+}
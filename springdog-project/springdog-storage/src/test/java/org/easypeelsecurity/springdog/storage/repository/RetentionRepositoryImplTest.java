@@ -0,0 +1,296 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionCause;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionGroup;
+import org.easypeelsecurity.springdog.domain.errortracing.model.ExceptionListingService;
+import org.easypeelsecurity.springdog.domain.errortracing.model.StackFrame;
+import org.easypeelsecurity.springdog.domain.persistence.SpringdogStoreReadiness;
+import org.easypeelsecurity.springdog.domain.ratelimit.model.Endpoint;
+import org.easypeelsecurity.springdog.domain.retention.RetentionTarget;
+import org.easypeelsecurity.springdog.domain.statistics.model.EndpointMetric;
+import org.easypeelsecurity.springdog.domain.statistics.model.EndpointStatusMetric;
+import org.easypeelsecurity.springdog.domain.statistics.model.SystemMetric;
+import org.easypeelsecurity.springdog.shared.configuration.SpringdogProperties;
+import org.easypeelsecurity.springdog.shared.dto.ErrorTracingDto;
+import org.easypeelsecurity.springdog.shared.dto.ExceptionOccurrencesDto;
+import org.easypeelsecurity.springdog.shared.dto.StackFrameDto;
+import org.easypeelsecurity.springdog.shared.enums.DatabaseType;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDataSource;
+import org.easypeelsecurity.springdog.storage.config.SpringdogDatasourceConfig;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.SQLExec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RetentionRepositoryImplTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 10, 1, 12, 0);
+
+  private final SpringdogDatasourceConfig config = new SpringdogDatasourceConfig();
+
+  @Test
+  @DisplayName("Should delete expired system metrics chunk by chunk on Derby and compress the table")
+  void pruneOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+      RetentionRepositoryImpl repository = new RetentionRepositoryImpl(dataSource);
+
+      pruneInChunks(runtime, repository);
+      assertThatCode(() -> repository.reclaimSpace(runtime.newContext(), RetentionTarget.SYSTEM_METRIC))
+          .doesNotThrowAnyException();
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should delete expired system metrics chunk by chunk on H2")
+  void pruneOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.H2, url, "sa", "", 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+      RetentionRepositoryImpl repository = new RetentionRepositoryImpl(dataSource);
+
+      pruneInChunks(runtime, repository);
+      assertThatCode(() -> repository.reclaimSpace(runtime.newContext(), RetentionTarget.SYSTEM_METRIC))
+          .doesNotThrowAnyException();
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should delete expired error traces by whole chains on Derby")
+  void pruneErrorTracesOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      pruneErrorTraces(runtime, new RetentionRepositoryImpl(dataSource));
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should delete expired error traces by whole chains on H2")
+  void pruneErrorTracesOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.H2, url, "sa", "", 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      pruneErrorTraces(runtime, new RetentionRepositoryImpl(dataSource));
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should delete expired endpoint metrics with their status metrics on Derby")
+  void pruneEndpointMetricsOnDerby() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.DERBY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      pruneEndpointMetrics(runtime, new RetentionRepositoryImpl(dataSource));
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should delete expired endpoint metrics with their status metrics on H2")
+  void pruneEndpointMetricsOnH2() throws Exception {
+    String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.H2, url, "sa", "", 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+
+      pruneEndpointMetrics(runtime, new RetentionRepositoryImpl(dataSource));
+      runtime.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should count and delete the oldest rows whatever their age in memory")
+  void deleteOldestInMemory() throws Exception {
+    String url = "jdbc:derby:memory:" + UUID.randomUUID() + ";create=true";
+    try (SpringdogDataSource dataSource = new SpringdogDataSource(DatabaseType.MEMORY, url, null, null, 4, 16)) {
+      ServerRuntime runtime = config.springdogRepository(config.flyway(dataSource), dataSource,
+          new SpringdogStoreReadiness(), mock(SpringdogProperties.class));
+      RetentionRepositoryImpl repository = new RetentionRepositoryImpl(dataSource);
+      ObjectContext context = runtime.newContext();
+      for (int i = 0; i < 10; i++) {
+        SystemMetric systemMetric = context.newObject(SystemMetric.class);
+        systemMetric.setTimestamp(NOW.minusHours(i));
+      }
+      context.commitChanges();
+      ExceptionListingService service = new ExceptionListingService(runtime, new ExceptionListRepositoryImpl());
+      service.saveOccurrences(new ExceptionOccurrencesDto("capped", "java.lang.IllegalStateException", "old",
+          null, 2, 0, NOW, NOW, List.of(chain(List.of(), "Outer", "Inner"), chain(List.of(), "Outer"))), 10);
+
+      // when & then
+      assertThat(repository.countRows(runtime.newContext(), RetentionTarget.SYSTEM_METRIC)).isEqualTo(10);
+      assertThat(repository.deleteOldest(runtime.newContext(), RetentionTarget.SYSTEM_METRIC, 4)).isEqualTo(4);
+      assertThat(ObjectSelect.query(SystemMetric.class).select(runtime.newContext()))
+          .extracting(SystemMetric::getTimestamp)
+          .allMatch(timestamp -> !timestamp.isBefore(NOW.minusHours(5)))
+          .hasSize(6);
+      assertThat(repository.countRows(runtime.newContext(), RetentionTarget.ERROR_TRACE)).isEqualTo(2);
+      assertThat(repository.deleteOldest(runtime.newContext(), RetentionTarget.ERROR_TRACE, 1)).isEqualTo(1);
+      assertThat(repository.countRows(runtime.newContext(), RetentionTarget.ERROR_TRACE)).isEqualTo(1);
+      pruneEndpointMetrics(runtime, repository);
+      runtime.shutdown();
+    }
+  }
+
+  private void pruneErrorTraces(ServerRuntime runtime, RetentionRepositoryImpl repository) {
+    // given
+    ExceptionListRepositoryImpl exceptionRepository = new ExceptionListRepositoryImpl();
+    ExceptionListingService service = new ExceptionListingService(runtime, exceptionRepository);
+    LocalDateTime now = LocalDateTime.now();
+    StackFrameDto shared = new StackFrameDto("example.Service", "run", "Service.java", 10);
+    StackFrameDto expiredOnly = new StackFrameDto("example.Expired", "run", "Expired.java", 20);
+    service.saveOccurrences(new ExceptionOccurrencesDto("expired", "java.lang.IllegalStateException", "old",
+        null, 2, 0, now, now, List.of(chain(List.of(shared, expiredOnly), "Outer", "Middle", "Inner"),
+        chain(List.of(expiredOnly), "Outer", "Inner"))), 10);
+    service.saveOccurrences(new ExceptionOccurrencesDto("fresh", "java.lang.IllegalStateException", "new",
+        null, 1, 0, now, now, List.of(chain(List.of(shared), "Outer", "Inner"))), 10);
+    SQLExec.query("UPDATE APP.EXCEPTION_CAUSE SET TIMESTAMP = #bind($timestamp)" +
+            " WHERE FINGERPRINT = #bind($fingerprint)")
+        .params("timestamp", now.minusDays(40))
+        .params("fingerprint", "expired")
+        .update(runtime.newContext());
+    LocalDateTime cutoff = now.minusDays(30);
+
+    // when & then
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.ERROR_TRACE, cutoff, 1))
+        .isEqualTo(1);
+    assertThat(ObjectSelect.query(ExceptionCause.class).selectCount(runtime.newContext())).isIn(4L, 5L);
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.ERROR_TRACE, cutoff, 1))
+        .isEqualTo(1);
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.ERROR_TRACE, cutoff, 1))
+        .isZero();
+    ObjectContext context = runtime.newContext();
+    assertThat(ObjectSelect.query(ExceptionCause.class).select(context))
+        .extracting(ExceptionCause::getFingerprint)
+        .containsOnly("fresh")
+        .hasSize(2);
+    assertThat(exceptionRepository.findExceptionGroupByFingerprintOrNull(context, "expired"))
+        .extracting(ExceptionGroup::getStoredTraceCount)
+        .isEqualTo(0L);
+    assertThat(exceptionRepository.findExceptionGroupByFingerprintOrNull(context, "fresh"))
+        .extracting(ExceptionGroup::getStoredTraceCount)
+        .isEqualTo(1L);
+
+    assertThat(service.deleteUnusedStackFrames()).isEqualTo(1);
+    assertThat(ObjectSelect.query(StackFrame.class).select(runtime.newContext()))
+        .extracting(StackFrame::getClassName)
+        .containsExactly("example.Service");
+  }
+
+  private void pruneEndpointMetrics(ServerRuntime runtime, RetentionRepositoryImpl repository) {
+    // given
+    ObjectContext context = runtime.newContext();
+    Endpoint endpoint = context.newObject(Endpoint.class);
+    endpoint.setMethodSignature("void example.Controller.hello()");
+    endpoint.setPath("/hello");
+    endpoint.setHttpMethod("GET");
+    endpoint.setRuleStatus("NOT_CONFIGURED");
+    LocalDate today = NOW.toLocalDate();
+    for (int daysAgo : new int[] {400, 366, 365, 1}) {
+      EndpointMetric endpointMetric = context.newObject(EndpointMetric.class);
+      endpointMetric.setEndpoint(endpoint);
+      endpointMetric.setMetricDate(today.minusDays(daysAgo));
+      endpointMetric.updateResponseStatuses(Map.of(200, 1L), 0L);
+      EndpointStatusMetric statusMetric = context.newObject(EndpointStatusMetric.class);
+      statusMetric.setStatusCode(200);
+      statusMetric.increaseResponseCount(1L);
+      endpointMetric.addToStatusMetrics(statusMetric);
+    }
+    context.commitChanges();
+    LocalDateTime cutoff = NOW.minusDays(365);
+
+    // when & then
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.ENDPOINT_METRIC, cutoff, 5))
+        .isEqualTo(2);
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.ENDPOINT_METRIC, cutoff, 5))
+        .isZero();
+    assertThat(ObjectSelect.query(EndpointMetric.class).select(runtime.newContext()))
+        .extracting(EndpointMetric::getMetricDate)
+        .containsExactlyInAnyOrder(today.minusDays(365), today.minusDays(1));
+    assertThat(ObjectSelect.query(EndpointStatusMetric.class).selectCount(runtime.newContext())).isEqualTo(2);
+  }
+
+  private static ErrorTracingDto chain(List<StackFrameDto> rootFrames, String... classNames) {
+    ErrorTracingDto root = null;
+    ErrorTracingDto current = null;
+    for (String className : classNames) {
+      ErrorTracingDto cause = ErrorTracingDto.builder()
+          .message("failed")
+          .fileName(className + ".java")
+          .className(className)
+          .methodName("run")
+          .lineNumber(1)
+          .stackFrames(root == null ? rootFrames : List.of())
+          .build();
+      if (current == null) {
+        root = cause;
+      } else {
+        current.setNext(cause);
+      }
+      current = cause;
+    }
+    return root;
+  }
+
+  private void pruneInChunks(ServerRuntime runtime, RetentionRepositoryImpl repository) {
+    // given
+    ObjectContext context = runtime.newContext();
+    for (int i = 0; i < 10; i++) {
+      SystemMetric systemMetric = context.newObject(SystemMetric.class);
+      systemMetric.setTimestamp(i < 7 ? NOW.minusDays(40 + i) : NOW.minusDays(i - 7));
+    }
+    context.commitChanges();
+    LocalDateTime cutoff = NOW.minusDays(30);
+
+    // when & then
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.SYSTEM_METRIC, cutoff, 5))
+        .isEqualTo(5);
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.SYSTEM_METRIC, cutoff, 5))
+        .isEqualTo(2);
+    assertThat(repository.deleteExpired(runtime.newContext(), RetentionTarget.SYSTEM_METRIC, cutoff, 5))
+        .isZero();
+    assertThat(ObjectSelect.query(SystemMetric.class).selectCount(runtime.newContext())).isEqualTo(3);
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.easypeelsecurity.springdog.storage.timeseries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.easypeelsecurity.springdog.shared.dto.SystemMetricDto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GorillaSystemMetricStoreTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 10, 1, 0, 0);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Should read back exactly what was appended, across chunks and after reopening")
+  void roundTrip() {
+    List<SystemMetricDto> samples = samples(2_000);
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      samples.forEach(store::append);
+    }
+
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      List<SystemMetricDto> all = store.findRange(START, START.plusYears(1));
+      assertThat(all).hasSize(samples.size());
+      for (int i = 0; i < samples.size(); i++) {
+        assertSameSample(all.get(i), samples.get(i));
+      }
+
+      SystemMetricDto next = sample(START.plusDays(30), 1, 2);
+      store.append(next);
+      assertSameSample(store.findRecent(1).get(0), next);
+    }
+    assertThat(chunkFiles()).hasSizeGreaterThan(1);
+  }
+
+  @Test
+  @DisplayName("Should return the most recent samples newest first and a range oldest first")
+  void recentAndRange() {
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      samples(500).forEach(store::append);
+
+      List<SystemMetricDto> recent = store.findRecent(3);
+      assertThat(recent).extracting(metric -> metric.getTimestamp().truncatedTo(ChronoUnit.MINUTES))
+          .containsExactly(START.plusMinutes(499), START.plusMinutes(498), START.plusMinutes(497));
+
+      List<SystemMetricDto> range = store.findRange(START.plusMinutes(10), START.plusMinutes(20));
+      assertThat(range).hasSize(10);
+      assertThat(range.get(0).getTimestamp()).isBetween(START.plusMinutes(10), START.plusMinutes(11));
+      assertThat(range.get(9).getTimestamp()).isBetween(START.plusMinutes(19), START.plusMinutes(20));
+    }
+  }
+
+  @Test
+  @DisplayName("Should page through a range by id, across chunks, without skipping or repeating a sample")
+  void keysetPages() {
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      List<SystemMetricDto> samples = samples(1_000);
+      samples.forEach(store::append);
+
+      List<SystemMetricDto> exported = new ArrayList<>();
+      long afterId = 0;
+      List<SystemMetricDto> page;
+      do {
+        page = store.findPage(afterId, START, START.plusYears(1), 64);
+        exported.addAll(page);
+        if (!page.isEmpty()) {
+          afterId = page.get(page.size() - 1).getId();
+        }
+      } while (page.size() == 64);
+
+      assertThat(exported).hasSize(samples.size());
+      for (int i = 0; i < samples.size(); i++) {
+        assertSameSample(exported.get(i), samples.get(i));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should give distinct, increasing ids to samples whose timestamp goes back")
+  void clockSetBack() {
+    // the local clock falls back an hour, as at the end of daylight saving time
+    List<SystemMetricDto> samples = List.of(sample(START.plusMinutes(90), 0, 1), sample(START.plusMinutes(150), 1, 2),
+        sample(START.plusMinutes(90), 2, 3), sample(START.plusMinutes(91), 3, 4));
+    long firstId;
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      samples.forEach(store::append);
+
+      List<SystemMetricDto> page = store.findPage(0, START, START.plusYears(1), 64);
+      assertThat(page).extracting(SystemMetricDto::getId).doesNotHaveDuplicates().isSorted();
+      for (int i = 0; i < samples.size(); i++) {
+        assertSameSample(page.get(i), samples.get(i));
+      }
+      firstId = page.get(0).getId();
+      store.changeMemo(firstId, "before the fall-back");
+    }
+
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      store.append(sample(START.plusMinutes(60), 4, 5));
+
+      List<SystemMetricDto> recent = store.findRecent(5);
+      assertThat(recent).extracting(SystemMetricDto::getId)
+          .containsExactly(firstId + 4, firstId + 3, firstId + 2, firstId + 1, firstId);
+      assertThat(recent).extracting(SystemMetricDto::getMemo)
+          .containsExactly(null, null, null, null, "before the fall-back");
+      assertThat(store.contains(firstId + 4)).isTrue();
+      assertThat(store.contains(firstId + 5)).isFalse();
+    }
+  }
+
+  @Test
+  @DisplayName("Should store a sample in a fraction of its raw size")
+  void compression() throws IOException {
+    int count = 10_000;
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 1024 * 1024)) {
+      samples(count).forEach(store::append);
+    }
+
+    TimeSeriesChunk chunk = TimeSeriesChunk.open(chunkFiles().get(0), 8, false);
+    long bytesPerSample = chunk.usedBytes() / count;
+    assertThat(chunk.count()).isEqualTo(count);
+    // eight 64-bit columns and a 64-bit timestamp take 72 bytes uncompressed
+    assertThat(bytesPerSample).isLessThan(72 / 3);
+  }
+
+  @Test
+  @DisplayName("Should keep memos apart from the samples and reject unknown samples")
+  void memo() {
+    long metricId;
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      samples(10).forEach(store::append);
+      metricId = store.findRecent(1).get(0).getId();
+      store.changeMemo(metricId, "deployed v2");
+
+      assertThatThrownBy(() -> store.changeMemo(metricId + 1, "nothing there"))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      assertThat(store.findRecent(1).get(0).getMemo()).isEqualTo("deployed v2");
+      store.changeMemo(metricId, null);
+      assertThat(store.findRecent(1).get(0).getMemo()).isNull();
+    }
+  }
+
+  @Test
+  @DisplayName("Should delete whole chunks that are older than the cutoff")
+  void deleteBefore() throws IOException {
+    try (GorillaSystemMetricStore store = new GorillaSystemMetricStore(directory, 4096)) {
+      samples(2_000).forEach(store::append);
+      int chunksBefore = chunkFiles().size();
+
+      long deleted = store.deleteBefore(START.plusMinutes(1_000));
+
+      List<SystemMetricDto> kept = store.findRange(START, START.plusYears(1));
+      assertThat(deleted).isPositive().isEqualTo(2_000 - kept.size());
+      assertThat(kept.get(0).getTimestamp()).isBefore(START.plusMinutes(1_000));
+      assertThat(kept.get(kept.size() - 1).getTimestamp()).isAfter(START.plusMinutes(1_999));
+      assertThat(chunkFiles()).hasSizeLessThan(chunksBefore);
+    }
+  }
+
+  @Test
+  @DisplayName("Should reject chunks too small to hold samples")
+  void rejectTinyChunks() {
+    assertThatThrownBy(() -> new GorillaSystemMetricStore(directory, 100))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private List<Path> chunkFiles() {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> path.toString().endsWith(".chunk")).sorted().toList();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * One sample a minute with a few milliseconds of scheduling jitter, and values that move the way system
+   * metrics do: percentages with two decimals, and byte counters that grow.
+   */
+  private static List<SystemMetricDto> samples(int count) {
+    Random random = new Random(42);
+    List<SystemMetricDto> samples = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      samples.add(sample(START.plusMinutes(i).plusNanos(random.nextInt(5) * 1_000_000L), i, random.nextInt(100)));
+    }
+    return samples;
+  }
+
+  private static SystemMetricDto sample(LocalDateTime timestamp, int index, int noise) {
+    return SystemMetricDto.builder()
+        .cpuUsagePercent(Math.round(noise * 100.0) / 100.0)
+        .memoryUsagePercent(62.5)
+        .diskUsagePercent(41.0 + index / 1_000)
+        .jvmHeapUsagePercent(30.0 + noise % 10)
+        .jvmNonHeapUsagePercent(12.25)
+        .jvmTotalMemoryUsed(256L * 1024 * 1024)
+        .networkInBytes(1_000_000L + index * 1_500L)
+        .networkOutBytes(2_000_000L + index * 700L)
+        .timestamp(timestamp)
+        .build();
+  }
+
+  private static void assertSameSample(SystemMetricDto actual, SystemMetricDto expected) {
+    assertThat(actual).usingRecursiveComparison().ignoringFields("id").isEqualTo(expected);
+  }
+}